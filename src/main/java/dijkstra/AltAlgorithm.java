@@ -0,0 +1,76 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+/**
+ * One to one A* search, whose lower bounds of the remaining distance to the target node are given by {@link Landmarks}
+ * (A*, landmarks & triangle inequality). The search is drawn towards the target node, so it settles far fewer nodes
+ * than the dijkstra, whereas the preprocessing is much cheaper than the one of a contraction hierarchy.
+ */
+public class AltAlgorithm {
+
+	/**
+	 * Nodes are ordered by their distance plus the lower bound of their distance to the target node. The quantized
+	 * landmark distances make the bounds admissible, but not necessarily consistent, so a node is reopened if a shorter
+	 * path to it is found after it was settled. Therefore, the indexed heap is used, which knows whether it contains a
+	 * node. The search stops once the target node is settled.
+	 *
+	 * @param landmarks    The landmarks of the graph
+	 * @param sourceNodeId The source node ID
+	 * @param targetNodeId The target node ID
+	 * @return The shortest path from source to target node
+	 * @throws IllegalArgumentException If a node ID is out of range, both are equal, the landmarks belong to another graph
+	 *                                  or the target node is not reachable
+	 */
+	public static OneToOnePath dijkstra (final AdjacencyGraph adjacencyGraph, final Landmarks landmarks,
+	                                     final int sourceNodeId, final int targetNodeId) {
+		DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, sourceNodeId, targetNodeId);
+		if (landmarks.getAdjacencyGraph() != adjacencyGraph)
+			throw new IllegalArgumentException("Landmarks were computed for another graph.");
+
+		final long startNanos = SearchStatistics.ENABLED ? System.nanoTime() : 0;
+
+		final int[] activeLandmarks = landmarks.activeLandmarksOf(sourceNodeId, targetNodeId);
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph);
+		final IndexedDaryHeap priorityQ = (IndexedDaryHeap) workspace.getQueue(QueueType.QUATERNARY_HEAP);
+
+		workspace.setDistance(sourceNodeId, 0, -1);
+		priorityQ.insert(sourceNodeId, landmarks.lowerBound(sourceNodeId, targetNodeId, activeLandmarks));
+		workspace.countQueuePush();
+
+		while (!priorityQ.isEmpty()) {
+			final int currentNode = priorityQ.extractMin();
+			workspace.countSettledNode();
+
+			if (currentNode == targetNodeId) {
+				final Path path = new Path(adjacencyGraph, sourceNodeId,
+						adjacencyGraph.getPath(sourceNodeId, targetNodeId, workspace.getPredecessorEdges()));
+				final OneToOnePath oneToOnePath = new OneToOnePath(adjacencyGraph, path);
+				oneToOnePath.setSettledNodeCount(workspace.getSettledNodeCount());
+				if (SearchStatistics.ENABLED) oneToOnePath.setStatistics(workspace.statisticsOf(System.nanoTime() - startNanos));
+				return oneToOnePath;
+			}
+
+			final int currentDistance = workspace.getDistance(currentNode);
+			final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(currentNode);
+			for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(currentNode); edgeId < endEdgeId; edgeId++) {
+				final int nodeN = adjacencyGraph.getTargetOf(edgeId);
+				final int updatedDistanceToNodeN = currentDistance + adjacencyGraph.getDistanceOf(edgeId);
+				workspace.countRelaxedEdge();
+				if (workspace.getDistance(nodeN) <= updatedDistanceToNodeN) continue;
+
+				workspace.setDistance(nodeN, updatedDistanceToNodeN, edgeId);
+				final int estimatedDistance = updatedDistanceToNodeN + landmarks.lowerBound(nodeN, targetNodeId, activeLandmarks);
+				if (priorityQ.contains(nodeN)) {
+					priorityQ.decreaseKey(nodeN, estimatedDistance);
+					workspace.countDecreaseKey();
+				} else {
+					priorityQ.insert(nodeN, estimatedDistance); // WHITE or reopened node
+					workspace.countQueuePush();
+				}
+			}
+		}
+
+		throw new IllegalArgumentException("Target node " + targetNodeId + " is not reachable from source node " + sourceNodeId + ".");
+	}
+}
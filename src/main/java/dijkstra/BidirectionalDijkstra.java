@@ -0,0 +1,220 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+/**
+ * One to one dijkstra, which searches forward from the source node & backward on the reverse graph from the target node
+ * at the same time. Both searches only have to reach about half the distance, so on road networks roughly half of the
+ * nodes of a unidirectional search are settled.
+ */
+public class BidirectionalDijkstra {
+
+	/**
+	 * Executes the bidirectional dijkstra with the default priority queue type.
+	 *
+	 * @see #dijkstra(AdjacencyGraph, QueueType, int, int)
+	 */
+	public static OneToOnePath dijkstra (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int targetNodeId) {
+		return BidirectionalDijkstra.dijkstra(adjacencyGraph, DijkstraAlgorithm.DEFAULT_QUEUE_TYPE, sourceNodeId, targetNodeId);
+	}
+
+	/**
+	 * Calculates the shortest path by {@link #search}.
+	 *
+	 * @param queueType    The priority queue implementation used by both searches
+	 * @param sourceNodeId The source node ID
+	 * @param targetNodeId The target node ID
+	 * @return The shortest path from source to target node
+	 * @throws IllegalArgumentException If a node ID is out of range, both are equal or the target node is not reachable
+	 */
+	public static OneToOnePath dijkstra (final AdjacencyGraph adjacencyGraph, final QueueType queueType,
+	                                     final int sourceNodeId, final int targetNodeId) {
+		DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, sourceNodeId, targetNodeId);
+		final long startNanos = SearchStatistics.ENABLED ? System.nanoTime() : 0;
+
+		// Both directions have their own workspace, so the distances of both searches are kept apart
+		final SearchWorkspace forward = SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.FORWARD);
+		final SearchWorkspace backward = SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.BACKWARD);
+		final int meetingNodeId = BidirectionalDijkstra.search(adjacencyGraph, queueType, forward, backward, sourceNodeId, targetNodeId);
+
+		if (meetingNodeId == -1)
+			throw new IllegalArgumentException("Target node " + targetNodeId + " is not reachable from source node " + sourceNodeId + ".");
+
+		final OneToOnePath oneToOnePath = new OneToOnePath(adjacencyGraph, new Path(adjacencyGraph, sourceNodeId,
+				BidirectionalDijkstra.joinPaths(adjacencyGraph, forward, backward, sourceNodeId, targetNodeId, meetingNodeId)));
+		oneToOnePath.setSettledNodeCount(forward.getSettledNodeCount() + backward.getSettledNodeCount());
+		if (SearchStatistics.ENABLED) {
+			final long elapsedNanos = System.nanoTime() - startNanos;
+			oneToOnePath.setStatistics(forward.statisticsOf(elapsedNanos).plus(backward.statisticsOf(elapsedNanos), elapsedNanos));
+		}
+		return oneToOnePath;
+	}
+
+	/**
+	 * Calculates the distance with the default priority queue type.
+	 *
+	 * @see #distance(AdjacencyGraph, QueueType, int, int)
+	 */
+	public static int distance (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int targetNodeId) {
+		return BidirectionalDijkstra.distance(adjacencyGraph, DijkstraAlgorithm.DEFAULT_QUEUE_TYPE, sourceNodeId, targetNodeId);
+	}
+
+	/**
+	 * Calculates the length of the shortest path only, so neither the path is built nor anything else is allocated,
+	 * once the workspaces & queues of the current thread exist.
+	 *
+	 * @param queueType    The priority queue implementation used by both searches
+	 * @param sourceNodeId The source node ID
+	 * @param targetNodeId The target node ID
+	 * @return The distance from source to target node, 0 if both are equal or {@code Integer.MAX_VALUE}, if the target
+	 * node is not reachable
+	 * @throws IllegalArgumentException If a node ID is out of range
+	 */
+	public static int distance (final AdjacencyGraph adjacencyGraph, final QueueType queueType,
+	                            final int sourceNodeId, final int targetNodeId) {
+		// Checked without the vararg defensive checks, whose array would be allocated per query
+		if (sourceNodeId < 0 || adjacencyGraph.getNodeCount() <= sourceNodeId)
+			throw new IllegalArgumentException("Source node is negative or greater than the maximal node ID.");
+		if (targetNodeId < 0 || adjacencyGraph.getNodeCount() <= targetNodeId)
+			throw new IllegalArgumentException("Target node is negative or greater than the maximum node ID");
+		if (sourceNodeId == targetNodeId) return 0;
+
+		final SearchWorkspace forward = SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.FORWARD);
+		final SearchWorkspace backward = SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.BACKWARD);
+		final int meetingNodeId = BidirectionalDijkstra.search(adjacencyGraph, queueType, forward, backward, sourceNodeId, targetNodeId);
+
+		return (meetingNodeId == -1) ? Integer.MAX_VALUE : forward.getDistance(meetingNodeId) + backward.getDistance(meetingNodeId);
+	}
+
+	/**
+	 * Always expands the search with the smaller queue minimum. Whenever an edge is relaxed to a node the opposite search
+	 * has visited already, the path over this edge is a candidate for the shortest path. Once the sum of both queue minima
+	 * reaches the best candidate, no path via unsettled nodes can be shorter & the search stops.
+	 * <p>
+	 * The distances of the meeting node in both workspaces add up to the shortest distance, because every later decrease
+	 * of one of them would have made it a better candidate again.
+	 *
+	 * @return The node the shortest path leads over or -1, if the target node is not reachable
+	 */
+	private static int search (final AdjacencyGraph adjacencyGraph, final QueueType queueType, final SearchWorkspace forward,
+	                           final SearchWorkspace backward, final int sourceNodeId, final int targetNodeId) {
+		final NodePriorityQueue forwardQ = forward.getQueue(queueType);
+		final NodePriorityQueue backwardQ = backward.getQueue(queueType);
+
+		forward.setDistance(sourceNodeId, 0, -1);
+		forwardQ.insert(sourceNodeId, 0);
+		forward.countQueuePush();
+		backward.setDistance(targetNodeId, 0, -1);
+		backwardQ.insert(targetNodeId, 0);
+		backward.countQueuePush();
+
+		// Length of the best path found so far & the node the forward & backward part of it meet at
+		long shortestDistance = Long.MAX_VALUE;
+		int meetingNodeId = -1;
+
+		while (!forwardQ.isEmpty() && !backwardQ.isEmpty()) {
+			final int forwardMinDistance = forwardQ.peekMinDistance();
+			final int backwardMinDistance = backwardQ.peekMinDistance();
+			if (shortestDistance <= (long) forwardMinDistance + backwardMinDistance) break;
+
+			if (forwardMinDistance <= backwardMinDistance) {
+				final int currentNode = forwardQ.extractMin();
+				if (forward.getDistance(currentNode) < forwardMinDistance) continue; // Outdated entry of a CLOSED node
+				forward.countSettledNode();
+
+				final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(currentNode);
+				for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(currentNode); edgeId < endEdgeId; edgeId++) {
+					final int nodeN = adjacencyGraph.getTargetOf(edgeId);
+					final int updatedDistance = forwardMinDistance + adjacencyGraph.getDistanceOf(edgeId);
+
+					if (BidirectionalDijkstra.relax(forward, forwardQ, nodeN, updatedDistance, edgeId)) {
+						final int oppositeDistance = backward.getDistance(nodeN);
+						if (oppositeDistance != Integer.MAX_VALUE && (long) updatedDistance + oppositeDistance < shortestDistance) {
+							shortestDistance = (long) updatedDistance + oppositeDistance;
+							meetingNodeId = nodeN;
+						}
+					}
+				}
+			} else {
+				final int currentNode = backwardQ.extractMin();
+				if (backward.getDistance(currentNode) < backwardMinDistance) continue;
+				backward.countSettledNode();
+
+				// Incoming edges of the current node are the outgoing edges of the reverse graph
+				final int endIndex = adjacencyGraph.getEndIncomingIndexOf(currentNode);
+				for (int index = adjacencyGraph.getFirstIncomingIndexOf(currentNode); index < endIndex; index++) {
+					final int edgeId = adjacencyGraph.getIncomingEdgeIdAt(index);
+					final int nodeN = adjacencyGraph.getSourceOf(edgeId);
+					final int updatedDistance = backwardMinDistance + adjacencyGraph.getDistanceOf(edgeId);
+
+					if (BidirectionalDijkstra.relax(backward, backwardQ, nodeN, updatedDistance, edgeId)) {
+						final int oppositeDistance = forward.getDistance(nodeN);
+						if (oppositeDistance != Integer.MAX_VALUE && (long) updatedDistance + oppositeDistance < shortestDistance) {
+							shortestDistance = (long) updatedDistance + oppositeDistance;
+							meetingNodeId = nodeN;
+						}
+					}
+				}
+			}
+		}
+		return meetingNodeId;
+	}
+
+	/**
+	 * Sets the distance of node N, if the updated distance is better, and inserts it to the queue or decreases its distance.
+	 *
+	 * @return True, if the distance of node N was updated
+	 */
+	private static boolean relax (final SearchWorkspace workspace, final NodePriorityQueue priorityQ, final int nodeN,
+	                              final int updatedDistance, final int edgeId) {
+		final int oldDistance = workspace.getDistance(nodeN);
+		workspace.countRelaxedEdge();
+		if (oldDistance <= updatedDistance) return false;
+
+		workspace.setDistance(nodeN, updatedDistance, edgeId);
+		if (oldDistance == Integer.MAX_VALUE) {
+			priorityQ.insert(nodeN, updatedDistance);
+			workspace.countQueuePush();
+		} else {
+			priorityQ.decreaseKey(nodeN, updatedDistance);
+			workspace.countDecreaseKey();
+		}
+		return true;
+	}
+
+	/**
+	 * The forward path from the source to the meeting node is built by the predecessor edges like a unidirectional path,
+	 * the backward predecessor edge of a node is the edge leading from it towards the target node.
+	 *
+	 * @return The edge IDs of the whole path from source to target node
+	 */
+	private static int[] joinPaths (final AdjacencyGraph adjacencyGraph, final SearchWorkspace forward,
+	                                final SearchWorkspace backward, final int sourceNodeId, final int targetNodeId,
+	                                final int meetingNodeId) {
+		final int[] forwardPredecessorEdges = forward.getPredecessorEdges();
+		final int[] backwardPredecessorEdges = backward.getPredecessorEdges();
+
+		// Both halves are counted first, so the path is filled into an array of its exact size
+		int forwardEdgeCount = 0;
+		for (int nodeId = meetingNodeId; nodeId != sourceNodeId; nodeId = adjacencyGraph.getSourceOf(forwardPredecessorEdges[nodeId])) {
+			forwardEdgeCount++;
+		}
+		int edgeCount = forwardEdgeCount;
+		for (int nodeId = meetingNodeId; nodeId != targetNodeId; nodeId = adjacencyGraph.getTargetOf(backwardPredecessorEdges[nodeId])) {
+			edgeCount++;
+		}
+
+		final int[] path = new int[edgeCount];
+		for (int nodeId = meetingNodeId, i = forwardEdgeCount; nodeId != sourceNodeId; ) {
+			final int edgeId = forwardPredecessorEdges[nodeId];
+			path[--i] = edgeId;
+			nodeId = adjacencyGraph.getSourceOf(edgeId);
+		}
+		for (int nodeId = meetingNodeId, i = forwardEdgeCount; nodeId != targetNodeId; ) {
+			final int edgeId = backwardPredecessorEdges[nodeId];
+			path[i++] = edgeId;
+			nodeId = adjacencyGraph.getTargetOf(edgeId);
+		}
+		return path;
+	}
+}
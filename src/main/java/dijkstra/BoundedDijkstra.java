@@ -0,0 +1,61 @@
+package dijkstra;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import struct.AdjacencyGraph;
+
+/**
+ * One to all dijkstra, which stops at a distance budget. Nodes beyond the budget are never queued, so the search only
+ * touches the nodes within the radius & their outgoing edges instead of the whole graph, e.g. for isochrones.
+ */
+public class BoundedDijkstra {
+
+	/**
+	 * @param sourceNodeId The source node ID
+	 * @param maxDistance  The distance budget, which is inclusive
+	 * @return The nodes reachable from the source node within the distance budget
+	 * @throws IllegalArgumentException If the source node is out of range or the budget is negative
+	 */
+	public static ReachableNodes withinDistance (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int maxDistance) {
+		DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, sourceNodeId);
+		if (maxDistance < 0)
+			throw new IllegalArgumentException("Distance budget must not be negative, but is " + maxDistance + ".");
+
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph);
+		final NodePriorityQueue priorityQ = workspace.getQueue(DijkstraAlgorithm.DEFAULT_QUEUE_TYPE);
+		final IntArrayList settledNodeIds = new IntArrayList();
+		final IntArrayList settledDistances = new IntArrayList();
+
+		workspace.setDistance(sourceNodeId, 0, -1);
+		priorityQ.insert(sourceNodeId, 0);
+		while (!priorityQ.isEmpty()) {
+			final int currentDistance = priorityQ.peekMinDistance();
+			final int currentNode = priorityQ.extractMin();
+			if (workspace.getDistance(currentNode) < currentDistance) continue; // Outdated entry of an already CLOSED node
+
+			settledNodeIds.add(currentNode);
+			settledDistances.add(currentDistance);
+
+			final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(currentNode);
+			for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(currentNode); edgeId < endEdgeId; edgeId++) {
+				// Compared by the remaining budget, so the sum can't overflow
+				final int edgeDistance = adjacencyGraph.getDistanceOf(edgeId);
+				if (maxDistance - currentDistance < edgeDistance) continue;
+
+				final int nodeN = adjacencyGraph.getTargetOf(edgeId);
+				final int updatedDistanceToNodeN = currentDistance + edgeDistance;
+				final int oldDistanceToNodeN = workspace.getDistance(nodeN);
+
+				if (updatedDistanceToNodeN < oldDistanceToNodeN) {
+					workspace.setDistance(nodeN, updatedDistanceToNodeN, edgeId);
+					if (oldDistanceToNodeN == Integer.MAX_VALUE) {
+						priorityQ.insert(nodeN, updatedDistanceToNodeN);
+					} else {
+						priorityQ.decreaseKey(nodeN, updatedDistanceToNodeN);
+					}
+				}
+			}
+		}
+
+		return new ReachableNodes(sourceNodeId, maxDistance, settledNodeIds.toIntArray(), settledDistances.toIntArray());
+	}
+}
@@ -0,0 +1,258 @@
+package dijkstra;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import struct.AdjacencyGraph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Parallel one to all search by delta stepping (Meyer & Sanders). Nodes are kept in buckets of distance width delta
+ * instead of a priority queue & all nodes of the current bucket are expanded in parallel. A light edge (distance at most
+ * delta) may lower the distance of a node of the current bucket, which is expanded again then, until the bucket stays
+ * empty. Heavy edges can only reach later buckets, so they are relaxed once per node after its bucket is done.
+ * <p>
+ * A small delta approaches the dijkstra with little parallelism, a big one approaches Bellman-Ford with many repeated
+ * relaxations. The result is the same {@link OneToAllResult} the {@link DijkstraAlgorithm} creates, though the
+ * predecessor of a node may be another one of the same distance.
+ */
+public final class DeltaStepping {
+
+	// Encoded as long (int distance, int predecessor edge ID), so both are updated by one compare and set
+	private static final VarHandle DISTANCE_EDGES = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final long UNVISITED = Long.MAX_VALUE;  // Distance Integer.MAX_VALUE & predecessor edge -1
+
+	// Count of nodes a task expands at least, smaller frontiers aren't worth splitting
+	private static final int MIN_TASK_NODES = 256;
+
+	// Delta is the mean edge distance times this factor by default, testing says a few edges per bucket pay off
+	private static final int DEFAULT_DELTA_FACTOR = 4;
+
+	private DeltaStepping () {
+	}
+
+	/**
+	 * Executes the delta stepping on the common pool with the default delta.
+	 *
+	 * @see #dijkstra(AdjacencyGraph, ForkJoinPool, int, int)
+	 */
+	public static OneToAllResult dijkstra (final AdjacencyGraph adjacencyGraph, final int sourceNodeId) {
+		return DeltaStepping.dijkstra(adjacencyGraph, ForkJoinPool.commonPool(), DeltaStepping.defaultDeltaOf(adjacencyGraph), sourceNodeId);
+	}
+
+	/**
+	 * @param pool         The pool the buckets are expanded on, its parallelism is the count of used cores
+	 * @param delta        The distance width of a bucket, at least 1
+	 * @param sourceNodeId The source node ID
+	 * @return The shortest paths from the source node to all nodes
+	 * @throws IllegalArgumentException If the source node is out of range or delta isn't positive
+	 */
+	public static OneToAllResult dijkstra (final AdjacencyGraph adjacencyGraph, final ForkJoinPool pool, final int delta,
+	                                       final int sourceNodeId) {
+		DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, sourceNodeId);
+		if (delta < 1)
+			throw new IllegalArgumentException("Delta must be positive, but is " + delta + ".");
+
+		final Search search = new Search(adjacencyGraph, pool, delta);
+		search.run(sourceNodeId);
+		return new OneToAllResult(adjacencyGraph, search.distances(pool), search.predecessorEdges(pool), sourceNodeId);
+	}
+
+	/**
+	 * @return The default delta, a few times the mean edge distance of the graph
+	 */
+	public static int defaultDeltaOf (final AdjacencyGraph adjacencyGraph) {
+		if (adjacencyGraph.getEdgeCount() == 0) return 1;
+
+		final long distanceSum = IntStream.range(0, adjacencyGraph.getEdgeCount()).parallel()
+				.mapToLong(adjacencyGraph::getDistanceOf).sum();
+		return (int) Math.max(1, Math.min(Integer.MAX_VALUE, DEFAULT_DELTA_FACTOR * distanceSum / adjacencyGraph.getEdgeCount()));
+	}
+
+	/**
+	 * The state of one delta stepping run. Distances are written concurrently by compare and set, whereas the buckets
+	 * are only modified between the parallel phases.
+	 */
+	private static final class Search {
+		private final AdjacencyGraph adjacencyGraph;
+		private final ForkJoinPool pool;
+		private final int delta;
+		private final long[] distanceEdges;
+
+		// Cyclic, because all queued distances lie within delta + the maximal edge distance of the current bucket
+		private final IntArrayList[] buckets;
+		private int queuedNodeCount;
+
+		// The distance a node was expanded with last, so it isn't expanded twice with the same distance
+		private final int[] expandedDistances;
+
+		Search (final AdjacencyGraph adjacencyGraph, final ForkJoinPool pool, final int delta) {
+			this.adjacencyGraph = adjacencyGraph;
+			this.pool = pool;
+			this.delta = delta;
+			this.distanceEdges = new long[adjacencyGraph.getNodeCount()];
+			Arrays.fill(this.distanceEdges, UNVISITED);
+			this.expandedDistances = new int[adjacencyGraph.getNodeCount()];
+			Arrays.fill(this.expandedDistances, -1);
+			this.buckets = new IntArrayList[adjacencyGraph.getMaxDistance() / delta + 2];
+		}
+
+		void run (final int sourceNodeId) {
+			this.distanceEdges[sourceNodeId] = (long) -1 & 0xFFFF_FFFFL;
+			this.enqueue(sourceNodeId);
+
+			final IntArrayList settledNodes = new IntArrayList();
+			for (int bucketIndex = 0; 0 < this.queuedNodeCount; bucketIndex++) {
+				// Light edges may refill the current bucket, so it's expanded until it stays empty
+				int[] frontier;
+				while ((frontier = this.takeFrontier(bucketIndex)).length != 0) {
+					settledNodes.addElements(settledNodes.size(), frontier);
+					this.enqueueAll(this.pool.invoke(new RelaxTask(this, frontier, 0, frontier.length, true)));
+				}
+
+				// The bucket is settled for good now, so its nodes' heavy edges are relaxed once
+				if (!settledNodes.isEmpty()) {
+					final int[] settled = settledNodes.toIntArray();
+					settledNodes.clear();
+					this.enqueueAll(this.pool.invoke(new RelaxTask(this, settled, 0, settled.length, false)));
+				}
+			}
+		}
+
+		/**
+		 * Takes all nodes of the bucket, which still belong to it & weren't expanded with their current distance yet.
+		 */
+		private int[] takeFrontier (final int bucketIndex) {
+			final IntArrayList bucket = this.buckets[bucketIndex % this.buckets.length];
+			if (bucket == null || bucket.isEmpty()) return new int[0];
+
+			final IntArrayList frontier = new IntArrayList(bucket.size());
+			for (int i = 0; i < bucket.size(); i++) {
+				final int nodeId = bucket.getInt(i);
+				final int distance = this.getDistance(nodeId);
+				if (distance / this.delta == bucketIndex && this.expandedDistances[nodeId] != distance) {
+					this.expandedDistances[nodeId] = distance;
+					frontier.add(nodeId);
+				}
+			}
+			this.queuedNodeCount -= bucket.size();
+			bucket.clear();
+			return frontier.toIntArray();
+		}
+
+		private void enqueueAll (final IntArrayList nodeIds) {
+			for (int i = 0; i < nodeIds.size(); i++) {
+				this.enqueue(nodeIds.getInt(i));
+			}
+		}
+
+		/**
+		 * Adds the node to the bucket of its current distance. Outdated entries in other buckets are skipped later.
+		 */
+		private void enqueue (final int nodeId) {
+			final int bucketSlot = (this.getDistance(nodeId) / this.delta) % this.buckets.length;
+			IntArrayList bucket = this.buckets[bucketSlot];
+			if (bucket == null) bucket = this.buckets[bucketSlot] = new IntArrayList();
+			bucket.add(nodeId);
+			this.queuedNodeCount++;
+		}
+
+		private int getDistance (final int nodeId) {
+			return (int) ((long) DISTANCE_EDGES.getOpaque(this.distanceEdges, nodeId) >>> 32);
+		}
+
+		/**
+		 * Lowers the distance of node N, if the updated distance is better, by compare and set.
+		 *
+		 * @return True, if this call lowered the distance
+		 */
+		private boolean relax (final int nodeN, final int updatedDistance, final int edgeId) {
+			final long updatedDistanceEdge = ((long) updatedDistance << 32) | (edgeId & 0xFFFF_FFFFL);
+			long distanceEdge = (long) DISTANCE_EDGES.getVolatile(this.distanceEdges, nodeN);
+			while (updatedDistance < (int) (distanceEdge >>> 32)) {
+				final long witness = (long) DISTANCE_EDGES.compareAndExchange(this.distanceEdges, nodeN, distanceEdge, updatedDistanceEdge);
+				if (witness == distanceEdge) return true;
+				distanceEdge = witness;
+			}
+			return false;
+		}
+
+		/**
+		 * @return The predecessor edges, whereas nodes not reached & the source node have the predecessor edge -1
+		 */
+		int[] predecessorEdges (final ForkJoinPool pool) {
+			final int[] predecessorEdges = new int[this.distanceEdges.length];
+			pool.submit(() -> IntStream.range(0, predecessorEdges.length).parallel()
+					.forEach(nodeId -> predecessorEdges[nodeId] = (int) this.distanceEdges[nodeId])).join();
+			return predecessorEdges;
+		}
+
+		/**
+		 * @return The distances, whereas nodes not reached have the distance {@code Integer.MAX_VALUE}
+		 */
+		int[] distances (final ForkJoinPool pool) {
+			final int[] distances = new int[this.distanceEdges.length];
+			pool.submit(() -> IntStream.range(0, distances.length).parallel()
+					.forEach(nodeId -> distances[nodeId] = (int) (this.distanceEdges[nodeId] >>> 32))).join();
+			return distances;
+		}
+	}
+
+	/**
+	 * Relaxes either the light or the heavy edges of a range of nodes & returns the nodes it lowered the distance of,
+	 * which may contain duplicates.
+	 */
+	@SuppressWarnings("serial")  // Never serialized
+	private static final class RelaxTask extends RecursiveTask<IntArrayList> {
+		private final Search search;
+		private final int[] nodeIds;
+		private final int from;
+		private final int to;
+		private final boolean lightEdges;
+
+		RelaxTask (final Search search, final int[] nodeIds, final int from, final int to, final boolean lightEdges) {
+			this.search = search;
+			this.nodeIds = nodeIds;
+			this.from = from;
+			this.to = to;
+			this.lightEdges = lightEdges;
+		}
+
+		@Override
+		protected IntArrayList compute () {
+			if (this.to - this.from <= MIN_TASK_NODES) return this.relaxEdges();
+
+			final int middle = (this.from + this.to) >>> 1;
+			final RelaxTask left = new RelaxTask(this.search, this.nodeIds, this.from, middle, this.lightEdges);
+			left.fork();
+			final IntArrayList updatedNodes = new RelaxTask(this.search, this.nodeIds, middle, this.to, this.lightEdges).compute();
+			updatedNodes.addAll(left.join());
+			return updatedNodes;
+		}
+
+		private IntArrayList relaxEdges () {
+			final AdjacencyGraph adjacencyGraph = this.search.adjacencyGraph;
+			final int delta = this.search.delta;
+			final IntArrayList updatedNodes = new IntArrayList();
+
+			for (int i = this.from; i < this.to; i++) {
+				final int nodeId = this.nodeIds[i];
+				final int distance = this.search.getDistance(nodeId);
+
+				final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(nodeId);
+				for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(nodeId); edgeId < endEdgeId; edgeId++) {
+					final int edgeDistance = adjacencyGraph.getDistanceOf(edgeId);
+					if ((edgeDistance <= delta) != this.lightEdges) continue;
+
+					final int nodeN = adjacencyGraph.getTargetOf(edgeId);
+					if (this.search.relax(nodeN, distance + edgeDistance, edgeId)) updatedNodes.add(nodeN);
+				}
+			}
+			return updatedNodes;
+		}
+	}
+}
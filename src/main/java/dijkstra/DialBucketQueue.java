@@ -0,0 +1,95 @@
+package dijkstra;
+
+import java.util.Arrays;
+
+/**
+ * Dial's bucket queue: a cyclic array of maximal edge distance + 1 buckets, whereas bucket {@code d % bucketCount} holds
+ * the node IDs with distance d. Due to the monotony all contained distances lie in
+ * [current distance, current distance + maximal edge distance], so the distance is implied by the bucket & not stored.
+ * Decreasing a distance inserts the node again, the outdated entry is returned later with its outdated distance.
+ */
+public final class DialBucketQueue implements NodePriorityQueue {
+	// More buckets would mostly be empty & the cyclic scan over them too slow, a heap fits better for such graphs
+	static final int MAX_BUCKET_COUNT = 1 << 24;
+	private static final int INITIAL_BUCKET_CAPACITY = 8;
+
+	private final int[][] buckets;  // Allocated on first use
+	private final int[] bucketSizes;
+	private int size;
+	private int currentDistance;
+
+	/**
+	 * @param maxEdgeDistance The maximal distance of a single edge of the graph
+	 * @throws IllegalArgumentException If the maximal edge distance would need too many buckets
+	 */
+	public DialBucketQueue (final int maxEdgeDistance) {
+		if (maxEdgeDistance < 0 || MAX_BUCKET_COUNT <= maxEdgeDistance)
+			throw new IllegalArgumentException("Maximal edge distance " + maxEdgeDistance + " is out of the range Dial buckets are suited for.");
+
+		this.buckets = new int[maxEdgeDistance + 1][];
+		this.bucketSizes = new int[maxEdgeDistance + 1];
+	}
+
+	@Override
+	public boolean isEmpty () {
+		return this.size == 0;
+	}
+
+	@Override
+	public void insert (final int nodeId, final int distance) {
+		assert this.currentDistance <= distance && distance - this.currentDistance < this.buckets.length :
+				"Distance must lie in the range of current distance + maximal edge distance.";
+
+		final int bucketIndex = distance % this.buckets.length;
+		int[] bucket = this.buckets[bucketIndex];
+		if (bucket == null) {
+			bucket = this.buckets[bucketIndex] = new int[INITIAL_BUCKET_CAPACITY];
+		} else if (this.bucketSizes[bucketIndex] == bucket.length) {
+			bucket = this.buckets[bucketIndex] = Arrays.copyOf(bucket, bucket.length << 1);
+		}
+		bucket[this.bucketSizes[bucketIndex]++] = nodeId;
+		this.size++;
+	}
+
+	@Override
+	public void decreaseKey (final int nodeId, final int distance) {
+		this.insert(nodeId, distance);
+	}
+
+	@Override
+	public int peekMinDistance () {
+		this.skipEmptyBuckets();
+		return this.currentDistance;
+	}
+
+	@Override
+	public int extractMin () {
+		final int bucketIndex = this.skipEmptyBuckets();
+		this.size--;
+		return this.buckets[bucketIndex][--this.bucketSizes[bucketIndex]];
+	}
+
+	@Override
+	public void clear () {
+		// Buckets are only left non-empty by a search stopped early
+		if (0 < this.size) Arrays.fill(this.bucketSizes, 0);
+		this.size = 0;
+		this.currentDistance = 0;
+	}
+
+	/**
+	 * Advances the current distance to the first non-empty bucket.
+	 *
+	 * @return The index of that bucket
+	 */
+	private int skipEmptyBuckets () {
+		assert !this.isEmpty();
+
+		int bucketIndex = this.currentDistance % this.buckets.length;
+		while (this.bucketSizes[bucketIndex] == 0) {
+			this.currentDistance++;
+			if (++bucketIndex == this.buckets.length) bucketIndex = 0;
+		}
+		return bucketIndex;
+	}
+}
@@ -3,9 +3,7 @@ package dijkstra;
 import struct.AdjacencyGraph;
 
 import javax.naming.OperationNotSupportedException;
-import java.awt.geom.Point2D;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Optional;
 
 /**
  * Classes implementing this interface represents the result of a {@code DijkstraAlgorithm}.
@@ -13,6 +11,8 @@ import java.util.Deque;
  */
 public abstract class DijkstraResult {
 	protected final AdjacencyGraph adjacencyGraph;
+	private int settledNodeCount;
+	private SearchStatistics statistics;
 
 	protected DijkstraResult (final AdjacencyGraph adjacencyGraph) {
 		assert adjacencyGraph != null;
@@ -29,13 +29,12 @@ public abstract class DijkstraResult {
 	 * @return The path to the specified node ID, if this is a {@link OneToAllResult}
 	 * @throws OperationNotSupportedException Thrown if the (dynamic) type of this object is not a {@link OneToAllResult}
 	 */
-	public Deque<Integer> getPathTo (final int targetNodeId) throws OperationNotSupportedException
+	public Path getPathTo (final int targetNodeId) throws OperationNotSupportedException
 	{throw new OperationNotSupportedException("This operation is only executable for oneToAll typed DijkstraResults");}
 
 	/**
 	 * If the (dynamic) type of the called object is a {@link OneToOnePath} this method returns the length of the path
 	 * by summing up all edge IDs lengths. Else an exception is thrown.
-	 * The method calls the getLengthOf method internally.
 	 *
 	 * @return The {@link OneToOnePath} length
 	 * @throws OperationNotSupportedException If the (dynamic) type of the object is not {@link OneToOnePath}
@@ -44,35 +43,34 @@ public abstract class DijkstraResult {
 	{throw new OperationNotSupportedException("This operation is only executable for oneToOne typed DijkstraResults");}
 
 	/**
-	 * Used for the calculation of the path length from a given path by using edge lengths saved in an adjacency graph &
-	 * a path containing edge IDs.
+	 * If the (dynamic) type of the called object is a {@link OneToOnePath} this method returns its path. Else an
+	 * exception is thrown.
 	 *
-	 * @param path The path consisting of edge IDs
-	 * @return The length of all edge IDs summed up
+	 * @return The {@link OneToOnePath} path
+	 * @throws OperationNotSupportedException If the (dynamic) type of the object is not {@link OneToOnePath}
 	 */
-	public int getLengthOf(final Deque<Integer> path)
-	{
-		int distance = 0;
-		for (Integer edgeId : path) {
-			distance += this.adjacencyGraph.getDistanceOf(edgeId);
-		}
+	public Path getPath () throws OperationNotSupportedException
+	{throw new OperationNotSupportedException("This operation is only executable for oneToOne typed DijkstraResults");}
 
-		return distance;
+	/**
+	 * @return The count of nodes the search settled, which measures its search space, or 0 if it was not counted
+	 */
+	public int getSettledNodeCount () {
+		return this.settledNodeCount;
 	}
 
-	public ArrayList<Point2D.Double> getPathInCoordinates (final Deque<Integer> path) throws OperationNotSupportedException
-	{
-		ArrayList<Point2D.Double> result = new ArrayList<>(path.size() + 1);
-
-		int firstEdge = path.peek();
-		Point2D.Double sourceNodesCoords = this.adjacencyGraph.getEdgeIdsNode(firstEdge, false);
-		result.add(sourceNodesCoords);
+	void setSettledNodeCount (final int settledNodeCount) {
+		this.settledNodeCount = settledNodeCount;
+	}
 
-		// Add the remaining edgesIds target nodes to get a list of edge node coordinates
-		for (int edgeId : path) {
-			result.add(this.adjacencyGraph.getEdgeIdsNode(edgeId, true));
-		}
+	/**
+	 * @return The search space of the search, if the {@link SearchStatistics} are enabled & the search counts them
+	 */
+	public Optional<SearchStatistics> getStatistics () {
+		return Optional.ofNullable(this.statistics);
+	}
 
-		return result;
+	void setStatistics (final SearchStatistics statistics) {
+		this.statistics = statistics;
 	}
 }
@@ -0,0 +1,149 @@
+package dijkstra;
+
+import java.util.Arrays;
+
+/**
+ * A d-ary min heap of node IDs keyed by their (non-negative) distance, which knows the heap position of every node.
+ * This allows a true decrease key in O(log n) instead of searching the node in the heap array.
+ * Every entry is encoded as long (int distance, int nodeID), so the heap array holds primitives only & two entries are
+ * compared by a single long comparison.
+ */
+public final class IndexedDaryHeap implements NodePriorityQueue {
+	private static final int NOT_CONTAINED = -1;
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final int arity;
+	private final int[] positions;  // Heap index of every node ID or NOT_CONTAINED
+	private long[] heap;
+	private int size;
+
+	/**
+	 * @param nodeCount The count of node IDs this heap may contain
+	 * @param arity     The count of children per heap node, usually 2 or 4
+	 */
+	public IndexedDaryHeap (final int nodeCount, final int arity) {
+		if (arity < 2) throw new IllegalArgumentException("Arity of heap must be at least 2.");
+
+		this.arity = arity;
+		this.positions = new int[nodeCount];
+		Arrays.fill(this.positions, NOT_CONTAINED);
+		this.heap = new long[Math.min(Math.max(nodeCount, 1), INITIAL_CAPACITY)];
+	}
+
+	@Override
+	public boolean isEmpty () {
+		return this.size == 0;
+	}
+
+	public int size () {
+		return this.size;
+	}
+
+	public boolean contains (final int nodeId) {
+		return this.positions[nodeId] != NOT_CONTAINED;
+	}
+
+	@Override
+	public void insert (final int nodeId, final int distance) {
+		assert !this.contains(nodeId) : "Node " + nodeId + " is already contained in the heap.";
+		assert 0 <= distance : "Distance must not be negative.";
+
+		if (this.size == this.heap.length) {
+			this.heap = Arrays.copyOf(this.heap, this.heap.length << 1);
+		}
+		this.siftUp(this.size++, encode(nodeId, distance));
+	}
+
+	/**
+	 * Sifts the node up from its current heap position, so no outdated entry is left behind.
+	 */
+	@Override
+	public void decreaseKey (final int nodeId, final int distance) {
+		assert this.contains(nodeId) : "Node " + nodeId + " is not contained in the heap.";
+		assert distance <= (int) (this.heap[this.positions[nodeId]] >>> 32) : "Distance of node " + nodeId + " would increase.";
+
+		this.siftUp(this.positions[nodeId], encode(nodeId, distance));
+	}
+
+	@Override
+	public int peekMinDistance () {
+		assert !this.isEmpty();
+		return (int) (this.heap[0] >>> 32);
+	}
+
+	@Override
+	public int extractMin () {
+		assert !this.isEmpty();
+
+		final int minNodeId = (int) this.heap[0];
+		this.positions[minNodeId] = NOT_CONTAINED;
+
+		final long last = this.heap[--this.size];
+		if (0 < this.size) this.siftDown(0, last);
+
+		return minNodeId;
+	}
+
+	/**
+	 * Removes all entries in O(size) by resetting their positions only.
+	 */
+	@Override
+	public void clear () {
+		for (int i = 0; i < this.size; i++) {
+			this.positions[(int) this.heap[i]] = NOT_CONTAINED;
+		}
+		this.size = 0;
+	}
+
+	/**
+	 * Moves the hole at the heap index up until the parent entry is not greater than the entry & places it there.
+	 */
+	private void siftUp (int index, final long entry) {
+		while (0 < index) {
+			final int parentIndex = (index - 1) / this.arity;
+			final long parent = this.heap[parentIndex];
+			if (parent <= entry) break;
+
+			this.heap[index] = parent;
+			this.positions[(int) parent] = index;
+			index = parentIndex;
+		}
+		this.heap[index] = entry;
+		this.positions[(int) entry] = index;
+	}
+
+	/**
+	 * Moves the hole at the heap index down until no child entry is smaller than the entry & places it there.
+	 */
+	private void siftDown (int index, final long entry) {
+		while (true) {
+			final int firstChildIndex = index * this.arity + 1;
+			if (this.size <= firstChildIndex) break;
+
+			// Determining the smallest child
+			final int endChildIndex = Math.min(firstChildIndex + this.arity, this.size);
+			int minChildIndex = firstChildIndex;
+			long minChild = this.heap[firstChildIndex];
+			for (int childIndex = firstChildIndex + 1; childIndex < endChildIndex; childIndex++) {
+				if (this.heap[childIndex] < minChild) {
+					minChild = this.heap[childIndex];
+					minChildIndex = childIndex;
+				}
+			}
+			if (entry <= minChild) break;
+
+			this.heap[index] = minChild;
+			this.positions[(int) minChild] = index;
+			index = minChildIndex;
+		}
+		this.heap[index] = entry;
+		this.positions[(int) entry] = index;
+	}
+
+	/**
+	 * Distance in the upper 32 bit, so comparing entries compares distances first. Both values are non-negative.
+	 */
+	private static long encode (final int nodeId, final int distance) {
+		return ((long) distance << 32) | nodeId;
+	}
+}
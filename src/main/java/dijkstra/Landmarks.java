@@ -0,0 +1,493 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * The distance tables of a few landmark nodes, which give {@link AltAlgorithm} lower bounds of the distance between any
+ * two nodes by the triangle inequality: {@code d(v, t) >= d(L, t) - d(L, v)} & {@code d(v, t) >= d(v, L) - d(t, L)}.
+ * <p>
+ * The distances from & to every landmark are stored node major, so the bounds of a node are read from one cache line.
+ * To keep the tables small every distance is stored as {@code char} in units of the landmark's scale, which is chosen so
+ * the landmark's largest distance fits. Rounding the distances down only makes the bounds weaker, never inadmissible.
+ * <p>
+ * The tables are stored by {@link #write} next to the graph file with a header like a {@code loader.GraphSnapshot}.
+ */
+public final class Landmarks {
+	private static final long MAGIC = 0x5050_4C41_4E44_4D4BL; // "PPLANDMK"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+
+	// The largest stored distance unit, the maximal char value marks nodes not connected to the landmark
+	private static final int MAX_UNITS = Character.MAX_VALUE - 1;
+	private static final char UNREACHABLE = Character.MAX_VALUE;
+	// Entries of a distance table, which is indexed by int, so node count * landmark count must not exceed it
+	private static final long MAX_TABLE_SIZE = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Count of the landmarks {@link AltAlgorithm} uses per query, the ones giving the best bound between source & target.
+	 */
+	static final int ACTIVE_LANDMARKS = 4;
+
+	/**
+	 * Count of the landmarks, if nothing else is specified. 16 landmarks need 64 bytes per node.
+	 */
+	public static final int DEFAULT_LANDMARK_COUNT = 16;
+
+	/**
+	 * How landmarks are picked. Good landmarks lie "behind" the source or target node of many queries, so they are picked
+	 * at the border of the graph & spread around it.
+	 */
+	public enum Selection {
+		/**
+		 * Every landmark is the node farthest away from the landmarks picked before, which costs one search per landmark,
+		 * but adapts to the shape of the graph.
+		 */
+		FARTHEST,
+		/**
+		 * The plane is divided into equal sectors around the center of the graph & the node farthest from the center is
+		 * picked in every sector. Needs no search, but only works well for graphs of roughly round shape.
+		 */
+		PLANAR
+	}
+
+	private final AdjacencyGraph adjacencyGraph;
+	private final int[] landmarkNodeIds;
+	private final int[] scales;
+	private final char[] distancesFrom;  // d(landmark, node) at [node * landmarkCount + landmark]
+	private final char[] distancesTo;    // d(node, landmark) at [node * landmarkCount + landmark]
+
+	private Landmarks (final AdjacencyGraph adjacencyGraph, final int[] landmarkNodeIds, final int[] scales,
+	                   final char[] distancesFrom, final char[] distancesTo) {
+		this.adjacencyGraph = adjacencyGraph;
+		this.landmarkNodeIds = landmarkNodeIds;
+		this.scales = scales;
+		this.distancesFrom = distancesFrom;
+		this.distancesTo = distancesTo;
+	}
+
+	/**
+	 * Picks the landmarks & computes their distance tables by one forward & one backward search per landmark. The
+	 * searches of different landmarks are executed in parallel, if the selection allows for it.
+	 *
+	 * @param landmarkCount The count of landmarks, the graph is required to have at least as many nodes
+	 * @param selection     How the landmarks are picked
+	 * @return The landmarks of the graph
+	 * @throws IllegalArgumentException If the landmark count is not positive, exceeds the node count or the distance
+	 *                                  tables of node count * landmark count entries exceed an array
+	 */
+	public static Landmarks compute (final AdjacencyGraph adjacencyGraph, final int landmarkCount, final Selection selection) {
+		if (landmarkCount < 1 || adjacencyGraph.getNodeCount() < landmarkCount)
+			throw new IllegalArgumentException("Landmark count " + landmarkCount + " is not in range of the " +
+					adjacencyGraph.getNodeCount() + " nodes.");
+		if (MAX_TABLE_SIZE < (long) adjacencyGraph.getNodeCount() * landmarkCount)
+			throw new IllegalArgumentException("Landmark count " + landmarkCount + " exceeds the maximum of " +
+					MAX_TABLE_SIZE / adjacencyGraph.getNodeCount() + " landmarks of the " + adjacencyGraph.getNodeCount() + " nodes.");
+
+		final int nodeCount = adjacencyGraph.getNodeCount();
+		final int[] scales = new int[landmarkCount];
+		final char[] distancesFrom = new char[nodeCount * landmarkCount];
+		final char[] distancesTo = new char[nodeCount * landmarkCount];
+		final int[] landmarkNodeIds;
+
+		if (selection == Selection.FARTHEST) {
+			landmarkNodeIds = new int[landmarkCount];
+
+			// The first landmark is the node farthest from an arbitrary node, which is then forgotten
+			int[] forwardDistances = Landmarks.distancesOf(adjacencyGraph, 0, SearchDirection.FORWARD);
+			landmarkNodeIds[0] = Landmarks.farthestNodeOf(forwardDistances, 0);
+
+			// Distance of every node to its nearest landmark, the next landmark is the node with the largest one
+			final int[] nearestLandmarkDistances = new int[nodeCount];
+			Arrays.fill(nearestLandmarkDistances, Integer.MAX_VALUE);
+			for (int landmark = 0; landmark < landmarkCount; landmark++) {
+				forwardDistances = Landmarks.distancesOf(adjacencyGraph, landmarkNodeIds[landmark], SearchDirection.FORWARD);
+				final int[] backwardDistances = Landmarks.distancesOf(adjacencyGraph, landmarkNodeIds[landmark], SearchDirection.BACKWARD);
+				Landmarks.storeDistances(forwardDistances, backwardDistances, landmark, landmarkCount, scales, distancesFrom, distancesTo);
+
+				if (landmark + 1 < landmarkCount) {
+					for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+						nearestLandmarkDistances[nodeId] = Math.min(nearestLandmarkDistances[nodeId], forwardDistances[nodeId]);
+					}
+					landmarkNodeIds[landmark + 1] = Landmarks.farthestNodeOf(nearestLandmarkDistances, landmarkNodeIds[landmark]);
+				}
+			}
+		} else {
+			landmarkNodeIds = Landmarks.planarLandmarksOf(adjacencyGraph, landmarkCount);
+
+			// Every landmark writes its own table column only, so they don't interfere
+			IntStream.range(0, landmarkCount).parallel().forEach(landmark -> Landmarks.storeDistances(
+					Landmarks.distancesOf(adjacencyGraph, landmarkNodeIds[landmark], SearchDirection.FORWARD),
+					Landmarks.distancesOf(adjacencyGraph, landmarkNodeIds[landmark], SearchDirection.BACKWARD),
+					landmark, landmarkCount, scales, distancesFrom, distancesTo));
+		}
+
+		return new Landmarks(adjacencyGraph, landmarkNodeIds, scales, distancesFrom, distancesTo);
+	}
+
+	/**
+	 * Reads the landmarks stored next to the graph file or computes & stores them, if there are none yet or they don't fit
+	 * the graph & landmark count.
+	 *
+	 * @param graphFile The file the graph was read from
+	 * @return The landmarks of the graph
+	 * @see #fileOf(File)
+	 */
+	public static Landmarks readOrCompute (final File graphFile, final AdjacencyGraph adjacencyGraph, final int landmarkCount,
+	                                       final Selection selection) {
+		final File landmarkFile = Landmarks.fileOf(graphFile);
+		if (landmarkFile.exists()) {
+			try {
+				final Landmarks landmarks = Landmarks.read(landmarkFile, adjacencyGraph);
+				if (landmarks.getLandmarkCount() == landmarkCount) return landmarks;
+			} catch (IOException e) {
+				System.err.println("ERROR:\tFailed to read landmarks " + landmarkFile + ", computing them again");
+				e.printStackTrace();
+			}
+		}
+
+		final Landmarks landmarks = Landmarks.compute(adjacencyGraph, landmarkCount, selection);
+		try {
+			landmarks.write(landmarkFile);
+		} catch (IOException e) {
+			System.err.println("ERROR:\tFailed to write landmarks " + landmarkFile);
+			e.printStackTrace();
+		}
+		return landmarks;
+	}
+
+	/**
+	 * @param graphFile The graph file
+	 * @return The file the landmarks of the graph are stored in, next to the graph file
+	 */
+	public static File fileOf (final File graphFile) {
+		return new File(graphFile.getPath() + ".landmarks");
+	}
+
+	/**
+	 * Runs a full search from the node & returns the distances of all nodes.
+	 *
+	 * @param direction {@code BACKWARD} follows the incoming edges, so the distances are the ones to the node
+	 * @return The distance of every node, {@code Integer.MAX_VALUE} for nodes not connected to the node
+	 */
+	private static int[] distancesOf (final AdjacencyGraph adjacencyGraph, final int nodeId, final SearchDirection direction) {
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph, direction);
+		final NodePriorityQueue priorityQ = workspace.getQueue(DijkstraAlgorithm.DEFAULT_QUEUE_TYPE);
+		final int[] distances = new int[adjacencyGraph.getNodeCount()];
+		Arrays.fill(distances, Integer.MAX_VALUE);
+
+		workspace.setDistance(nodeId, 0, -1);
+		priorityQ.insert(nodeId, 0);
+		while (!priorityQ.isEmpty()) {
+			final int currentDistance = priorityQ.peekMinDistance();
+			final int currentNode = priorityQ.extractMin();
+			if (workspace.getDistance(currentNode) < currentDistance) continue;
+			distances[currentNode] = currentDistance;
+
+			final boolean forward = direction == SearchDirection.FORWARD;
+			final int endIndex = forward ? adjacencyGraph.getEndEdgeIdOf(currentNode) : adjacencyGraph.getEndIncomingIndexOf(currentNode);
+			for (int index = forward ? adjacencyGraph.getFirstEdgeIdOf(currentNode) : adjacencyGraph.getFirstIncomingIndexOf(currentNode);
+			     index < endIndex; index++) {
+				final int edgeId = forward ? index : adjacencyGraph.getIncomingEdgeIdAt(index);
+				final int nodeN = forward ? adjacencyGraph.getTargetOf(edgeId) : adjacencyGraph.getSourceOf(edgeId);
+				final int updatedDistance = currentDistance + adjacencyGraph.getDistanceOf(edgeId);
+				final int oldDistance = workspace.getDistance(nodeN);
+
+				if (updatedDistance < oldDistance) {
+					workspace.setDistance(nodeN, updatedDistance, edgeId);
+					if (oldDistance == Integer.MAX_VALUE) {
+						priorityQ.insert(nodeN, updatedDistance);
+					} else {
+						priorityQ.decreaseKey(nodeN, updatedDistance);
+					}
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * @return The node with the largest finite distance or the fallback node, if no node has one
+	 */
+	private static int farthestNodeOf (final int[] distances, final int fallbackNodeId) {
+		int farthestNodeId = fallbackNodeId;
+		int farthestDistance = 0;
+		for (int nodeId = 0; nodeId < distances.length; nodeId++) {
+			if (farthestDistance < distances[nodeId] && distances[nodeId] != Integer.MAX_VALUE) {
+				farthestDistance = distances[nodeId];
+				farthestNodeId = nodeId;
+			}
+		}
+		return farthestNodeId;
+	}
+
+	/**
+	 * Picks the node farthest from the center of the bounding box in every of the equal sectors around it. An empty sector
+	 * gets the node of the first sector, which only happens for very small or odd shaped graphs.
+	 */
+	private static int[] planarLandmarksOf (final AdjacencyGraph adjacencyGraph, final int landmarkCount) {
+		double minLongitude = Double.MAX_VALUE, maxLongitude = -Double.MAX_VALUE;
+		double minLatitude = Double.MAX_VALUE, maxLatitude = -Double.MAX_VALUE;
+		for (int nodeId = 0; nodeId < adjacencyGraph.getNodeCount(); nodeId++) {
+			minLongitude = Math.min(minLongitude, adjacencyGraph.getLongitudeOf(nodeId));
+			maxLongitude = Math.max(maxLongitude, adjacencyGraph.getLongitudeOf(nodeId));
+			minLatitude = Math.min(minLatitude, adjacencyGraph.getLatitudeOf(nodeId));
+			maxLatitude = Math.max(maxLatitude, adjacencyGraph.getLatitudeOf(nodeId));
+		}
+		final double centerLongitude = (minLongitude + maxLongitude) / 2;
+		final double centerLatitude = (minLatitude + maxLatitude) / 2;
+
+		final int[] landmarkNodeIds = new int[landmarkCount];
+		final double[] sectorDistances = new double[landmarkCount];
+		Arrays.fill(landmarkNodeIds, -1);
+		for (int nodeId = 0; nodeId < adjacencyGraph.getNodeCount(); nodeId++) {
+			final double x = adjacencyGraph.getLongitudeOf(nodeId) - centerLongitude;
+			final double y = adjacencyGraph.getLatitudeOf(nodeId) - centerLatitude;
+			final int sector = Math.min((int) ((Math.atan2(y, x) + Math.PI) / (2 * Math.PI) * landmarkCount), landmarkCount - 1);
+			final double distance = x * x + y * y;
+
+			if (landmarkNodeIds[sector] == -1 || sectorDistances[sector] < distance) {
+				landmarkNodeIds[sector] = nodeId;
+				sectorDistances[sector] = distance;
+			}
+		}
+
+		final int fallbackNodeId = Arrays.stream(landmarkNodeIds).filter(nodeId -> nodeId != -1).findFirst().orElse(0);
+		for (int sector = 0; sector < landmarkCount; sector++) {
+			if (landmarkNodeIds[sector] == -1) landmarkNodeIds[sector] = fallbackNodeId;
+		}
+		return landmarkNodeIds;
+	}
+
+	/**
+	 * Quantizes the distances from & to the landmark by a scale fitting its largest distance & stores them in its column.
+	 */
+	private static void storeDistances (final int[] forwardDistances, final int[] backwardDistances, final int landmark,
+	                                    final int landmarkCount, final int[] scales, final char[] distancesFrom, final char[] distancesTo) {
+		int maxDistance = 0;
+		for (int nodeId = 0; nodeId < forwardDistances.length; nodeId++) {
+			if (forwardDistances[nodeId] != Integer.MAX_VALUE) maxDistance = Math.max(maxDistance, forwardDistances[nodeId]);
+			if (backwardDistances[nodeId] != Integer.MAX_VALUE) maxDistance = Math.max(maxDistance, backwardDistances[nodeId]);
+		}
+		final int scale = Math.max(1, (maxDistance + MAX_UNITS - 1) / MAX_UNITS);
+		scales[landmark] = scale;
+
+		for (int nodeId = 0; nodeId < forwardDistances.length; nodeId++) {
+			distancesFrom[nodeId * landmarkCount + landmark] = quantize(forwardDistances[nodeId], scale);
+			distancesTo[nodeId * landmarkCount + landmark] = quantize(backwardDistances[nodeId], scale);
+		}
+	}
+
+	private static char quantize (final int distance, final int scale) {
+		return (distance == Integer.MAX_VALUE) ? UNREACHABLE : (char) (distance / scale);
+	}
+
+	/**
+	 * A stored distance in units stands for a real distance in {@code [units * scale, units * scale + scale - 1]}, so the
+	 * difference of two real distances is at least the difference of their units times scale minus {@code scale - 1}.
+	 *
+	 * @return The lower bound of the distance from the node to the target node by the landmark, may be negative
+	 */
+	private int lowerBoundBy (final int landmark, final int nodeId, final int targetNodeId) {
+		final int landmarkCount = this.landmarkNodeIds.length;
+		final int scale = this.scales[landmark];
+		int lowerBound = 0;
+
+		// d(v, t) >= d(L, t) - d(L, v)
+		final char fromLandmarkToNode = this.distancesFrom[nodeId * landmarkCount + landmark];
+		final char fromLandmarkToTarget = this.distancesFrom[targetNodeId * landmarkCount + landmark];
+		if (fromLandmarkToNode != UNREACHABLE && fromLandmarkToTarget != UNREACHABLE) {
+			lowerBound = (fromLandmarkToTarget - fromLandmarkToNode) * scale - (scale - 1);
+		}
+
+		// d(v, t) >= d(v, L) - d(t, L)
+		final char fromNodeToLandmark = this.distancesTo[nodeId * landmarkCount + landmark];
+		final char fromTargetToLandmark = this.distancesTo[targetNodeId * landmarkCount + landmark];
+		if (fromNodeToLandmark != UNREACHABLE && fromTargetToLandmark != UNREACHABLE) {
+			lowerBound = Math.max(lowerBound, (fromNodeToLandmark - fromTargetToLandmark) * scale - (scale - 1));
+		}
+		return lowerBound;
+	}
+
+	/**
+	 * @param activeLandmarks The landmarks to be considered
+	 * @return The best lower bound of the distance from the node to the target node by the specified landmarks
+	 */
+	int lowerBound (final int nodeId, final int targetNodeId, final int[] activeLandmarks) {
+		int lowerBound = 0;
+		for (int landmark : activeLandmarks) {
+			lowerBound = Math.max(lowerBound, this.lowerBoundBy(landmark, nodeId, targetNodeId));
+		}
+		return lowerBound;
+	}
+
+	/**
+	 * @return The best lower bound of the distance from the node to the target node by all landmarks
+	 */
+	public int lowerBound (final int nodeId, final int targetNodeId) {
+		int lowerBound = 0;
+		for (int landmark = 0; landmark < this.landmarkNodeIds.length; landmark++) {
+			lowerBound = Math.max(lowerBound, this.lowerBoundBy(landmark, nodeId, targetNodeId));
+		}
+		return lowerBound;
+	}
+
+	/**
+	 * Picks the landmarks giving the best lower bounds between source & target node, so a query only evaluates a few.
+	 *
+	 * @return The indices of at most {@value #ACTIVE_LANDMARKS} landmarks
+	 */
+	int[] activeLandmarksOf (final int sourceNodeId, final int targetNodeId) {
+		final int landmarkCount = this.landmarkNodeIds.length;
+		if (landmarkCount <= ACTIVE_LANDMARKS) return IntStream.range(0, landmarkCount).toArray();
+
+		// Encoded as long (int bound, int landmark), so sorting orders by bound
+		final long[] boundLandmarks = new long[landmarkCount];
+		for (int landmark = 0; landmark < landmarkCount; landmark++) {
+			final int lowerBound = Math.max(0, this.lowerBoundBy(landmark, sourceNodeId, targetNodeId));
+			boundLandmarks[landmark] = ((long) lowerBound << 32) | landmark;
+		}
+		Arrays.sort(boundLandmarks);
+
+		final int[] activeLandmarks = new int[ACTIVE_LANDMARKS];
+		for (int i = 0; i < ACTIVE_LANDMARKS; i++) {
+			activeLandmarks[i] = (int) boundLandmarks[landmarkCount - 1 - i];
+		}
+		return activeLandmarks;
+	}
+
+	public AdjacencyGraph getAdjacencyGraph () {
+		return this.adjacencyGraph;
+	}
+
+	public int getLandmarkCount () {
+		return this.landmarkNodeIds.length;
+	}
+
+	/**
+	 * @param landmark The index of the landmark
+	 * @return The node ID of the landmark
+	 */
+	public int getNodeIdOf (final int landmark) {
+		return this.landmarkNodeIds[landmark];
+	}
+
+	/**
+	 * Writes the landmarks to the specified file, overwriting it.
+	 *
+	 * @param file The landmark file
+	 * @throws IOException On write failure
+	 */
+	public void write (final File file) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+
+			for (int[] section : new int[][]{this.landmarkNodeIds, this.scales}) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * section.length);
+				mappedSection.asIntBuffer().put(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+			for (char[] section : new char[][]{this.distancesFrom, this.distancesTo}) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 2L * section.length);
+				mappedSection.asCharBuffer().put(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+
+			// The header is written last, so an interrupted write never leaves valid looking landmarks behind
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putLong(MAGIC)
+					.putInt(VERSION)
+					.putInt(this.adjacencyGraph.getNodeCount())
+					.putInt(this.adjacencyGraph.getEdgeCount())
+					.putInt(this.landmarkNodeIds.length)
+					.putLong(checksum.getValue());
+			fileChannel.write(header.clear(), 0);
+			fileChannel.force(true);
+		}
+	}
+
+	/**
+	 * Reads landmarks written by {@link #write} by mapping their sections & verifying the checksum.
+	 *
+	 * @param file           The landmark file
+	 * @param adjacencyGraph The graph the landmarks were computed for
+	 * @return The landmarks
+	 * @throws IOException On read failure or if the file contains no valid landmarks of this version & graph
+	 */
+	public static Landmarks read (final File file, final AdjacencyGraph adjacencyGraph) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (fileChannel.read(header, 0) != HEADER_SIZE || header.flip().getLong() != MAGIC)
+				throw new IOException("File " + file + " contains no landmarks.");
+
+			final int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("Landmarks " + file + " have version " + version + ", but version " + VERSION + " is required.");
+
+			final int nodeCount = header.getInt();
+			final int edgeCount = header.getInt();
+			if (nodeCount != adjacencyGraph.getNodeCount() || edgeCount != adjacencyGraph.getEdgeCount())
+				throw new IOException("Landmarks " + file + " were computed for another graph of " + nodeCount +
+						" nodes and " + edgeCount + " edges.");
+
+			final int landmarkCount = header.getInt();
+			final long expectedChecksum = header.getLong();
+			if (landmarkCount < 1 || nodeCount < landmarkCount || MAX_TABLE_SIZE < (long) nodeCount * landmarkCount ||
+					fileChannel.size() != HEADER_SIZE + 8L * landmarkCount + 4L * nodeCount * landmarkCount)
+				throw new IOException("Landmarks " + file + " are truncated or corrupted.");
+
+			final int[] landmarkNodeIds = new int[landmarkCount];
+			final int[] scales = new int[landmarkCount];
+			final char[] distancesFrom = new char[nodeCount * landmarkCount];
+			final char[] distancesTo = new char[nodeCount * landmarkCount];
+
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+			for (int[] section : new int[][]{landmarkNodeIds, scales}) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * section.length);
+				mappedSection.asIntBuffer().get(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+			for (char[] section : new char[][]{distancesFrom, distancesTo}) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 2L * section.length);
+				mappedSection.asCharBuffer().get(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+			if (checksum.getValue() != expectedChecksum)
+				throw new IOException("Checksum of landmarks " + file + " doesn't match, the file is corrupted.");
+
+			for (int landmark = 0; landmark < landmarkCount; landmark++) {
+				if (landmarkNodeIds[landmark] < 0 || nodeCount <= landmarkNodeIds[landmark] || scales[landmark] < 1)
+					throw new IOException("Landmarks " + file + " are inconsistent.");
+			}
+
+			return new Landmarks(adjacencyGraph, landmarkNodeIds, scales, distancesFrom, distancesTo);
+		}
+	}
+
+	private static MappedByteBuffer map (final FileChannel fileChannel, final FileChannel.MapMode mode,
+	                                     final long position, final long size) throws IOException {
+		if (Integer.MAX_VALUE < size)
+			throw new IOException("Landmark section of " + size + " bytes exceeds the mappable size.");
+
+		final MappedByteBuffer section = fileChannel.map(mode, position, size);
+		section.order(ByteOrder.LITTLE_ENDIAN);
+		return section;
+	}
+}
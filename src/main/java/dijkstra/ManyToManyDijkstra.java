@@ -0,0 +1,87 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+import java.util.Arrays;
+
+/**
+ * Many to many distance table without preprocessing: one dijkstra per source, which stops as soon as all targets are
+ * settled instead of running one query per source target pair. Graphs with a contraction hierarchy should use the
+ * {@code hierarchy.BucketManyToMany} instead, which settles far fewer nodes.
+ */
+public class ManyToManyDijkstra {
+
+	/**
+	 * @param sourceNodeIds The source node IDs, the rows of the table
+	 * @param targetNodeIds The target node IDs, the columns of the table
+	 * @return The distance table, {@code Integer.MAX_VALUE} for targets not reachable from a source
+	 * @throws IllegalArgumentException If a node ID is out of range
+	 */
+	public static int[][] distances (final AdjacencyGraph adjacencyGraph, final int[] sourceNodeIds, final int[] targetNodeIds) {
+		for (int sourceNodeId : sourceNodeIds) {
+			DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, sourceNodeId);
+		}
+		for (int targetNodeId : targetNodeIds) {
+			DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, targetNodeId);
+		}
+
+		final int[][] distances = new int[sourceNodeIds.length][];
+		for (int source = 0; source < sourceNodeIds.length; source++) {
+			distances[source] = ManyToManyDijkstra.distancesFrom(adjacencyGraph, sourceNodeIds[source], targetNodeIds);
+		}
+		return distances;
+	}
+
+	/**
+	 * Runs the dijkstra until every target is settled, whereas the targets may contain duplicates.
+	 *
+	 * @return The distance to every target
+	 */
+	private static int[] distancesFrom (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int[] targetNodeIds) {
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph);
+		final NodePriorityQueue priorityQ = workspace.getQueue(DijkstraAlgorithm.DEFAULT_QUEUE_TYPE);
+
+		// Distinct targets are counted by a second workspace, whose distance 0 marks a target not settled yet
+		final SearchWorkspace targetMarks = SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.BACKWARD);
+		int unsettledTargetCount = 0;
+		for (int targetNodeId : targetNodeIds) {
+			if (targetMarks.getDistance(targetNodeId) == Integer.MAX_VALUE) {
+				targetMarks.setDistance(targetNodeId, 0, -1);
+				unsettledTargetCount++;
+			}
+		}
+
+		workspace.setDistance(sourceNodeId, 0, -1);
+		priorityQ.insert(sourceNodeId, 0);
+		while (!priorityQ.isEmpty() && 0 < unsettledTargetCount) {
+			final int currentDistance = priorityQ.peekMinDistance();
+			final int currentNode = priorityQ.extractMin();
+			if (workspace.getDistance(currentNode) < currentDistance) continue; // Outdated entry of an already CLOSED node
+
+			if (targetMarks.getDistance(currentNode) == 0) {
+				targetMarks.setDistance(currentNode, 1, -1);
+				unsettledTargetCount--;
+			}
+
+			final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(currentNode);
+			for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(currentNode); edgeId < endEdgeId; edgeId++) {
+				final int nodeN = adjacencyGraph.getTargetOf(edgeId);
+				final int updatedDistanceToNodeN = currentDistance + adjacencyGraph.getDistanceOf(edgeId);
+				final int oldDistanceToNodeN = workspace.getDistance(nodeN);
+
+				if (updatedDistanceToNodeN < oldDistanceToNodeN) {
+					workspace.setDistance(nodeN, updatedDistanceToNodeN, edgeId);
+					if (oldDistanceToNodeN == Integer.MAX_VALUE) {
+						priorityQ.insert(nodeN, updatedDistanceToNodeN);
+					} else {
+						priorityQ.decreaseKey(nodeN, updatedDistanceToNodeN);
+					}
+				}
+			}
+		}
+
+		final int[] distances = new int[targetNodeIds.length];
+		Arrays.setAll(distances, target -> workspace.getDistance(targetNodeIds[target]));
+		return distances;
+	}
+}
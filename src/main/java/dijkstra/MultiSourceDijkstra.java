@@ -0,0 +1,171 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra from several source nodes at once, e.g. for the nearest of several facilities. The queue is seeded with all
+ * source nodes at distance 0, so a single search settles every node with its distance to the nearest source node
+ * instead of one search per source node.
+ * <p>
+ * A forward search measures the distances from the source nodes, e.g. "which depot serves here the fastest". A
+ * backward search relaxes the incoming edges, so on the reverse graph it measures the distances to the source nodes,
+ * e.g. "which depot is nearest from here".
+ */
+public class MultiSourceDijkstra {
+
+	/**
+	 * Searches the whole graph & assigns every node to its nearest source node.
+	 *
+	 * @param sourceNodeIds The source node IDs, which may contain duplicates
+	 * @param direction     The direction the distances are measured in
+	 * @return The nearest source node & the distance to it of every node
+	 * @throws IllegalArgumentException If no source node is given or a source node is out of range
+	 */
+	public static NearestSources nearestSources (final AdjacencyGraph adjacencyGraph, final int[] sourceNodeIds,
+	                                             final SearchDirection direction) {
+		MultiSourceDijkstra.checkSourceNodes(adjacencyGraph, sourceNodeIds);
+
+		final int[] nearestSourceIndices = new int[adjacencyGraph.getNodeCount()];
+		Arrays.fill(nearestSourceIndices, -1);
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph);
+		MultiSourceDijkstra.search(adjacencyGraph, workspace, sourceNodeIds, direction, -1, nearestSourceIndices);
+
+		return new NearestSources(sourceNodeIds.clone(), nearestSourceIndices, workspace.copyDistances());
+	}
+
+	/**
+	 * Searches until the node is settled, which is when the nearest source node is known.
+	 *
+	 * @param sourceNodeIds The source node IDs, which may contain duplicates
+	 * @param nodeId        The node ID the nearest source node is searched for
+	 * @param direction     The direction the distance is measured in
+	 * @return The nearest source node, the first one of equally near ones, & the path between both nodes
+	 * @throws IllegalArgumentException If no source node is given, a node ID is out of range or no source node is
+	 *                                  reachable
+	 */
+	public static NearestSource nearestSourceOf (final AdjacencyGraph adjacencyGraph, final int[] sourceNodeIds,
+	                                             final int nodeId, final SearchDirection direction) {
+		MultiSourceDijkstra.checkSourceNodes(adjacencyGraph, sourceNodeIds);
+		DijkstraAlgorithm.dijkstraDefensiveProgrammingChecks(adjacencyGraph, nodeId);
+
+		final SearchWorkspace workspace = SearchWorkspace.forCurrentThread(adjacencyGraph);
+		MultiSourceDijkstra.search(adjacencyGraph, workspace, sourceNodeIds, direction, nodeId, null);
+
+		final int distance = workspace.getDistance(nodeId);
+		if (distance == Integer.MAX_VALUE)
+			throw new IllegalArgumentException("No source node is reachable " + (direction == SearchDirection.FORWARD ? "to" : "from") + " node " + nodeId + ".");
+
+		// The predecessor edges lead back to the nearest source node, which is the only one without predecessor edge
+		final int[] predecessorEdges = workspace.getPredecessorEdges();
+		int edgeCount = 0;
+		int sourceNodeId = nodeId;
+		while (predecessorEdges[sourceNodeId] != -1) {
+			sourceNodeId = MultiSourceDijkstra.predecessorOf(adjacencyGraph, predecessorEdges[sourceNodeId], direction);
+			edgeCount++;
+		}
+
+		final Path path;
+		if (direction == SearchDirection.FORWARD) {
+			path = new Path(adjacencyGraph, sourceNodeId, adjacencyGraph.getPath(sourceNodeId, nodeId, predecessorEdges));
+		} else {
+			// The backward predecessor edge of a node is the edge leading from it towards the source node
+			final int[] edgeIds = new int[edgeCount];
+			for (int i = 0, currentNode = nodeId; i < edgeCount; i++) {
+				edgeIds[i] = predecessorEdges[currentNode];
+				currentNode = adjacencyGraph.getTargetOf(edgeIds[i]);
+			}
+			path = new Path(adjacencyGraph, nodeId, edgeIds);
+		}
+
+		int sourceIndex = 0;
+		while (sourceNodeIds[sourceIndex] != sourceNodeId) {
+			sourceIndex++;
+		}
+		return new NearestSource(sourceIndex, sourceNodeId, distance, path);
+	}
+
+	/**
+	 * Seeds the queue with all source nodes at distance 0 & settles nodes in ascending distance to their nearest source
+	 * node. The nearest source node of a settled node is the one of the node its predecessor edge comes from, which was
+	 * settled before.
+	 *
+	 * @param stopNodeId           The node the search stops at, once it is settled, or -1 to search the whole graph
+	 * @param nearestSourceIndices The nearest source index per node, which is filled for every settled node, or null
+	 */
+	private static void search (final AdjacencyGraph adjacencyGraph, final SearchWorkspace workspace, final int[] sourceNodeIds,
+	                            final SearchDirection direction, final int stopNodeId, final int[] nearestSourceIndices) {
+		final NodePriorityQueue priorityQ = workspace.getQueue(DijkstraAlgorithm.DEFAULT_QUEUE_TYPE);
+
+		for (int sourceIndex = 0; sourceIndex < sourceNodeIds.length; sourceIndex++) {
+			final int sourceNodeId = sourceNodeIds[sourceIndex];
+			if (workspace.getDistance(sourceNodeId) == 0) continue; // Duplicate, the first index is kept
+
+			workspace.setDistance(sourceNodeId, 0, -1);
+			priorityQ.insert(sourceNodeId, 0);
+			if (nearestSourceIndices != null) nearestSourceIndices[sourceNodeId] = sourceIndex;
+		}
+
+		final int[] predecessorEdges = workspace.getPredecessorEdges();
+		while (!priorityQ.isEmpty()) {
+			final int currentDistance = priorityQ.peekMinDistance();
+			final int currentNode = priorityQ.extractMin();
+			if (workspace.getDistance(currentNode) < currentDistance) continue; // Outdated entry of an already CLOSED node
+
+			if (currentNode == stopNodeId) return;
+			if (nearestSourceIndices != null && predecessorEdges[currentNode] != -1) {
+				nearestSourceIndices[currentNode] = nearestSourceIndices[
+						MultiSourceDijkstra.predecessorOf(adjacencyGraph, predecessorEdges[currentNode], direction)];
+			}
+
+			if (direction == SearchDirection.FORWARD) {
+				final int endEdgeId = adjacencyGraph.getEndEdgeIdOf(currentNode);
+				for (int edgeId = adjacencyGraph.getFirstEdgeIdOf(currentNode); edgeId < endEdgeId; edgeId++) {
+					MultiSourceDijkstra.relax(workspace, priorityQ, adjacencyGraph.getTargetOf(edgeId),
+							currentDistance + adjacencyGraph.getDistanceOf(edgeId), edgeId);
+				}
+			} else {
+				// Incoming edges of the current node are the outgoing edges of the reverse graph
+				final int endIndex = adjacencyGraph.getEndIncomingIndexOf(currentNode);
+				for (int index = adjacencyGraph.getFirstIncomingIndexOf(currentNode); index < endIndex; index++) {
+					final int edgeId = adjacencyGraph.getIncomingEdgeIdAt(index);
+					MultiSourceDijkstra.relax(workspace, priorityQ, adjacencyGraph.getSourceOf(edgeId),
+							currentDistance + adjacencyGraph.getDistanceOf(edgeId), edgeId);
+				}
+			}
+		}
+	}
+
+	private static void relax (final SearchWorkspace workspace, final NodePriorityQueue priorityQ, final int nodeN,
+	                           final int updatedDistance, final int edgeId) {
+		final int oldDistance = workspace.getDistance(nodeN);
+		if (oldDistance <= updatedDistance) return;
+
+		workspace.setDistance(nodeN, updatedDistance, edgeId);
+		if (oldDistance == Integer.MAX_VALUE) {
+			priorityQ.insert(nodeN, updatedDistance);
+		} else {
+			priorityQ.decreaseKey(nodeN, updatedDistance);
+		}
+	}
+
+	/**
+	 * @return The node the predecessor edge leads to the node from, which is nearer to the source nodes
+	 */
+	private static int predecessorOf (final AdjacencyGraph adjacencyGraph, final int predecessorEdgeId,
+	                                  final SearchDirection direction) {
+		return (direction == SearchDirection.FORWARD) ?
+				adjacencyGraph.getSourceOf(predecessorEdgeId) : adjacencyGraph.getTargetOf(predecessorEdgeId);
+	}
+
+	private static void checkSourceNodes (final AdjacencyGraph adjacencyGraph, final int[] sourceNodeIds) {
+		if (sourceNodeIds.length == 0)
+			throw new IllegalArgumentException("At least one source node must be specified.");
+
+		for (int sourceNodeId : sourceNodeIds) {
+			if (sourceNodeId < 0 || adjacencyGraph.getNodeCount() <= sourceNodeId)
+				throw new IllegalArgumentException("Source node " + sourceNodeId + " is negative or greater than the maximal node ID.");
+		}
+	}
+}
@@ -0,0 +1,13 @@
+package dijkstra;
+
+/**
+ * The source node of a {@link MultiSourceDijkstra} nearest to a node, e.g. the nearest depot.
+ *
+ * @param sourceIndex  The index of the nearest source node in the source node array of the search
+ * @param sourceNodeId The nearest source node ID
+ * @param distance     The distance between the nearest source node & the node
+ * @param path         The shortest path between both nodes in the direction of the search: from the source node to
+ *                     the node for a forward search, from the node to the source node for a backward search
+ */
+public record NearestSource(int sourceIndex, int sourceNodeId, int distance, Path path) {
+}
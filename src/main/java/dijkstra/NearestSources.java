@@ -0,0 +1,27 @@
+package dijkstra;
+
+/**
+ * The nearest source node of every node found by a {@link MultiSourceDijkstra}, which partitions the graph into the
+ * catchment areas of the source nodes.
+ *
+ * @param sourceNodeIds        The source node IDs of the search
+ * @param nearestSourceIndices The index of the nearest source node per node ID or -1, if no source node is reachable
+ * @param distances            The distance to the nearest source node per node ID or {@code Integer.MAX_VALUE}, if no
+ *                             source node is reachable
+ */
+public record NearestSources(int[] sourceNodeIds, int[] nearestSourceIndices, int[] distances) {
+
+	/**
+	 * @return The index of the nearest source node in {@link #sourceNodeIds} or -1, if no source node is reachable
+	 */
+	public int nearestSourceIndexOf (final int nodeId) {
+		return this.nearestSourceIndices[nodeId];
+	}
+
+	/**
+	 * @return The distance to the nearest source node or {@code Integer.MAX_VALUE}, if no source node is reachable
+	 */
+	public int distanceOf (final int nodeId) {
+		return this.distances[nodeId];
+	}
+}
@@ -0,0 +1,44 @@
+package dijkstra;
+
+/**
+ * A monotone min priority queue of node IDs keyed by their non-negative distance, as used by the {@link DijkstraAlgorithm}.
+ * Monotone means, that no distance smaller than the last extracted one is inserted, which allows bucket based
+ * implementations besides comparison based heaps. Implementations are selected via {@link QueueType}.
+ */
+public interface NodePriorityQueue {
+
+	boolean isEmpty ();
+
+	/**
+	 * @param nodeId   The node ID, which must not be contained already
+	 * @param distance The non-negative key of the node, not smaller than the last extracted one
+	 */
+	void insert (int nodeId, int distance);
+
+	/**
+	 * Decreases the distance of a contained node. Implementations without position tracking may insert the node again
+	 * instead, so their {@link #extractMin()} also returns outdated entries, which {@link #peekMinDistance()} reports
+	 * with their outdated distance & must be skipped by the caller.
+	 *
+	 * @param nodeId   The node ID, which must be contained already
+	 * @param distance The new key of the node, which must not be greater than the current one
+	 */
+	void decreaseKey (int nodeId, int distance);
+
+	/**
+	 * @return The distance of the node with the minimal distance, which must exist
+	 */
+	int peekMinDistance ();
+
+	/**
+	 * Removes the node with the minimal distance.
+	 *
+	 * @return The removed node ID
+	 */
+	int extractMin ();
+
+	/**
+	 * Removes all entries, so the queue may be reused for the next search.
+	 */
+	void clear ();
+}
@@ -0,0 +1,110 @@
+package dijkstra;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Least recently used cache of {@link OneToAllResult}s keyed by their source node. A one to all search of a large graph
+ * takes seconds, whereas its result is only two arrays of node count size, so popular sources are answered again without
+ * searching. The cache is bounded by a memory budget: results are evicted in least recently used order, until the sizes
+ * of the cached results fit into the budget. All methods are thread safe.
+ */
+public final class OneToAllCache {
+
+	private final IntFunction<OneToAllResult> oneToAllSearch;
+	private final long memoryBudgetBytes;
+
+	// Access ordered, so the first entry is the least recently used one
+	private final LinkedHashMap<Integer, OneToAllResult> results = new LinkedHashMap<>(16, 0.75f, true);
+	private long cachedBytes;
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * @param oneToAllSearch    Calculates the one to all result of a source node, e.g. a {@link DeltaStepping} search
+	 * @param memoryBudgetBytes The maximal sum of the sizes of the cached results
+	 */
+	public OneToAllCache (final IntFunction<OneToAllResult> oneToAllSearch, final long memoryBudgetBytes) {
+		if (memoryBudgetBytes < 0)
+			throw new IllegalArgumentException("Memory budget must not be negative, but is " + memoryBudgetBytes + ".");
+
+		this.oneToAllSearch = oneToAllSearch;
+		this.memoryBudgetBytes = memoryBudgetBytes;
+	}
+
+	/**
+	 * Returns the cached result of the source node or searches & caches it. The search runs outside the lock, so
+	 * concurrent misses of the same source may search twice, but never block hits of other sources.
+	 *
+	 * @param sourceNodeId The source node ID
+	 * @return The one to all result of the source node
+	 */
+	public OneToAllResult get (final int sourceNodeId) {
+		synchronized (this) {
+			final OneToAllResult cachedResult = this.results.get(sourceNodeId);
+			if (cachedResult != null) {
+				this.hitCount++;
+				return cachedResult;
+			}
+			this.missCount++;
+		}
+
+		final OneToAllResult result = this.oneToAllSearch.apply(sourceNodeId);
+		this.put(result);
+		return result;
+	}
+
+	/**
+	 * Returns the cached result of the source node without searching it, if it isn't cached.
+	 *
+	 * @param sourceNodeId The source node ID
+	 * @return The one to all result of the source node or null, if it isn't cached
+	 */
+	public synchronized OneToAllResult getIfPresent (final int sourceNodeId) {
+		final OneToAllResult cachedResult = this.results.get(sourceNodeId);
+		if (cachedResult != null) this.hitCount++;
+		return cachedResult;
+	}
+
+	/**
+	 * Caches the result, unless it alone exceeds the memory budget, & evicts the least recently used results beyond it.
+	 */
+	public synchronized void put (final OneToAllResult result) {
+		if (this.memoryBudgetBytes < result.getSizeInBytes()) return;
+
+		final OneToAllResult replacedResult = this.results.put(result.getSourceNodeId(), result);
+		if (replacedResult != null) this.cachedBytes -= replacedResult.getSizeInBytes();
+		this.cachedBytes += result.getSizeInBytes();
+
+		final Iterator<Map.Entry<Integer, OneToAllResult>> leastRecentlyUsed = this.results.entrySet().iterator();
+		while (this.memoryBudgetBytes < this.cachedBytes) {
+			this.cachedBytes -= leastRecentlyUsed.next().getValue().getSizeInBytes();
+			leastRecentlyUsed.remove();
+		}
+	}
+
+	/**
+	 * @return True, if the result of the source node is cached. Doesn't count as use of the result.
+	 */
+	public synchronized boolean contains (final int sourceNodeId) {
+		return this.results.containsKey(sourceNodeId);
+	}
+
+	public synchronized int size () {
+		return this.results.size();
+	}
+
+	public synchronized long getCachedBytes () {
+		return this.cachedBytes;
+	}
+
+	public synchronized long getHitCount () {
+		return this.hitCount;
+	}
+
+	public synchronized long getMissCount () {
+		return this.missCount;
+	}
+}
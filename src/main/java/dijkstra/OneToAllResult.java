@@ -1,19 +1,30 @@
 package dijkstra;
 
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import struct.AdjacencyGraph;
 
-import java.util.Deque;
-
 /**
  * This class stores the predecessor node array which holds the edge ids to the shortest paths next node,
  * were as all edges finally lead to the source node id. The source nodes edge in the array is set to 0.
+ * The final distances are kept as well, so distance lookups don't have to walk the path.
+ * <p>
+ * A {@link #compact()} result stores the predecessor edge of a node as one byte instead: its index among the incoming
+ * edges of the node. It takes 1 instead of 8 bytes per node, whereas distances are summed up along the path.
  */
 public final class OneToAllResult extends DijkstraResult {
 
-	private final int[] predecessorEdgeIds;
+	// Incoming edge index + 1 of the compact predecessor edges, 0 for the source & unreachable nodes
+	private static final int MAX_COMPACT_INDEX = 254;
+	private static final byte OVERFLOW_INDEX = (byte) 255;  // Predecessor edge is stored in the overflow map
+
+	private final int[] distances;              // Null, if compact
+	private final int[] predecessorEdgeIds;     // Null, if compact
+	private final byte[] predecessorIndices;    // Null, if not compact
+	private final Int2IntOpenHashMap overflowPredecessorEdgeIds;  // Of nodes with more incoming edges than a byte indexes
 	private final int sourceNodeId;
 
-	OneToAllResult (final AdjacencyGraph adjacencyGraph, final int[] predecessorEdgeIds, final int sourceNodeId) {
+	OneToAllResult (final AdjacencyGraph adjacencyGraph, final int[] distances, final int[] predecessorEdgeIds,
+	                final int sourceNodeId) {
 		super(adjacencyGraph);
 
 		assert 0 <= sourceNodeId;
@@ -24,22 +35,139 @@ public final class OneToAllResult extends DijkstraResult {
 		assert predecessorEdgeIds != null;
 		assert predecessorEdgeIds.length == adjacencyGraph.getNodeCount();
 		assert predecessorEdgeIds[sourceNodeId] < adjacencyGraph.getNodeCount();
+		assert distances.length == adjacencyGraph.getNodeCount();
+		assert distances[sourceNodeId] == 0;
 
+		this.distances = distances;
 		this.predecessorEdgeIds = predecessorEdgeIds;
+		this.predecessorIndices = null;
+		this.overflowPredecessorEdgeIds = null;
+	}
+
+	private OneToAllResult (final AdjacencyGraph adjacencyGraph, final byte[] predecessorIndices,
+	                        final Int2IntOpenHashMap overflowPredecessorEdgeIds, final int sourceNodeId) {
+		super(adjacencyGraph);
+
+		this.sourceNodeId = sourceNodeId;
+		this.distances = null;
+		this.predecessorEdgeIds = null;
+		this.predecessorIndices = predecessorIndices;
+		this.overflowPredecessorEdgeIds = overflowPredecessorEdgeIds;
 	}
 
 	/**
-	 * Returns the path (consisting out of edge ids) from the source node (class member) to the specified node id by calling the
-	 * method in the {@code AdjacencyGraph} class.
+	 * Encodes the predecessor edges compactly, e.g. to keep many results in memory. Paths & distances stay the same,
+	 * but a distance lookup takes O(path length) instead of O(1).
+	 *
+	 * @return The compact result or this result, if it is compact already
+	 */
+	public OneToAllResult compact () {
+		if (this.isCompact()) return this;
+
+		final byte[] predecessorIndices = new byte[this.predecessorEdgeIds.length];
+		final Int2IntOpenHashMap overflowPredecessorEdgeIds = new Int2IntOpenHashMap();
+		for (int nodeId = 0; nodeId < predecessorIndices.length; nodeId++) {
+			if (nodeId == this.sourceNodeId || this.distances[nodeId] == Integer.MAX_VALUE) continue;
+
+			final int predecessorEdgeId = this.predecessorEdgeIds[nodeId];
+			final int firstIndex = super.adjacencyGraph.getFirstIncomingIndexOf(nodeId);
+			int index = firstIndex;
+			while (super.adjacencyGraph.getIncomingEdgeIdAt(index) != predecessorEdgeId) {
+				index++;
+			}
+
+			if (index - firstIndex < MAX_COMPACT_INDEX) {
+				predecessorIndices[nodeId] = (byte) (index - firstIndex + 1);
+			} else {
+				predecessorIndices[nodeId] = OVERFLOW_INDEX;
+				overflowPredecessorEdgeIds.put(nodeId, predecessorEdgeId);
+			}
+		}
+		return new OneToAllResult(super.adjacencyGraph, predecessorIndices, overflowPredecessorEdgeIds, this.sourceNodeId);
+	}
+
+	public boolean isCompact () {
+		return this.predecessorIndices != null;
+	}
+
+	/**
+	 * Returns the path (consisting out of edge ids) from the source node (class member) to the specified node id by
+	 * walking the predecessor edges.
 	 *
 	 * @param targetNodeId The target node
 	 * @return A path of edge IDs from the source node to the target node
+	 * @throws IllegalArgumentException If the target node is not reachable from the source node
 	 */
 	@Override
-	public Deque<Integer> getPathTo (final int targetNodeId) {
-		assert  this.sourceNodeId == targetNodeId : "Target node must not have the same index as source node.";
+	public Path getPathTo (final int targetNodeId) {
+		assert this.sourceNodeId != targetNodeId : "Target node must not have the same index as source node.";
 		assert super.adjacencyGraph.getNodeCount() > targetNodeId : "Target node ID must not be higher than node count of adjacency graph.";
 
-		return super.adjacencyGraph.getPath(this.sourceNodeId, targetNodeId, this.predecessorEdgeIds);   // Don't know how to do better...
+		if (!this.isReachable(targetNodeId))
+			throw new IllegalArgumentException("Target node " + targetNodeId + " is not reachable from source node " + this.sourceNodeId + ".");
+
+		if (!this.isCompact()) {
+			return new Path(super.adjacencyGraph, this.sourceNodeId,
+					super.adjacencyGraph.getPath(this.sourceNodeId, targetNodeId, this.predecessorEdgeIds));
+		}
+
+		int edgeCount = 0;
+		for (int nodeId = targetNodeId; nodeId != this.sourceNodeId; nodeId = super.adjacencyGraph.getSourceOf(this.predecessorEdgeIdOf(nodeId))) {
+			edgeCount++;
+		}
+		final int[] path = new int[edgeCount];
+		for (int nodeId = targetNodeId; nodeId != this.sourceNodeId; ) {
+			final int edgeId = this.predecessorEdgeIdOf(nodeId);
+			path[--edgeCount] = edgeId;
+			nodeId = super.adjacencyGraph.getSourceOf(edgeId);
+		}
+		return new Path(super.adjacencyGraph, this.sourceNodeId, path);
+	}
+
+	/**
+	 * @param targetNodeId The target node
+	 * @return The distance from the source node to the target node or {@code Integer.MAX_VALUE}, if it's not reachable
+	 */
+	public int getDistanceTo (final int targetNodeId) {
+		if (!this.isCompact()) return this.distances[targetNodeId];
+		if (!this.isReachable(targetNodeId)) return Integer.MAX_VALUE;
+
+		int distance = 0;
+		for (int nodeId = targetNodeId; nodeId != this.sourceNodeId; ) {
+			final int edgeId = this.predecessorEdgeIdOf(nodeId);
+			distance += super.adjacencyGraph.getDistanceOf(edgeId);
+			nodeId = super.adjacencyGraph.getSourceOf(edgeId);
+		}
+		return distance;
+	}
+
+	private boolean isReachable (final int nodeId) {
+		return this.isCompact() ?
+				nodeId == this.sourceNodeId || this.predecessorIndices[nodeId] != 0 :
+				this.distances[nodeId] != Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @return The predecessor edge of a reachable node of a compact result
+	 */
+	private int predecessorEdgeIdOf (final int nodeId) {
+		final byte predecessorIndex = this.predecessorIndices[nodeId];
+		if (predecessorIndex == OVERFLOW_INDEX) return this.overflowPredecessorEdgeIds.get(nodeId);
+
+		return super.adjacencyGraph.getIncomingEdgeIdAt(super.adjacencyGraph.getFirstIncomingIndexOf(nodeId) + (predecessorIndex & 0xFF) - 1);
+	}
+
+	public int getSourceNodeId () {
+		return this.sourceNodeId;
+	}
+
+	/**
+	 * @return The approximate heap size of the result, which is dominated by its two node count sized arrays or the
+	 * byte array, if it's compact
+	 */
+	public long getSizeInBytes () {
+		return this.isCompact() ?
+				this.predecessorIndices.length + 16L * this.overflowPredecessorEdgeIds.size() + 128 :
+				2L * Integer.BYTES * this.distances.length + 64;
 	}
 }
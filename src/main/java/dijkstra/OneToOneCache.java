@@ -0,0 +1,202 @@
+package dijkstra;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.longs.Long2ObjectLinkedOpenHashMap;
+import struct.AdjacencyGraph;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent cache of {@link OneToOnePath}s keyed by their (source, target) node pair, e.g. after snapping coordinates
+ * to their nearest nodes. Requests of the same pairs repeat a lot, so a hit saves a whole search.
+ * <p>
+ * The cache is bounded by a memory budget, because a path takes about 20 bytes per edge & a long route has tens of
+ * thousands of them. The entries are split into segments by the hash of their pair, each one a least recently used map
+ * of an equal share of the budget guarded by its own lock, so concurrent requests rarely contend. Every segment gets at
+ * least {@value #MIN_SEGMENT_BYTES} bytes, so small caches have a single segment & evict exactly in least recently used
+ * order. Entries expire after the time to live. All entries belong to one graph: a request for another graph, e.g.
+ * after the graph was reloaded, empties the cache first.
+ */
+public final class OneToOneCache {
+
+	private static final int MAX_SEGMENT_COUNT = 16;
+	private static final long MIN_SEGMENT_BYTES = 1L << 20;
+	// Of the map slot, the entry & the path objects besides the arrays of the path
+	private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+	private final Segment[] segments;
+	private final long timeToLiveNanos;
+	private volatile AdjacencyGraph adjacencyGraph;
+
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+	private final LongAdder evictionCount = new LongAdder();
+
+	/**
+	 * @param memoryBudgetBytes The maximal sum of the sizes of the cached paths
+	 * @param timeToLive        The time a path is cached after it was put
+	 */
+	public OneToOneCache (final long memoryBudgetBytes, final Duration timeToLive) {
+		if (memoryBudgetBytes < 1)
+			throw new IllegalArgumentException("Memory budget must be positive, but is " + memoryBudgetBytes + ".");
+		if (timeToLive.isNegative() || timeToLive.isZero())
+			throw new IllegalArgumentException("Time to live must be positive, but is " + timeToLive + ".");
+
+		// Power of two, so the segment is selected by a mask
+		final int segmentCount = Integer.highestOneBit((int) Math.max(1, Math.min(MAX_SEGMENT_COUNT, memoryBudgetBytes / MIN_SEGMENT_BYTES)));
+		this.segments = new Segment[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			// The first segments take the remainder, so the budgets sum up to the memory budget
+			this.segments[i] = new Segment(memoryBudgetBytes / segmentCount + ((i < memoryBudgetBytes % segmentCount) ? 1 : 0));
+		}
+		this.timeToLiveNanos = timeToLive.toNanos();
+	}
+
+	/**
+	 * @return The cached path of the pair or null, if it isn't cached or expired
+	 */
+	public OneToOnePath get (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int targetNodeId) {
+		this.checkGraph(adjacencyGraph);
+
+		final long key = OneToOneCache.keyOf(sourceNodeId, targetNodeId);
+		final OneToOnePath path = this.segmentOf(key).get(key, System.nanoTime(), adjacencyGraph);
+		(path == null ? this.missCount : this.hitCount).increment();
+		return path;
+	}
+
+	/**
+	 * Caches the path of the pair, unless it alone exceeds the budget of its segment, & evicts the least recently used
+	 * entries of the segment beyond its budget.
+	 */
+	public void put (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int targetNodeId, final OneToOnePath path) {
+		this.checkGraph(adjacencyGraph);
+
+		final long key = OneToOneCache.keyOf(sourceNodeId, targetNodeId);
+		final Entry entry = new Entry(path, adjacencyGraph, System.nanoTime() + this.timeToLiveNanos,
+				path.getPath().getSizeInBytes() + ENTRY_OVERHEAD_BYTES);
+		this.evictionCount.add(this.segmentOf(key).put(key, entry));
+	}
+
+	/**
+	 * Removes all entries.
+	 */
+	public void invalidateAll () {
+		for (Segment segment : this.segments) {
+			segment.clear();
+		}
+	}
+
+	/**
+	 * Empties the cache, if the graph differs from the one of the cached entries. Entries keep their graph anyway, so a
+	 * request of an outdated graph racing with the switch never gets a path of the other graph.
+	 */
+	private void checkGraph (final AdjacencyGraph adjacencyGraph) {
+		if (adjacencyGraph == this.adjacencyGraph) return;
+
+		synchronized (this) {
+			if (adjacencyGraph != this.adjacencyGraph) {
+				this.invalidateAll();
+				this.adjacencyGraph = adjacencyGraph;
+			}
+		}
+	}
+
+	private static long keyOf (final int sourceNodeId, final int targetNodeId) {
+		return ((long) sourceNodeId << 32) | (targetNodeId & 0xFFFF_FFFFL);
+	}
+
+	private Segment segmentOf (final long key) {
+		return this.segments[(int) HashCommon.mix(key) & (this.segments.length - 1)];
+	}
+
+	public int size () {
+		int size = 0;
+		for (Segment segment : this.segments) {
+			size += segment.size();
+		}
+		return size;
+	}
+
+	public long getHitCount () {
+		return this.hitCount.sum();
+	}
+
+	public long getMissCount () {
+		return this.missCount.sum();
+	}
+
+	public long getEvictionCount () {
+		return this.evictionCount.sum();
+	}
+
+	/**
+	 * @return The approximate heap size of the cached paths
+	 */
+	public long getSizeInBytes () {
+		long sizeInBytes = 0;
+		for (Segment segment : this.segments) {
+			sizeInBytes += segment.getSizeInBytes();
+		}
+		return sizeInBytes;
+	}
+
+	private record Entry(OneToOnePath path, AdjacencyGraph adjacencyGraph, long expiryNanos, long sizeInBytes) {
+	}
+
+	/**
+	 * Least recently used map, whose last entry is the most recently used one.
+	 */
+	private static final class Segment {
+		private final Long2ObjectLinkedOpenHashMap<Entry> entries = new Long2ObjectLinkedOpenHashMap<>();
+		private final long memoryBudgetBytes;
+		private long cachedBytes;
+
+		Segment (final long memoryBudgetBytes) {
+			this.memoryBudgetBytes = memoryBudgetBytes;
+		}
+
+		synchronized OneToOnePath get (final long key, final long now, final AdjacencyGraph adjacencyGraph) {
+			final Entry entry = this.entries.getAndMoveToLast(key);
+			if (entry == null) return null;
+
+			if (entry.adjacencyGraph() != adjacencyGraph || 0 <= now - entry.expiryNanos()) {
+				this.entries.remove(key);
+				this.cachedBytes -= entry.sizeInBytes();
+				return null;
+			}
+			return entry.path();
+		}
+
+		/**
+		 * @return The count of evicted entries
+		 */
+		synchronized int put (final long key, final Entry entry) {
+			if (this.memoryBudgetBytes < entry.sizeInBytes()) return 0;
+
+			final Entry replacedEntry = this.entries.putAndMoveToLast(key, entry);
+			if (replacedEntry != null) this.cachedBytes -= replacedEntry.sizeInBytes();
+			this.cachedBytes += entry.sizeInBytes();
+
+			int evictionCount = 0;
+			while (this.memoryBudgetBytes < this.cachedBytes) {
+				this.cachedBytes -= this.entries.removeFirst().sizeInBytes();
+				evictionCount++;
+			}
+			return evictionCount;
+		}
+
+		synchronized void clear () {
+			this.entries.clear();
+			this.cachedBytes = 0;
+		}
+
+		synchronized long getSizeInBytes () {
+			return this.cachedBytes;
+		}
+
+		synchronized int size () {
+			return this.entries.size();
+		}
+	}
+}
@@ -1,2 +1,77 @@
-package dijkstra;public class Path {
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+/**
+ * A shortest path as primitive arrays: the edge IDs from source to target node & the coordinates of the nodes along
+ * the path, whereas node i is the source node of edge i. Unlike a {@code Deque<Integer>} it holds no boxed values and
+ * no per element objects, so building and serializing a path of thousands of edges creates four arrays only.
+ */
+public final class Path {
+	private final int[] edgeIds;
+
+	// Coordinates of the edge count + 1 nodes along the path, the source node first
+	private final double[] longitudes;
+	private final double[] latitudes;
+	private final int length;
+
+	/**
+	 * @param sourceNodeId The source node of the path, the only node of a path without edges
+	 * @param edgeIds      The edge IDs of the path from source to target node, which is owned by the path afterwards
+	 */
+	public Path (final AdjacencyGraph adjacencyGraph, final int sourceNodeId, final int[] edgeIds) {
+		assert edgeIds.length == 0 || adjacencyGraph.getSourceOf(edgeIds[0]) == sourceNodeId;
+
+		this.edgeIds = edgeIds;
+		this.longitudes = new double[edgeIds.length + 1];
+		this.latitudes = new double[edgeIds.length + 1];
+		this.longitudes[0] = adjacencyGraph.getLongitudeOf(sourceNodeId);
+		this.latitudes[0] = adjacencyGraph.getLatitudeOf(sourceNodeId);
+
+		int length = 0;
+		for (int i = 0; i < edgeIds.length; i++) {
+			final int nodeId = adjacencyGraph.getTargetOf(edgeIds[i]);
+			this.longitudes[i + 1] = adjacencyGraph.getLongitudeOf(nodeId);
+			this.latitudes[i + 1] = adjacencyGraph.getLatitudeOf(nodeId);
+			length += adjacencyGraph.getDistanceOf(edgeIds[i]);
+		}
+		this.length = length;
+	}
+
+	/**
+	 * @return The sum of the edge distances
+	 */
+	public int getLength () {
+		return this.length;
+	}
+
+	public int getEdgeCount () {
+		return this.edgeIds.length;
+	}
+
+	public int getEdgeIdAt (final int index) {
+		return this.edgeIds[index];
+	}
+
+	/**
+	 * @return The count of nodes along the path, which is the edge count + 1
+	 */
+	public int getNodeCount () {
+		return this.longitudes.length;
+	}
+
+	public double getLongitudeAt (final int nodeIndex) {
+		return this.longitudes[nodeIndex];
+	}
+
+	public double getLatitudeAt (final int nodeIndex) {
+		return this.latitudes[nodeIndex];
+	}
+
+	/**
+	 * @return The approximate heap size of the path, about 20 bytes per edge for its edge IDs & coordinates
+	 */
+	public long getSizeInBytes () {
+		return (long) Integer.BYTES * this.edgeIds.length + 2L * Double.BYTES * this.longitudes.length + 64;
+	}
 }
@@ -0,0 +1,38 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+/**
+ * The {@link NodePriorityQueue} implementations a {@link DijkstraAlgorithm} run can be executed with.
+ */
+public enum QueueType {
+	/**
+	 * {@link IndexedDaryHeap} with 2 children per heap node
+	 */
+	BINARY_HEAP,
+	/**
+	 * {@link IndexedDaryHeap} with 4 children per heap node, the default
+	 */
+	QUATERNARY_HEAP,
+	/**
+	 * {@link RadixHeap}, which only touches a few buckets per entry & does no comparisons on insert
+	 */
+	RADIX_HEAP,
+	/**
+	 * {@link DialBucketQueue}, which is fastest for small maximal edge distances
+	 */
+	DIAL_BUCKETS;
+
+	/**
+	 * @param adjacencyGraph The graph the queue is used for
+	 * @return A new & empty queue of this type
+	 */
+	public NodePriorityQueue create (final AdjacencyGraph adjacencyGraph) {
+		return switch (this) {
+			case BINARY_HEAP -> new IndexedDaryHeap(adjacencyGraph.getNodeCount(), 2);
+			case QUATERNARY_HEAP -> new IndexedDaryHeap(adjacencyGraph.getNodeCount(), 4);
+			case RADIX_HEAP -> new RadixHeap();
+			case DIAL_BUCKETS -> new DialBucketQueue(adjacencyGraph.getMaxDistance());
+		};
+	}
+}
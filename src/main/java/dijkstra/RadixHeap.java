@@ -0,0 +1,96 @@
+package dijkstra;
+
+import java.util.Arrays;
+
+/**
+ * A monotone radix heap of (int nodeID, int distance) tuples. Bucket i > 0 holds the entries whose distance differs from
+ * the last extracted distance in bit i - 1 as most significant bit, bucket 0 those equal to it. Extracting from an
+ * empty bucket 0 redistributes the first non-empty bucket, so every entry moves down at most 32 times.
+ * Decreasing a distance inserts the node again, the outdated entry is returned later with its outdated distance.
+ */
+public final class RadixHeap implements NodePriorityQueue {
+	private static final int BUCKET_COUNT = Integer.SIZE + 1;
+	private static final int INITIAL_BUCKET_CAPACITY = 64;
+
+	// Entries are encoded as long (int distance, int nodeID) like in the IndexedDaryHeap
+	private final long[][] buckets = new long[BUCKET_COUNT][INITIAL_BUCKET_CAPACITY];
+	private final int[] bucketSizes = new int[BUCKET_COUNT];
+	private int size;
+	private int lastExtractedDistance;
+
+	@Override
+	public boolean isEmpty () {
+		return this.size == 0;
+	}
+
+	@Override
+	public void insert (final int nodeId, final int distance) {
+		assert this.lastExtractedDistance <= distance : "Distance must not be smaller than the last extracted one.";
+
+		this.addToBucket(this.bucketIndexOf(distance), ((long) distance << 32) | nodeId);
+		this.size++;
+	}
+
+	@Override
+	public void decreaseKey (final int nodeId, final int distance) {
+		this.insert(nodeId, distance);
+	}
+
+	@Override
+	public int peekMinDistance () {
+		this.fillFirstBucket();
+		return this.lastExtractedDistance;
+	}
+
+	@Override
+	public int extractMin () {
+		this.fillFirstBucket();
+		this.size--;
+		return (int) this.buckets[0][--this.bucketSizes[0]];
+	}
+
+	@Override
+	public void clear () {
+		Arrays.fill(this.bucketSizes, 0);
+		this.size = 0;
+		this.lastExtractedDistance = 0;
+	}
+
+	/**
+	 * If bucket 0 is empty, the minimal distance of the first non-empty bucket becomes the last extracted distance &
+	 * the buckets entries are redistributed to the lower buckets, so at least bucket 0 gets filled.
+	 */
+	private void fillFirstBucket () {
+		assert !this.isEmpty();
+		if (0 < this.bucketSizes[0]) return;
+
+		int bucketIndex = 1;
+		while (this.bucketSizes[bucketIndex] == 0) bucketIndex++;
+
+		final long[] bucket = this.buckets[bucketIndex];
+		final int bucketSize = this.bucketSizes[bucketIndex];
+
+		long minEntry = bucket[0];
+		for (int i = 1; i < bucketSize; i++) {
+			if (bucket[i] < minEntry) minEntry = bucket[i];
+		}
+		this.lastExtractedDistance = (int) (minEntry >>> 32);
+
+		// Every entry of the bucket lands in a lower bucket now, so the bucket array is not modified while iterating
+		this.bucketSizes[bucketIndex] = 0;
+		for (int i = 0; i < bucketSize; i++) {
+			this.addToBucket(this.bucketIndexOf((int) (bucket[i] >>> 32)), bucket[i]);
+		}
+	}
+
+	private int bucketIndexOf (final int distance) {
+		return Integer.SIZE - Integer.numberOfLeadingZeros(distance ^ this.lastExtractedDistance);
+	}
+
+	private void addToBucket (final int bucketIndex, final long entry) {
+		if (this.bucketSizes[bucketIndex] == this.buckets[bucketIndex].length) {
+			this.buckets[bucketIndex] = Arrays.copyOf(this.buckets[bucketIndex], this.buckets[bucketIndex].length << 1);
+		}
+		this.buckets[bucketIndex][this.bucketSizes[bucketIndex]++] = entry;
+	}
+}
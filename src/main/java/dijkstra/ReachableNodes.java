@@ -0,0 +1,16 @@
+package dijkstra;
+
+/**
+ * The nodes a {@link BoundedDijkstra} settled within its distance budget, in ascending order of their distances.
+ *
+ * @param sourceNodeId The source node of the search
+ * @param maxDistance  The distance budget, no node is farther away than it
+ * @param nodeIds      The settled node IDs, the source node first
+ * @param distances    The distance of the node at the same index
+ */
+public record ReachableNodes(int sourceNodeId, int maxDistance, int[] nodeIds, int[] distances) {
+
+	public int nodeCount () {
+		return this.nodeIds.length;
+	}
+}
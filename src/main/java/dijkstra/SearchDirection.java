@@ -0,0 +1,15 @@
+package dijkstra;
+
+/**
+ * The direction edges are relaxed in by a search.
+ */
+public enum SearchDirection {
+	/**
+	 * Relaxes the outgoing edges of a node, so distances are measured from the source node
+	 */
+	FORWARD,
+	/**
+	 * Relaxes the incoming edges of a node, so distances are measured to the target node on the reverse graph
+	 */
+	BACKWARD
+}
@@ -0,0 +1,95 @@
+package dijkstra;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The search space of one query, which explains why one query takes milliseconds & another one seconds.
+ * <p>
+ * Counting is switched on by the system property {@code -DsearchStatistics=true}. The switch is a static final
+ * constant, so with counting switched off the JIT removes the counters from the search loops entirely, and switched on
+ * they are a few increments of the per thread {@link SearchWorkspace}.
+ *
+ * @param settledNodes  The count of nodes taken from the queue with their final distance
+ * @param relaxedEdges  The count of edges scanned from settled nodes
+ * @param queuePushes   The count of nodes inserted into the queue
+ * @param decreaseKeys  The count of distance decreases of queued nodes
+ * @param peakQueueSize The maximal count of queued but not yet settled nodes
+ * @param elapsedNanos  The wall time of the query
+ */
+public record SearchStatistics(int settledNodes, long relaxedEdges, long queuePushes, long decreaseKeys,
+                               int peakQueueSize, long elapsedNanos) {
+
+	public static final boolean ENABLED = Boolean.getBoolean("searchStatistics");
+
+	/**
+	 * Combines the statistics of both searches of a bidirectional query, which run alternately, so their queue sizes add
+	 * up & the elapsed time is the one of the whole query.
+	 *
+	 * @param other        The statistics of the opposite search
+	 * @param elapsedNanos The wall time of the whole query
+	 */
+	SearchStatistics plus (final SearchStatistics other, final long elapsedNanos) {
+		return new SearchStatistics(this.settledNodes + other.settledNodes, this.relaxedEdges + other.relaxedEdges,
+				this.queuePushes + other.queuePushes, this.decreaseKeys + other.decreaseKeys,
+				this.peakQueueSize + other.peakQueueSize, elapsedNanos);
+	}
+
+	/**
+	 * Sums the counts of several queries, whereas the maximal peak queue size & elapsed time are kept, e.g. for
+	 * dashboards. All methods are thread safe.
+	 */
+	public static final class Aggregate {
+		private final LongAdder queryCount = new LongAdder();
+		private final LongAdder settledNodes = new LongAdder();
+		private final LongAdder relaxedEdges = new LongAdder();
+		private final LongAdder queuePushes = new LongAdder();
+		private final LongAdder decreaseKeys = new LongAdder();
+		private final LongAdder elapsedNanos = new LongAdder();
+		private final LongAccumulator maxPeakQueueSize = new LongAccumulator(Math::max, 0);
+		private final LongAccumulator maxElapsedNanos = new LongAccumulator(Math::max, 0);
+
+		public void add (final SearchStatistics statistics) {
+			this.queryCount.increment();
+			this.settledNodes.add(statistics.settledNodes());
+			this.relaxedEdges.add(statistics.relaxedEdges());
+			this.queuePushes.add(statistics.queuePushes());
+			this.decreaseKeys.add(statistics.decreaseKeys());
+			this.elapsedNanos.add(statistics.elapsedNanos());
+			this.maxPeakQueueSize.accumulate(statistics.peakQueueSize());
+			this.maxElapsedNanos.accumulate(statistics.elapsedNanos());
+		}
+
+		public long getQueryCount () {
+			return this.queryCount.sum();
+		}
+
+		public long getSettledNodes () {
+			return this.settledNodes.sum();
+		}
+
+		public long getRelaxedEdges () {
+			return this.relaxedEdges.sum();
+		}
+
+		public long getQueuePushes () {
+			return this.queuePushes.sum();
+		}
+
+		public long getDecreaseKeys () {
+			return this.decreaseKeys.sum();
+		}
+
+		public long getElapsedNanos () {
+			return this.elapsedNanos.sum();
+		}
+
+		public long getMaxPeakQueueSize () {
+			return this.maxPeakQueueSize.get();
+		}
+
+		public long getMaxElapsedNanos () {
+			return this.maxElapsedNanos.get();
+		}
+	}
+}
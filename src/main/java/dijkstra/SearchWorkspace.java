@@ -0,0 +1,185 @@
+package dijkstra;
+
+import struct.AdjacencyGraph;
+
+import java.util.Arrays;
+
+/**
+ * The reusable per node state of a search, so a query doesn't have to allocate & initialize arrays of node count size.
+ * Every distance is stored together with the epoch of the search it was written by, whereas a new search just increments
+ * the epoch. So resetting takes O(1) & a short query only touches the memory of the nodes it actually visits.
+ * <p>
+ * Workspaces are pooled per thread & {@link SearchDirection} by {@link #forCurrentThread}, therefore a thread must
+ * execute one search per direction at a time. A bidirectional search uses both workspaces of its thread.
+ */
+final class SearchWorkspace {
+	private static final ThreadLocal<SearchWorkspace> forwardWorkspaces = new ThreadLocal<>();
+	private static final ThreadLocal<SearchWorkspace> backwardWorkspaces = new ThreadLocal<>();
+
+	private final AdjacencyGraph adjacencyGraph;
+	// Encoded as long (int epoch, int distance), so checking the epoch & reading the distance is a single memory access
+	private final long[] epochDistances;
+	private final int[] predecessorEdges;   // Only valid for nodes visited in the current epoch
+	private final NodePriorityQueue[] queues = new NodePriorityQueue[QueueType.values().length];
+	private int epoch;
+	private int settledNodeCount;  // Of the current search
+	// Further counters of the current search, only counted if the search statistics are enabled
+	private long relaxedEdgeCount;
+	private long queuePushCount;
+	private long decreaseKeyCount;
+	private int peakQueueSize;
+
+	SearchWorkspace (final AdjacencyGraph adjacencyGraph) {
+		this.adjacencyGraph = adjacencyGraph;
+		this.epochDistances = new long[adjacencyGraph.getNodeCount()];
+		this.predecessorEdges = new int[adjacencyGraph.getNodeCount()];
+	}
+
+	/**
+	 * Returns the forward workspace of the current thread.
+	 *
+	 * @see #forCurrentThread(AdjacencyGraph, SearchDirection)
+	 */
+	static SearchWorkspace forCurrentThread (final AdjacencyGraph adjacencyGraph) {
+		return SearchWorkspace.forCurrentThread(adjacencyGraph, SearchDirection.FORWARD);
+	}
+
+	/**
+	 * Returns the workspace of the current thread for the specified graph & direction and resets it for a new search.
+	 * A workspace for another graph is replaced.
+	 *
+	 * @param adjacencyGraph The graph the search is executed on
+	 * @param direction      The direction of the search, so both searches of a bidirectional search get their own state
+	 * @return The reset workspace
+	 */
+	static SearchWorkspace forCurrentThread (final AdjacencyGraph adjacencyGraph, final SearchDirection direction) {
+		final ThreadLocal<SearchWorkspace> workspaces = (direction == SearchDirection.FORWARD) ?
+				SearchWorkspace.forwardWorkspaces : SearchWorkspace.backwardWorkspaces;
+
+		SearchWorkspace workspace = workspaces.get();
+		if (workspace == null || workspace.adjacencyGraph != adjacencyGraph) {
+			workspace = new SearchWorkspace(adjacencyGraph);
+			workspaces.set(workspace);
+		}
+		workspace.reset();
+		return workspace;
+	}
+
+	/**
+	 * Invalidates all distances of the previous search by starting a new epoch. Only on overflow of the epoch counter
+	 * all distances are invalidated explicitly.
+	 */
+	void reset () {
+		if (++this.epoch == Integer.MAX_VALUE) {
+			Arrays.fill(this.epochDistances, 0);
+			this.epoch = 1;
+		}
+		this.settledNodeCount = 0;
+		this.relaxedEdgeCount = 0;
+		this.queuePushCount = 0;
+		this.decreaseKeyCount = 0;
+		this.peakQueueSize = 0;
+	}
+
+	void countSettledNode () {
+		this.settledNodeCount++;
+	}
+
+	int getSettledNodeCount () {
+		return this.settledNodeCount;
+	}
+
+	void countRelaxedEdge () {
+		if (SearchStatistics.ENABLED) this.relaxedEdgeCount++;
+	}
+
+	/**
+	 * Counts a node inserted into the queue. The nodes queued but not settled yet are the pushed minus the settled ones.
+	 */
+	void countQueuePush () {
+		if (SearchStatistics.ENABLED) {
+			this.queuePushCount++;
+			this.peakQueueSize = (int) Math.max(this.peakQueueSize, this.queuePushCount - this.settledNodeCount);
+		}
+	}
+
+	void countDecreaseKey () {
+		if (SearchStatistics.ENABLED) this.decreaseKeyCount++;
+	}
+
+	/**
+	 * @param elapsedNanos The wall time of the search
+	 * @return The statistics of the current search
+	 */
+	SearchStatistics statisticsOf (final long elapsedNanos) {
+		return new SearchStatistics(this.settledNodeCount, this.relaxedEdgeCount, this.queuePushCount,
+				this.decreaseKeyCount, this.peakQueueSize, elapsedNanos);
+	}
+
+	/**
+	 * @param queueType The type of the queue
+	 * @return The empty queue of that type, which is created on first use
+	 */
+	NodePriorityQueue getQueue (final QueueType queueType) {
+		NodePriorityQueue queue = this.queues[queueType.ordinal()];
+		if (queue == null) {
+			queue = this.queues[queueType.ordinal()] = queueType.create(this.adjacencyGraph);
+		} else {
+			queue.clear();
+		}
+		return queue;
+	}
+
+	/**
+	 * @param nodeId The node ID
+	 * @return The distance of the node in the current search or {@code Integer.MAX_VALUE}, if it was not visited yet
+	 */
+	int getDistance (final int nodeId) {
+		final long epochDistance = this.epochDistances[nodeId];
+		return ((int) (epochDistance >>> 32) == this.epoch) ? (int) epochDistance : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * @param nodeId          The node ID
+	 * @param distance        The non-negative distance of the node in the current search
+	 * @param predecessorEdge The edge ID the node was reached by
+	 */
+	void setDistance (final int nodeId, final int distance, final int predecessorEdge) {
+		this.epochDistances[nodeId] = ((long) this.epoch << 32) | distance;
+		this.predecessorEdges[nodeId] = predecessorEdge;
+	}
+
+	/**
+	 * @return The predecessor edges, which are only valid for nodes visited in the current search
+	 */
+	int[] getPredecessorEdges () {
+		return this.predecessorEdges;
+	}
+
+	/**
+	 * Copies the predecessor edges of the current search to a new array, e.g. for a {@link OneToAllResult}.
+	 *
+	 * @return The predecessor edges, whereas nodes not visited & the source node have the predecessor edge -1
+	 */
+	int[] copyPredecessorEdges (final int sourceNodeId) {
+		final int[] predecessorEdgesCopy = new int[this.predecessorEdges.length];
+		for (int nodeId = 0; nodeId < predecessorEdgesCopy.length; nodeId++) {
+			predecessorEdgesCopy[nodeId] = ((int) (this.epochDistances[nodeId] >>> 32) == this.epoch) ? this.predecessorEdges[nodeId] : -1;
+		}
+		predecessorEdgesCopy[sourceNodeId] = -1;
+		return predecessorEdgesCopy;
+	}
+
+	/**
+	 * Copies the distances of the current search to a new array, e.g. for a {@link OneToAllResult}.
+	 *
+	 * @return The distances, whereas nodes not visited have the distance {@code Integer.MAX_VALUE}
+	 */
+	int[] copyDistances () {
+		final int[] distancesCopy = new int[this.epochDistances.length];
+		for (int nodeId = 0; nodeId < distancesCopy.length; nodeId++) {
+			distancesCopy[nodeId] = this.getDistance(nodeId);
+		}
+		return distancesCopy;
+	}
+}
@@ -0,0 +1,229 @@
+package execution;
+
+import dijkstra.BidirectionalDijkstra;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
+import struct.AdjacencyGraph;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Executes the one to one queries of a .que file on a pool of workers. The file is streamed in chunks of queries, so
+ * neither the queries nor the results of a huge file are held in memory at once. Every worker thread searches with its
+ * own per thread search state, the distances are written in input order one per line.
+ */
+public class BatchQueryExecutor {
+
+	// Count of queries a worker answers per task, so the pool overhead is small compared to the searches
+	static final int CHUNK_SIZE = 256;
+
+	// Count of chunks in flight per worker, which bounds the memory of results waiting to be written
+	private static final int CHUNKS_PER_WORKER = 4;
+
+	private final IntBinaryOperator distanceQuery;
+	private final int workerCount;
+
+	/**
+	 * @param distanceQuery Calculates the distance from the first to the second node ID or -1, if it is not reachable.
+	 *                      It is called by all workers concurrently.
+	 * @param workerCount   The count of worker threads
+	 */
+	public BatchQueryExecutor (final IntBinaryOperator distanceQuery, final int workerCount) {
+		if (workerCount < 1)
+			throw new IllegalArgumentException("Worker count must be positive, but is " + workerCount + ".");
+
+		this.distanceQuery = distanceQuery;
+		this.workerCount = workerCount;
+	}
+
+	/**
+	 * @return A distance query by the bidirectional dijkstra, which returns 0 for equal nodes & -1 for unreachable ones
+	 */
+	public static IntBinaryOperator bidirectionalDistanceOf (final AdjacencyGraph adjacencyGraph) {
+		return (sourceNodeId, targetNodeId) -> {
+			final int distance = BidirectionalDijkstra.distance(adjacencyGraph, sourceNodeId, targetNodeId);
+			return (distance == Integer.MAX_VALUE) ? -1 : distance;
+		};
+	}
+
+	/**
+	 * Reads the queries, one "source target" pair per line, & writes their distances in the same order. The writer is
+	 * flushed, but not closed.
+	 *
+	 * @param queryReader  The .que file reader
+	 * @param resultWriter The writer the distances are written to, one per line
+	 * @return The throughput & latency report
+	 * @throws IOException On read or write failure or if a line is no query
+	 */
+	public Report execute (final BufferedReader queryReader, final Writer resultWriter) throws IOException {
+		final ExecutorService workers = Executors.newFixedThreadPool(this.workerCount);
+		final Deque<Future<Chunk>> chunksInFlight = new ArrayDeque<>();
+		final LongArrayList latencies = new LongArrayList();
+		final long start = System.nanoTime();
+
+		try {
+			int[] queries;
+			while ((queries = BatchQueryExecutor.readChunk(queryReader)).length != 0) {
+				final int[] chunkQueries = queries;
+				chunksInFlight.addLast(workers.submit(() -> this.answer(chunkQueries)));
+
+				// The oldest chunk is written first, so the results keep the order of the queries
+				if (this.workerCount * CHUNKS_PER_WORKER <= chunksInFlight.size()) {
+					BatchQueryExecutor.write(chunksInFlight.removeFirst(), resultWriter, latencies);
+				}
+			}
+			while (!chunksInFlight.isEmpty()) {
+				BatchQueryExecutor.write(chunksInFlight.removeFirst(), resultWriter, latencies);
+			}
+			resultWriter.flush();
+		} finally {
+			workers.shutdownNow();
+		}
+
+		final long[] sortedLatencies = latencies.toLongArray();
+		Arrays.sort(sortedLatencies);
+		return new Report(System.nanoTime() - start, sortedLatencies);
+	}
+
+	/**
+	 * @return The source & target node IDs of up to {@value #CHUNK_SIZE} queries, alternating, or an empty array at the
+	 * end of the file. Blank lines are skipped.
+	 */
+	private static int[] readChunk (final BufferedReader queryReader) throws IOException {
+		final int[] queries = new int[2 * CHUNK_SIZE];
+		int queryCount = 0;
+		String line;
+		while (queryCount < CHUNK_SIZE && (line = queryReader.readLine()) != null) {
+			line = line.strip();
+			if (line.isEmpty()) continue;
+
+			final int separatorIndex = line.indexOf(' ');
+			try {
+				queries[2 * queryCount] = Integer.parseInt(line.substring(0, separatorIndex));
+				queries[2 * queryCount + 1] = Integer.parseInt(line.substring(separatorIndex + 1).strip());
+			} catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+				throw new IOException("Line \"" + line + "\" is no query of a source and a target node ID.", e);
+			}
+			queryCount++;
+		}
+		return Arrays.copyOf(queries, 2 * queryCount);
+	}
+
+	private Chunk answer (final int[] queries) {
+		final int queryCount = queries.length / 2;
+		final int[] distances = new int[queryCount];
+		final long[] latencies = new long[queryCount];
+
+		for (int query = 0; query < queryCount; query++) {
+			final long queryStart = System.nanoTime();
+			distances[query] = this.distanceQuery.applyAsInt(queries[2 * query], queries[2 * query + 1]);
+			latencies[query] = System.nanoTime() - queryStart;
+		}
+		return new Chunk(distances, latencies);
+	}
+
+	private static void write (final Future<Chunk> chunkFuture, final Writer resultWriter, final LongArrayList latencies)
+			throws IOException {
+		final Chunk chunk;
+		try {
+			chunk = chunkFuture.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while waiting for the results of a chunk of queries.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("A chunk of queries failed.", e.getCause());
+		}
+
+		for (int distance : chunk.distances()) {
+			resultWriter.write(Integer.toString(distance));
+			resultWriter.write('\n');
+		}
+		latencies.addElements(latencies.size(), chunk.latencies());
+	}
+
+	private record Chunk(int[] distances, long[] latencies) {
+	}
+
+	/**
+	 * The throughput & the latency distribution of a batch.
+	 *
+	 * @param elapsedNanos    The wall time of the whole batch including reading & writing
+	 * @param sortedLatencies The latency of every query in ascending order
+	 */
+	public record Report(long elapsedNanos, long[] sortedLatencies) {
+
+		public int queryCount () {
+			return this.sortedLatencies.length;
+		}
+
+		public double queriesPerSecond () {
+			return (this.elapsedNanos == 0) ? 0 : this.sortedLatencies.length * 1e9 / this.elapsedNanos;
+		}
+
+		/**
+		 * @param percentile The percentile in [0, 100]
+		 * @return The latency in nanoseconds, which the specified percentage of queries didn't exceed (nearest rank)
+		 */
+		public long latencyPercentile (final double percentile) {
+			if (percentile < 0 || 100 < percentile)
+				throw new IllegalArgumentException("Percentile " + percentile + " is not in range [0, 100].");
+			if (this.sortedLatencies.length == 0) return 0;
+
+			final int rank = (int) Math.ceil(percentile / 100 * this.sortedLatencies.length);
+			return this.sortedLatencies[Math.max(0, rank - 1)];
+		}
+
+		@Override
+		public String toString () {
+			return String.format("%d queries in %d ms (%.1f queries/s), latency p50 %.3f ms, p90 %.3f ms, p99 %.3f ms, max %.3f ms",
+					this.queryCount(), this.elapsedNanos / 1_000_000, this.queriesPerSecond(),
+					this.latencyPercentile(50) * 1e-6, this.latencyPercentile(90) * 1e-6,
+					this.latencyPercentile(99) * 1e-6, this.latencyPercentile(100) * 1e-6);
+		}
+	}
+
+	/**
+	 * @param args The FMI graph file or graph snapshot path, the .que file path, the result file path & optionally the
+	 *             count of workers, which defaults to the count of available cores
+	 */
+	public static void main (String... args) throws IOException
+	{
+		if (args.length < 3)
+			throw new IllegalArgumentException("Usage: <path/to/graph.fmi|snapshot> <path/to/queries.que> <path/to/results> [workers]");
+
+		File graphFile = new File(args[0]);
+		File queFile = new File(args[1]);
+		File resultFile = new File(args[2]);
+		int workerCount = (args.length < 4) ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(args[3]);
+
+		System.out.println("Reading graph file and creating graph data structure (" + graphFile + ")");
+		AdjacencyGraph adjacencyGraph = GraphSnapshot.isSnapshot(graphFile) ?
+				GraphSnapshot.read(graphFile).adjacencyGraph() : MappedGraphReader.createAdjacencyGraphOf(graphFile);
+		if (adjacencyGraph == null)
+			throw new IOException("Failed to read graph file " + graphFile);
+
+		System.out.println("Running queries of " + queFile + " on " + workerCount + " workers");
+		BatchQueryExecutor batchQueryExecutor = new BatchQueryExecutor(BatchQueryExecutor.bidirectionalDistanceOf(adjacencyGraph), workerCount);
+		try (
+				BufferedReader queryReader = new BufferedReader(new FileReader(queFile));
+				BufferedWriter resultWriter = new BufferedWriter(new FileWriter(resultFile))
+		) {
+			System.out.println("\t" + batchQueryExecutor.execute(queryReader, resultWriter));
+		}
+	}
+}
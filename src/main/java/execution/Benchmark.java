@@ -1,21 +1,25 @@
 package execution;
 
 import dijkstra.DijkstraAlgorithm;
-import dijkstra.DijkstraResult;
-import loader.GraphReader;
+import dijkstra.OneToAllResult;
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
 import struct.AdjacencyGraph;
 import struct.SortedAdjacencyGraph;
 
 import javax.naming.OperationNotSupportedException;
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileReader;
-import java.util.Deque;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.util.Optional;
 import java.util.Scanner;
 
 public class Benchmark {
 
-	public static void main(String[] args) throws OperationNotSupportedException
+	public static void main(String[] args) throws OperationNotSupportedException, IOException
 	{
 		int argCounter = 0;
 		for (var arg : args) {
@@ -35,13 +39,21 @@ public class Benchmark {
 		long graphReadStart = System.currentTimeMillis();
 		// TODO: read graph here
 		File fmiGraphFile = new File(graphPath);
-		AdjacencyGraph adjacencyGraph = GraphReader.createAdjacencyGraphOf(fmiGraphFile);
+		final AdjacencyGraph adjacencyGraph;
+		Optional<SortedAdjacencyGraph> snapshotSortedAdjacencyGraph = Optional.empty();
+		if (GraphSnapshot.isSnapshot(fmiGraphFile)) {
+			GraphSnapshot graphSnapshot = GraphSnapshot.read(fmiGraphFile);
+			adjacencyGraph = graphSnapshot.adjacencyGraph();
+			snapshotSortedAdjacencyGraph = graphSnapshot.sortedAdjacencyGraph();
+		} else {
+			adjacencyGraph = MappedGraphReader.createAdjacencyGraphOf(fmiGraphFile);
+		}
 		long graphReadEnd = System.currentTimeMillis();
 		System.out.println("\tgraph read took " + (graphReadEnd - graphReadStart) + "ms");
 
 		System.out.println("Setting up closest node data structure...");
 		// TODO: set up closest node data structure here
-		SortedAdjacencyGraph sortedAdjacencyGraph = new SortedAdjacencyGraph(adjacencyGraph);
+		SortedAdjacencyGraph sortedAdjacencyGraph = snapshotSortedAdjacencyGraph.orElseGet(() -> new SortedAdjacencyGraph(adjacencyGraph));
 
 		System.out.println("Finding closest node to coordinates " + lon + " " + lat);
 		long nodeFindStart = System.currentTimeMillis();
@@ -55,31 +67,24 @@ public class Benchmark {
 
 		System.out.println("Running one-to-one Dijkstras for queries in .que file " + quePath);
 		long queStart = System.currentTimeMillis();
+		// Queries are answered by a worker per core & the distances are written in input order, buffered
+		BatchQueryExecutor batchQueryExecutor = new BatchQueryExecutor(BatchQueryExecutor.bidirectionalDistanceOf(adjacencyGraph),
+				Runtime.getRuntime().availableProcessors());
+		BatchQueryExecutor.Report report = null;
 		try (BufferedReader bufferedReader = new BufferedReader(new FileReader(quePath))) {
-			String currLine;
-			while ((currLine = bufferedReader.readLine()) != null) {
-				int oneToOneSourceNodeId = Integer.parseInt(currLine.substring(0, currLine.indexOf(" ")));
-				int oneToOneTargetNodeId = Integer.parseInt(currLine.substring(currLine.indexOf(" ") + 1));
-				int oneToOneDistance = -42;
-				// TODO set oneToOneDistance to the distance from
-				// oneToOneSourceNodeId to oneToOneSourceNodeId as computed by
-				// the one-to-one Dijkstra
-				DijkstraResult dijkstraResultToOne =
-						DijkstraAlgorithm.dijkstra(adjacencyGraph, oneToOneSourceNodeId, oneToOneTargetNodeId);
-				oneToOneDistance = dijkstraResultToOne.getLength();
-				System.out.println(oneToOneDistance);
-			}
+			report = batchQueryExecutor.execute(bufferedReader, new BufferedWriter(new OutputStreamWriter(System.out)));
 		} catch (Exception e) {
 			System.out.println("Exception...");
 			e.printStackTrace();
 		}
 		long queEnd = System.currentTimeMillis();
 		System.out.println("\tprocessing .que file took " + (queEnd - queStart) + "ms");
+		if (report != null) System.out.println("\t" + report);
 
 		System.out.println("Computing one-to-all Dijkstra from node id " + sourceNodeId);
 		long oneToAllStart = System.currentTimeMillis();
 		// TODO: run one-to-all Dijkstra here
-		DijkstraResult dijkstraResultToAll = DijkstraAlgorithm.dijkstra(adjacencyGraph, sourceNodeId);
+		OneToAllResult dijkstraResultToAll = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjacencyGraph, sourceNodeId);
 		long oneToAllEnd = System.currentTimeMillis();
 		System.out.println("\tone-to-all Dijkstra took " + (oneToAllEnd - oneToAllStart) + "ms");
 
@@ -89,8 +94,7 @@ public class Benchmark {
 		int oneToAllDistance = -42;
 		// TODO set oneToAllDistance to the distance from sourceNodeId to
 		// targetNodeId as computed by the one-to-all Dijkstra
-		Deque<Integer> pathToInput = dijkstraResultToAll.getPathTo(targetNodeId);
-		oneToAllDistance = dijkstraResultToAll.getLengthOf(pathToInput);
+		oneToAllDistance = dijkstraResultToAll.getDistanceTo(targetNodeId);
 		System.out.println("Distance from " + sourceNodeId + " to " + targetNodeId + " is " + oneToAllDistance);
 	}
 
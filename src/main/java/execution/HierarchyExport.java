@@ -0,0 +1,51 @@
+package execution;
+
+import hierarchy.ContractionHierarchy;
+import hierarchy.ContractionHierarchyBuilder;
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Builds the {@code ContractionHierarchy} of a FMI plain text graph file or graph snapshot & writes it to a file, which
+ * the server reads at startup instead of contracting the graph again.
+ */
+public class HierarchyExport {
+
+	/**
+	 * @param args The FMI graph file or graph snapshot path & the hierarchy file path
+	 */
+	public static void main(String... args) throws IOException
+	{
+		if (args.length < 2)
+			throw new IllegalArgumentException("Usage: <path/to/graph.fmi|snapshot> <path/to/hierarchy>");
+
+		File graphFile = new File(args[0]);
+		File hierarchyFile = new File(args[1]);
+
+		System.out.println("Reading graph file and creating graph data structure (" + graphFile + ")");
+		long graphReadStart = System.currentTimeMillis();
+		AdjacencyGraph adjacencyGraph = GraphSnapshot.isSnapshot(graphFile) ?
+				GraphSnapshot.read(graphFile).adjacencyGraph() : MappedGraphReader.createAdjacencyGraphOf(graphFile);
+		if (adjacencyGraph == null)
+			throw new IOException("Failed to read graph file " + graphFile);
+		long graphReadEnd = System.currentTimeMillis();
+		System.out.println("\tgraph read took " + (graphReadEnd - graphReadStart) + "ms");
+
+		System.out.println("Contracting graph");
+		long contractionStart = System.currentTimeMillis();
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjacencyGraph);
+		long contractionEnd = System.currentTimeMillis();
+		System.out.println("\tcontraction took " + (contractionEnd - contractionStart) + "ms and added " +
+				contractionHierarchy.getShortcutCount() + " shortcuts");
+
+		System.out.println("Writing contraction hierarchy (" + hierarchyFile + ")");
+		long hierarchyWriteStart = System.currentTimeMillis();
+		contractionHierarchy.write(hierarchyFile);
+		long hierarchyWriteEnd = System.currentTimeMillis();
+		System.out.println("\thierarchy write took " + (hierarchyWriteEnd - hierarchyWriteStart) + "ms");
+	}
+}
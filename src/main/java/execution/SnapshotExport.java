@@ -0,0 +1,43 @@
+package execution;
+
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
+import struct.AdjacencyGraph;
+import struct.SortedAdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Exports a FMI plain text graph file to a binary {@code GraphSnapshot}, which the server & benchmark start from way faster.
+ */
+public class SnapshotExport {
+
+	/**
+	 * @param args The FMI graph file path, the snapshot file path & optionally "--with-index" to also store the spatial index
+	 */
+	public static void main(String... args) throws IOException
+	{
+		if (args.length < 2)
+			throw new IllegalArgumentException("Usage: <path/to/graph.fmi> <path/to/snapshot> [--with-index]");
+
+		File fmiGraphFile = new File(args[0]);
+		File snapshotFile = new File(args[1]);
+		boolean withSpatialIndex = args.length > 2 && "--with-index".equals(args[2]);
+
+		System.out.println("Reading graph file and creating graph data structure (" + fmiGraphFile + ")");
+		long graphReadStart = System.currentTimeMillis();
+		AdjacencyGraph adjacencyGraph = MappedGraphReader.createAdjacencyGraphOf(fmiGraphFile);
+		if (adjacencyGraph == null)
+			throw new IOException("Failed to read graph file " + fmiGraphFile);
+		SortedAdjacencyGraph sortedAdjacencyGraph = withSpatialIndex ? new SortedAdjacencyGraph(adjacencyGraph) : null;
+		long graphReadEnd = System.currentTimeMillis();
+		System.out.println("\tgraph read took " + (graphReadEnd - graphReadStart) + "ms");
+
+		System.out.println("Writing graph snapshot " + (withSpatialIndex ? "including spatial index " : "") + "(" + snapshotFile + ")");
+		long snapshotWriteStart = System.currentTimeMillis();
+		GraphSnapshot.write(adjacencyGraph, sortedAdjacencyGraph, snapshotFile);
+		long snapshotWriteEnd = System.currentTimeMillis();
+		System.out.println("\tsnapshot write took " + (snapshotWriteEnd - snapshotWriteStart) + "ms");
+	}
+}
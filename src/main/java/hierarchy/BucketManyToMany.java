@@ -0,0 +1,146 @@
+package hierarchy;
+
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+import java.util.Arrays;
+
+/**
+ * Many to many distance table on a {@link ContractionHierarchy} by buckets (Knopp et al.). A backward upward search per
+ * target stores its distance in the bucket of every node it settles. Then a forward upward search per source scans the
+ * buckets of the nodes it settles: the shortest path of every source target pair leads over a node both searches settle,
+ * so the minimum over the bucket entries is the distance. Each search only settles the few hundred nodes above its start
+ * node, so a table of S sources & T targets costs S + T small searches instead of S * T queries.
+ */
+public final class BucketManyToMany {
+
+	private BucketManyToMany () {
+	}
+
+	/**
+	 * @param contractionHierarchy The hierarchy of the graph
+	 * @param sourceNodeIds        The source node IDs, the rows of the table
+	 * @param targetNodeIds        The target node IDs, the columns of the table
+	 * @return The distance table, {@code Integer.MAX_VALUE} for targets not reachable from a source
+	 * @throws IllegalArgumentException If a node ID is out of range
+	 */
+	public static int[][] distances (final ContractionHierarchy contractionHierarchy, final int[] sourceNodeIds,
+	                                 final int[] targetNodeIds) {
+		final int nodeCount = contractionHierarchy.getAdjacencyGraph().getNodeCount();
+		BucketManyToMany.checkNodeIds(sourceNodeIds, nodeCount, "Source");
+		BucketManyToMany.checkNodeIds(targetNodeIds, nodeCount, "Target");
+
+		final ContractionHierarchy.UpwardSearch search = contractionHierarchy.upwardSearchOfCurrentThread();
+		final Buckets buckets = new Buckets();
+		for (int target = 0; target < targetNodeIds.length; target++) {
+			search.start(targetNodeIds[target]);
+			while (!search.heap.isEmpty()) {
+				final int currentDistance = search.heap.peekMinDistance();
+				final int currentNode = search.heap.extractMin();
+				if (search.isStalled(currentNode, currentDistance,
+						contractionHierarchy.upOffset, contractionHierarchy.upNodes, contractionHierarchy.upDistances)) continue;
+
+				buckets.add(currentNode, target, currentDistance);
+				search.relax(currentNode, currentDistance, contractionHierarchy.downOffset, contractionHierarchy.downNodes,
+						contractionHierarchy.downDistances, contractionHierarchy.downArcs);
+			}
+		}
+		buckets.finish();
+
+		final int[][] distances = new int[sourceNodeIds.length][targetNodeIds.length];
+		for (int source = 0; source < sourceNodeIds.length; source++) {
+			final int[] sourceDistances = distances[source];
+			Arrays.fill(sourceDistances, Integer.MAX_VALUE);
+
+			search.start(sourceNodeIds[source]);
+			while (!search.heap.isEmpty()) {
+				final int currentDistance = search.heap.peekMinDistance();
+				final int currentNode = search.heap.extractMin();
+				if (search.isStalled(currentNode, currentDistance,
+						contractionHierarchy.downOffset, contractionHierarchy.downNodes, contractionHierarchy.downDistances)) continue;
+
+				buckets.scan(currentNode, currentDistance, sourceDistances);
+				search.relax(currentNode, currentDistance, contractionHierarchy.upOffset, contractionHierarchy.upNodes,
+						contractionHierarchy.upDistances, contractionHierarchy.upArcs);
+			}
+		}
+		return distances;
+	}
+
+	private static void checkNodeIds (final int[] nodeIds, final int nodeCount, final String role) {
+		for (int nodeId : nodeIds) {
+			if (nodeId < 0 || nodeCount <= nodeId)
+				throw new IllegalArgumentException(role + " node " + nodeId + " is negative or greater than the maximal node ID.");
+		}
+	}
+
+	/**
+	 * The (target, distance) entries of all settled nodes. They are collected in settle order & grouped by node in one
+	 * array afterwards, so scanning the bucket of a node reads a contiguous range.
+	 */
+	private static final class Buckets {
+		private final IntArrayList nodeIds = new IntArrayList();
+		private final IntArrayList targets = new IntArrayList();
+		private final IntArrayList targetDistances = new IntArrayList();
+
+		// Bucket index of every node with entries, the entries of bucket b are located at [offset[b], offset[b + 1])
+		private final Int2IntOpenHashMap bucketIndices = new Int2IntOpenHashMap();
+		private int[] offset;
+		private int[] entryTargets;
+		private int[] entryDistances;
+
+		Buckets () {
+			this.bucketIndices.defaultReturnValue(-1);
+		}
+
+		void add (final int nodeId, final int target, final int distance) {
+			this.nodeIds.add(nodeId);
+			this.targets.add(target);
+			this.targetDistances.add(distance);
+		}
+
+		/**
+		 * Groups the entries by node by a counting sort, which keeps the order of the targets within a bucket.
+		 */
+		void finish () {
+			final int entryCount = this.nodeIds.size();
+			final IntArrayList bucketSizes = new IntArrayList();
+			for (int i = 0; i < entryCount; i++) {
+				final int bucketIndex = this.bucketIndices.putIfAbsent(this.nodeIds.getInt(i), bucketSizes.size());
+				if (bucketIndex == -1) {
+					bucketSizes.add(1);
+				} else {
+					bucketSizes.set(bucketIndex, bucketSizes.getInt(bucketIndex) + 1);
+				}
+			}
+
+			this.offset = new int[bucketSizes.size() + 1];
+			for (int bucketIndex = 0; bucketIndex < bucketSizes.size(); bucketIndex++) {
+				this.offset[bucketIndex + 1] = this.offset[bucketIndex] + bucketSizes.getInt(bucketIndex);
+			}
+
+			final int[] insertPositions = Arrays.copyOf(this.offset, bucketSizes.size());
+			this.entryTargets = new int[entryCount];
+			this.entryDistances = new int[entryCount];
+			for (int i = 0; i < entryCount; i++) {
+				final int position = insertPositions[this.bucketIndices.get(this.nodeIds.getInt(i))]++;
+				this.entryTargets[position] = this.targets.getInt(i);
+				this.entryDistances[position] = this.targetDistances.getInt(i);
+			}
+		}
+
+		/**
+		 * Lowers the distance of every target in the bucket of the node, which is reached shorter over the node.
+		 */
+		void scan (final int nodeId, final int distance, final int[] sourceDistances) {
+			final int bucketIndex = this.bucketIndices.get(nodeId);
+			if (bucketIndex == -1) return;
+
+			for (int position = this.offset[bucketIndex]; position < this.offset[bucketIndex + 1]; position++) {
+				final long viaDistance = (long) distance + this.entryDistances[position];
+				final int target = this.entryTargets[position];
+				if (viaDistance < sourceDistances[target]) sourceDistances[target] = (int) viaDistance;
+			}
+		}
+	}
+}
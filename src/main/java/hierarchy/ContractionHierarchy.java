@@ -0,0 +1,473 @@
+package hierarchy;
+
+import dijkstra.IndexedDaryHeap;
+import dijkstra.OneToOnePath;
+import dijkstra.Path;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * The contracted graph of an {@code AdjacencyGraph} built by the {@link ContractionHierarchyBuilder}. Every node only
+ * keeps the arcs to nodes of higher rank: the upward arcs it leads to & the downward arcs leading to it, which are walked
+ * in reverse by the backward search. A query searches upward from both source & target node, the shortest path leads
+ * over the highest ranked node of it, where both searches meet. The nodes of an uncontracted core keep their arcs among
+ * each other as upward & downward arcs, so both searches walk the core like a bidirectional dijkstra.
+ * <p>
+ * Arc IDs below the edge count of the graph are its original edges, the others are shortcuts bridging two arcs. So every
+ * path is unpacked recursively to the original edge IDs.
+ * <p>
+ * A hierarchy is stored by {@link #write} in the same way as a {@code loader.GraphSnapshot} (little endian sections
+ * after a {@value #HEADER_SIZE} byte header holding magic, version, counts & the CRC32C of the payload) & read back by
+ * {@link #read} for the graph it was built for.
+ */
+public final class ContractionHierarchy {
+	private static final Logger logger = Logger.getLogger(ContractionHierarchy.class.getName());
+	public static boolean enableLogging;
+
+	private static final long MAGIC = 0x5050_4849_4552_4152L; // "PPHIERAR"
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 64;
+
+	private final AdjacencyGraph adjacencyGraph;
+	private final int[] ranks;
+
+	// The upward arcs of node n are located at the indices [upOffset[n], upOffset[n + 1])
+	final int[] upOffset;
+	final int[] upNodes;
+	final int[] upDistances;
+	final int[] upArcs;
+	// The downward arcs to node n, whose downNodes are their source nodes
+	final int[] downOffset;
+	final int[] downNodes;
+	final int[] downDistances;
+	final int[] downArcs;
+
+	private final int[] shortcutFirstArcs;
+	private final int[] shortcutSecondArcs;
+
+	// Both upward searches of a query, reused per thread
+	private final ThreadLocal<UpwardSearch[]> upwardSearches;
+
+	/**
+	 * @throws IllegalArgumentException If the arrays are inconsistent with each other or the graph
+	 */
+	ContractionHierarchy (final AdjacencyGraph adjacencyGraph, final int[] ranks,
+	                      final int[] upOffset, final int[] upNodes, final int[] upDistances, final int[] upArcs,
+	                      final int[] downOffset, final int[] downNodes, final int[] downDistances, final int[] downArcs,
+	                      final int[] shortcutFirstArcs, final int[] shortcutSecondArcs) {
+		this.adjacencyGraph = adjacencyGraph;
+		this.ranks = ranks;
+		this.upOffset = upOffset;
+		this.upNodes = upNodes;
+		this.upDistances = upDistances;
+		this.upArcs = upArcs;
+		this.downOffset = downOffset;
+		this.downNodes = downNodes;
+		this.downDistances = downDistances;
+		this.downArcs = downArcs;
+		this.shortcutFirstArcs = shortcutFirstArcs;
+		this.shortcutSecondArcs = shortcutSecondArcs;
+		this.verify();
+
+		final int nodeCount = adjacencyGraph.getNodeCount();
+		this.upwardSearches = ThreadLocal.withInitial(() -> new UpwardSearch[]{new UpwardSearch(nodeCount), new UpwardSearch(nodeCount)});
+	}
+
+	private void verify () {
+		final int nodeCount = this.adjacencyGraph.getNodeCount();
+		final int arcCount = this.adjacencyGraph.getEdgeCount() + this.shortcutFirstArcs.length;
+
+		if (this.ranks.length != nodeCount || this.upOffset.length != nodeCount + 1 || this.downOffset.length != nodeCount + 1 ||
+				this.shortcutFirstArcs.length != this.shortcutSecondArcs.length)
+			throw new IllegalArgumentException("Hierarchy arrays don't fit the graph of " + nodeCount + " nodes.");
+
+		verifyCsr(this.upOffset, this.upNodes, this.upDistances, this.upArcs, nodeCount, arcCount);
+		verifyCsr(this.downOffset, this.downNodes, this.downDistances, this.downArcs, nodeCount, arcCount);
+
+		// Shortcuts are only built of arcs existing before them, so unpacking terminates
+		for (int shortcut = 0; shortcut < this.shortcutFirstArcs.length; shortcut++) {
+			final int arcId = this.adjacencyGraph.getEdgeCount() + shortcut;
+			if (this.shortcutFirstArcs[shortcut] < 0 || arcId <= this.shortcutFirstArcs[shortcut] ||
+					this.shortcutSecondArcs[shortcut] < 0 || arcId <= this.shortcutSecondArcs[shortcut])
+				throw new IllegalArgumentException("Shortcut " + arcId + " bridges arcs not created before it.");
+		}
+	}
+
+	private static void verifyCsr (final int[] offset, final int[] nodes, final int[] distances, final int[] arcs,
+	                               final int nodeCount, final int arcCount) {
+		if (offset[0] != 0 || offset[nodeCount] != nodes.length || distances.length != nodes.length || arcs.length != nodes.length)
+			throw new IllegalArgumentException("Offset array doesn't cover the " + nodes.length + " arcs.");
+
+		for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			if (offset[nodeId + 1] < offset[nodeId])
+				throw new IllegalArgumentException("Offset array is not ascending at node " + nodeId + ".");
+		}
+		for (int index = 0; index < nodes.length; index++) {
+			if (nodes[index] < 0 || nodeCount <= nodes[index] || distances[index] < 0 || arcs[index] < 0 || arcCount <= arcs[index])
+				throw new IllegalArgumentException("Arc at index " + index + " is out of range.");
+		}
+	}
+
+	/**
+	 * Calculates the length of the shortest path only, which skips unpacking the shortcuts.
+	 *
+	 * @param sourceNodeId The source node ID
+	 * @param targetNodeId The target node ID
+	 * @return The distance from source to target node or {@code Integer.MAX_VALUE}, if it is not reachable
+	 */
+	public int distance (final int sourceNodeId, final int targetNodeId) {
+		this.checkNodeIds(sourceNodeId, targetNodeId);
+
+		final int meetingNodeId = this.search(sourceNodeId, targetNodeId);
+		if (meetingNodeId == -1) return Integer.MAX_VALUE;
+
+		final UpwardSearch[] searches = this.upwardSearches.get();
+		return searches[0].getDistance(meetingNodeId) + searches[1].getDistance(meetingNodeId);
+	}
+
+	/**
+	 * Calculates the shortest path & unpacks it to the original edge IDs, so it is used like a dijkstra result.
+	 *
+	 * @param sourceNodeId The source node ID
+	 * @param targetNodeId The target node ID
+	 * @return The shortest path from source to target node
+	 * @throws IllegalArgumentException If a node ID is out of range, both are equal or the target node is not reachable
+	 */
+	public OneToOnePath query (final int sourceNodeId, final int targetNodeId) {
+		this.checkNodeIds(sourceNodeId, targetNodeId);
+		if (sourceNodeId == targetNodeId)
+			throw new IllegalArgumentException("Target node ID is the same as source node ID");
+
+		final int meetingNodeId = this.search(sourceNodeId, targetNodeId);
+		if (meetingNodeId == -1)
+			throw new IllegalArgumentException("Target node " + targetNodeId + " is not reachable from source node " + sourceNodeId + ".");
+
+		final UpwardSearch[] searches = this.upwardSearches.get();
+		final IntArrayList arcs = new IntArrayList();
+
+		// Forward arcs are collected from the meeting node back to the source node, so they are unpacked in reverse
+		for (int nodeId = meetingNodeId; nodeId != sourceNodeId; nodeId = searches[0].predecessorNodes[nodeId]) {
+			arcs.add(searches[0].predecessorArcs[nodeId]);
+		}
+		final IntArrayList path = new IntArrayList(arcs.size() * 4);
+		final IntArrayList stack = new IntArrayList();
+		for (int i = arcs.size() - 1; 0 <= i; i--) {
+			this.unpackArc(arcs.getInt(i), path, stack);
+		}
+		for (int nodeId = meetingNodeId; nodeId != targetNodeId; nodeId = searches[1].predecessorNodes[nodeId]) {
+			this.unpackArc(searches[1].predecessorArcs[nodeId], path, stack);
+		}
+
+		return new OneToOnePath(this.adjacencyGraph, new Path(this.adjacencyGraph, sourceNodeId, path.toIntArray()));
+	}
+
+	private void checkNodeIds (final int sourceNodeId, final int targetNodeId) {
+		if (sourceNodeId < 0 || this.adjacencyGraph.getNodeCount() <= sourceNodeId)
+			throw new IllegalArgumentException("Source node is negative or greater than the maximal node ID.");
+		if (targetNodeId < 0 || this.adjacencyGraph.getNodeCount() <= targetNodeId)
+			throw new IllegalArgumentException("Target node is negative or greater than the maximum node ID");
+	}
+
+	/**
+	 * Runs the forward search on the upward arcs & the backward search on the downward arcs, always expanding the one
+	 * with the smaller queue minimum. A search stops once its minimum reaches the best distance found, because all
+	 * further nodes are settled by longer paths only. Nodes reached shorter by a higher ranked node of the same search
+	 * are stalled, whose arcs are not relaxed (stall on demand).
+	 *
+	 * @return The node the shortest path leads over or -1, if the target node is not reachable
+	 */
+	private int search (final int sourceNodeId, final int targetNodeId) {
+		final UpwardSearch[] searches = this.upwardSearches.get();
+		final UpwardSearch forward = searches[0];
+		final UpwardSearch backward = searches[1];
+		forward.start(sourceNodeId);
+		backward.start(targetNodeId);
+
+		long shortestDistance = Long.MAX_VALUE;
+		int meetingNodeId = -1;
+
+		while (true) {
+			final boolean forwardActive = !forward.heap.isEmpty() && forward.heap.peekMinDistance() < shortestDistance;
+			final boolean backwardActive = !backward.heap.isEmpty() && backward.heap.peekMinDistance() < shortestDistance;
+			if (!forwardActive && !backwardActive) break;
+
+			final boolean expandForward = forwardActive &&
+					(!backwardActive || forward.heap.peekMinDistance() <= backward.heap.peekMinDistance());
+			final UpwardSearch current = expandForward ? forward : backward;
+			final UpwardSearch opposite = expandForward ? backward : forward;
+
+			final int currentDistance = current.heap.peekMinDistance();
+			final int currentNode = current.heap.extractMin();
+
+			final int oppositeDistance = opposite.getDistance(currentNode);
+			if (oppositeDistance != Integer.MAX_VALUE && (long) currentDistance + oppositeDistance < shortestDistance) {
+				shortestDistance = (long) currentDistance + oppositeDistance;
+				meetingNodeId = currentNode;
+			}
+
+			if (expandForward) {
+				if (!current.isStalled(currentNode, currentDistance, this.downOffset, this.downNodes, this.downDistances))
+					current.relax(currentNode, currentDistance, this.upOffset, this.upNodes, this.upDistances, this.upArcs);
+			} else {
+				if (!current.isStalled(currentNode, currentDistance, this.upOffset, this.upNodes, this.upDistances))
+					current.relax(currentNode, currentDistance, this.downOffset, this.downNodes, this.downDistances, this.downArcs);
+			}
+		}
+		return meetingNodeId;
+	}
+
+	/**
+	 * Appends the original edge IDs of the arc to the path.
+	 *
+	 * @param stack An empty stack of arc IDs, which is empty again afterwards
+	 */
+	private void unpackArc (final int arcId, final IntArrayList path, final IntArrayList stack) {
+		final int edgeCount = this.adjacencyGraph.getEdgeCount();
+		stack.push(arcId);
+
+		while (!stack.isEmpty()) {
+			final int currentArcId = stack.popInt();
+			if (currentArcId < edgeCount) {
+				path.add(currentArcId);
+			} else {
+				// Second arc is pushed first, so the first one is unpacked first
+				stack.push(this.shortcutSecondArcs[currentArcId - edgeCount]);
+				stack.push(this.shortcutFirstArcs[currentArcId - edgeCount]);
+			}
+		}
+	}
+
+	/**
+	 * @return The forward upward search of the current thread, which other queries of this package may reuse between
+	 * the queries of this class
+	 */
+	UpwardSearch upwardSearchOfCurrentThread () {
+		return this.upwardSearches.get()[0];
+	}
+
+	public AdjacencyGraph getAdjacencyGraph () {
+		return this.adjacencyGraph;
+	}
+
+	/**
+	 * @param nodeId The node ID
+	 * @return The position of the node in the contraction order
+	 */
+	public int getRankOf (final int nodeId) {
+		return this.ranks[nodeId];
+	}
+
+	public int getShortcutCount () {
+		return this.shortcutFirstArcs.length;
+	}
+
+	/**
+	 * Writes the hierarchy to the specified file, overwriting it.
+	 *
+	 * @param file The hierarchy file
+	 * @throws IOException On write failure
+	 */
+	public void write (final File file) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+
+			for (int[] section : this.sections()) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * section.length);
+				mappedSection.asIntBuffer().put(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+
+			// The header is written last, so an interrupted export never leaves a valid looking hierarchy behind
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putLong(MAGIC)
+					.putInt(VERSION)
+					.putInt(this.adjacencyGraph.getNodeCount())
+					.putInt(this.adjacencyGraph.getEdgeCount())
+					.putInt(this.upNodes.length)
+					.putInt(this.downNodes.length)
+					.putInt(this.shortcutFirstArcs.length)
+					.putLong(checksum.getValue());
+			fileChannel.write(header.clear(), 0);
+			fileChannel.force(true);
+		}
+
+		if (ContractionHierarchy.enableLogging)
+			ContractionHierarchy.logger.info(String.format("Wrote hierarchy with %d shortcuts to %s.%n", this.shortcutFirstArcs.length, file));
+	}
+
+	/**
+	 * Reads a hierarchy written by {@link #write} by mapping its sections & verifying the checksum.
+	 *
+	 * @param file           The hierarchy file
+	 * @param adjacencyGraph The graph the hierarchy was built for
+	 * @return The hierarchy
+	 * @throws IOException On read failure or if the file is no valid hierarchy of this version & graph
+	 */
+	public static ContractionHierarchy read (final File file, final AdjacencyGraph adjacencyGraph) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (fileChannel.read(header, 0) != HEADER_SIZE || header.flip().getLong() != MAGIC)
+				throw new IOException("File " + file + " is no contraction hierarchy.");
+
+			final int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("Contraction hierarchy " + file + " has version " + version + ", but version " + VERSION + " is required.");
+
+			final int nodeCount = header.getInt();
+			final int edgeCount = header.getInt();
+			if (nodeCount != adjacencyGraph.getNodeCount() || edgeCount != adjacencyGraph.getEdgeCount())
+				throw new IOException("Contraction hierarchy " + file + " was built for another graph of " + nodeCount +
+						" nodes and " + edgeCount + " edges.");
+
+			final int upCount = header.getInt();
+			final int downCount = header.getInt();
+			final int shortcutCount = header.getInt();
+			final long expectedChecksum = header.getLong();
+
+			final long expectedSize = HEADER_SIZE + 4L * (3L * nodeCount + 2 + 3L * upCount + 3L * downCount + 2L * shortcutCount);
+			if (upCount < 0 || downCount < 0 || shortcutCount < 0 || fileChannel.size() != expectedSize)
+				throw new IOException("Contraction hierarchy " + file + " is truncated or corrupted.");
+
+			final int[][] sections = {
+					new int[nodeCount],
+					new int[nodeCount + 1], new int[upCount], new int[upCount], new int[upCount],
+					new int[nodeCount + 1], new int[downCount], new int[downCount], new int[downCount],
+					new int[shortcutCount], new int[shortcutCount]
+			};
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+			for (int[] section : sections) {
+				final MappedByteBuffer mappedSection = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * section.length);
+				mappedSection.asIntBuffer().get(section);
+				checksum.update(mappedSection.duplicate().clear());
+				position += mappedSection.capacity();
+			}
+			if (checksum.getValue() != expectedChecksum)
+				throw new IOException("Checksum of contraction hierarchy " + file + " doesn't match, the file is corrupted.");
+
+			final ContractionHierarchy contractionHierarchy;
+			try {
+				contractionHierarchy = new ContractionHierarchy(adjacencyGraph, sections[0],
+						sections[1], sections[2], sections[3], sections[4],
+						sections[5], sections[6], sections[7], sections[8],
+						sections[9], sections[10]);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Contraction hierarchy " + file + " is inconsistent.", e);
+			}
+
+			if (ContractionHierarchy.enableLogging)
+				ContractionHierarchy.logger.info(String.format("Read hierarchy with %d shortcuts from %s.%n", shortcutCount, file));
+
+			return contractionHierarchy;
+		}
+	}
+
+	/**
+	 * @return The arrays in the order they are stored in a hierarchy file
+	 */
+	private int[][] sections () {
+		return new int[][]{
+				this.ranks,
+				this.upOffset, this.upNodes, this.upDistances, this.upArcs,
+				this.downOffset, this.downNodes, this.downDistances, this.downArcs,
+				this.shortcutFirstArcs, this.shortcutSecondArcs
+		};
+	}
+
+	private static MappedByteBuffer map (final FileChannel fileChannel, final FileChannel.MapMode mode,
+	                                     final long position, final long size) throws IOException {
+		if (Integer.MAX_VALUE < size)
+			throw new IOException("Contraction hierarchy section of " + size + " bytes exceeds the mappable size.");
+
+		final MappedByteBuffer section = fileChannel.map(mode, position, size);
+		section.order(ByteOrder.LITTLE_ENDIAN);
+		return section;
+	}
+
+	/**
+	 * The state of one upward search with epoch stamped distances like the {@code dijkstra.SearchWorkspace}.
+	 */
+	static final class UpwardSearch {
+		private final long[] epochDistances;
+		final int[] predecessorNodes;  // Only valid for nodes visited in the current epoch
+		final int[] predecessorArcs;
+		final IndexedDaryHeap heap;
+		private int epoch;
+
+		UpwardSearch (final int nodeCount) {
+			this.epochDistances = new long[nodeCount];
+			this.predecessorNodes = new int[nodeCount];
+			this.predecessorArcs = new int[nodeCount];
+			this.heap = new IndexedDaryHeap(nodeCount, 4);
+		}
+
+		/**
+		 * Starts a new search by starting a new epoch & inserting the start node with distance 0.
+		 */
+		void start (final int startNodeId) {
+			if (++this.epoch == Integer.MAX_VALUE) {
+				Arrays.fill(this.epochDistances, 0);
+				this.epoch = 1;
+			}
+			this.heap.clear();
+			this.setDistance(startNodeId, 0);
+			this.heap.insert(startNodeId, 0);
+		}
+
+		/**
+		 * @return The distance of the node in the current search or {@code Integer.MAX_VALUE}, if it was not visited yet
+		 */
+		int getDistance (final int nodeId) {
+			final long epochDistance = this.epochDistances[nodeId];
+			return ((int) (epochDistance >>> 32) == this.epoch) ? (int) epochDistance : Integer.MAX_VALUE;
+		}
+
+		private void setDistance (final int nodeId, final int distance) {
+			this.epochDistances[nodeId] = ((long) this.epoch << 32) | distance;
+		}
+
+		/**
+		 * @return True, if a higher ranked node reaches the node shorter by an arc of the opposite direction
+		 */
+		boolean isStalled (final int nodeId, final int distance, final int[] offset, final int[] nodes, final int[] distances) {
+			for (int index = offset[nodeId]; index < offset[nodeId + 1]; index++) {
+				final int higherNodeDistance = this.getDistance(nodes[index]);
+				if (higherNodeDistance != Integer.MAX_VALUE && (long) higherNodeDistance + distances[index] < distance) return true;
+			}
+			return false;
+		}
+
+		void relax (final int nodeId, final int distance, final int[] offset, final int[] nodes, final int[] distances, final int[] arcs) {
+			for (int index = offset[nodeId]; index < offset[nodeId + 1]; index++) {
+				final int nodeN = nodes[index];
+				final int updatedDistance = distance + distances[index];
+				final int oldDistance = this.getDistance(nodeN);
+
+				if (updatedDistance < oldDistance) {
+					this.setDistance(nodeN, updatedDistance);
+					this.predecessorNodes[nodeN] = nodeId;
+					this.predecessorArcs[nodeN] = arcs[index];
+					if (oldDistance == Integer.MAX_VALUE) {
+						this.heap.insert(nodeN, updatedDistance);
+					} else {
+						this.heap.decreaseKey(nodeN, updatedDistance);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,462 @@
+package hierarchy;
+
+import dijkstra.IndexedDaryHeap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import struct.AdjacencyGraph;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Builds a {@link ContractionHierarchy} by contracting the nodes of an {@code AdjacencyGraph} one after another. Contracting
+ * a node removes it from the remaining graph & inserts a shortcut u -> w for every pair of neighbours u -> v -> w, whose
+ * shortest path leads over the node, which is checked by a local witness search.
+ * <p>
+ * The order is determined by the priority 2 x edge difference (shortcuts added - edges removed) + contracted neighbours
+ * + level (the depth of the hierarchy below the node), so nodes of low importance are contracted first & the contracted
+ * nodes are spread evenly. Every round contracts an
+ * independent set of nodes, whose priority is minimal among their neighbours, in parallel. Afterwards the priorities of
+ * their neighbours are updated, which are the only ones that could have changed.
+ * <p>
+ * Graphs without a distinct hierarchy (e.g. grids or graphs with many long distance edges) get dense near the top.
+ * Contraction stops there & the remaining core is searched by the queries like by a bidirectional dijkstra.
+ */
+public final class ContractionHierarchyBuilder {
+	private static final Logger logger = Logger.getLogger(ContractionHierarchyBuilder.class.getName());
+	public static boolean enableLogging;
+
+	// Witness searches settling more nodes are stopped & the shortcut is added, which is superfluous at worst
+	static final int WITNESS_SETTLE_LIMIT = 500;
+	// Estimating the priority only needs the rough count of shortcuts, but is done way more often than contracting
+	static final int PRIORITY_WITNESS_SETTLE_LIMIT = 30;
+	// Contracting a remaining graph that dense adds shortcuts quadratic in the degree, so it is kept as uncontracted core
+	static final int MAX_CORE_AVERAGE_DEGREE = 48;
+	// Entries of the dynamic adjacency lists are int triples (neighbour node ID, distance, arc ID)
+	private static final int ENTRY_SIZE = 3;
+
+	private final AdjacencyGraph adjacencyGraph;
+	private final int nodeCount;
+
+	// The remaining graph, whereas the lists of a contracted node are frozen & hold its upward & downward arcs
+	private final int[][] outEntries;
+	private final int[][] inEntries;
+	private final int[] outSizes;
+	private final int[] inSizes;
+
+	private final boolean[] contracted;
+	private final int[] priorities;
+	private final int[] contractedNeighbours;
+	private final int[] levels;  // 1 + the maximal level of the contracted neighbours
+	private final int[] ranks;
+
+	// Arcs of ID original edge count + i are the shortcut i, which bridges its first & second arc
+	private final IntArrayList shortcutFirstArcs = new IntArrayList();
+	private final IntArrayList shortcutSecondArcs = new IntArrayList();
+
+	private final ThreadLocal<WitnessSearch> witnessSearches;
+	private int coreSize;
+
+	private ContractionHierarchyBuilder (final AdjacencyGraph adjacencyGraph) {
+		this.adjacencyGraph = adjacencyGraph;
+		this.nodeCount = adjacencyGraph.getNodeCount();
+
+		this.outEntries = new int[this.nodeCount][];
+		this.inEntries = new int[this.nodeCount][];
+		this.outSizes = new int[this.nodeCount];
+		this.inSizes = new int[this.nodeCount];
+		this.contracted = new boolean[this.nodeCount];
+		this.priorities = new int[this.nodeCount];
+		this.contractedNeighbours = new int[this.nodeCount];
+		this.levels = new int[this.nodeCount];
+		this.ranks = new int[this.nodeCount];
+
+		this.witnessSearches = ThreadLocal.withInitial(() -> new WitnessSearch(this.nodeCount));
+	}
+
+	/**
+	 * Contracts all nodes of the graph.
+	 *
+	 * @param adjacencyGraph The finished graph
+	 * @return The hierarchy answering queries on this graph
+	 */
+	public static ContractionHierarchy build (final AdjacencyGraph adjacencyGraph) {
+		final ContractionHierarchyBuilder builder = new ContractionHierarchyBuilder(adjacencyGraph);
+
+		final long buildStart = System.currentTimeMillis();
+		builder.initializeRemainingGraph();
+		builder.contractAll();
+		final ContractionHierarchy contractionHierarchy = builder.createHierarchy();
+		final long buildEnd = System.currentTimeMillis();
+
+		if (ContractionHierarchyBuilder.enableLogging)
+			ContractionHierarchyBuilder.logger.info(String.format("Contracted %d nodes adding %d shortcuts in %d ms, %d nodes were left in the core.%n",
+					builder.nodeCount - builder.coreSize, builder.shortcutFirstArcs.size(), buildEnd - buildStart, builder.coreSize));
+
+		return contractionHierarchy;
+	}
+
+	/**
+	 * Copies the edges to the dynamic adjacency lists. Loops are dropped & of parallel edges only the shortest one is
+	 * kept, because neither can be part of a shortest path.
+	 */
+	private void initializeRemainingGraph () {
+		final int[] inDegrees = new int[this.nodeCount];
+		for (int edgeId = 0; edgeId < this.adjacencyGraph.getEdgeCount(); edgeId++) {
+			inDegrees[this.adjacencyGraph.getTargetOf(edgeId)]++;
+		}
+		for (int nodeId = 0; nodeId < this.nodeCount; nodeId++) {
+			final int outDegree = this.adjacencyGraph.getEndEdgeIdOf(nodeId) - this.adjacencyGraph.getFirstEdgeIdOf(nodeId);
+			this.outEntries[nodeId] = new int[Math.max(1, outDegree) * ENTRY_SIZE];
+			this.inEntries[nodeId] = new int[Math.max(1, inDegrees[nodeId]) * ENTRY_SIZE];
+		}
+
+		for (int edgeId = 0; edgeId < this.adjacencyGraph.getEdgeCount(); edgeId++) {
+			final int sourceId = this.adjacencyGraph.getSourceOf(edgeId);
+			final int targetId = this.adjacencyGraph.getTargetOf(edgeId);
+			if (sourceId != targetId) this.insertArc(sourceId, targetId, this.adjacencyGraph.getDistanceOf(edgeId), edgeId);
+		}
+
+		IntStream.range(0, this.nodeCount).parallel()
+				.forEach(nodeId -> this.priorities[nodeId] = this.computePriority(nodeId));
+	}
+
+	private void contractAll () {
+		int[] remainingNodeIds = IntStream.range(0, this.nodeCount).toArray();
+		int nextRank = 0;
+		int round = 0;
+
+		while (0 < remainingNodeIds.length && !this.isDenseCore(remainingNodeIds)) {
+			// Nodes are independent, if no neighbour has a lower (priority, node ID), so at least the minimum is selected
+			final int[] selectedNodeIds = Arrays.stream(remainingNodeIds).parallel()
+					.filter(this::isLocalMinimum)
+					.toArray();
+
+			// Witness searches must not lead over nodes contracted in the same round, their shortcuts are unknown yet
+			for (int nodeId : selectedNodeIds) {
+				this.contracted[nodeId] = true;
+			}
+			final int[][] shortcuts = Arrays.stream(selectedNodeIds).parallel()
+					.mapToObj(nodeId -> {
+						final IntArrayList nodeShortcuts = new IntArrayList();
+						this.findShortcuts(nodeId, nodeShortcuts);
+						return nodeShortcuts.toIntArray();
+					})
+					.toArray(int[][]::new);
+
+			// Modifying the remaining graph is sequential, but only takes time linear in the count of shortcuts
+			final boolean[] neighbourMarks = new boolean[this.nodeCount];
+			for (int i = 0; i < selectedNodeIds.length; i++) {
+				final int nodeId = selectedNodeIds[i];
+				this.ranks[nodeId] = nextRank++;
+				this.removeFromNeighbours(nodeId, neighbourMarks);
+				this.insertShortcuts(nodeId, shortcuts[i]);
+			}
+
+			remainingNodeIds = Arrays.stream(remainingNodeIds).parallel()
+					.filter(nodeId -> !this.contracted[nodeId])
+					.toArray();
+			Arrays.stream(remainingNodeIds).parallel()
+					.filter(nodeId -> neighbourMarks[nodeId])
+					.forEach(nodeId -> this.priorities[nodeId] = this.computePriority(nodeId));
+
+			if (ContractionHierarchyBuilder.enableLogging)
+				ContractionHierarchyBuilder.logger.fine(String.format("Round %d contracted %d nodes, %d nodes remaining.%n",
+						round, selectedNodeIds.length, remainingNodeIds.length));
+			round++;
+		}
+
+		// Core nodes rank highest & keep their arcs among each other as upward & downward arcs
+		for (int nodeId : remainingNodeIds) {
+			this.ranks[nodeId] = nextRank++;
+		}
+		this.coreSize = remainingNodeIds.length;
+	}
+
+	/**
+	 * @return True, if the average out degree of the remaining nodes exceeds {@link #MAX_CORE_AVERAGE_DEGREE}
+	 */
+	private boolean isDenseCore (final int[] remainingNodeIds) {
+		final long remainingArcCount = Arrays.stream(remainingNodeIds).parallel().mapToLong(nodeId -> this.outSizes[nodeId] / ENTRY_SIZE).sum();
+		return (long) MAX_CORE_AVERAGE_DEGREE * remainingNodeIds.length < remainingArcCount;
+	}
+
+	private boolean isLocalMinimum (final int nodeId) {
+		return this.isLowerThanAll(nodeId, this.outEntries[nodeId], this.outSizes[nodeId]) &&
+				this.isLowerThanAll(nodeId, this.inEntries[nodeId], this.inSizes[nodeId]);
+	}
+
+	private boolean isLowerThanAll (final int nodeId, final int[] entries, final int size) {
+		for (int i = 0; i < size; i += ENTRY_SIZE) {
+			final int neighbourId = entries[i];
+			if (this.priorities[neighbourId] < this.priorities[nodeId] ||
+					(this.priorities[neighbourId] == this.priorities[nodeId] && neighbourId < nodeId)) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return The priority of the node, if it was contracted now
+	 */
+	private int computePriority (final int nodeId) {
+		final int shortcutCount = this.findShortcuts(nodeId, null);
+		final int removedEdgeCount = (this.outSizes[nodeId] + this.inSizes[nodeId]) / ENTRY_SIZE;
+		return 2 * (shortcutCount - removedEdgeCount) + this.contractedNeighbours[nodeId] + this.levels[nodeId];
+	}
+
+	/**
+	 * Executes a witness search from every incoming neighbour u of the node, limited to the distance of the longest
+	 * path u -> node -> w. A shortcut u -> w is needed, if no path without the node is as short as the one over it.
+	 *
+	 * @param nodeId    The node to be contracted
+	 * @param shortcuts The list the shortcuts are added to as (u, w, distance, first arc, second arc) or null, if only
+	 *                  the count is of interest
+	 * @return The count of shortcuts
+	 */
+	private int findShortcuts (final int nodeId, final IntArrayList shortcuts) {
+		int shortcutCount = 0;
+		final int[] in = this.inEntries[nodeId];
+		final int[] out = this.outEntries[nodeId];
+		final int outSize = this.outSizes[nodeId];
+		final WitnessSearch witnessSearch = this.witnessSearches.get();
+
+		for (int i = 0; i < this.inSizes[nodeId]; i += ENTRY_SIZE) {
+			final int sourceId = in[i];
+			final int inDistance = in[i + 1];
+
+			int maxOutDistance = -1;
+			for (int j = 0; j < outSize; j += ENTRY_SIZE) {
+				if (out[j] != sourceId) maxOutDistance = Math.max(maxOutDistance, out[j + 1]);
+			}
+			if (maxOutDistance == -1) continue;
+
+			witnessSearch.run(sourceId, nodeId, inDistance + maxOutDistance, out, outSize,
+					(shortcuts == null) ? PRIORITY_WITNESS_SETTLE_LIMIT : WITNESS_SETTLE_LIMIT);
+
+			for (int j = 0; j < outSize; j += ENTRY_SIZE) {
+				final int targetId = out[j];
+				final int viaDistance = inDistance + out[j + 1];
+				if (targetId == sourceId || witnessSearch.getDistance(targetId) <= viaDistance) continue;
+
+				shortcutCount++;
+				if (shortcuts != null) {
+					shortcuts.add(sourceId);
+					shortcuts.add(targetId);
+					shortcuts.add(viaDistance);
+					shortcuts.add(in[i + 2]);
+					shortcuts.add(out[j + 2]);
+				}
+			}
+		}
+		return shortcutCount;
+	}
+
+	/**
+	 * Removes the node from the lists of its neighbours, whereas its own lists are kept as its upward & downward arcs.
+	 */
+	private void removeFromNeighbours (final int nodeId, final boolean[] neighbourMarks) {
+		final int neighbourLevel = this.levels[nodeId] + 1;
+		for (int i = 0; i < this.outSizes[nodeId]; i += ENTRY_SIZE) {
+			final int targetId = this.outEntries[nodeId][i];
+			this.inSizes[targetId] = removeEntry(this.inEntries[targetId], this.inSizes[targetId], nodeId);
+			this.updateNeighbour(targetId, neighbourLevel, neighbourMarks);
+		}
+		for (int i = 0; i < this.inSizes[nodeId]; i += ENTRY_SIZE) {
+			final int sourceId = this.inEntries[nodeId][i];
+			this.outSizes[sourceId] = removeEntry(this.outEntries[sourceId], this.outSizes[sourceId], nodeId);
+			this.updateNeighbour(sourceId, neighbourLevel, neighbourMarks);
+		}
+	}
+
+	/**
+	 * Marks the neighbour for the priority update, whereas a neighbour connected in both directions counts twice.
+	 */
+	private void updateNeighbour (final int neighbourId, final int neighbourLevel, final boolean[] neighbourMarks) {
+		neighbourMarks[neighbourId] = true;
+		this.contractedNeighbours[neighbourId]++;
+		this.levels[neighbourId] = Math.max(this.levels[neighbourId], neighbourLevel);
+	}
+
+	private void insertShortcuts (final int nodeId, final int[] shortcuts) {
+		for (int i = 0; i < shortcuts.length; i += 5) {
+			final int arcId = this.adjacencyGraph.getEdgeCount() + this.shortcutFirstArcs.size();
+			if (this.insertArc(shortcuts[i], shortcuts[i + 1], shortcuts[i + 2], arcId)) {
+				this.shortcutFirstArcs.add(shortcuts[i + 3]);
+				this.shortcutSecondArcs.add(shortcuts[i + 4]);
+			}
+		}
+	}
+
+	/**
+	 * Inserts the arc into the remaining graph or replaces an existing arc between the nodes, if it is shorter.
+	 *
+	 * @return True, if the arc was inserted or replaced an existing one
+	 */
+	private boolean insertArc (final int sourceId, final int targetId, final int distance, final int arcId) {
+		final int[] out = this.outEntries[sourceId];
+		for (int i = 0; i < this.outSizes[sourceId]; i += ENTRY_SIZE) {
+			if (out[i] != targetId) continue;
+			if (out[i + 1] <= distance) return false;
+
+			out[i + 1] = distance;
+			out[i + 2] = arcId;
+			final int[] in = this.inEntries[targetId];
+			for (int j = 0; j < this.inSizes[targetId]; j += ENTRY_SIZE) {
+				if (in[j] == sourceId) {
+					in[j + 1] = distance;
+					in[j + 2] = arcId;
+				}
+			}
+			return true;
+		}
+
+		this.outEntries[sourceId] = appendEntry(out, this.outSizes[sourceId], targetId, distance, arcId);
+		this.outSizes[sourceId] += ENTRY_SIZE;
+		this.inEntries[targetId] = appendEntry(this.inEntries[targetId], this.inSizes[targetId], sourceId, distance, arcId);
+		this.inSizes[targetId] += ENTRY_SIZE;
+		return true;
+	}
+
+	private static int[] appendEntry (int[] entries, final int size, final int neighbourId, final int distance, final int arcId) {
+		if (size == entries.length) entries = Arrays.copyOf(entries, entries.length << 1);
+		entries[size] = neighbourId;
+		entries[size + 1] = distance;
+		entries[size + 2] = arcId;
+		return entries;
+	}
+
+	/**
+	 * Removes the entry of the neighbour by moving the last entry to its position.
+	 *
+	 * @return The new size
+	 */
+	private static int removeEntry (final int[] entries, final int size, final int neighbourId) {
+		for (int i = 0; i < size; i += ENTRY_SIZE) {
+			if (entries[i] == neighbourId) {
+				System.arraycopy(entries, size - ENTRY_SIZE, entries, i, ENTRY_SIZE);
+				return size - ENTRY_SIZE;
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Turns the frozen lists of every node into the upward CSR (arcs to higher ranked nodes in forward direction) & the
+	 * downward CSR (arcs from higher ranked nodes, stored at their target for the backward search).
+	 */
+	private ContractionHierarchy createHierarchy () {
+		final int[] upOffset = new int[this.nodeCount + 1];
+		final int[] downOffset = new int[this.nodeCount + 1];
+		for (int nodeId = 0; nodeId < this.nodeCount; nodeId++) {
+			upOffset[nodeId + 1] = upOffset[nodeId] + this.outSizes[nodeId] / ENTRY_SIZE;
+			downOffset[nodeId + 1] = downOffset[nodeId] + this.inSizes[nodeId] / ENTRY_SIZE;
+		}
+
+		final int[] upNodes = new int[upOffset[this.nodeCount]];
+		final int[] upDistances = new int[upNodes.length];
+		final int[] upArcs = new int[upNodes.length];
+		final int[] downNodes = new int[downOffset[this.nodeCount]];
+		final int[] downDistances = new int[downNodes.length];
+		final int[] downArcs = new int[downNodes.length];
+
+		IntStream.range(0, this.nodeCount).parallel().forEach(nodeId -> {
+			copyEntries(this.outEntries[nodeId], this.outSizes[nodeId], upOffset[nodeId], upNodes, upDistances, upArcs);
+			copyEntries(this.inEntries[nodeId], this.inSizes[nodeId], downOffset[nodeId], downNodes, downDistances, downArcs);
+		});
+
+		return new ContractionHierarchy(this.adjacencyGraph, this.ranks,
+				upOffset, upNodes, upDistances, upArcs,
+				downOffset, downNodes, downDistances, downArcs,
+				this.shortcutFirstArcs.toIntArray(), this.shortcutSecondArcs.toIntArray());
+	}
+
+	private static void copyEntries (final int[] entries, final int size, final int offset,
+	                                 final int[] nodes, final int[] distances, final int[] arcs) {
+		for (int i = 0; i < size; i += ENTRY_SIZE) {
+			final int index = offset + i / ENTRY_SIZE;
+			nodes[index] = entries[i];
+			distances[index] = entries[i + 1];
+			arcs[index] = entries[i + 2];
+		}
+	}
+
+	/**
+	 * Dijkstra on the remaining graph, which ignores the contracted nodes & the node to be contracted. It is reused per
+	 * thread with epoch stamped distances like the {@code dijkstra.SearchWorkspace}.
+	 */
+	private final class WitnessSearch {
+		private final long[] epochDistances;
+		private final int[] targetEpochs;  // Nodes, whose distance is of interest in the current run
+		private final IndexedDaryHeap heap;
+		private int epoch;
+
+		private WitnessSearch (final int nodeCount) {
+			this.epochDistances = new long[nodeCount];
+			this.targetEpochs = new int[nodeCount];
+			this.heap = new IndexedDaryHeap(nodeCount, 4);
+		}
+
+		/**
+		 * @param sourceId       The node the search starts at
+		 * @param ignoredNodeId  The node to be contracted
+		 * @param maxDistance    Nodes further away than this are not settled
+		 * @param targets        The outgoing entries of the node to be contracted, the search stops once all are settled
+		 * @param targetsSize    The size of the outgoing entries
+		 */
+		private void run (final int sourceId, final int ignoredNodeId, final int maxDistance, final int[] targets, final int targetsSize, final int settleLimit) {
+			if (++this.epoch == Integer.MAX_VALUE) {
+				Arrays.fill(this.epochDistances, 0);
+				Arrays.fill(this.targetEpochs, 0);
+				this.epoch = 1;
+			}
+			int remainingTargetCount = 0;
+			for (int i = 0; i < targetsSize; i += ENTRY_SIZE) {
+				if (this.targetEpochs[targets[i]] != this.epoch) {
+					this.targetEpochs[targets[i]] = this.epoch;
+					remainingTargetCount++;
+				}
+			}
+			this.heap.clear();
+			this.setDistance(sourceId, 0);
+			this.heap.insert(sourceId, 0);
+
+			int settledCount = 0;
+			while (!this.heap.isEmpty() && settledCount++ < settleLimit) {
+				final int currentDistance = this.heap.peekMinDistance();
+				if (maxDistance < currentDistance) break;
+				final int currentNode = this.heap.extractMin();
+				if (this.targetEpochs[currentNode] == this.epoch && --remainingTargetCount == 0) break;
+
+				final int[] out = ContractionHierarchyBuilder.this.outEntries[currentNode];
+				final int outSize = ContractionHierarchyBuilder.this.outSizes[currentNode];
+				for (int i = 0; i < outSize; i += ENTRY_SIZE) {
+					final int nodeN = out[i];
+					if (nodeN == ignoredNodeId || ContractionHierarchyBuilder.this.contracted[nodeN]) continue;
+
+					final int updatedDistance = currentDistance + out[i + 1];
+					final int oldDistance = this.getDistance(nodeN);
+					if (updatedDistance < oldDistance) {
+						this.setDistance(nodeN, updatedDistance);
+						if (oldDistance == Integer.MAX_VALUE) {
+							this.heap.insert(nodeN, updatedDistance);
+						} else {
+							this.heap.decreaseKey(nodeN, updatedDistance);
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return The distance found by the last run or {@code Integer.MAX_VALUE}, if the node was not reached
+		 */
+		private int getDistance (final int nodeId) {
+			final long epochDistance = this.epochDistances[nodeId];
+			return ((int) (epochDistance >>> 32) == this.epoch) ? (int) epochDistance : Integer.MAX_VALUE;
+		}
+
+		private void setDistance (final int nodeId, final int distance) {
+			this.epochDistances[nodeId] = ((long) this.epoch << 32) | distance;
+		}
+	}
+}
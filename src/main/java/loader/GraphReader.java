@@ -66,6 +66,7 @@ public class GraphReader {
 
 				adjGraph.addEdge(edgeId, sourceNode, targetNode, edgeDistance);
 			}
+			adjGraph.finishEdges();
 		} catch (FileNotFoundException e) {
 			System.err.println("Reader could not find specified graph file location:" + file);
 			e.printStackTrace();
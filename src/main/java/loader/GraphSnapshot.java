@@ -0,0 +1,228 @@
+package loader;
+
+import struct.AdjacencyGraph;
+import struct.SortedAdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * A versioned & checksummed binary snapshot of an {@code AdjacencyGraph} and optionally of the latitude order of its
+ * {@code SortedAdjacencyGraph}. Snapshots are written by {@code execution.SnapshotExport} and read back via
+ * {@link FileChannel#map}, which skips all the text parsing & sorting at startup.
+ * <p>
+ * Layout (little endian): a {@value #HEADER_SIZE} byte header holding magic, version, flags, node count, edge count &
+ * the CRC32C of the payload, followed by the sections longitudes, latitudes, offset, targets, distances & optionally
+ * the sorted node IDs.
+ *
+ * @param adjacencyGraph       The graph stored in the snapshot
+ * @param sortedAdjacencyGraph The spatial index, if it was stored in the snapshot
+ */
+public record GraphSnapshot(AdjacencyGraph adjacencyGraph, Optional<SortedAdjacencyGraph> sortedAdjacencyGraph) {
+	private static final Logger logger = Logger.getLogger(GraphSnapshot.class.getName());
+	public static boolean enableLogging;
+
+	private static final long MAGIC = 0x5050_4752_4150_4853L; // "PPGRAPHS"
+	private static final int VERSION = 1;
+	private static final int FLAG_SPATIAL_INDEX = 1;
+	private static final int HEADER_SIZE = 64;
+
+	/**
+	 * Writes the graph & optionally the spatial index to the specified file, overwriting it.
+	 *
+	 * @param adjacencyGraph       The graph to be stored
+	 * @param sortedAdjacencyGraph The spatial index to be stored or null
+	 * @param file                 The snapshot file
+	 * @throws IOException On write failure
+	 */
+	public static void write (final AdjacencyGraph adjacencyGraph, final SortedAdjacencyGraph sortedAdjacencyGraph,
+	                          final File file) throws IOException {
+		final int nodeCount = adjacencyGraph.getNodeCount();
+		final int edgeCount = adjacencyGraph.getEdgeCount();
+		final boolean withSpatialIndex = sortedAdjacencyGraph != null;
+
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+
+			MappedByteBuffer section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 8L * nodeCount);
+			section.asDoubleBuffer().put(adjacencyGraph.getLongitudesBuffer());
+			position += update(checksum, section);
+
+			section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 8L * nodeCount);
+			section.asDoubleBuffer().put(adjacencyGraph.getLatitudesBuffer());
+			position += update(checksum, section);
+
+			section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * (nodeCount + 1));
+			section.asIntBuffer().put(adjacencyGraph.getOffsetBuffer());
+			position += update(checksum, section);
+
+			section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * edgeCount);
+			section.asIntBuffer().put(adjacencyGraph.getTargetsBuffer());
+			position += update(checksum, section);
+
+			section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * edgeCount);
+			section.asIntBuffer().put(adjacencyGraph.getDistancesBuffer());
+			position += update(checksum, section);
+
+			if (withSpatialIndex) {
+				section = map(fileChannel, FileChannel.MapMode.READ_WRITE, position, 4L * nodeCount);
+				section.asIntBuffer().put(sortedAdjacencyGraph.getSortedNodeIds());
+				update(checksum, section);
+			}
+
+			// The header is written last, so an interrupted export never leaves a valid looking snapshot behind
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putLong(MAGIC)
+					.putInt(VERSION)
+					.putInt(withSpatialIndex ? FLAG_SPATIAL_INDEX : 0)
+					.putInt(nodeCount)
+					.putInt(edgeCount)
+					.putLong(checksum.getValue());
+			fileChannel.write(header.clear(), 0);
+			fileChannel.force(true);
+		}
+
+		if (GraphSnapshot.enableLogging)
+			GraphSnapshot.logger.info(String.format("Wrote snapshot of %d nodes and %d edges to %s.%n", nodeCount, edgeCount, file));
+	}
+
+	/**
+	 * Reads a snapshot by mapping its sections & verifying the checksum.
+	 *
+	 * @param file The snapshot file
+	 * @return The graph & the spatial index, if one was stored
+	 * @throws IOException On read failure or if the file is no valid snapshot of this version
+	 */
+	public static GraphSnapshot read (final File file) throws IOException {
+		return GraphSnapshot.read(file, true);
+	}
+
+	/**
+	 * Reads a snapshot by mapping its sections & bulk copying them into the graph arrays.
+	 *
+	 * @param file           The snapshot file
+	 * @param verifyChecksum If the CRC32C of the payload should be verified, which costs a pass over the mapped file
+	 * @return The graph & the spatial index, if one was stored
+	 * @throws IOException On read failure or if the file is no valid snapshot of this version
+	 */
+	public static GraphSnapshot read (final File file, final boolean verifyChecksum) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if (fileChannel.read(header, 0) != HEADER_SIZE || header.flip().getLong() != MAGIC)
+				throw new IOException("File " + file + " is no graph snapshot.");
+
+			final int version = header.getInt();
+			if (version != VERSION)
+				throw new IOException("Graph snapshot " + file + " has version " + version + ", but version " + VERSION + " is required.");
+
+			final int flags = header.getInt();
+			final int nodeCount = header.getInt();
+			final int edgeCount = header.getInt();
+			final long expectedChecksum = header.getLong();
+			final boolean withSpatialIndex = (flags & FLAG_SPATIAL_INDEX) != 0;
+
+			final long expectedSize = HEADER_SIZE + 16L * nodeCount + 4L * (nodeCount + 1) + 8L * edgeCount +
+					(withSpatialIndex ? 4L * nodeCount : 0);
+			if (nodeCount < 0 || edgeCount < 0 || fileChannel.size() != expectedSize)
+				throw new IOException("Graph snapshot " + file + " is truncated or corrupted.");
+
+			final CRC32C checksum = new CRC32C();
+			long position = HEADER_SIZE;
+
+			final double[] longitudes = new double[nodeCount];
+			MappedByteBuffer section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 8L * nodeCount);
+			section.asDoubleBuffer().get(longitudes);
+			position += verifyChecksum ? update(checksum, section) : section.capacity();
+
+			final double[] latitudes = new double[nodeCount];
+			section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 8L * nodeCount);
+			section.asDoubleBuffer().get(latitudes);
+			position += verifyChecksum ? update(checksum, section) : section.capacity();
+
+			final int[] offset = new int[nodeCount + 1];
+			section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * (nodeCount + 1));
+			section.asIntBuffer().get(offset);
+			position += verifyChecksum ? update(checksum, section) : section.capacity();
+
+			final int[] targets = new int[edgeCount];
+			section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * edgeCount);
+			section.asIntBuffer().get(targets);
+			position += verifyChecksum ? update(checksum, section) : section.capacity();
+
+			final int[] distances = new int[edgeCount];
+			section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * edgeCount);
+			section.asIntBuffer().get(distances);
+			position += verifyChecksum ? update(checksum, section) : section.capacity();
+
+			int[] sortedNodeIds = null;
+			if (withSpatialIndex) {
+				sortedNodeIds = new int[nodeCount];
+				section = map(fileChannel, FileChannel.MapMode.READ_ONLY, position, 4L * nodeCount);
+				section.asIntBuffer().get(sortedNodeIds);
+				if (verifyChecksum) update(checksum, section);
+			}
+
+			if (verifyChecksum && checksum.getValue() != expectedChecksum)
+				throw new IOException("Checksum of graph snapshot " + file + " doesn't match, the file is corrupted.");
+
+			final AdjacencyGraph adjacencyGraph;
+			try {
+				adjacencyGraph = new AdjacencyGraph(longitudes, latitudes, offset, targets, distances);
+			} catch (IllegalArgumentException e) {
+				throw new IOException("Graph snapshot " + file + " holds an inconsistent graph.", e);
+			}
+			final Optional<SortedAdjacencyGraph> sortedAdjacencyGraph = withSpatialIndex ?
+					Optional.of(new SortedAdjacencyGraph(adjacencyGraph, sortedNodeIds)) : Optional.empty();
+
+			if (GraphSnapshot.enableLogging)
+				GraphSnapshot.logger.info(String.format("Read snapshot of %d nodes and %d edges from %s.%n", nodeCount, edgeCount, file));
+
+			return new GraphSnapshot(adjacencyGraph, sortedAdjacencyGraph);
+		}
+	}
+
+	/**
+	 * Checks the magic number to decide, if the file is a graph snapshot or e.g. a FMI plain text file.
+	 *
+	 * @param file The file to check
+	 * @return True, if the file starts with the snapshot magic number
+	 */
+	public static boolean isSnapshot (final File file) {
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final ByteBuffer magic = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			return fileChannel.read(magic, 0) == Long.BYTES && magic.flip().getLong() == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static MappedByteBuffer map (final FileChannel fileChannel, final FileChannel.MapMode mode,
+	                                     final long position, final long size) throws IOException {
+		if (Integer.MAX_VALUE < size)
+			throw new IOException("Graph snapshot section of " + size + " bytes exceeds the mappable size.");
+
+		final MappedByteBuffer section = fileChannel.map(mode, position, size);
+		section.order(ByteOrder.LITTLE_ENDIAN);
+		return section;
+	}
+
+	/**
+	 * Adds the whole section to the checksum.
+	 *
+	 * @return The size of the section in bytes
+	 */
+	private static int update (final CRC32C checksum, final MappedByteBuffer section) {
+		checksum.update(section.duplicate().clear());
+		return section.capacity();
+	}
+}
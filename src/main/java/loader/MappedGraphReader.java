@@ -0,0 +1,292 @@
+package loader;
+
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * A faster alternative to the {@code GraphReader}, which memory-maps the FMI plain text graph file, splits the node &
+ * edge lines into chunks at line boundaries and parses these chunks in parallel straight into an {@code AdjacencyGraph}.
+ * Numbers are parsed from the mapped bytes directly, so no {@code String} is created for any line.
+ */
+public class MappedGraphReader {
+	private static final Logger logger = Logger.getLogger(MappedGraphReader.class.getName());
+	public static boolean enableLogging;
+
+	// Chunks are mapped one by one, so their size must stay below the 2 GiB limit of a single mapping
+	private static final int CHUNK_SIZE = 16 * 1024 * 1024;
+	private static final int HEADER_SIZE = 4096;
+
+	/**
+	 * Reads the FMI plain text graph file into a new {@code AdjacencyGraph} object. Comment & blank lines in front of the
+	 * node & edge count are skipped. Every following non-blank line is a node line or an edge line, depending on its
+	 * index.
+	 *
+	 * @param file - The file that contains the FMI "raw graph" contents
+	 * @return The graph or null, if the file could not be read
+	 * @throws IllegalArgumentException If the file content is malformed
+	 */
+	public static AdjacencyGraph createAdjacencyGraphOf (final File file) {
+		AdjacencyGraph adjGraph = null;
+
+		try (FileChannel fileChannel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			final long fileSize = fileChannel.size();
+
+			// Parse the header up to the amount of nodes and edges
+			final ByteBuffer header = ByteBuffer.allocate((int) Math.min(fileSize, HEADER_SIZE));
+			fileChannel.read(header, 0);
+			final ChunkParser headerParser = new ChunkParser(header.flip(), 0);
+			headerParser.skipCommentLines();
+			final int nodeCount = headerParser.nextInt();
+			headerParser.skipLine();
+			final int edgeCount = headerParser.nextInt();
+			headerParser.skipLine();
+
+			adjGraph = new AdjacencyGraph(nodeCount, edgeCount);
+
+			final long[] chunkBorders = MappedGraphReader.splitIntoChunks(fileChannel, headerParser.position, fileSize);
+			final MappedByteBuffer[] chunks = new MappedByteBuffer[chunkBorders.length - 1];
+			for (int i = 0; i < chunks.length; i++) {
+				chunks[i] = fileChannel.map(FileChannel.MapMode.READ_ONLY, chunkBorders[i], chunkBorders[i + 1] - chunkBorders[i]);
+			}
+
+			// First pass: count the lines of every chunk to know the index of its first line
+			final int[] firstLineIndices = IntStream.range(0, chunks.length).parallel()
+					.map(i -> new ChunkParser(chunks[i], 0).countLines())
+					.toArray();
+			final int lineCount = Arrays.stream(firstLineIndices).sum();
+			if (lineCount < nodeCount + edgeCount)
+				throw new IllegalArgumentException("Graph file " + file + " holds " + lineCount + " lines, but " +
+						nodeCount + " nodes and " + edgeCount + " edges are declared.");
+			Arrays.parallelPrefix(firstLineIndices, Integer::sum);
+			System.arraycopy(firstLineIndices, 0, firstLineIndices, 1, firstLineIndices.length - 1);
+			firstLineIndices[0] = 0;
+
+			// Second pass: parse the chunks' lines directly into the graph
+			final AdjacencyGraph graph = adjGraph;
+			IntStream.range(0, chunks.length).parallel().forEach(i ->
+					new ChunkParser(chunks[i], firstLineIndices[i]).parseLinesInto(graph, nodeCount, edgeCount));
+
+			adjGraph.finishEdges();
+
+			if (MappedGraphReader.enableLogging)
+				MappedGraphReader.logger.info(String.format("Parsed %d nodes and %d edges in %d chunks.%n", nodeCount, edgeCount, chunks.length));
+		} catch (IOException e) {
+			System.err.println("IO exception for accessing graph file:" + file);
+			e.printStackTrace();
+			return null;
+		}
+		return adjGraph;
+	}
+
+	/**
+	 * Splits the node & edge section into chunks of about {@code CHUNK_SIZE} bytes, whereas every chunk border is moved
+	 * behind the next line break.
+	 *
+	 * @return The chunk borders, starting with the body start and ending with the file size
+	 */
+	private static long[] splitIntoChunks (final FileChannel fileChannel, final long bodyStart, final long fileSize) throws IOException {
+		final int chunkCount = (int) Math.max(1, (fileSize - bodyStart + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		final long[] chunkBorders = new long[chunkCount + 1];
+		chunkBorders[0] = bodyStart;
+		chunkBorders[chunkCount] = fileSize;
+
+		final ByteBuffer lookAhead = ByteBuffer.allocate(HEADER_SIZE);
+		for (int i = 1; i < chunkCount; i++) {
+			long border = Math.max(bodyStart + (long) i * CHUNK_SIZE, chunkBorders[i - 1]);
+
+			// Move the border behind the next line break
+			search:
+			while (border < fileSize) {
+				lookAhead.clear();
+				final int read = fileChannel.read(lookAhead, border);
+				for (int j = 0; j < read; j++) {
+					if (lookAhead.get(j) == '\n') {
+						border += j + 1;
+						break search;
+					}
+				}
+				border += Math.max(read, 0);
+			}
+			chunkBorders[i] = Math.min(border, fileSize);
+		}
+		return chunkBorders;
+	}
+
+	/**
+	 * Parses the lines of a chunk. Blank lines are skipped & not counted. The number parsing methods expect plain decimal
+	 * numbers as used by the FMI files & don't allocate anything.
+	 */
+	private static final class ChunkParser {
+		private static final double[] POWERS_OF_TEN = {
+				1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+				1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+		};
+		// More significant digits don't fit into a long & are far beyond the precision of a double anyway
+		private static final int MAX_SIGNIFICANT_DIGITS = 18;
+
+		private final ByteBuffer buffer;
+		private final int limit;
+		private final int firstLineIndex;
+		private int position;
+
+		ChunkParser (final ByteBuffer buffer, final int firstLineIndex) {
+			this.buffer = buffer;
+			this.limit = buffer.limit();
+			this.firstLineIndex = firstLineIndex;
+		}
+
+		/**
+		 * @return The amount of non-blank lines in this chunk
+		 */
+		int countLines () {
+			int lineCount = 0;
+			boolean inLine = false;
+			for (int i = 0; i < this.limit; i++) {
+				final byte character = this.buffer.get(i);
+				if (character == '\n') inLine = false;
+				else if (!inLine && !isWhitespace(character)) {
+					inLine = true;
+					lineCount++;
+				}
+			}
+			return lineCount;
+		}
+
+		/**
+		 * Adds every line of this chunk as node or edge to the graph, depending on the global line index.
+		 * Node lines are formatted as "id osmId latitude longitude elevation", edge lines as "source target distance ..."
+		 */
+		void parseLinesInto (final AdjacencyGraph adjGraph, final int nodeCount, final int edgeCount) {
+			int lineIndex = this.firstLineIndex;
+
+			while (this.skipBlankLines() && lineIndex < nodeCount + edgeCount) {
+				if (lineIndex < nodeCount) {
+					this.skipField();   // Node ID, which is the line index anyway
+					this.skipField();   // OSM ID
+					final double latitude = this.nextDouble();
+					final double longitude = this.nextDouble();
+					adjGraph.addNode(lineIndex, longitude, latitude);
+				} else {
+					final int sourceNode = this.nextInt();
+					final int targetNode = this.nextInt();
+					final int edgeDistance = this.nextInt();
+					adjGraph.addEdge(lineIndex - nodeCount, sourceNode, targetNode, edgeDistance);
+				}
+				this.skipLine();
+				lineIndex++;
+			}
+		}
+
+		/**
+		 * Skips the leading lines starting with '#' or being blank.
+		 */
+		void skipCommentLines () {
+			while (this.skipBlankLines() && this.buffer.get(this.position) == '#') {
+				this.skipLine();
+			}
+		}
+
+		/**
+		 * @return True, if there is another non-blank line left, which the position now points to
+		 */
+		boolean skipBlankLines () {
+			while (this.position < this.limit && isWhitespace(this.buffer.get(this.position))) this.position++;
+			return this.position < this.limit;
+		}
+
+		void skipLine () {
+			while (this.position < this.limit && this.buffer.get(this.position++) != '\n') ;
+		}
+
+		private void skipSpaces () {
+			while (this.position < this.limit && (this.buffer.get(this.position) == ' ' || this.buffer.get(this.position) == '\t'))
+				this.position++;
+		}
+
+		void skipField () {
+			this.skipSpaces();
+			while (this.position < this.limit && !isWhitespace(this.buffer.get(this.position))) this.position++;
+		}
+
+		int nextInt () {
+			this.skipSpaces();
+
+			final boolean negative = this.position < this.limit && this.buffer.get(this.position) == '-';
+			if (negative) this.position++;
+
+			final int start = this.position;
+			long value = 0;
+			byte character;
+			while (this.position < this.limit && '0' <= (character = this.buffer.get(this.position)) && character <= '9') {
+				value = value * 10 + (character - '0');
+				this.position++;
+			}
+
+			if (this.position == start || Integer.MAX_VALUE < value)
+				throw new IllegalArgumentException("Malformed integer at byte " + start + " of graph file chunk.");
+			return (int) (negative ? -value : value);
+		}
+
+		double nextDouble () {
+			this.skipSpaces();
+
+			final boolean negative = this.position < this.limit && this.buffer.get(this.position) == '-';
+			if (negative) this.position++;
+
+			final int start = this.position;
+			long significand = 0;
+			int significantDigits = 0;
+			int exponent = 0;
+			boolean fraction = false;
+			byte character;
+
+			while (this.position < this.limit) {
+				character = this.buffer.get(this.position);
+				if ('0' <= character && character <= '9') {
+					if (significantDigits < MAX_SIGNIFICANT_DIGITS) {
+						significand = significand * 10 + (character - '0');
+						if (significand != 0) significantDigits++;
+						if (fraction) exponent--;
+					} else if (!fraction) {
+						exponent++; // Dropped integer digits still scale the value
+					}
+				} else if (character == '.' && !fraction) {
+					fraction = true;
+				} else {
+					break;
+				}
+				this.position++;
+			}
+
+			if (this.position < this.limit && (this.buffer.get(this.position) == 'e' || this.buffer.get(this.position) == 'E')) {
+				this.position++;
+				if (this.position < this.limit && this.buffer.get(this.position) == '+') this.position++;
+				exponent += this.nextInt();
+			}
+
+			if (this.position == start)
+				throw new IllegalArgumentException("Malformed decimal at byte " + start + " of graph file chunk.");
+
+			double value = significand;
+			if (exponent < 0) {
+				value = (-exponent < POWERS_OF_TEN.length) ? value / POWERS_OF_TEN[-exponent] : value * Math.pow(10, exponent);
+			} else if (exponent > 0) {
+				value = (exponent < POWERS_OF_TEN.length) ? value * POWERS_OF_TEN[exponent] : value * Math.pow(10, exponent);
+			}
+			return negative ? -value : value;
+		}
+
+		private static boolean isWhitespace (final byte character) {
+			return character == ' ' || character == '\n' || character == '\r' || character == '\t';
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package server;
+
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.OneToOnePath;
+import dijkstra.Path;
+import hierarchy.ContractionHierarchy;
+import struct.AdjacencyGraph;
+import struct.SortedAdjacencyGraph;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers the one to one routes of a batch request at once: the coordinates are snapped by the spatial index & the
+ * routes are searched in chunks by the calling thread together with helpers on the executor. The results are streamed
+ * in the order of the routes as soon as their chunk is done.
+ * <p>
+ * The calling thread answers every chunk no helper has taken yet, so a batch completes even if all threads of the
+ * executor are busy, e.g. with the batch request itself.
+ */
+public final class BatchRouter {
+
+	// Count of routes a thread answers at once, so claiming a chunk is cheap compared to its searches
+	static final int CHUNK_SIZE = 32;
+
+	private final AdjacencyGraph adjacencyGraph;
+	private final ContractionHierarchy contractionHierarchy;  // Null, if routes are searched by the bidirectional dijkstra
+	private final SortedAdjacencyGraph sortedAdjacencyGraph;
+	private final Executor executor;                          // Null, if the calling thread answers all routes
+	private final int parallelism;
+
+	/**
+	 * @param contractionHierarchy The hierarchy of the graph or null
+	 * @param executor             The executor running the helpers or null
+	 * @param parallelism          The maximal count of threads answering a batch, including the calling thread
+	 */
+	public BatchRouter (final AdjacencyGraph adjacencyGraph, final ContractionHierarchy contractionHierarchy,
+	                    final SortedAdjacencyGraph sortedAdjacencyGraph, final Executor executor, final int parallelism) {
+		if (parallelism < 1)
+			throw new IllegalArgumentException("Parallelism must be positive, but is " + parallelism + ".");
+
+		this.adjacencyGraph = adjacencyGraph;
+		this.contractionHierarchy = contractionHierarchy;
+		this.sortedAdjacencyGraph = sortedAdjacencyGraph;
+		this.executor = executor;
+		this.parallelism = parallelism;
+	}
+
+	/**
+	 * Writes the routes as JSON object, whose "routes" array holds an object per route of its "distance" & optionally
+	 * its GeoJSON LineString "geometry". Both are null, if the target is unreachable, the geometry as well if start &
+	 * target snap to the same node.
+	 *
+	 * @param coordinates  The longitude & latitude of the start & of the target of every route, 4 values per route
+	 * @param withGeometry Whether the paths are written as well
+	 * @param outputStream The stream, which is neither flushed nor closed
+	 */
+	public void route (final double[] coordinates, final boolean withGeometry, final OutputStream outputStream)
+			throws IOException {
+		if (coordinates.length % 4 != 0)
+			throw new IllegalArgumentException("Coordinates must be 4 values per route, but are " + coordinates.length + ".");
+
+		final int routeCount = coordinates.length / 4;
+		final int chunkCount = (routeCount + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		final List<CompletableFuture<Chunk>> chunks = new ArrayList<>(chunkCount);
+		for (int i = 0; i < chunkCount; i++) {
+			chunks.add(new CompletableFuture<>());
+		}
+
+		// Helpers claim the next chunk until none is left, so a helper starting late just returns
+		final AtomicInteger nextChunkIndex = new AtomicInteger();
+		final Runnable helper = () -> {
+			int chunkIndex;
+			while ((chunkIndex = nextChunkIndex.getAndIncrement()) < chunkCount) {
+				this.answerChunk(coordinates, chunkIndex, withGeometry, chunks.get(chunkIndex));
+			}
+		};
+		final int helperCount = (this.executor == null) ? 0 : Math.min(this.parallelism, chunkCount) - 1;
+		try {
+			for (int i = 0; i < helperCount; i++) {
+				this.executor.execute(helper);
+			}
+		} catch (RejectedExecutionException e) {
+			// E.g. shut down, the calling thread answers the remaining chunks
+		}
+
+		final GeoJSONWriter geoJSONWriter = new GeoJSONWriter(outputStream).writeAscii("{\"routes\":[");
+		for (int chunkIndex = 0; chunkIndex < chunkCount; chunkIndex++) {
+			// Chunks up to the one written next are answered by this thread, if no helper has claimed them
+			int claimedChunkIndex;
+			while (nextChunkIndex.get() <= chunkIndex && (claimedChunkIndex = nextChunkIndex.getAndIncrement()) < chunkCount) {
+				this.answerChunk(coordinates, claimedChunkIndex, withGeometry, chunks.get(claimedChunkIndex));
+			}
+
+			final Chunk chunk;
+			try {
+				chunk = chunks.get(chunkIndex).join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException cause) throw cause;
+				throw e;
+			}
+			BatchRouter.write(geoJSONWriter, chunk, chunkIndex == 0);
+		}
+		geoJSONWriter.writeAscii("]}").flush();
+	}
+
+	/**
+	 * Snaps & searches the routes of the chunk, which completes the future, also exceptionally, so the writing thread
+	 * never waits forever.
+	 */
+	private void answerChunk (final double[] coordinates, final int chunkIndex, final boolean withGeometry,
+	                          final CompletableFuture<Chunk> chunkFuture) {
+		try {
+			final int firstRoute = chunkIndex * CHUNK_SIZE;
+			final int routeCount = Math.min(CHUNK_SIZE, coordinates.length / 4 - firstRoute);
+			final int[] distances = new int[routeCount];
+			final Path[] paths = withGeometry ? new Path[routeCount] : null;
+
+			for (int i = 0; i < routeCount; i++) {
+				final int offset = 4 * (firstRoute + i);
+				final int startNodeId = this.sortedAdjacencyGraph.getClosestNode(coordinates[offset], coordinates[offset + 1]).nodeId();
+				final int targetNodeId = this.sortedAdjacencyGraph.getClosestNode(coordinates[offset + 2], coordinates[offset + 3]).nodeId();
+
+				if (startNodeId == targetNodeId) {
+					distances[i] = 0;
+				} else if (!withGeometry) {
+					distances[i] = (this.contractionHierarchy != null) ?
+							this.contractionHierarchy.distance(startNodeId, targetNodeId) :
+							BidirectionalDijkstra.distance(this.adjacencyGraph, startNodeId, targetNodeId);
+				} else {
+					try {
+						final OneToOnePath oneToOnePath = (this.contractionHierarchy != null) ?
+								this.contractionHierarchy.query(startNodeId, targetNodeId) :
+								BidirectionalDijkstra.dijkstra(this.adjacencyGraph, startNodeId, targetNodeId);
+						distances[i] = oneToOnePath.getLength();
+						paths[i] = oneToOnePath.getPath();
+					} catch (IllegalArgumentException e) {
+						distances[i] = Integer.MAX_VALUE;  // Not reachable
+					}
+				}
+			}
+			chunkFuture.complete(new Chunk(distances, paths));
+		} catch (RuntimeException e) {
+			chunkFuture.completeExceptionally(e);
+		}
+	}
+
+	private static void write (final GeoJSONWriter geoJSONWriter, final Chunk chunk, final boolean firstChunk)
+			throws IOException {
+		for (int i = 0; i < chunk.distances().length; i++) {
+			if (!firstChunk || i != 0) geoJSONWriter.writeAscii(",");
+			geoJSONWriter.writeAscii("{\"distance\":");
+			if (chunk.distances()[i] == Integer.MAX_VALUE) {
+				geoJSONWriter.writeAscii("null");
+			} else {
+				geoJSONWriter.writeLong(chunk.distances()[i]);
+			}
+
+			if (chunk.paths() != null) {
+				geoJSONWriter.writeAscii(",\"geometry\":");
+				if (chunk.paths()[i] == null) {
+					geoJSONWriter.writeAscii("null");
+				} else {
+					geoJSONWriter.writeLineString(chunk.paths()[i]);
+				}
+			}
+			geoJSONWriter.writeAscii("}");
+		}
+	}
+
+	/**
+	 * @param paths The paths of the routes, which are null if not reachable, or null without geometry
+	 */
+	private record Chunk(int[] distances, Path[] paths) {
+	}
+}
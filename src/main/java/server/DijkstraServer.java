@@ -3,41 +3,107 @@ package server;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
 import com.sun.net.httpserver.HttpServer;
-import dijkstra.DijkstraAlgorithm;
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.BoundedDijkstra;
+import dijkstra.DeltaStepping;
+import dijkstra.ManyToManyDijkstra;
+import dijkstra.MultiSourceDijkstra;
+import dijkstra.NearestSource;
+import dijkstra.OneToAllCache;
 import dijkstra.OneToAllResult;
+import dijkstra.OneToOneCache;
 import dijkstra.OneToOnePath;
-import loader.GraphReader;
+import dijkstra.Path;
+import dijkstra.ReachableNodes;
+import dijkstra.SearchDirection;
+import dijkstra.SearchStatistics;
+import hierarchy.BucketManyToMany;
+import hierarchy.ContractionHierarchy;
+import hierarchy.ContractionHierarchyBuilder;
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import struct.AdjacencyGraph;
 import struct.SortedAdjacencyGraph;
 
-import javax.naming.OperationNotSupportedException;
-import java.awt.geom.Point2D;
 import java.io.*;
 import java.net.HttpURLConnection;
 import java.net.InetSocketAddress;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.Deque;
+import java.time.Duration;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 public class DijkstraServer {
+	// Largest count of sources or targets of a distance table request
+	private static final int MAX_MATRIX_SIDE = 1000;
+	// Largest count of facilities of a nearest facility request
+	private static final int MAX_FACILITIES = 1000;
+	// Largest count of routes of a batch request
+	private static final int MAX_BATCH_ROUTES = 10_000;
+	// Largest count of distance bands of an isochrone request
+	private static final int MAX_ISOCHRONE_BANDS = 10;
+	// Memory the cached one to all results may take, about 30 results of a graph with a million nodes or 250 compact ones
+	private static final long ONE_TO_ALL_CACHE_BYTES = 256L << 20;
+	// One to all sessions, their idle timeout & whether their results are compact, configurable by the system properties
+	private static final int ONE_TO_ALL_SESSIONS = Integer.getInteger("oneToAllSessions", 10_000);
+	private static final long ONE_TO_ALL_SESSION_SECONDS = Long.getLong("oneToAllSessionSeconds", 1800);
+	private static final boolean ONE_TO_ALL_COMPACT = Boolean.getBoolean("oneToAllCompact");
+	// Whether changed website files are reloaded, configurable by the system property of the same name
+	private static final boolean WATCH_WEBSITE = Boolean.getBoolean("watchWebsite");
+	// Memory the cached one to one paths may take & their time to live, configurable by the system properties of the
+	// same names. A path takes about 20 bytes per edge, so 64 MB hold a few hundred cross country routes.
+	private static final long ONE_TO_ONE_CACHE_BYTES = Long.getLong("oneToOneCacheBytes", 64L << 20);
+	private static final long ONE_TO_ONE_CACHE_SECONDS = Long.getLong("oneToOneCacheSeconds", 3600);
+
 	private final HttpServer httpServer;
+	private final ExecutionModel executionModel;
+	private final ExecutorService executor;  // Null, if requests run on the dispatcher thread
 
 	final File graphFile;
+	final File hierarchyFile;   // Null, if one-to-one queries are answered by the bidirectional dijkstra
+	// The graph resources are set up once & only read by the request threads afterwards. They are published by the
+	// volatile write of graphResourcesReady, so a request which read it as true sees them completely.
 	private AdjacencyGraph adjacencyGraph;
+	private ContractionHierarchy contractionHierarchy;
 	private SortedAdjacencyGraph sortedAdjacencyGraph;
-	private Optional<OneToAllResult> oneToAllResult;
-	private boolean graphResourcesReady;
-	private File websiteRootDirectory;
+	private OneToAllCache oneToAllCache;
+	private ExecutorService searchExecutor;  // Null, if requests search on the dispatcher thread
+	private final OneToOneCache oneToOneCache = new OneToOneCache(ONE_TO_ONE_CACHE_BYTES, Duration.ofSeconds(ONE_TO_ONE_CACHE_SECONDS));
+	private final OneToAllSessions oneToAllSessions = new OneToAllSessions(ONE_TO_ALL_SESSIONS, Duration.ofSeconds(ONE_TO_ALL_SESSION_SECONDS));
+	// Search spaces of the one to one searches, only counted if enabled by -DsearchStatistics=true
+	private final SearchStatistics.Aggregate searchStatistics = new SearchStatistics.Aggregate();
+	private volatile boolean graphResourcesReady;
+	// Website files served from memory, reloaded on changes if watched by -DwatchWebsite=true during development
+	private final StaticAssets staticAssets = new StaticAssets(java.nio.file.Path.of(System.getProperty("user.dir"), "website"));
 
 	public DijkstraServer(final File graphFile)
+	{
+		this(graphFile, null);
+	}
+
+	/**
+	 * @param graphFile     The FMI graph file or graph snapshot
+	 * @param hierarchyFile The contraction hierarchy file of the graph, which is built & written on startup if it
+	 *                      doesn't exist yet, or null
+	 */
+	public DijkstraServer(final File graphFile, final File hierarchyFile)
+	{
+		this(graphFile, hierarchyFile, ExecutionModel.fromSystemProperty());
+	}
+
+	/**
+	 * @param hierarchyFile  The contraction hierarchy file of the graph, which is built & written on startup if it
+	 *                       doesn't exist yet, or null
+	 * @param executionModel How requests are executed concurrently
+	 */
+	public DijkstraServer(final File graphFile, final File hierarchyFile, final ExecutionModel executionModel)
 	{
 		Objects.requireNonNull(graphFile, "Provided file path is invalid");
 		this.graphFile = graphFile;
+		this.hierarchyFile = hierarchyFile;
 
 		HttpServer httpServerButMaybeNot; // For final attribute initialization
 		try {
@@ -51,7 +117,6 @@ public class DijkstraServer {
 		}
 		this.httpServer = httpServerButMaybeNot; // Sometimes I hate Java...
 
-		this.websiteRootDirectory = new File(System.getProperty("user.dir") + "/website");
 		/*
 		 * Distributes the exchange Http-method wise to sub-handlers.
 		 * Because me being sick of making a subdomain for every single request made by the website, I decided to go for a
@@ -71,10 +136,14 @@ public class DijkstraServer {
 		};
 		assert httpServer != null;
 		httpServer.createContext("/", metaHandler);
+		// Otherwise every request runs on the dispatcher thread & a slow one blocks all others, even /ServerStatus
+		this.executionModel = executionModel;
+		this.executor = executionModel.createExecutor();
+		httpServer.setExecutor(this.executor);
 
 		this.graphResourcesReady = false;
 
-		System.out.println("INFO:\tFinished constructing server");
+		System.out.println("INFO:\tFinished constructing server executing requests by " + executionModel);
 	}
 
 	private final HttpHandler retrieveHandler = exchange -> {
@@ -83,6 +152,8 @@ public class DijkstraServer {
 		String URI = exchange.getRequestURI().toString();
 		if (URI.equals("/ServerStatus")) {
 			this.statusHandler.handle(exchange);
+		} else if (URI.equals("/SearchStatistics")) {
+			this.searchStatisticsHandler.handle(exchange);
 		} else {
 			this.websiteFilesHandler.handle(exchange);
 		}
@@ -108,34 +179,37 @@ public class DijkstraServer {
 	};
 
 	/**
-	 * Handles all website related Http GET file request. Maps the requests to the server root's "website" subdirectory.
-	 * If the root itself is requested on connection to the server, the website.html is returned. Handles errors.
-	 * Makes use of {@code websiteRootDirectory}.
+	 * Responds with the aggregated {@link SearchStatistics} of the one to one searches as JSON, e.g. for dashboards. All
+	 * counts are 0, if the statistics are disabled.
 	 */
-	private final HttpHandler websiteFilesHandler = exchange -> {
-
-		String requestedURI = exchange.getRequestURI().toString();
-		String targetFileName = ("/".equals(requestedURI)) ? "website.html" : requestedURI;
-
-		File fileToHandle = new File(this.websiteRootDirectory, targetFileName);
-
-		try (
-				FileInputStream websiteStream = new FileInputStream(fileToHandle);
-				OutputStream responseBody = exchange.getResponseBody()
-		) {
-			exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0); // Variable response length
-			responseBody.write(websiteStream.readAllBytes());
-		} catch (FileNotFoundException e) {
-			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, 0);
-
-			System.err.println("ERROR:\tThe by client specified file \"" + targetFileName + "\" was not found on the webservers root");
-			// Do not terminate this thread
-		} catch (IOException e) {
-			System.err.println("ERROR:\tFailed to open output stream from file stream \"" + fileToHandle);
-			e.printStackTrace();
+	private final HttpHandler searchStatisticsHandler = exchange -> {
+		assert exchange.getRequestURI().toString().equals("/SearchStatistics");
+
+		JSONObject responseJSON = new JSONObject();
+		responseJSON.put("enabled", SearchStatistics.ENABLED);
+		responseJSON.put("queries", this.searchStatistics.getQueryCount());
+		responseJSON.put("settledNodes", this.searchStatistics.getSettledNodes());
+		responseJSON.put("relaxedEdges", this.searchStatistics.getRelaxedEdges());
+		responseJSON.put("queuePushes", this.searchStatistics.getQueuePushes());
+		responseJSON.put("decreaseKeys", this.searchStatistics.getDecreaseKeys());
+		responseJSON.put("elapsedNanos", this.searchStatistics.getElapsedNanos());
+		responseJSON.put("maxPeakQueueSize", this.searchStatistics.getMaxPeakQueueSize());
+		responseJSON.put("maxElapsedNanos", this.searchStatistics.getMaxElapsedNanos());
+		byte[] responseString = responseJSON.toString().getBytes(StandardCharsets.UTF_8);
+
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, responseString.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(responseString);
 		}
 	};
 
+	/**
+	 * Handles all website related Http GET file request. Maps the requests to the server root's "website" subdirectory.
+	 * If the root itself is requested on connection to the server, the website.html is returned. Handles errors.
+	 * The files are answered from memory by {@code staticAssets}.
+	 */
+	private final HttpHandler websiteFilesHandler = exchange -> this.staticAssets.serve(exchange);
+
 
 	/**
 	 * This handler is meant to manage update requests to website content & error handling, if the internal state is
@@ -152,8 +226,19 @@ public class DijkstraServer {
 			try (OutputStream responseBody = exchange.getResponseBody()) {
 				responseBody.write(response.getBytes());
 			}
-		} else {
+		} else if (this.searchExecutor == null) {
 			this.dijkstraHandler.handle(exchange);
+		} else {
+			// Answered by a search thread, so the request thread is free for the status & the website files again
+			this.searchExecutor.execute(() -> {
+				try {
+					this.dijkstraHandler.handle(exchange);
+				} catch (IOException | RuntimeException e) {
+					System.err.println("ERROR:\tFailed to answer a search request");
+					e.printStackTrace();
+					exchange.close();
+				}
+			});
 		}
 	};
 
@@ -178,6 +263,16 @@ public class DijkstraServer {
 
 		if ("OneToOne".equals(dijkstraExecutionMode)) {
 			this.handleOneToOne(exchange,requestJSON);
+		} else if ("Distance".equals(dijkstraExecutionMode)) {
+			this.handleDistance(exchange, requestJSON);
+		} else if ("ManyToMany".equals(dijkstraExecutionMode)) {
+			this.handleManyToMany(exchange, requestJSON);
+		} else if ("Isochrone".equals(dijkstraExecutionMode)) {
+			this.handleIsochrone(exchange, requestJSON);
+		} else if ("NearestFacility".equals(dijkstraExecutionMode)) {
+			this.handleNearestFacility(exchange, requestJSON);
+		} else if ("Batch".equals(dijkstraExecutionMode)) {
+			this.handleBatch(exchange, requestJSON);
 		} else {
 			this.handleOneToAll(exchange, requestJSON);
 		}
@@ -192,22 +287,216 @@ public class DijkstraServer {
 		JSONObject targetCoords = requestJSON.getJSONObject("target");
 		int targetNodeId = this.getNearestNodeIdFrom(targetCoords);
 
-		OneToOnePath result = (OneToOnePath) DijkstraAlgorithm.dijkstra(this.adjacencyGraph, startNodeId, targetNodeId);
+		// Repeated pairs are answered by the cache, which is emptied if the graph changes
+		OneToOnePath result = this.oneToOneCache.get(this.adjacencyGraph, startNodeId, targetNodeId);
+		boolean cached = result != null;
+		if (!cached) {
+			// Bidirectional search settles about half the nodes of the unidirectional one, the hierarchy just a few hundred
+			result = (this.contractionHierarchy != null) ?
+					this.contractionHierarchy.query(startNodeId, targetNodeId) :
+					BidirectionalDijkstra.dijkstra(this.adjacencyGraph, startNodeId, targetNodeId);
+			this.oneToOneCache.put(this.adjacencyGraph, startNodeId, targetNodeId, result);
+			result.getStatistics().ifPresent(this.searchStatistics::add);  // The hierarchy query doesn't count any
+		}
+
+		Path path = result.getPath();
+		this.sendGEOJsonFormattedPath(exchange, path);
+
+		System.out.println("INFO:\tOneToOne Path is " + path.getEdgeCount() + " edges long" + (cached ? " (cached, " : " (") +
+				this.oneToOneCache.getHitCount() + " hits & " + this.oneToOneCache.getMissCount() + " misses)");
+	}
+
+	/**
+	 * Answers a one-to-one request like {@link #handleOneToOne}, but responds with the "distance" of the shortest path
+	 * only, which is null if the target is unreachable. Neither the path is built nor its GeoJSON.
+	 */
+	private void handleDistance(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
+	{
+		int startNodeId = this.getNearestNodeIdFrom(requestJSON.getJSONObject("start"));
+		int targetNodeId = this.getNearestNodeIdFrom(requestJSON.getJSONObject("target"));
+
+		int distance = (this.contractionHierarchy != null) ?
+				this.contractionHierarchy.distance(startNodeId, targetNodeId) :
+				BidirectionalDijkstra.distance(this.adjacencyGraph, startNodeId, targetNodeId);
+
+		JSONObject responseJSON = new JSONObject();
+		responseJSON.put("distance", (distance == Integer.MAX_VALUE) ? JSONObject.NULL : distance);
+		byte[] responseString = responseJSON.toString().getBytes(StandardCharsets.UTF_8);
+
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, responseString.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(responseString);
+		}
+
+		System.out.println("INFO:\tDistance is " + distance);
+	}
+
+	/**
+	 * Answers a batch request, which contains the "routes" array of objects of "start" & "target" coordinates & whether
+	 * their "geometry" is requested as well. The response is streamed as "routes" array of the "distance" & optionally
+	 * the GeoJSON "geometry" per route, both null if unreachable. The routes are answered in parallel on the search
+	 * threads, whereas the request is parsed & logged once instead of once per route.
+	 */
+	private void handleBatch(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
+	{
+		JSONArray routesArray = requestJSON.getJSONArray("routes");
+		if (routesArray.isEmpty() || MAX_BATCH_ROUTES < routesArray.length()) {
+			System.err.println("ERROR:\tClient requested a batch of " + routesArray.length() + " routes");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+			return;
+		}
+		boolean withGeometry = requestJSON.optBoolean("geometry", false);
+
+		double[] coordinates = new double[4 * routesArray.length()];
+		for (int i = 0; i < routesArray.length(); i++) {
+			JSONObject routeJSON = routesArray.getJSONObject(i);
+			JSONObject startCoords = routeJSON.getJSONObject("start");
+			JSONObject targetCoords = routeJSON.getJSONObject("target");
+			coordinates[4 * i] = startCoords.getDouble("long");
+			coordinates[4 * i + 1] = startCoords.getDouble("lat");
+			coordinates[4 * i + 2] = targetCoords.getDouble("long");
+			coordinates[4 * i + 3] = targetCoords.getDouble("lat");
+		}
 
-		// Convert the path consisting of edge ids to a path containing coordinates
+		BatchRouter batchRouter = new BatchRouter(this.adjacencyGraph, this.contractionHierarchy, this.sortedAdjacencyGraph,
+				this.searchExecutor, Runtime.getRuntime().availableProcessors());
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, 0);  // Chunked
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			batchRouter.route(coordinates, withGeometry, responseBody);
+		}
+
+		System.out.println("INFO:\tBatch of " + routesArray.length() + " routes" + (withGeometry ? " with geometry" : ""));
+	}
+
+	/**
+	 * Answers a distance table request, which contains the coordinates arrays "sources" & "targets". The response
+	 * contains the table as "distances" array of rows per source, whereas unreachable targets are null.
+	 */
+	private void handleManyToMany(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
+	{
+		JSONArray sourceCoords = requestJSON.getJSONArray("sources");
+		JSONArray targetCoords = requestJSON.getJSONArray("targets");
+		if (MAX_MATRIX_SIDE < sourceCoords.length() || MAX_MATRIX_SIDE < targetCoords.length()) {
+			System.err.println("ERROR:\tClient requested a distance table with more than " + MAX_MATRIX_SIDE + " sources or targets");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+			return;
+		}
+
+		int[] sourceNodeIds = new int[sourceCoords.length()];
+		for (int i = 0; i < sourceNodeIds.length; i++) {
+			sourceNodeIds[i] = this.getNearestNodeIdFrom(sourceCoords.getJSONObject(i));
+		}
+		int[] targetNodeIds = new int[targetCoords.length()];
+		for (int i = 0; i < targetNodeIds.length; i++) {
+			targetNodeIds[i] = this.getNearestNodeIdFrom(targetCoords.getJSONObject(i));
+		}
+
+		// The buckets need the hierarchy, without it every source runs a dijkstra until all targets are settled
+		int[][] distances = (this.contractionHierarchy != null) ?
+				BucketManyToMany.distances(this.contractionHierarchy, sourceNodeIds, targetNodeIds) :
+				ManyToManyDijkstra.distances(this.adjacencyGraph, sourceNodeIds, targetNodeIds);
+
+		JSONArray distancesArray = new JSONArray();
+		for (int[] sourceDistances : distances) {
+			JSONArray rowArray = new JSONArray();
+			for (int distance : sourceDistances) {
+				rowArray.put((distance == Integer.MAX_VALUE) ? JSONObject.NULL : distance);
+			}
+			distancesArray.put(rowArray);
+		}
+		JSONObject responseJSON = new JSONObject();
+		responseJSON.put("distances", distancesArray);
+		byte[] responseString = responseJSON.toString().getBytes(StandardCharsets.UTF_8);
+
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, responseString.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(responseString);
+		}
+
+		System.out.println("INFO:\tManyToMany table of " + sourceNodeIds.length + "x" + targetNodeIds.length + " distances");
+	}
 
-		ArrayList<Point2D.Double> pathInCoordinates;
+	/**
+	 * Answers an isochrone request, which contains the "start" coordinates, the distance budget "distance" & optionally
+	 * the count of distance "bands". The response is a GeoJSON FeatureCollection of one MultiPolygon per band. Only the
+	 * nodes within the budget are searched, so local radii are answered in milliseconds.
+	 */
+	private void handleIsochrone(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
+	{
+		int maxDistance = requestJSON.getInt("distance");
+		int bandCount = requestJSON.optInt("bands", 1);
+		if (maxDistance < 0 || bandCount < 1 || MAX_ISOCHRONE_BANDS < bandCount) {
+			System.err.println("ERROR:\tClient requested an isochrone of distance " + maxDistance + " & " + bandCount + " bands");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+			return;
+		}
+
+		int startNodeId = this.getNearestNodeIdFrom(requestJSON.getJSONObject("start"));
+		ReachableNodes reachableNodes = BoundedDijkstra.withinDistance(this.adjacencyGraph, startNodeId, maxDistance);
+
+		JSONObject geoJSON = IsochronePolygons.geoJSONOf(this.adjacencyGraph, reachableNodes, bandCount);
+		byte[] responseString = geoJSON.toString().getBytes(StandardCharsets.UTF_8);
+
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, responseString.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(responseString);
+		}
+
+		System.out.println("INFO:\tIsochrone of " + maxDistance + " contains " + reachableNodes.nodeCount() + " nodes");
+	}
+
+	/**
+	 * Answers a nearest facility request, which contains the "start" coordinates & the coordinates array "facilities".
+	 * The response is a GeoJSON Feature of the path from the start to the nearest facility, whose properties are the
+	 * "facility" index & the "distance". Geometry & properties are null, if no facility is reachable. A single search
+	 * backward from all facilities at once finds it, instead of one search per facility.
+	 */
+	private void handleNearestFacility(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
+	{
+		JSONArray facilityCoords = requestJSON.getJSONArray("facilities");
+		if (facilityCoords.isEmpty() || MAX_FACILITIES < facilityCoords.length()) {
+			System.err.println("ERROR:\tClient requested the nearest of " + facilityCoords.length() + " facilities");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+			return;
+		}
+
+		int startNodeId = this.getNearestNodeIdFrom(requestJSON.getJSONObject("start"));
+		int[] facilityNodeIds = new int[facilityCoords.length()];
+		for (int i = 0; i < facilityNodeIds.length; i++) {
+			facilityNodeIds[i] = this.getNearestNodeIdFrom(facilityCoords.getJSONObject(i));
+		}
+
+		// Backward, so the distances are measured from the start to the facilities on directed graphs
+		NearestSource nearestFacility;
 		try {
-			pathInCoordinates = result.getPathInCoordinates();
-		} catch (OperationNotSupportedException e) {
-			throw new RuntimeException(e);
+			nearestFacility = MultiSourceDijkstra.nearestSourceOf(this.adjacencyGraph, facilityNodeIds, startNodeId, SearchDirection.BACKWARD);
+		} catch (IllegalArgumentException e) {
+			nearestFacility = null;  // No facility is reachable
 		}
 
-		this.sendGEOJsonFormattedPath(exchange, pathInCoordinates);
+		// See https://www.rfc-editor.org/rfc/rfc7946#section-3.2
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, 0);  // Chunked
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			GeoJSONWriter geoJSONWriter = new GeoJSONWriter(responseBody).writeAscii("{\"type\":\"Feature\",\"geometry\":");
+			if (nearestFacility != null) {
+				geoJSONWriter.writeLineString(nearestFacility.path())
+						.writeAscii(",\"properties\":{\"facility\":").writeLong(nearestFacility.sourceIndex())
+						.writeAscii(",\"distance\":").writeLong(nearestFacility.distance()).writeAscii("}}");
+			} else {
+				geoJSONWriter.writeAscii("null,\"properties\":null}");
+			}
+			geoJSONWriter.flush();
+		}
 
-		System.out.println("INFO:\tOneToOne Path is " + pathInCoordinates.size() + " edges long");
+		System.out.println("INFO:\tNearest of " + facilityNodeIds.length + " facilities is " +
+				((nearestFacility != null) ? "facility " + nearestFacility.sourceIndex() + " at " + nearestFacility.distance() : "unreachable"));
 	}
 
+	/**
+	 * Answers a one to all request: a "start" request searches & caches the result of its source & opens a session,
+	 * whose token is answered, a "target" request naming the "session" answers the path from the cached result. If the
+	 * result was evicted meanwhile, the target request is answered by 410 Gone & the client reopens its session.
+	 */
 	private void handleOneToAll(final HttpExchange exchange, final JSONObject requestJSON) throws IOException
 	{
 		JSONObject coords;
@@ -225,28 +514,50 @@ public class DijkstraServer {
 		int nodeId = this.getNearestNodeIdFrom(coords);
 
 		if (executionMode == OneToAllExecutionMode.SOURCE) {
-			OneToAllResult dijkstraOneToAllResult =
-					(OneToAllResult) DijkstraAlgorithm.dijkstra(this.adjacencyGraph, nodeId);
-			this.oneToAllResult = Optional.of(dijkstraOneToAllResult);
+			boolean cached = this.oneToAllCache.contains(nodeId);
+			OneToAllResult oneToAllResult = this.oneToAllCache.get(nodeId);
+			if (ONE_TO_ALL_CACHE_BYTES < oneToAllResult.getSizeInBytes()) {
+				System.err.println("ERROR:\tOneToAll result for source node " + nodeId + " exceeds the memory budget of the cache");
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, -1);
+				return;
+			}
+			String session = this.oneToAllSessions.open(nodeId);
 
-			exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, -1);
+			// The client names its session in the target requests, so concurrent clients keep their own source
+			JSONObject responseJSON = new JSONObject();
+			responseJSON.put("session", session);
+			byte[] responseString = responseJSON.toString().getBytes(StandardCharsets.UTF_8);
 
-			System.out.println("INFO:\t Finished calculating OneToAll result for source node " + nodeId);
-		} else {
-			assert this.oneToAllResult.isPresent();
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, responseString.length);
+			try (OutputStream responseBody = exchange.getResponseBody()) {
+				responseBody.write(responseString);
+			}
 
-			OneToAllResult oneToAllResult = this.oneToAllResult.get();
-			Deque<Integer> pathToTargetNode = oneToAllResult.getPathTo(nodeId);
-			ArrayList<Point2D.Double> pathToTargetInCoordinates;
-			try {
-				 pathToTargetInCoordinates = oneToAllResult.getPathInCoordinates(pathToTargetNode);
-			} catch (OperationNotSupportedException e) {
-				throw new RuntimeException(e);
+			System.out.println("INFO:\t " + (cached ? "Cached" : "Finished calculating") + " OneToAll result for source node " +
+					nodeId + ", " + this.oneToAllSessions.size() + " open sessions");
+		} else {
+			String session = requestJSON.optString("session");
+			int sourceNodeId = this.oneToAllSessions.sourceNodeIdOf(session);
+			if (sourceNodeId == -1) {
+				System.err.println("ERROR:\tOneToAll target requested without a known session, which may have expired");
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+				return;
 			}
 
-			this.sendGEOJsonFormattedPath(exchange, pathToTargetInCoordinates);
+			// Evicted results aren't searched again by target requests, which would block them for seconds on large
+			// graphs, but the client reopens its session by another source request
+			OneToAllResult oneToAllResult = this.oneToAllCache.getIfPresent(sourceNodeId);
+			if (oneToAllResult == null) {
+				System.err.println("ERROR:\tOneToAll result for source node " + sourceNodeId + " was evicted, closing its session");
+				this.oneToAllSessions.close(session);
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_GONE, -1);
+				return;
+			}
+			Path pathToTargetNode = oneToAllResult.getPathTo(nodeId);
+			this.sendGEOJsonFormattedPath(exchange, pathToTargetNode);
 
-			System.out.println("INFO:\tOneToAll Path to target node " + nodeId + " is " + pathToTargetInCoordinates.size() + " edges long");
+			System.out.println("INFO:\tOneToAll Path to target node " + nodeId + " is " + pathToTargetNode.getEdgeCount() +
+					" edges & " + pathToTargetNode.getLength() + " long");
 		}
 	}
 
@@ -255,14 +566,15 @@ public class DijkstraServer {
 		TARGET
 	}
 
-	private void sendGEOJsonFormattedPath(final HttpExchange exchange, final ArrayList<Point2D.Double> pathInCoordinates) throws IOException
+	/**
+	 * Streams the path as GeoJSON LineString in a chunked response, so neither an org.json tree nor a String of the
+	 * whole response is built.
+	 */
+	private void sendGEOJsonFormattedPath(final HttpExchange exchange, final Path path) throws IOException
 	{
-		JSONObject geoJSON = this.buildGeoJSONFrom(pathInCoordinates);
-		byte[] geoJSONString = geoJSON.toString().getBytes(StandardCharsets.UTF_8);
-
-		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, geoJSONString.length);
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_ACCEPTED, 0);  // Chunked
 		try (OutputStream responseBody = exchange.getResponseBody()) {
-			responseBody.write(geoJSONString);
+			new GeoJSONWriter(responseBody).writeLineString(path).flush();
 		}
 	}
 
@@ -288,27 +600,6 @@ public class DijkstraServer {
 		return closestNode.nodeId();
 	}
 
-	// string bisher
-	private JSONObject buildGeoJSONFrom(final ArrayList<Point2D.Double> coordsPath)
-	{
-		// See https://www.rfc-editor.org/rfc/rfc7946#section-3.1.4
-		JSONObject geoJSON = new JSONObject();
-		JSONArray coordinatesArray = new JSONArray();
-
-		for (var coordinate : coordsPath) {
-			JSONArray pointAsArray = new JSONArray();
-			pointAsArray.put(coordinate.getX());
-			pointAsArray.put(coordinate.getY());
-
-			coordinatesArray.put(pointAsArray);
-		}
-		geoJSON.put("type", "LineString");
-		geoJSON.put("coordinates", coordinatesArray);
-
-		return geoJSON;
-	}
-
-
 	/**
 	 * Simply calls start on the server, starts the graph structure setup process & prints out an info message :)
 	 */
@@ -316,21 +607,65 @@ public class DijkstraServer {
 	{
 		System.out.println("INFO:\tStarting Java HttpServer...");
 		this.httpServer.start();
+		if (WATCH_WEBSITE) {
+			try {
+				this.staticAssets.startWatching();
+			} catch (IOException e) {
+				System.err.println("ERROR:\tFailed to watch the website directory for changes");
+				e.printStackTrace();
+			}
+		}
 
 		this.setUpGraph();
 	}
 
 	/**
-	 * Creates a background thread executing the GraphReader.read() method. The
-	 * generated adjacencyGraph is set to this classes {@code this.adjacencyGraph}
-	 * reference
+	 * Stops accepting requests, waits for running ones up to a second & shuts the executors down.
+	 */
+	public void stop()
+	{
+		this.httpServer.stop(1);
+		if (this.executor != null) this.executor.shutdown();
+		if (this.searchExecutor != null) this.searchExecutor.shutdown();
+		this.staticAssets.stopWatching();
+
+		System.out.println("INFO:\tStopped Java HttpServer");
+	}
+
+	/**
+	 * Creates a background thread executing the MappedGraphReader.createAdjacencyGraphOf() method or reading the
+	 * {@code GraphSnapshot}, if the graph file is one. The generated adjacencyGraph is set to this classes
+	 * {@code this.adjacencyGraph} reference
 	 */
 	private void setUpGraph()
 	{
 		Runnable setUpGraph = () -> {
 			System.out.println("INFO:\tStarting graph setup...");
-			this.adjacencyGraph = GraphReader.createAdjacencyGraphOf(this.graphFile);
-			this.sortedAdjacencyGraph = new SortedAdjacencyGraph(this.adjacencyGraph);
+			if (GraphSnapshot.isSnapshot(this.graphFile)) {
+				try {
+					GraphSnapshot graphSnapshot = GraphSnapshot.read(this.graphFile);
+					this.adjacencyGraph = graphSnapshot.adjacencyGraph();
+					this.sortedAdjacencyGraph = graphSnapshot.sortedAdjacencyGraph()
+							.orElseGet(() -> new SortedAdjacencyGraph(this.adjacencyGraph));
+				} catch (IOException e) {
+					System.err.println("ERROR:\tFailed to read graph snapshot " + this.graphFile);
+					e.printStackTrace();
+					return;
+				}
+			} else {
+				this.adjacencyGraph = MappedGraphReader.createAdjacencyGraphOf(this.graphFile);
+				this.sortedAdjacencyGraph = new SortedAdjacencyGraph(this.adjacencyGraph);
+			}
+
+			if (this.hierarchyFile != null) {
+				this.contractionHierarchy = this.setUpContractionHierarchy();
+			}
+			AdjacencyGraph graph = this.adjacencyGraph;
+			this.oneToAllCache = new OneToAllCache(ONE_TO_ALL_COMPACT ?
+					sourceNodeId -> DeltaStepping.dijkstra(graph, sourceNodeId).compact() :
+					sourceNodeId -> DeltaStepping.dijkstra(graph, sourceNodeId), ONE_TO_ALL_CACHE_BYTES);
+			this.searchExecutor = this.executionModel.createSearchExecutor(graph.getNodeCount(),
+					this.contractionHierarchy != null);
 
 			this.graphResourcesReady = true;
 			System.out.println("INFO:\tFinished graph setup");
@@ -340,18 +675,47 @@ public class DijkstraServer {
 	}
 
 	/**
-	 * Starts a DijkstraServer using the .fmi graph file specified as first argument of this method.
+	 * Reads the contraction hierarchy file or contracts the graph & writes the file, if it doesn't exist yet or doesn't
+	 * fit the graph.
+	 *
+	 * @return The hierarchy of the graph
+	 */
+	private ContractionHierarchy setUpContractionHierarchy()
+	{
+		if (this.hierarchyFile.exists()) {
+			try {
+				return ContractionHierarchy.read(this.hierarchyFile, this.adjacencyGraph);
+			} catch (IOException e) {
+				System.err.println("ERROR:\tFailed to read contraction hierarchy " + this.hierarchyFile + ", contracting the graph again");
+				e.printStackTrace();
+			}
+		}
+
+		System.out.println("INFO:\tContracting graph, this takes a while...");
+		ContractionHierarchy builtHierarchy = ContractionHierarchyBuilder.build(this.adjacencyGraph);
+		try {
+			builtHierarchy.write(this.hierarchyFile);
+		} catch (IOException e) {
+			System.err.println("ERROR:\tFailed to write contraction hierarchy " + this.hierarchyFile);
+			e.printStackTrace();
+		}
+		return builtHierarchy;
+	}
+
+	/**
+	 * Starts a DijkstraServer using the .fmi graph file or graph snapshot specified as first argument of this method.
 	 * The graph file string is converted to the {@code File} Type & passed to the server's constructor.
 	 *
-	 * @param args First argument must be the graph file path
+	 * @param args First argument must be the graph file path, the optional second one the contraction hierarchy file path
 	 */
 	public static void main(String... args)
 	{
 		String graphPath = args[0];
 		Objects.requireNonNull(args, "No path specified. This server needs a path to a .fmi file for starting.");
 		File graphFile = new File(graphPath);
+		File hierarchyFile = (args.length > 1) ? new File(args[1]) : null;
 
-		DijkstraServer dijkstraServer = new DijkstraServer(graphFile);
+		DijkstraServer dijkstraServer = new DijkstraServer(graphFile, hierarchyFile);
 		dijkstraServer.start();
 	}
 }
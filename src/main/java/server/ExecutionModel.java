@@ -0,0 +1,125 @@
+package server;
+
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How the {@link DijkstraServer} executes its requests, configurable by {@code -DserverExecution=pool|virtual|dispatcher}.
+ * All requests share the graph read only. Except on the dispatcher thread, the searches are handed to a bounded pool of
+ * search threads, which keep their workspaces of about 32 bytes per node & 64 with a contraction hierarchy between
+ * searches. So the status, the statistics & the website files are answered while all search threads are busy.
+ */
+public enum ExecutionModel {
+	/**
+	 * A bounded pool of platform threads, whose count is configurable by {@code -DserverThreads=<count>}
+	 */
+	POOL,
+	/**
+	 * A virtual thread per request, which needs Java 21 & suits many slow clients. Falls back to the pool on older Java
+	 * versions.
+	 */
+	VIRTUAL,
+	/**
+	 * Every request runs on the single dispatcher thread of the http server, so a slow request blocks all others
+	 */
+	DISPATCHER;
+
+	// Bytes per node of the search workspaces of a thread: distances, predecessors & heap positions of the forward &
+	// the backward search. The upward searches of a contraction hierarchy take as much again.
+	private static final long SEARCH_BYTES_PER_NODE = 32;
+	private static final long HIERARCHY_SEARCH_BYTES_PER_NODE = 32;
+
+	/**
+	 * @return The execution model of the system property {@code serverExecution}, the pool by default
+	 * @throws IllegalArgumentException If the property names no execution model
+	 */
+	public static ExecutionModel fromSystemProperty () {
+		return ExecutionModel.valueOf(System.getProperty("serverExecution", "pool").toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * @return The executor of this execution model or null for the dispatcher thread, as expected by
+	 * {@link com.sun.net.httpserver.HttpServer#setExecutor}
+	 */
+	ExecutorService createExecutor () {
+		if (this == DISPATCHER) return null;
+
+		if (this == VIRTUAL) {
+			try {
+				// Looked up reflectively, so the server still compiles & runs on Java 17
+				final Method newVirtualThreadPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+				return (ExecutorService) newVirtualThreadPerTaskExecutor.invoke(null);
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				System.err.println("WARNING:Virtual threads are not available on Java " + Runtime.version().feature() +
+						", falling back to a thread pool");
+			}
+		}
+
+		return ExecutionModel.daemonThreadPool(ExecutionModel.threadCount(), "dijkstra-server-");
+	}
+
+	/**
+	 * Creates the pool of the search threads once the graph is loaded. It has as many threads as the request executor,
+	 * by default only as many as their workspaces fit into half of the heap, so the other half is left to the graph &
+	 * the caches.
+	 *
+	 * @return The executor of the searches or null, if the dispatcher thread searches itself
+	 */
+	ExecutorService createSearchExecutor (final int nodeCount, final boolean withHierarchy) {
+		if (this == DISPATCHER) return null;
+
+		final long maxMemory = Runtime.getRuntime().maxMemory();
+		final int searchConcurrency = this.searchConcurrencyOf(nodeCount, withHierarchy, maxMemory);
+		final long searchBytes = ExecutionModel.searchBytesOf(nodeCount, withHierarchy);
+		if (searchConcurrency * searchBytes > maxMemory / 2) {
+			System.err.println("WARNING:" + searchConcurrency + " searches at once take about " + (searchConcurrency * searchBytes >> 20) +
+					" MB of workspaces, more than half of the maximal heap of " + (maxMemory >> 20) + " MB");
+		}
+		System.out.println("INFO:\tRunning up to " + searchConcurrency + " searches at once, taking about " +
+				(searchBytes >> 20) + " MB of workspaces each");
+
+		return ExecutionModel.daemonThreadPool(searchConcurrency, "dijkstra-search-");
+	}
+
+	/**
+	 * @param maxMemory The heap the JVM may use at most
+	 * @return The count of searches running at once: the configured thread count or the default one, as far as their
+	 * workspaces fit into half of the heap, but at least one
+	 */
+	public int searchConcurrencyOf (final int nodeCount, final boolean withHierarchy, final long maxMemory) {
+		if (this == DISPATCHER) return 1;
+		if (Integer.getInteger("serverThreads") != null) return ExecutionModel.threadCount();
+
+		final long fittingSearches = maxMemory / 2 / Math.max(1, ExecutionModel.searchBytesOf(nodeCount, withHierarchy));
+		return (int) Math.max(1, Math.min(ExecutionModel.threadCount(), fittingSearches));
+	}
+
+	/**
+	 * @return The bytes of the search workspaces of a thread
+	 */
+	private static long searchBytesOf (final int nodeCount, final boolean withHierarchy) {
+		return nodeCount * (withHierarchy ? SEARCH_BYTES_PER_NODE + HIERARCHY_SEARCH_BYTES_PER_NODE : SEARCH_BYTES_PER_NODE);
+	}
+
+	private static ExecutorService daemonThreadPool (final int threadCount, final String threadNamePrefix) {
+		final AtomicInteger threadNumber = new AtomicInteger();
+		return Executors.newFixedThreadPool(threadCount, runnable -> {
+			final Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * @return The configured thread count or {@code max(2, cores)}
+	 */
+	private static int threadCount () {
+		final int threadCount = Integer.getInteger("serverThreads", Math.max(2, Runtime.getRuntime().availableProcessors()));
+		if (threadCount < 1)
+			throw new IllegalArgumentException("Server thread count must be positive, but is " + threadCount + ".");
+		return threadCount;
+	}
+}
@@ -0,0 +1,124 @@
+package server;
+
+import dijkstra.Path;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes GeoJSON straight onto an output stream, e.g. the chunked response body of an exchange. Paths are written from
+ * their primitive coordinate arrays through a fixed buffer, so unlike an org.json tree nothing is allocated per
+ * coordinate & the response is neither built as String nor copied into a byte array.
+ * <p>
+ * Coordinates are written with 7 decimals, about 1 cm, which is the precision of the FMI graph files.
+ */
+public final class GeoJSONWriter {
+
+	private static final int BUFFER_SIZE = 8192;
+	private static final int COORDINATE_DECIMALS = 7;
+	private static final long COORDINATE_SCALE = 10_000_000L;
+	// The longest value written at once: a long with sign or a coordinate pair
+	private static final int MAX_VALUE_LENGTH = 64;
+
+	private final OutputStream outputStream;
+	private final byte[] buffer = new byte[BUFFER_SIZE];
+	private int position;
+
+	/**
+	 * @param outputStream The stream, which is neither flushed nor closed by the writer
+	 */
+	public GeoJSONWriter (final OutputStream outputStream) {
+		this.outputStream = outputStream;
+	}
+
+	/**
+	 * Writes the path as LineString geometry, see <a href="https://www.rfc-editor.org/rfc/rfc7946#section-3.1.4">RFC 7946</a>.
+	 */
+	public GeoJSONWriter writeLineString (final Path path) throws IOException {
+		this.writeAscii("{\"type\":\"LineString\",\"coordinates\":[");
+		for (int i = 0; i < path.getNodeCount(); i++) {
+			this.ensureCapacity(MAX_VALUE_LENGTH);
+			if (i != 0) this.buffer[this.position++] = ',';
+			this.buffer[this.position++] = '[';
+			this.writeCoordinate(path.getLongitudeAt(i));
+			this.buffer[this.position++] = ',';
+			this.writeCoordinate(path.getLatitudeAt(i));
+			this.buffer[this.position++] = ']';
+		}
+		return this.writeAscii("]}");
+	}
+
+	/**
+	 * Writes JSON syntax or a key, which must consist of ASCII characters only.
+	 */
+	public GeoJSONWriter writeAscii (final String ascii) throws IOException {
+		for (int i = 0; i < ascii.length(); i++) {
+			if (this.position == BUFFER_SIZE) this.flushBuffer();
+			this.buffer[this.position++] = (byte) ascii.charAt(i);
+		}
+		return this;
+	}
+
+	public GeoJSONWriter writeLong (final long value) throws IOException {
+		this.ensureCapacity(MAX_VALUE_LENGTH);
+		if (value == Long.MIN_VALUE) return this.writeAscii(Long.toString(value));
+
+		if (value < 0) this.buffer[this.position++] = '-';
+		this.writeDigits(Math.abs(value), 1);
+		return this;
+	}
+
+	/**
+	 * Writes the buffered bytes to the output stream. Must be called after writing the last value.
+	 */
+	public void flush () throws IOException {
+		this.flushBuffer();
+	}
+
+	/**
+	 * Writes the coordinate rounded to 7 decimals as fixed point number without trailing zeros, e.g. {@code 9.1056518}
+	 * or {@code -0.5}.
+	 */
+	private void writeCoordinate (final double coordinate) {
+		final long scaled = Math.round(Math.abs(coordinate) * COORDINATE_SCALE);
+		if (coordinate < 0 && scaled != 0) this.buffer[this.position++] = '-';
+		this.writeDigits(scaled / COORDINATE_SCALE, 1);
+
+		long decimals = scaled % COORDINATE_SCALE;
+		if (decimals == 0) return;
+
+		int decimalCount = COORDINATE_DECIMALS;
+		while (decimals % 10 == 0) {
+			decimals /= 10;
+			decimalCount--;
+		}
+		this.buffer[this.position++] = '.';
+		this.writeDigits(decimals, decimalCount);
+	}
+
+	/**
+	 * Writes the non-negative value with leading zeros up to the minimal digit count.
+	 */
+	private void writeDigits (long value, final int minDigitCount) {
+		int digitCount = 1;
+		for (long remainder = value / 10; remainder != 0; remainder /= 10) {
+			digitCount++;
+		}
+		digitCount = Math.max(digitCount, minDigitCount);
+
+		for (int i = this.position + digitCount - 1; this.position <= i; i--) {
+			this.buffer[i] = (byte) ('0' + value % 10);
+			value /= 10;
+		}
+		this.position += digitCount;
+	}
+
+	private void ensureCapacity (final int length) throws IOException {
+		if (BUFFER_SIZE - this.position < length) this.flushBuffer();
+	}
+
+	private void flushBuffer () throws IOException {
+		this.outputStream.write(this.buffer, 0, this.position);
+		this.position = 0;
+	}
+}
@@ -0,0 +1,366 @@
+package server;
+
+import dijkstra.ReachableNodes;
+import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import struct.AdjacencyGraph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Turns the nodes of a {@code BoundedDijkstra} search into isochrone polygons. The nodes & the edges between them are
+ * rasterized into a grid of about {@value #GRID_RESOLUTION} cells along the longer side of their bounding box, the
+ * gaps between the roads are closed by a dilation followed by an erosion & the boundaries of the occupied cells are
+ * traced as rings.
+ * Working on the grid bounds the cost by the grid size instead of the node count, and unlike a convex hull it keeps
+ * the shape of the road network, e.g. valleys & lakes without roads.
+ */
+public final class IsochronePolygons {
+
+	static final int GRID_RESOLUTION = 128;
+	private static final double MIN_CELL_METERS = 20;
+	private static final double METERS_PER_LATITUDE_DEGREE = 111_320;
+	// Gaps between roads of up to twice the radius in cells are filled
+	private static final int CLOSING_RADIUS = 2;
+	// Empty cells around the nodes, so neither the dilation nor the boundary rings reach the grid border
+	private static final int PADDING = CLOSING_RADIUS + 1;
+
+	// Lattice directions in counter-clockwise order, so direction + 1 is a left turn
+	private static final int EAST = 0;
+	private static final int NORTH = 1;
+	private static final int WEST = 2;
+	private static final int SOUTH = 3;
+	private static final int[] DX = {1, 0, -1, 0};
+	private static final int[] DY = {0, 1, 0, -1};
+
+	private IsochronePolygons () {
+	}
+
+	/**
+	 * Builds one feature per distance band, whereas band i of n contains the nodes within i / n of the distance budget.
+	 * Every feature is a GeoJSON MultiPolygon with counter-clockwise outer rings & clockwise holes, its properties hold
+	 * the "distance" of the band & the count of "nodes" within it.
+	 *
+	 * @param reachableNodes The nodes of the search
+	 * @param bandCount      The count of distance bands, at least 1
+	 * @return The GeoJSON FeatureCollection of the bands in ascending order of their distance
+	 */
+	public static JSONObject geoJSONOf (final AdjacencyGraph adjacencyGraph, final ReachableNodes reachableNodes,
+	                                    final int bandCount) {
+		if (bandCount < 1)
+			throw new IllegalArgumentException("Band count must be positive, but is " + bandCount + ".");
+
+		final Grid grid = new Grid(adjacencyGraph, reachableNodes.nodeIds());
+		final JSONArray features = new JSONArray();
+		for (int band = 1; band <= bandCount; band++) {
+			final int bandDistance = (int) ((long) reachableNodes.maxDistance() * band / bandCount);
+
+			// Nodes are sorted by distance, so the nodes of a band are a prefix, whose end is found by binary search
+			int bandNodeCount = 0;
+			for (int high = reachableNodes.nodeCount(); bandNodeCount < high; ) {
+				final int middle = (bandNodeCount + high) >>> 1;
+				if (reachableNodes.distances()[middle] <= bandDistance) bandNodeCount = middle + 1;
+				else high = middle;
+			}
+
+			final JSONObject geometry = new JSONObject();
+			geometry.put("type", "MultiPolygon");
+			geometry.put("coordinates", grid.polygonsOf(grid.rasterize(bandNodeCount)));
+
+			final JSONObject properties = new JSONObject();
+			properties.put("distance", bandDistance);
+			properties.put("nodes", bandNodeCount);
+
+			final JSONObject feature = new JSONObject();
+			feature.put("type", "Feature");
+			feature.put("geometry", geometry);
+			feature.put("properties", properties);
+			features.put(feature);
+		}
+
+		final JSONObject featureCollection = new JSONObject();
+		featureCollection.put("type", "FeatureCollection");
+		featureCollection.put("features", features);
+		return featureCollection;
+	}
+
+	/**
+	 * The grid over the bounding box of the nodes. Cell (x, y) covers the longitudes [x, x + 1) * cell width & the
+	 * latitudes [y, y + 1) * cell height from the origin, lattice vertex (x, y) is its lower left corner.
+	 */
+	private static final class Grid {
+		private final AdjacencyGraph adjacencyGraph;
+		private final int[] nodeIds;
+		// Index of every node in the node IDs, so an edge is drawn, if both of its nodes belong to the band
+		private final Int2IntOpenHashMap nodeIndices;
+		private final double originLongitude;
+		private final double originLatitude;
+		private final double cellWidth;
+		private final double cellHeight;
+		private final int width;
+		private final int height;
+
+		Grid (final AdjacencyGraph adjacencyGraph, final int[] nodeIds) {
+			this.adjacencyGraph = adjacencyGraph;
+			this.nodeIds = nodeIds;
+			this.nodeIndices = new Int2IntOpenHashMap(nodeIds.length);
+			this.nodeIndices.defaultReturnValue(Integer.MAX_VALUE);
+			for (int i = 0; i < nodeIds.length; i++) {
+				this.nodeIndices.put(nodeIds[i], i);
+			}
+
+			double minLongitude = Double.MAX_VALUE, maxLongitude = -Double.MAX_VALUE;
+			double minLatitude = Double.MAX_VALUE, maxLatitude = -Double.MAX_VALUE;
+			for (int nodeId : nodeIds) {
+				minLongitude = Math.min(minLongitude, adjacencyGraph.getLongitudeOf(nodeId));
+				maxLongitude = Math.max(maxLongitude, adjacencyGraph.getLongitudeOf(nodeId));
+				minLatitude = Math.min(minLatitude, adjacencyGraph.getLatitudeOf(nodeId));
+				maxLatitude = Math.max(maxLatitude, adjacencyGraph.getLatitudeOf(nodeId));
+			}
+
+			// Square cells in metres, so the polygons aren't distorted away from the equator
+			final double metersPerLongitudeDegree = METERS_PER_LATITUDE_DEGREE *
+					Math.max(0.01, Math.cos(Math.toRadians((minLatitude + maxLatitude) / 2)));
+			final double extentMeters = Math.max((maxLongitude - minLongitude) * metersPerLongitudeDegree,
+					(maxLatitude - minLatitude) * METERS_PER_LATITUDE_DEGREE);
+			final double cellMeters = Math.max(MIN_CELL_METERS, extentMeters / GRID_RESOLUTION);
+			this.cellWidth = cellMeters / metersPerLongitudeDegree;
+			this.cellHeight = cellMeters / METERS_PER_LATITUDE_DEGREE;
+
+			// Shifted by half a cell, so the extreme nodes lie in the middle of their cells instead of on the lattice
+			this.originLongitude = minLongitude - (PADDING + 0.5) * this.cellWidth;
+			this.originLatitude = minLatitude - (PADDING + 0.5) * this.cellHeight;
+			this.width = (int) ((maxLongitude - minLongitude) / this.cellWidth) + 2 + 2 * PADDING;
+			this.height = (int) ((maxLatitude - minLatitude) / this.cellHeight) + 2 + 2 * PADDING;
+		}
+
+		/**
+		 * @param nodeCount The count of nodes rasterized, a prefix of the node IDs
+		 * @return The occupied cells by index y * width + x
+		 */
+		boolean[] rasterize (final int nodeCount) {
+			boolean[] cells = new boolean[this.width * this.height];
+			for (int i = 0; i < nodeCount; i++) {
+				final int nodeId = this.nodeIds[i];
+				final double longitude = this.adjacencyGraph.getLongitudeOf(nodeId);
+				final double latitude = this.adjacencyGraph.getLatitudeOf(nodeId);
+				this.occupy(cells, longitude, latitude);
+
+				// Roads are continuous, so the edges are sampled every half cell
+				final int endEdgeId = this.adjacencyGraph.getEndEdgeIdOf(nodeId);
+				for (int edgeId = this.adjacencyGraph.getFirstEdgeIdOf(nodeId); edgeId < endEdgeId; edgeId++) {
+					final int targetNodeId = this.adjacencyGraph.getTargetOf(edgeId);
+					if (nodeCount <= this.nodeIndices.get(targetNodeId)) continue;
+
+					final double longitudeDelta = this.adjacencyGraph.getLongitudeOf(targetNodeId) - longitude;
+					final double latitudeDelta = this.adjacencyGraph.getLatitudeOf(targetNodeId) - latitude;
+					final int samples = (int) (2 * Math.max(Math.abs(longitudeDelta) / this.cellWidth, Math.abs(latitudeDelta) / this.cellHeight));
+					for (int sample = 1; sample <= samples; sample++) {
+						final double fraction = (double) sample / (samples + 1);
+						this.occupy(cells, longitude + fraction * longitudeDelta, latitude + fraction * latitudeDelta);
+					}
+				}
+			}
+
+			// Closing: the dilations bridge the gaps between the roads, the erosions shrink the outline back
+			for (int i = 0; i < CLOSING_RADIUS; i++) {
+				cells = this.morph(cells, true);
+			}
+			for (int i = 0; i < CLOSING_RADIUS; i++) {
+				cells = this.morph(cells, false);
+			}
+			return cells;
+		}
+
+		private void occupy (final boolean[] cells, final double longitude, final double latitude) {
+			final int x = (int) ((longitude - this.originLongitude) / this.cellWidth);
+			final int y = (int) ((latitude - this.originLatitude) / this.cellHeight);
+			cells[y * this.width + x] = true;
+		}
+
+		/**
+		 * @param dilate Dilates, if true, else erodes by the 3 x 3 neighbourhood, whereas cells beyond the grid are empty
+		 */
+		private boolean[] morph (final boolean[] cells, final boolean dilate) {
+			final boolean[] morphed = new boolean[cells.length];
+			for (int y = 0; y < this.height; y++) {
+				for (int x = 0; x < this.width; x++) {
+					boolean result = !dilate;
+					for (int dy = -1; dy <= 1 && result != dilate; dy++) {
+						for (int dx = -1; dx <= 1 && result != dilate; dx++) {
+							if (this.isOccupied(cells, x + dx, y + dy) == dilate) result = dilate;
+						}
+					}
+					morphed[y * this.width + x] = result;
+				}
+			}
+			return morphed;
+		}
+
+		private boolean isOccupied (final boolean[] cells, final int x, final int y) {
+			return 0 <= x && x < this.width && 0 <= y && y < this.height && cells[y * this.width + x];
+		}
+
+		/**
+		 * Traces the boundary edges of the occupied cells, which are directed so the occupied cell is on their left.
+		 * Outer rings are counter-clockwise then & holes clockwise. At a vertex touched by two diagonal cells only, the
+		 * left turn is taken, so diagonal cells belong to separate rings.
+		 *
+		 * @return The GeoJSON MultiPolygon coordinates
+		 */
+		JSONArray polygonsOf (final boolean[] cells) {
+			final int vertexWidth = this.width + 1;
+			final byte[] outgoing = new byte[vertexWidth * (this.height + 1)];  // Bit per direction of unused edges
+			for (int y = 0; y < this.height; y++) {
+				for (int x = 0; x < this.width; x++) {
+					if (!cells[y * this.width + x]) continue;
+					if (!this.isOccupied(cells, x, y - 1)) outgoing[y * vertexWidth + x] |= 1 << EAST;
+					if (!this.isOccupied(cells, x + 1, y)) outgoing[y * vertexWidth + x + 1] |= 1 << NORTH;
+					if (!this.isOccupied(cells, x, y + 1)) outgoing[(y + 1) * vertexWidth + x + 1] |= 1 << WEST;
+					if (!this.isOccupied(cells, x - 1, y)) outgoing[(y + 1) * vertexWidth + x] |= 1 << SOUTH;
+				}
+			}
+
+			final List<Ring> outerRings = new ArrayList<>();
+			final List<Ring> holes = new ArrayList<>();
+			for (int startVertex = 0; startVertex < outgoing.length; startVertex++) {
+				while (outgoing[startVertex] != 0) {
+					final Ring ring = Ring.trace(outgoing, vertexWidth, startVertex);
+					(0 < ring.doubleArea ? outerRings : holes).add(ring);
+				}
+			}
+
+			// A hole belongs to the smallest outer ring containing a cell the hole borders on
+			final List<List<Ring>> polygons = new ArrayList<>();
+			for (Ring outerRing : outerRings) {
+				polygons.add(new ArrayList<>(List.of(outerRing)));
+			}
+			for (Ring hole : holes) {
+				int polygonIndex = -1;
+				for (int i = 0; i < outerRings.size(); i++) {
+					if (outerRings.get(i).contains(hole.insideX, hole.insideY) &&
+							(polygonIndex == -1 || outerRings.get(i).doubleArea < outerRings.get(polygonIndex).doubleArea)) {
+						polygonIndex = i;
+					}
+				}
+				if (polygonIndex != -1) polygons.get(polygonIndex).add(hole);
+			}
+
+			final JSONArray polygonsArray = new JSONArray();
+			for (List<Ring> polygon : polygons) {
+				final JSONArray ringsArray = new JSONArray();
+				for (Ring ring : polygon) {
+					ringsArray.put(this.coordinatesOf(ring));
+				}
+				polygonsArray.put(ringsArray);
+			}
+			return polygonsArray;
+		}
+
+		/**
+		 * @return The closed GeoJSON ring of the corners of the ring
+		 */
+		private JSONArray coordinatesOf (final Ring ring) {
+			final JSONArray coordinatesArray = new JSONArray();
+			for (int i = 0; i <= ring.cornerXs.length; i++) {
+				final int corner = i % ring.cornerXs.length;
+				final JSONArray pointAsArray = new JSONArray();
+				pointAsArray.put(this.originLongitude + ring.cornerXs[corner] * this.cellWidth);
+				pointAsArray.put(this.originLatitude + ring.cornerYs[corner] * this.cellHeight);
+				coordinatesArray.put(pointAsArray);
+			}
+			return coordinatesArray;
+		}
+	}
+
+	/**
+	 * A closed ring of lattice vertices, whereas only the corners are kept.
+	 */
+	private static final class Ring {
+		private final int[] cornerXs;
+		private final int[] cornerYs;
+		// Twice the signed area, positive for counter-clockwise rings
+		private final long doubleArea;
+		// The center of a cell left of the first edge, so it's inside the outer ring of the cell's polygon
+		private final double insideX;
+		private final double insideY;
+
+		private Ring (final int[] cornerXs, final int[] cornerYs, final double insideX, final double insideY) {
+			this.cornerXs = cornerXs;
+			this.cornerYs = cornerYs;
+			this.insideX = insideX;
+			this.insideY = insideY;
+
+			long doubleArea = 0;
+			for (int i = 0; i < cornerXs.length; i++) {
+				final int next = (i + 1) % cornerXs.length;
+				doubleArea += (long) cornerXs[i] * cornerYs[next] - (long) cornerXs[next] * cornerYs[i];
+			}
+			this.doubleArea = doubleArea;
+		}
+
+		/**
+		 * Follows the unused edges from the start vertex until the ring is closed & removes them.
+		 */
+		static Ring trace (final byte[] outgoing, final int vertexWidth, final int startVertex) {
+			final int startDirection = Integer.numberOfTrailingZeros(outgoing[startVertex]);
+			final IntArrayList cornerXs = new IntArrayList();
+			final IntArrayList cornerYs = new IntArrayList();
+
+			int x = startVertex % vertexWidth;
+			int y = startVertex / vertexWidth;
+			int direction = startDirection;
+			while (true) {
+				outgoing[y * vertexWidth + x] &= (byte) ~(1 << direction);
+				x += DX[direction];
+				y += DY[direction];
+
+				// The start edge is still a candidate at the start vertex, the ring is closed if it's chosen
+				final boolean atStart = y * vertexWidth + x == startVertex;
+				final int candidates = outgoing[y * vertexWidth + x] | (atStart ? 1 << startDirection : 0);
+				final int nextDirection = Ring.turn(candidates, direction);
+				if (nextDirection != direction) {
+					cornerXs.add(x);
+					cornerYs.add(y);
+				}
+				if (atStart && nextDirection == startDirection) break;
+				direction = nextDirection;
+			}
+
+			// Left of the first edge, see the directions of the cell sides in Grid.polygonsOf
+			final int startX = startVertex % vertexWidth;
+			final int startY = startVertex / vertexWidth;
+			final double insideX = startX + ((startDirection == EAST || startDirection == SOUTH) ? 0.5 : -0.5);
+			final double insideY = startY + ((startDirection == EAST || startDirection == NORTH) ? 0.5 : -0.5);
+			return new Ring(cornerXs.toIntArray(), cornerYs.toIntArray(), insideX, insideY);
+		}
+
+		/**
+		 * @return The left turn, if possible, else going straight or the right turn
+		 */
+		private static int turn (final int candidates, final int direction) {
+			final int left = (direction + 1) % 4;
+			if ((candidates & (1 << left)) != 0) return left;
+			if ((candidates & (1 << direction)) != 0) return direction;
+			return (direction + 3) % 4;
+		}
+
+		/**
+		 * Ray casting, the point must not lie on the lattice.
+		 */
+		boolean contains (final double x, final double y) {
+			boolean inside = false;
+			for (int i = 0, previous = this.cornerXs.length - 1; i < this.cornerXs.length; previous = i++) {
+				if ((this.cornerYs[i] > y) != (this.cornerYs[previous] > y) &&
+						x < (double) (this.cornerXs[previous] - this.cornerXs[i]) * (y - this.cornerYs[i]) /
+								(this.cornerYs[previous] - this.cornerYs[i]) + this.cornerXs[i]) {
+					inside = !inside;
+				}
+			}
+			return inside;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package server;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The one to all source node of every client session, so concurrent clients don't overwrite each other's source. A
+ * session is opened by a source request, whose response contains the session token, & target requests name it.
+ * <p>
+ * The results themselves are kept by the {@link dijkstra.OneToAllCache} keyed by their source node, so sessions of the
+ * same source share one result & the memory budget of the cache bounds all results. Sessions expire after being idle
+ * for the timeout & the least recently used one is evicted beyond the maximal session count. All methods are thread
+ * safe.
+ */
+public final class OneToAllSessions {
+
+	private static final int TOKEN_BYTES = 16;
+
+	private final SecureRandom tokenRandom = new SecureRandom();
+	private final int maxSessionCount;
+	private final long idleTimeoutNanos;
+	private final LongSupplier nanoClock;
+
+	// Access ordered, so the first session is the least recently used one
+	private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * @param maxSessionCount The maximal count of open sessions
+	 * @param idleTimeout     The time a session is kept after its last request
+	 */
+	public OneToAllSessions (final int maxSessionCount, final Duration idleTimeout) {
+		this(maxSessionCount, idleTimeout, System::nanoTime);
+	}
+
+	/**
+	 * @param nanoClock The clock of the idle timeout in nanoseconds, e.g. a manual clock of a test
+	 */
+	public OneToAllSessions (final int maxSessionCount, final Duration idleTimeout, final LongSupplier nanoClock) {
+		if (maxSessionCount < 1)
+			throw new IllegalArgumentException("Maximal session count must be positive, but is " + maxSessionCount + ".");
+		if (idleTimeout.isNegative() || idleTimeout.isZero())
+			throw new IllegalArgumentException("Idle timeout must be positive, but is " + idleTimeout + ".");
+
+		this.maxSessionCount = maxSessionCount;
+		this.idleTimeoutNanos = idleTimeout.toNanos();
+		this.nanoClock = nanoClock;
+	}
+
+	/**
+	 * @param sourceNodeId The one to all source node of the session
+	 * @return The unguessable token of the new session
+	 */
+	public String open (final int sourceNodeId) {
+		final byte[] tokenBytes = new byte[TOKEN_BYTES];
+		this.tokenRandom.nextBytes(tokenBytes);
+		final String token = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenBytes);
+
+		synchronized (this) {
+			final long now = this.nanoClock.getAsLong();
+			this.evictIdleSessions(now);
+			this.sessions.put(token, new Session(sourceNodeId, now));
+
+			if (this.maxSessionCount < this.sessions.size()) {
+				final Iterator<String> leastRecentlyUsed = this.sessions.keySet().iterator();
+				leastRecentlyUsed.next();
+				leastRecentlyUsed.remove();
+			}
+		}
+		return token;
+	}
+
+	/**
+	 * Returns the source node of the session & restarts its idle timeout.
+	 *
+	 * @return The source node ID of the session or -1, if the session is unknown or expired
+	 */
+	public synchronized int sourceNodeIdOf (final String token) {
+		final long now = this.nanoClock.getAsLong();
+		this.evictIdleSessions(now);
+
+		final Session session = this.sessions.get(token);
+		if (session == null) return -1;
+
+		session.lastAccessNanos = now;
+		return session.sourceNodeId;
+	}
+
+	/**
+	 * Closes the session, if it is still open.
+	 */
+	public synchronized void close (final String token) {
+		this.sessions.remove(token);
+	}
+
+	public synchronized int size () {
+		this.evictIdleSessions(this.nanoClock.getAsLong());
+		return this.sessions.size();
+	}
+
+	/**
+	 * Removes the idle sessions, which are the least recently used ones at the head of the access order.
+	 */
+	private void evictIdleSessions (final long now) {
+		final Iterator<Map.Entry<String, Session>> leastRecentlyUsed = this.sessions.entrySet().iterator();
+		while (leastRecentlyUsed.hasNext() && this.idleTimeoutNanos <= now - leastRecentlyUsed.next().getValue().lastAccessNanos) {
+			leastRecentlyUsed.remove();
+		}
+	}
+
+	private static final class Session {
+		private final int sourceNodeId;
+		private long lastAccessNanos;
+
+		Session (final int sourceNodeId, final long lastAccessNanos) {
+			this.sourceNodeId = sourceNodeId;
+			this.lastAccessNanos = lastAccessNanos;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package server;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The files of the website directory, which are loaded once into memory together with their gzip compressed bytes &
+ * ETags. Requests are answered from memory with Content-Length, ETag & Cache-Control, unchanged files by 304 Not
+ * Modified, and compressed, if the client accepts gzip.
+ * <p>
+ * Only the loaded files are served, so requests never reach the file system & path traversal can't escape the
+ * directory. Requests naming a parent directory are rejected anyway. During development the directory is watched by
+ * {@link #startWatching}, so changed files are reloaded.
+ */
+public final class StaticAssets {
+
+	// Relative to the website directory, requested by the path "/"
+	private static final String INDEX_FILE = "website.html";
+	// The website is revalidated by its ETag on every load, the other files are reused for a minute
+	private static final String HTML_CACHE_CONTROL = "no-cache";
+	private static final String CACHE_CONTROL = "public, max-age=60";
+
+	private final Path rootDirectory;
+	private volatile Map<String, Asset> assets;  // Replaced as a whole on reload, keyed by request path
+	private WatchService watchService;
+
+	/**
+	 * @param rootDirectory The website directory, which may not exist, so nothing is served
+	 */
+	public StaticAssets (final Path rootDirectory) {
+		this.rootDirectory = rootDirectory.toAbsolutePath().normalize();
+		this.assets = this.load();
+	}
+
+	/**
+	 * Answers a GET request of a website file from memory.
+	 */
+	public void serve (final HttpExchange exchange) throws IOException {
+		final String requestPath = exchange.getRequestURI().getPath();
+		if (requestPath == null || !requestPath.startsWith("/") || requestPath.contains("/..") || requestPath.contains("\\")) {
+			System.err.println("ERROR:\tRejected website file request of path \"" + requestPath + "\"");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_BAD_REQUEST, -1);
+			exchange.close();
+			return;
+		}
+
+		final Asset asset = this.assets.get("/".equals(requestPath) ? "/" + INDEX_FILE : requestPath);
+		if (asset == null) {
+			System.err.println("ERROR:\tThe by client specified file \"" + requestPath + "\" was not found on the webservers root");
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+			exchange.close();
+			return;
+		}
+
+		final String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+		final boolean gzip = asset.gzipBytes() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+		final String eTag = gzip ? asset.gzipETag() : asset.eTag();
+
+		final Headers responseHeaders = exchange.getResponseHeaders();
+		responseHeaders.set("ETag", eTag);
+		responseHeaders.set("Cache-Control", asset.cacheControl());
+		responseHeaders.set("Vary", "Accept-Encoding");
+
+		final String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+		if (ifNoneMatch != null && (ifNoneMatch.contains(asset.eTag()) || ifNoneMatch.contains(asset.gzipETag()) || ifNoneMatch.equals("*"))) {
+			exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_MODIFIED, -1);
+			exchange.close();
+			return;
+		}
+
+		final byte[] body = gzip ? asset.gzipBytes() : asset.bytes();
+		responseHeaders.set("Content-Type", asset.contentType());
+		if (gzip) responseHeaders.set("Content-Encoding", "gzip");
+		exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, body.length);
+		try (OutputStream responseBody = exchange.getResponseBody()) {
+			responseBody.write(body);
+		}
+	}
+
+	/**
+	 * Watches the website directory & its subdirectories in a daemon thread & reloads all files on every change.
+	 * Directories created afterwards aren't watched.
+	 */
+	public synchronized void startWatching () throws IOException {
+		if (this.watchService != null || !Files.isDirectory(this.rootDirectory)) return;
+
+		final WatchService watchService = FileSystems.getDefault().newWatchService();
+		try (Stream<Path> directories = Files.walk(this.rootDirectory, FileVisitOption.FOLLOW_LINKS)) {
+			for (Path directory : (Iterable<Path>) directories.filter(Files::isDirectory)::iterator) {
+				directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+						StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+			}
+		}
+		this.watchService = watchService;
+
+		final Thread watchThread = new Thread(() -> {
+			try {
+				while (true) {
+					final var watchKey = watchService.take();
+					watchKey.pollEvents();
+					watchKey.reset();
+					this.assets = this.load();
+					System.out.println("INFO:\tReloaded " + this.assets.size() + " website files");
+				}
+			} catch (InterruptedException | ClosedWatchServiceException e) {
+				// Stopped watching
+			}
+		}, "website-watcher");
+		watchThread.setDaemon(true);
+		watchThread.start();
+	}
+
+	/**
+	 * Stops watching the website directory.
+	 */
+	public synchronized void stopWatching () {
+		if (this.watchService == null) return;
+
+		try {
+			this.watchService.close();
+		} catch (IOException e) {
+			System.err.println("ERROR:\tFailed to stop watching the website directory " + this.rootDirectory);
+			e.printStackTrace();
+		}
+		this.watchService = null;
+	}
+
+	public int size () {
+		return this.assets.size();
+	}
+
+	/**
+	 * Reads all files below the website directory. A file failing to read is skipped, so the others are still served.
+	 *
+	 * @return The assets keyed by their request path
+	 */
+	private Map<String, Asset> load () {
+		final Map<String, Asset> loadedAssets = new HashMap<>();
+		if (!Files.isDirectory(this.rootDirectory)) {
+			System.err.println("WARNING:The website directory " + this.rootDirectory + " doesn't exist, no website files are served");
+			return loadedAssets;
+		}
+
+		try (Stream<Path> files = Files.walk(this.rootDirectory, FileVisitOption.FOLLOW_LINKS)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				final String requestPath = "/" + this.rootDirectory.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+				try {
+					loadedAssets.put(requestPath, StaticAssets.assetOf(requestPath, Files.readAllBytes(file)));
+				} catch (IOException e) {
+					System.err.println("ERROR:\tFailed to read website file " + file);
+					e.printStackTrace();
+				}
+			}
+		} catch (IOException e) {
+			System.err.println("ERROR:\tFailed to list the website directory " + this.rootDirectory);
+			e.printStackTrace();
+		}
+		return Map.copyOf(loadedAssets);
+	}
+
+	private static Asset assetOf (final String requestPath, final byte[] bytes) throws IOException {
+		final ByteArrayOutputStream gzipBuffer = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzipStream = new GZIPOutputStream(gzipBuffer)) {
+			gzipStream.write(bytes);
+		}
+		// Already compressed files like images don't get smaller, so they are always sent as they are
+		final byte[] gzipBytes = (gzipBuffer.size() < bytes.length) ? gzipBuffer.toByteArray() : null;
+
+		final String eTag = StaticAssets.eTagOf(bytes);
+		final String contentType = StaticAssets.contentTypeOf(requestPath);
+		return new Asset(bytes, gzipBytes, "\"" + eTag + "\"", "\"" + eTag + "-gzip\"", contentType,
+				contentType.startsWith("text/html") ? HTML_CACHE_CONTROL : CACHE_CONTROL);
+	}
+
+	private static String eTagOf (final byte[] bytes) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+			return HexFormat.of().formatHex(digest, 0, 16);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is required to be supported by every Java platform.", e);
+		}
+	}
+
+	private static String contentTypeOf (final String requestPath) {
+		final String extension = requestPath.substring(requestPath.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+		return switch (extension) {
+			case "html" -> "text/html; charset=utf-8";
+			case "js" -> "text/javascript; charset=utf-8";
+			case "css" -> "text/css; charset=utf-8";
+			case "json" -> "application/json";
+			case "png" -> "image/png";
+			case "jpg", "jpeg" -> "image/jpeg";
+			case "svg" -> "image/svg+xml";
+			case "ico" -> "image/x-icon";
+			default -> "application/octet-stream";
+		};
+	}
+
+	/**
+	 * @param gzipBytes The gzip compressed bytes or null, if compressing doesn't make the file smaller
+	 */
+	private record Asset(byte[] bytes, byte[] gzipBytes, String eTag, String gzipETag, String contentType,
+	                     String cacheControl) {
+	}
+}
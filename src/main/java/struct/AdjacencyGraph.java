@@ -1,8 +1,8 @@
 package struct;
 
-import java.awt.geom.Point2D;
 import java.io.PrintStream;
-import java.util.ArrayDeque;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
 import java.util.Arrays;
 import java.util.logging.Logger;
 
@@ -20,13 +20,16 @@ public class AdjacencyGraph implements Graph {
 	private final double[] longitudes; // Not private due to QuadTree using it directly :/
 	private final double[] latitudes;
 
-	// Edge stuff, referenced by edge indices
-	public final int[] sources;
-	private final int[] targets;
-	private final int[] offset;
-	private final int[] distances;
-	// Stuff to be written by add operation:
-	private int cachedSourceNodeID;
+	// Edge stuff, referenced by edge indices. Not final, because finishEdges() may reorder the edges by their source node
+	private int[] sources;
+	private int[] targets;
+	private int[] offset;
+	private int[] distances;
+	// Reverse graph holding the forward edge IDs pointing to every node, built with the offset array
+	private int[] incomingOffset;
+	private int[] incomingEdgeIds;
+	// Cached by getMaxDistance(), -1 if not determined yet
+	private int maxDistance = -1;
 
 
 	/**
@@ -40,11 +43,48 @@ public class AdjacencyGraph implements Graph {
 
 		this.longitudes = new double[nodeCount];
 		this.latitudes = new double[nodeCount];
-		this.offset = new int[nodeCount + 1];  // Gotcha!
+		this.offset = new int[nodeCount + 1];  // Gotcha! Built by finishEdges()
 
 		this.sources = new int[edgeCount];
 		this.targets = new int[edgeCount];
 		this.distances = new int[edgeCount];
+
+		// Marks edges not added yet, so finishEdges() can detect missing edge lines
+		Arrays.fill(this.sources, CsrBuilder.MISSING_EDGE);
+	}
+
+	/**
+	 * Object creation from already built arrays, as they are stored in a {@code GraphSnapshot}. The sources array is
+	 * derived from the offset array.
+	 *
+	 * @param longitudes The longitudes of all nodes
+	 * @param latitudes  The latitudes of all nodes
+	 * @param offset     The first edge index of every node, followed by the edge count
+	 * @param targets    The target node of every edge
+	 * @param distances  The distance of every edge
+	 * @throws IllegalArgumentException If the array lengths or offsets don't fit together
+	 */
+	public AdjacencyGraph (final double[] longitudes, final double[] latitudes, final int[] offset,
+	                       final int[] targets, final int[] distances) {
+		if (longitudes.length != latitudes.length || offset.length != longitudes.length + 1)
+			throw new IllegalArgumentException("Node array lengths don't match.");
+		else if (targets.length != distances.length || offset[0] != 0 || offset[longitudes.length] != targets.length)
+			throw new IllegalArgumentException("Edge array lengths don't match the offset array.");
+
+		this.longitudes = longitudes;
+		this.latitudes = latitudes;
+		this.offset = offset;
+		this.targets = targets;
+		this.distances = distances;
+
+		this.sources = new int[targets.length];
+		for (int nodeId = 0; nodeId < longitudes.length; nodeId++) {
+			if (offset[nodeId + 1] < offset[nodeId])
+				throw new IllegalArgumentException("Offset array is not ascending at node " + nodeId + ".");
+			Arrays.fill(this.sources, offset[nodeId], offset[nodeId + 1], nodeId);
+		}
+
+		this.buildIncomingEdges();
 	}
 
 	/**
@@ -64,7 +104,9 @@ public class AdjacencyGraph implements Graph {
 	}
 
 	/**
-	 * Adds an edge to the sourceId & target ID array, using the source & target node ID and the corresponding distance
+	 * Adds an edge to the sourceId & target ID array, using the source & target node ID and the corresponding distance.
+	 * Edges may be added in any order & concurrently for distinct edge IDs. Once all edges are added,
+	 * {@link #finishEdges()} must be called to build the offset array.
 	 *
 	 * @param edgeId   - The ID of the edge (one probably habe more edges)
 	 * @param sourceId - The sourceId node the edge is outgoing
@@ -72,32 +114,106 @@ public class AdjacencyGraph implements Graph {
 	 * @param distance - The edges distance
 	 */
 	public void addEdge (final int edgeId, final int sourceId, final int targetId, final int distance) {
-		if (edgeId < 0) throw new IllegalArgumentException("Provided edge ID is < 0.");
-		else if (this.targets.length <= edgeId)
-			throw new IllegalArgumentException("Provided edge ID is higher than the count of edges.");
-		else if (this.longitudes.length <= sourceId || this.longitudes.length <= targetId)
-			throw new IllegalArgumentException("Node ID for edge is higher than the overall node count.");
+		if (edgeId < 0 || this.targets.length <= edgeId)
+			throw new IllegalArgumentException("Provided edge ID " + edgeId + " is out of range.");
+		else if (sourceId < 0 || targetId < 0 || this.longitudes.length <= sourceId || this.longitudes.length <= targetId)
+			throw new IllegalArgumentException("Node ID for edge " + edgeId + " is out of range.");
+		else if (distance < 0)
+			throw new IllegalArgumentException("Distance of edge " + edgeId + " is negative.");
 
 		sources[edgeId] = sourceId;
 		targets[edgeId] = targetId;
 		distances[edgeId] = distance;
+	}
 
-        /* When there is a sequence of nodes without outgoing edges in between the last observed node and the current,
-         the value of the offset[last observed node+1] is copied inductively into the offset value gap until offset[current node]
-         is set to the value of the last observed node
-        */
-		while (cachedSourceNodeID < sourceId) {   // TODO There may be an more efficient realization
-			cachedSourceNodeID++;
-			offset[cachedSourceNodeID + 1] = offset[cachedSourceNodeID];
-		}
-		// Offset value of the next row increases
-		offset[sourceId + 1]++;
+	/**
+	 * Builds the offset array from the added edges by using the {@code CsrBuilder}. If the edges were not added
+	 * ordered by their source node, they are reordered, which changes their edge IDs.
+	 *
+	 * @throws IllegalStateException If an edge was never added or the built offset array is inconsistent
+	 */
+	public void finishEdges () {
+		final CsrBuilder.Csr csr = CsrBuilder.build(this.longitudes.length, this.sources, this.targets, this.distances);
+
+		this.offset = csr.offset();
+		this.sources = csr.sources();
+		this.targets = csr.targets();
+		this.distances = csr.distances();
+		this.maxDistance = -1;
+		this.buildIncomingEdges();
+
+		if (AdjacencyGraph.enableLogging)
+			AdjacencyGraph.logger.info(String.format("Finished %d edges of %d nodes.%n", this.targets.length, this.longitudes.length));
+	}
+
+	private void buildIncomingEdges () {
+		final CsrBuilder.IncomingCsr incomingCsr = CsrBuilder.buildIncoming(this.longitudes.length, this.targets);
+
+		this.incomingOffset = incomingCsr.incomingOffset();
+		this.incomingEdgeIds = incomingCsr.incomingEdgeIds();
+	}
+
+	/**
+	 * Returns the ID of the first outgoing edge of a node. Together with {@link #getEndEdgeIdOf} it spans the range of
+	 * all outgoing edge IDs, which search algorithms iterate without allocating anything:
+	 * {@code for (int edgeId = getFirstEdgeIdOf(n); edgeId < getEndEdgeIdOf(n); edgeId++)}
+	 *
+	 * @param nodeId The node ID of which the outgoing edges are requested
+	 * @return The first outgoing edge ID, which equals the end edge ID if the node has no outgoing edges
+	 */
+	public int getFirstEdgeIdOf (final int nodeId) {
+		return this.offset[nodeId];
+	}
+
+	/**
+	 * Returns the exclusive end of the outgoing edge ID range of a node, which is the first edge ID of the next node.
+	 *
+	 * @param nodeId The node ID of which the outgoing edges are requested
+	 * @return The last outgoing edge ID + 1
+	 */
+	public int getEndEdgeIdOf (final int nodeId) {
+		return this.offset[nodeId + 1];
+	}
+
+	/**
+	 * Returns the first index of the incoming edges of a node, which spans the range of incoming edge indices together
+	 * with {@link #getEndIncomingIndexOf} like the outgoing edge ID range does. The index is mapped to the edge ID by
+	 * {@link #getIncomingEdgeIdAt}, which is used for backward searches on the reverse graph.
+	 *
+	 * @param nodeId The node ID of which the incoming edges are requested
+	 * @return The first incoming edge index
+	 */
+	public int getFirstIncomingIndexOf (final int nodeId) {
+		return this.incomingOffset[nodeId];
+	}
+
+	/**
+	 * @param nodeId The node ID of which the incoming edges are requested
+	 * @return The last incoming edge index + 1
+	 */
+	public int getEndIncomingIndexOf (final int nodeId) {
+		return this.incomingOffset[nodeId + 1];
+	}
+
+	/**
+	 * @param incomingIndex The incoming edge index
+	 * @return The ID of the edge, whose source node is found by {@link #getSourceOf}
+	 */
+	public int getIncomingEdgeIdAt (final int incomingIndex) {
+		return this.incomingEdgeIds[incomingIndex];
 	}
 
+	/**
+	 * @param edgeId The edge ID
+	 * @return The node ID the edge points to
+	 */
+	public int getTargetOf (final int edgeId) {
+		return this.targets[edgeId];
+	}
 
 	/**
 	 * Returns the outgoing node IDs of a node specified via source node ID alias the latitude/ longitudes corresponding index
-	 * Optimization > code style due to the amount of calls by {@code this.dijkstra} for determination of the current nodes surrounding nodes
+	 * This allocates a new array on every call, so search algorithms should iterate the edge ID range instead.
 	 *
 	 * @param sourceNodeId - The nodes ID/ index of which the outgoing nodes are requested
 	 * @return - The outgoing nodes typed as int[]
@@ -108,7 +224,7 @@ public class AdjacencyGraph implements Graph {
 
 	/**
 	 * Returns an Array of the indices of form source node outgoing edges.
-	 * Optimization > code style due to the amount of calls by {@code this.dijkstra} for determination of the surrounding nodes distances
+	 * This allocates a new array on every call, so search algorithms should iterate the edge ID range instead.
 	 *
 	 * @param sourceNodeId the given source node
 	 * @return array with the indices of those edges which are outgoing edges from source node
@@ -126,31 +242,28 @@ public class AdjacencyGraph implements Graph {
 
 	/**
 	 * Returns the path (edge IDs) from source to target by iteratively going through the predecessorEdgeIds array,
-	 * starting from target node IDs. Uses dequeue to push the edge IDs into the right order
+	 * starting from target node IDs. The chain is walked twice, first to count its edges & then to fill a pre-sized
+	 * array from its end, so the path is in the right order without boxing or copying.
 	 *
 	 * @param sourceNodeId       The source node of the path
 	 * @param targetNodeId       The target node of the path
 	 * @param predecessorEdgeIds Contains edge connected with the predecessor node for every node ID (represented as indices)
-	 * @return The path as edge IDs from source to target
+	 * @return The path as edge IDs from source to target, empty if both are the same node
 	 */
-	public ArrayDeque<Integer> getPath (final int sourceNodeId, final int targetNodeId, final int[] predecessorEdgeIds) {
+	public int[] getPath (final int sourceNodeId, final int targetNodeId, final int[] predecessorEdgeIds) {
 		// Defensive programming: done in this.dijkstra and DijkstraRuns getDistanceTo methods
 
-		int currentEdgeId = predecessorEdgeIds[targetNodeId];
-		ArrayDeque<Integer> path = new ArrayDeque<>();
-
-		// Building the path by following it in the inverted direction and pushing it to the linked list path
-		int currentEdgesSourceNode = this.sources[currentEdgeId];
-		while (currentEdgesSourceNode != sourceNodeId) {
-			path.push(currentEdgeId);
-
-			currentEdgeId = predecessorEdgeIds[currentEdgesSourceNode];
-			currentEdgesSourceNode = this.sources[currentEdgeId];
+		int edgeCount = 0;
+		for (int nodeId = targetNodeId; nodeId != sourceNodeId; nodeId = this.sources[predecessorEdgeIds[nodeId]]) {
+			edgeCount++;
 		}
 
-		// Adds the first edge to the path
-		path.push(currentEdgeId);
-
+		final int[] path = new int[edgeCount];
+		for (int nodeId = targetNodeId; nodeId != sourceNodeId; ) {
+			final int edgeId = predecessorEdgeIds[nodeId];
+			path[--edgeCount] = edgeId;
+			nodeId = this.sources[edgeId];
+		}
 		return path;
 	}
 
@@ -176,21 +289,6 @@ public class AdjacencyGraph implements Graph {
 		return new double[]{highestLongitude, highestLatitude, lowestLongitude, lowestLatitude};
 	}
 
-	/**
-	 * Returns the source/ target node coordinates as object from the provided edge ID.
-	 *
-	 * @param edgeId The edge id the start/target node is returned from
-	 * @param target If set to true, the coords of edges target node is returned, else the coords of source node is returned
-	 * @return
-	 */
-	public Point2D.Double getEdgeIdsNode(final int edgeId, final boolean target) {
-		int nodeId = (target) ? this.targets[edgeId] : this.sources[edgeId];
-		double targetNodesLongitude = this.longitudes[nodeId];
-		double targetNodesLatitude = this.latitudes[nodeId];
-
-		return new Point2D.Double(targetNodesLongitude, targetNodesLatitude);
-	}
-
 	/**
 	 * Prints out the current objects structure with all interesting values in a formatted tabular
 	 *
@@ -203,19 +301,62 @@ public class AdjacencyGraph implements Graph {
 		}
 	}
 
+	/**
+	 * Read-only views of the internal arrays, used to write them to a {@code GraphSnapshot} in bulk
+	 */
+	public DoubleBuffer getLongitudesBuffer () {
+		return DoubleBuffer.wrap(this.longitudes).asReadOnlyBuffer();
+	}
+
+	public DoubleBuffer getLatitudesBuffer () {
+		return DoubleBuffer.wrap(this.latitudes).asReadOnlyBuffer();
+	}
+
+	public IntBuffer getOffsetBuffer () {
+		return IntBuffer.wrap(this.offset).asReadOnlyBuffer();
+	}
+
+	public IntBuffer getTargetsBuffer () {
+		return IntBuffer.wrap(this.targets).asReadOnlyBuffer();
+	}
+
+	public IntBuffer getDistancesBuffer () {
+		return IntBuffer.wrap(this.distances).asReadOnlyBuffer();
+	}
+
+	public int getEdgeCount () {
+		return this.targets.length;
+	}
+
 	public int getNodeCount () {
 		return this.longitudes.length;
 	}
 
-	double getLongitudeOf (final int nodeId) {
+	public double getLongitudeOf (final int nodeId) {
 		return longitudes[nodeId];
 	}
 
-	double getLatitudeOf (final int nodeId) {
+	public double getLatitudeOf (final int nodeId) {
 		return latitudes[nodeId];
 	}
 
+	public int getSourceOf (final int edgeId) {
+		return this.sources[edgeId];
+	}
+
 	public int getDistanceOf (final int edgeId) {
 		return this.distances[edgeId];
 	}
+
+	/**
+	 * Returns the maximal distance of all edges, e.g. for sizing bucket based priority queues. Determined on first call.
+	 *
+	 * @return The maximal edge distance or 0, if there are no edges
+	 */
+	public int getMaxDistance () {
+		if (this.maxDistance < 0) {
+			this.maxDistance = Arrays.stream(this.distances).parallel().max().orElse(0);
+		}
+		return this.maxDistance;
+	}
 }
\ No newline at end of file
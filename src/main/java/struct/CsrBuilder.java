@@ -0,0 +1,189 @@
+package struct;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Builds the compressed sparse row (offset) representation of the {@code AdjacencyGraph} from edges in any order.
+ * The first pass counts the out degree of every node, prefix sums turn them into the offset array & a second pass
+ * scatters the edges to their position, if they were not already ordered by source node. Both cases take linear time.
+ */
+final class CsrBuilder {
+	// Source node value of edges not added yet
+	static final int MISSING_EDGE = -1;
+
+	// Edge ranges smaller than this are not worth being processed in parallel
+	private static final int PARALLEL_CHUNK_SIZE = 1 << 20;
+
+	/**
+	 * The built arrays, whereas the edges of node n are located at the indices [offset[n], offset[n + 1])
+	 */
+	record Csr(int[] offset, int[] sources, int[] targets, int[] distances) {
+	}
+
+	/**
+	 * The incoming edges of every node, whereas the forward edge IDs of the edges pointing to node n are located at the
+	 * indices [incomingOffset[n], incomingOffset[n + 1]) of incomingEdgeIds in ascending order
+	 */
+	record IncomingCsr(int[] incomingOffset, int[] incomingEdgeIds) {
+	}
+
+	private CsrBuilder () {
+	}
+
+	/**
+	 * Builds the reverse graph by counting the in degrees, prefix sums & scattering the edge IDs by their target node.
+	 *
+	 * @param nodeCount The count of nodes the target node IDs refer to
+	 * @param targets   The target node of every edge
+	 * @return The incoming edge IDs of every node
+	 * @throws IllegalArgumentException If an edge points to a non existing node
+	 */
+	static IncomingCsr buildIncoming (final int nodeCount, final int[] targets) {
+		final int[] incomingOffset = new int[nodeCount + 1];
+		for (int edgeId = 0; edgeId < targets.length; edgeId++) {
+			if (targets[edgeId] < 0 || nodeCount <= targets[edgeId])
+				throw new IllegalArgumentException("Edge " + edgeId + " points to the non existing node " + targets[edgeId] + ".");
+			incomingOffset[targets[edgeId] + 1]++;
+		}
+		Arrays.parallelPrefix(incomingOffset, Integer::sum);
+
+		final int[] incomingEdgeIds = new int[targets.length];
+		final int[] nextIndices = Arrays.copyOf(incomingOffset, nodeCount);
+		for (int edgeId = 0; edgeId < targets.length; edgeId++) {
+			incomingEdgeIds[nextIndices[targets[edgeId]]++] = edgeId;
+		}
+
+		return new IncomingCsr(incomingOffset, incomingEdgeIds);
+	}
+
+	/**
+	 * @param nodeCount The count of nodes the edges source & target node IDs refer to
+	 * @param sources   The source node of every edge, in any order
+	 * @param targets   The target node of every edge
+	 * @param distances The distance of every edge
+	 * @return The offset array & the edge arrays, which are the provided ones if they were ordered by source node already
+	 * @throws IllegalStateException If an edge was never added or the result is inconsistent
+	 */
+	static Csr build (final int nodeCount, final int[] sources, final int[] targets, final int[] distances) {
+		final int edgeCount = sources.length;
+		final int chunkCount = Math.max(1, (edgeCount + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE);
+
+		// Checks for missing edges & if the edges are ordered by source node already, which the FMI files usually are
+		final boolean sorted = IntStream.range(0, chunkCount).parallel()
+				.allMatch(chunk -> CsrBuilder.isSortedChunk(sources, chunk));
+
+		final Csr csr = sorted ?
+				CsrBuilder.buildOfSorted(nodeCount, sources, targets, distances, chunkCount) :
+				CsrBuilder.buildOfUnsorted(nodeCount, sources, targets, distances);
+
+		CsrBuilder.verify(nodeCount, csr, chunkCount);
+		return csr;
+	}
+
+	/**
+	 * @return True, if the chunks edges (& the last edge of the previous chunk) are ordered by source node
+	 * @throws IllegalStateException If an edge was never added
+	 */
+	private static boolean isSortedChunk (final int[] sources, final int chunk) {
+		final int from = chunk * PARALLEL_CHUNK_SIZE;
+		final int to = Math.min(sources.length, from + PARALLEL_CHUNK_SIZE);
+
+		boolean sorted = true;
+		for (int edgeId = from; edgeId < to; edgeId++) {
+			if (sources[edgeId] == MISSING_EDGE)
+				throw new IllegalStateException("Edge " + edgeId + " was never added, the graph file is probably truncated.");
+			if (0 < edgeId && sources[edgeId] < sources[edgeId - 1]) sorted = false;
+		}
+		return sorted;
+	}
+
+	/**
+	 * Every edge where the source node changes sets the offsets of all nodes up to its source node, so the chunks
+	 * write distinct offsets & are processed in parallel. The edge arrays are kept.
+	 */
+	private static Csr buildOfSorted (final int nodeCount, final int[] sources, final int[] targets,
+	                                  final int[] distances, final int chunkCount) {
+		final int[] offset = new int[nodeCount + 1];
+
+		IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+			final int from = chunk * PARALLEL_CHUNK_SIZE;
+			final int to = Math.min(sources.length, from + PARALLEL_CHUNK_SIZE);
+
+			for (int edgeId = from; edgeId < to; edgeId++) {
+				final int previousSourceId = (edgeId == 0) ? -1 : sources[edgeId - 1];
+				for (int nodeId = previousSourceId + 1; nodeId <= sources[edgeId]; nodeId++) {
+					offset[nodeId] = edgeId;
+				}
+			}
+		});
+
+		// Nodes behind the last source node have no outgoing edges
+		final int lastSourceId = (sources.length == 0) ? -1 : sources[sources.length - 1];
+		Arrays.fill(offset, lastSourceId + 1, nodeCount + 1, sources.length);
+
+		return new Csr(offset, sources, targets, distances);
+	}
+
+	/**
+	 * Counts the out degrees, turns them into the offset array by prefix sums & scatters the edges stable to new arrays.
+	 */
+	private static Csr buildOfUnsorted (final int nodeCount, final int[] sources, final int[] targets, final int[] distances) {
+		final int edgeCount = sources.length;
+
+		final int[] offset = new int[nodeCount + 1];
+		for (int sourceId : sources) {
+			offset[sourceId + 1]++;
+		}
+		Arrays.parallelPrefix(offset, Integer::sum);
+
+		final int[] sortedSources = new int[edgeCount];
+		final int[] sortedTargets = new int[edgeCount];
+		final int[] sortedDistances = new int[edgeCount];
+		final int[] nextEdgeIds = Arrays.copyOf(offset, nodeCount);
+
+		for (int edgeId = 0; edgeId < edgeCount; edgeId++) {
+			final int sortedEdgeId = nextEdgeIds[sources[edgeId]]++;
+
+			sortedSources[sortedEdgeId] = sources[edgeId];
+			sortedTargets[sortedEdgeId] = targets[edgeId];
+			sortedDistances[sortedEdgeId] = distances[edgeId];
+		}
+
+		return new Csr(offset, sortedSources, sortedTargets, sortedDistances);
+	}
+
+	/**
+	 * Checks the built arrays: the offsets must start at 0, be ascending & end with the edge count, every edge must
+	 * be located in the range of its source node & point to an existing target node.
+	 *
+	 * @throws IllegalStateException On the first inconsistency found
+	 */
+	private static void verify (final int nodeCount, final Csr csr, final int chunkCount) {
+		final int[] offset = csr.offset();
+		final int edgeCount = csr.sources().length;
+
+		if (offset[0] != 0 || offset[nodeCount] != edgeCount)
+			throw new IllegalStateException("Offset array covers " + (offset[nodeCount] - offset[0]) + " of " + edgeCount + " edges.");
+
+		for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			if (offset[nodeId + 1] < offset[nodeId])
+				throw new IllegalStateException("Offset array is not ascending at node " + nodeId + ".");
+		}
+
+		IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+			final int from = chunk * PARALLEL_CHUNK_SIZE;
+			final int to = Math.min(edgeCount, from + PARALLEL_CHUNK_SIZE);
+
+			for (int edgeId = from; edgeId < to; edgeId++) {
+				final int sourceId = csr.sources()[edgeId];
+				if (edgeId < offset[sourceId] || offset[sourceId + 1] <= edgeId)
+					throw new IllegalStateException("Edge " + edgeId + " is located outside the range of its source node " + sourceId + ".");
+
+				final int targetId = csr.targets()[edgeId];
+				if (targetId < 0 || nodeCount <= targetId)
+					throw new IllegalStateException("Edge " + edgeId + " points to the non existing node " + targetId + ".");
+			}
+		});
+	}
+}
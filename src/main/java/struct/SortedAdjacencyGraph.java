@@ -1,5 +1,6 @@
 package struct;
 
+import java.nio.IntBuffer;
 import java.util.Arrays;
 
 /**
@@ -63,6 +64,37 @@ public class SortedAdjacencyGraph {
 		Arrays.sort(this.nodeIdsSortedByLatitude);
 	}
 
+	/**
+	 * Constructor for a sortedAdjacencyGraph, which was already sorted before, e.g. stored by a {@code GraphSnapshot}.
+	 *
+	 * @param adjacencyGraph the original adjacencyGraph the node records are created of
+	 * @param sortedNodeIds  the node IDs of the adjacencyGraph sorted by latitude
+	 */
+	public SortedAdjacencyGraph (final AdjacencyGraph adjacencyGraph, final int[] sortedNodeIds) {
+		if (sortedNodeIds.length != adjacencyGraph.getNodeCount())
+			throw new IllegalArgumentException("Count of sorted node IDs doesn't match the node count of the adjacencyGraph.");
+
+		this.nodeIdsSortedByLatitude = new IndexNode[sortedNodeIds.length];
+		for (int i = 0; i < sortedNodeIds.length; i++) {
+			final int nodeId = sortedNodeIds[i];
+			this.nodeIdsSortedByLatitude[i] = new IndexNode(adjacencyGraph.getLongitudeOf(nodeId), adjacencyGraph.getLatitudeOf(nodeId), nodeId);
+
+			if (0 < i && this.nodeIdsSortedByLatitude[i - 1].compareTo(this.nodeIdsSortedByLatitude[i]) > 0)
+				throw new IllegalArgumentException("Node IDs are not sorted by latitude at index " + i + ".");
+		}
+	}
+
+	/**
+	 * @return the node IDs sorted by latitude, e.g. to be stored by a {@code GraphSnapshot}
+	 */
+	public IntBuffer getSortedNodeIds () {
+		final int[] sortedNodeIds = new int[this.nodeIdsSortedByLatitude.length];
+		for (int i = 0; i < sortedNodeIds.length; i++) {
+			sortedNodeIds[i] = this.nodeIdsSortedByLatitude[i].nodeId();
+		}
+		return IntBuffer.wrap(sortedNodeIds);
+	}
+
 	/**
 	 * This method returns the closest node to the given coordinates
 	 *
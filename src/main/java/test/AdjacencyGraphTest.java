@@ -1,7 +1,79 @@
 package test;
 
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 /**
  * Test for class AdjacencyGraph
  */
 public class AdjacencyGraphTest {
+
+	/**
+	 * Creates a graph of 5 nodes, whereas node 0 & 3 have no outgoing edges. The edges are added in the provided order.
+	 */
+	private static AdjacencyGraph createGraphWithEdgeOrder (final int... edgeOrder) {
+		final int[][] edges = {{1, 2, 12}, {1, 4, 14}, {2, 0, 20}, {4, 1, 41}, {4, 3, 43}, {4, 0, 40}};
+
+		AdjacencyGraph adjGraph = new AdjacencyGraph(5, edges.length);
+		for (int nodeId = 0; nodeId < 5; nodeId++) {
+			adjGraph.addNode(nodeId, nodeId, nodeId);
+		}
+		for (int edgeId = 0; edgeId < edgeOrder.length; edgeId++) {
+			final int[] edge = edges[edgeOrder[edgeId]];
+			adjGraph.addEdge(edgeId, edge[0], edge[1], edge[2]);
+		}
+		return adjGraph;
+	}
+
+	@Test
+	public void sortedEdgesTest () {
+		AdjacencyGraph adjGraph = createGraphWithEdgeOrder(0, 1, 2, 3, 4, 5);
+		adjGraph.finishEdges();
+
+		assertArrayEquals(new int[]{}, adjGraph.getAdjacentNodeIdsFrom(0));
+		assertArrayEquals(new int[]{2, 4}, adjGraph.getAdjacentNodeIdsFrom(1));
+		assertArrayEquals(new int[]{0}, adjGraph.getAdjacentNodeIdsFrom(2));
+		assertArrayEquals(new int[]{}, adjGraph.getAdjacentNodeIdsFrom(3));
+		assertArrayEquals(new int[]{1, 3, 0}, adjGraph.getAdjacentNodeIdsFrom(4));
+	}
+
+	@Test
+	public void unsortedEdgesTest () {
+		AdjacencyGraph adjGraph = createGraphWithEdgeOrder(5, 2, 0, 4, 3, 1);
+		adjGraph.finishEdges();
+
+		// Edges of the same source node keep their relative order
+		assertArrayEquals(new int[]{}, adjGraph.getAdjacentNodeIdsFrom(0));
+		assertArrayEquals(new int[]{2, 4}, adjGraph.getAdjacentNodeIdsFrom(1));
+		assertArrayEquals(new int[]{0}, adjGraph.getAdjacentNodeIdsFrom(2));
+		assertArrayEquals(new int[]{}, adjGraph.getAdjacentNodeIdsFrom(3));
+		assertArrayEquals(new int[]{0, 3, 1}, adjGraph.getAdjacentNodeIdsFrom(4));
+
+		for (int nodeId = 0; nodeId < adjGraph.getNodeCount(); nodeId++) {
+			int[] adjacentNodeIds = adjGraph.getAdjacentNodeIdsFrom(nodeId);
+			int[] adjacentEdgeIds = adjGraph.getAdjacentEdgesIdsFrom(nodeId);
+			for (int i = 0; i < adjacentEdgeIds.length; i++) {
+				assertEquals(nodeId, adjGraph.getSourceOf(adjacentEdgeIds[i]));
+				assertEquals(nodeId * 10 + adjacentNodeIds[i], adjGraph.getDistanceOf(adjacentEdgeIds[i]));
+			}
+		}
+	}
+
+	@Test
+	public void missingEdgeTest () {
+		AdjacencyGraph adjGraph = createGraphWithEdgeOrder(0, 1, 2, 3, 4);
+		assertThrows(IllegalStateException.class, adjGraph::finishEdges);
+	}
+
+	@Test
+	public void malformedEdgeTest () {
+		AdjacencyGraph adjGraph = new AdjacencyGraph(2, 1);
+		assertThrows(IllegalArgumentException.class, () -> adjGraph.addEdge(0, 0, 2, 1));
+		assertThrows(IllegalArgumentException.class, () -> adjGraph.addEdge(0, 0, 1, -1));
+		assertThrows(IllegalArgumentException.class, () -> adjGraph.addEdge(1, 0, 1, 1));
+	}
 }
@@ -0,0 +1,161 @@
+package test;
+
+import dijkstra.AltAlgorithm;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.DijkstraResult;
+import dijkstra.Landmarks;
+import dijkstra.OneToOnePath;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the ALT search with the dijkstra & checks the landmark bounds.
+ */
+public class AltAlgorithmTest {
+
+	static final int ONE_TO_ONE_QUERIES = 100;
+
+	@ParameterizedTest
+	@EnumSource(Landmarks.Selection.class)
+	public void altAgreesWithDijkstraTest (Landmarks.Selection selection) throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 11);
+		Landmarks landmarks = Landmarks.compute(adjGraph, 8, selection);
+		Random random = new Random(11);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			DijkstraResult expected = DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+			OneToOnePath path = AltAlgorithm.dijkstra(adjGraph, landmarks, sourceNodeId, targetNodeId);
+			assertEquals(expected.getLength(), path.getLength(), sourceNodeId + " -> " + targetNodeId);
+		}
+	}
+
+	@Test
+	public void lowerBoundsAreAdmissibleTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 12);
+		Landmarks landmarks = Landmarks.compute(adjGraph, 4, Landmarks.Selection.FARTHEST);
+		Random random = new Random(12);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			int length = DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength();
+			assertTrue(landmarks.lowerBound(sourceNodeId, targetNodeId) <= length);
+		}
+	}
+
+	@Test
+	public void unreachableTargetTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createOneWayPath();
+
+		Landmarks landmarks = Landmarks.compute(adjGraph, 2, Landmarks.Selection.FARTHEST);
+		assertEquals(12, AltAlgorithm.dijkstra(adjGraph, landmarks, 0, 2).getLength());
+		assertThrows(IllegalArgumentException.class, () -> AltAlgorithm.dijkstra(adjGraph, landmarks, 2, 0));
+	}
+
+	@Test
+	public void oversizedDistanceTablesTest () {
+		int nodeCount = 50_000;
+		AdjacencyGraph adjGraph = new AdjacencyGraph(nodeCount, nodeCount - 1);
+		for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			adjGraph.addNode(nodeId, 9.0 + nodeId * 0.00001, 48.7);
+		}
+		for (int nodeId = 0; nodeId < nodeCount - 1; nodeId++) {
+			adjGraph.addEdge(nodeId, nodeId, nodeId + 1, 1);
+		}
+		adjGraph.finishEdges();
+
+		// 50000 * 50000 table entries overflow an int index, which is rejected before anything is allocated
+		assertThrows(IllegalArgumentException.class, () -> Landmarks.compute(adjGraph, nodeCount, Landmarks.Selection.FARTHEST));
+	}
+
+	@Test
+	public void writeAndReadTest (@TempDir Path tempDir) throws IOException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 30, 13);
+		File graphFile = tempDir.resolve("grid.fmi").toFile();
+		Landmarks landmarks = Landmarks.readOrCompute(graphFile, adjGraph, 6, Landmarks.Selection.PLANAR);
+		File landmarkFile = Landmarks.fileOf(graphFile);
+		assertTrue(landmarkFile.exists());
+
+		Landmarks readLandmarks = Landmarks.read(landmarkFile, adjGraph);
+		assertEquals(landmarks.getLandmarkCount(), readLandmarks.getLandmarkCount());
+		for (int landmark = 0; landmark < landmarks.getLandmarkCount(); landmark++) {
+			assertEquals(landmarks.getNodeIdOf(landmark), readLandmarks.getNodeIdOf(landmark));
+		}
+		Random random = new Random(13);
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			assertEquals(landmarks.lowerBound(sourceNodeId, targetNodeId), readLandmarks.lowerBound(sourceNodeId, targetNodeId));
+		}
+
+		// Another graph & a corrupted file are rejected
+		assertThrows(IOException.class, () -> Landmarks.read(landmarkFile, TestGraphs.createGridGraph(30, 31, 13)));
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(landmarkFile, "rw")) {
+			randomAccessFile.seek(randomAccessFile.length() - 1);
+			randomAccessFile.write(randomAccessFile.read() ^ 1);
+		}
+		assertThrows(IOException.class, () -> Landmarks.read(landmarkFile, adjGraph));
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "altBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void altBenchmark (GraphFileType graphFileType) {
+		File graphFile = new File(graphFileType.fileName);
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(graphFile);
+
+		long preprocessingStart = System.currentTimeMillis();
+		Landmarks landmarks = Landmarks.readOrCompute(graphFile, adjGraph, Landmarks.DEFAULT_LANDMARK_COUNT, Landmarks.Selection.FARTHEST);
+		long preprocessingEnd = System.currentTimeMillis();
+
+		Random random = new Random(73);
+		long dijkstraSettledNodes = 0, altSettledNodes = 0, dijkstraTime = 0, altTime = 0;
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			long dijkstraStart = System.currentTimeMillis();
+			DijkstraResult dijkstraResult = DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+			long dijkstraEnd = System.currentTimeMillis();
+			if (!(dijkstraResult instanceof OneToOnePath)) continue; // Target not reachable
+
+			long altStart = System.currentTimeMillis();
+			OneToOnePath altPath = AltAlgorithm.dijkstra(adjGraph, landmarks, sourceNodeId, targetNodeId);
+			long altEnd = System.currentTimeMillis();
+
+			dijkstraSettledNodes += dijkstraResult.getSettledNodeCount();
+			altSettledNodes += altPath.getSettledNodeCount();
+			dijkstraTime += dijkstraEnd - dijkstraStart;
+			altTime += altEnd - altStart;
+		}
+
+		Logging.logTestBenchmark(graphFileType, "altPreprocessing", preprocessingEnd - preprocessingStart);
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneDijkstra", dijkstraTime);
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneAlt", altTime);
+		Logging.logTestCount(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneDijkstra", "settled nodes", dijkstraSettledNodes);
+		Logging.logTestCount(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneAlt", "settled nodes", altSettledNodes);
+	}
+}
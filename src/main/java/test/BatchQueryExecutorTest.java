@@ -0,0 +1,93 @@
+package test;
+
+import dijkstra.DijkstraAlgorithm;
+import execution.BatchQueryExecutor;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the batch execution of .que files keeps the order of the queries.
+ */
+public class BatchQueryExecutorTest {
+
+	static final int QUERIES = 1000;
+
+	@Test
+	public void resultsKeepInputOrderTest () throws IOException, OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 30, 16);
+		Random random = new Random(16);
+		StringBuilder queries = new StringBuilder();
+		StringBuilder expectedResults = new StringBuilder();
+
+		for (int i = 0; i < QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			queries.append(sourceNodeId).append(' ').append(targetNodeId).append('\n');
+			expectedResults.append((sourceNodeId == targetNodeId) ? 0 :
+					DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength()).append('\n');
+		}
+		queries.append('\n'); // Trailing blank line is skipped
+
+		StringWriter results = new StringWriter();
+		BatchQueryExecutor.Report report = new BatchQueryExecutor(BatchQueryExecutor.bidirectionalDistanceOf(adjGraph), 4)
+				.execute(new BufferedReader(new StringReader(queries.toString())), results);
+
+		assertEquals(expectedResults.toString(), results.toString());
+		assertEquals(QUERIES, report.queryCount());
+		assertTrue(report.latencyPercentile(50) <= report.latencyPercentile(99));
+	}
+
+	@Test
+	public void invalidQueryTest () {
+		BatchQueryExecutor batchQueryExecutor = new BatchQueryExecutor((sourceNodeId, targetNodeId) -> 0, 2);
+		assertThrows(IOException.class, () -> batchQueryExecutor.execute(
+				new BufferedReader(new StringReader("1 2\nthree 4\n")), new StringWriter()));
+		assertThrows(IllegalArgumentException.class, () -> new BatchQueryExecutor((sourceNodeId, targetNodeId) -> 0, 0));
+	}
+
+	@Test
+	public void latencyPercentileTest () {
+		BatchQueryExecutor.Report report = new BatchQueryExecutor.Report(1_000_000_000L, new long[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+		assertEquals(10.0, report.queriesPerSecond());
+		assertEquals(1, report.latencyPercentile(0));
+		assertEquals(5, report.latencyPercentile(50));
+		assertEquals(9, report.latencyPercentile(90));
+		assertEquals(10, report.latencyPercentile(100));
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void batchQueryBenchmark () throws IOException {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		File queFile = new File("Benchs", "stgtregbz.que");
+
+		for (int workers = 1; workers <= Runtime.getRuntime().availableProcessors(); workers *= 2) {
+			BatchQueryExecutor.Report report;
+			try (BufferedReader queryReader = new BufferedReader(new FileReader(queFile))) {
+				report = new BatchQueryExecutor(BatchQueryExecutor.bidirectionalDistanceOf(adjGraph), workers)
+						.execute(queryReader, Writer.nullWriter());
+			}
+
+			Logging.logTestBenchmark(graphFileType, "batchQueries" + workers + "Workers", report.elapsedNanos() / 1_000_000);
+			Logging.logTestCount(graphFileType, "batchQueries" + workers + "Workers", "queries per second", (long) report.queriesPerSecond());
+			Logging.logTestCount(graphFileType, "batchQueries" + workers + "Workers", "ns p99 latency", report.latencyPercentile(99));
+		}
+	}
+}
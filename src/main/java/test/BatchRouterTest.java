@@ -0,0 +1,213 @@
+package test;
+
+import dijkstra.BidirectionalDijkstra;
+import hierarchy.ContractionHierarchy;
+import hierarchy.ContractionHierarchyBuilder;
+import loader.MappedGraphReader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import server.BatchRouter;
+import server.DijkstraServer;
+import struct.AdjacencyGraph;
+import struct.SortedAdjacencyGraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the routes of a batch with single bidirectional dijkstra queries, answered by the calling thread alone,
+ * together with helpers & from within a saturated executor.
+ */
+public class BatchRouterTest {
+
+	@Test
+	public void distancesAgreeWithDijkstraTest () throws Exception {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 25);
+		SortedAdjacencyGraph sortedAdjGraph = new SortedAdjacencyGraph(adjGraph);
+		int[] nodeIds = BatchRouterTest.randomNodeIds(adjGraph, 150, 25);
+		double[] coordinates = BatchRouterTest.coordinatesOf(adjGraph, nodeIds);
+
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			JSONArray inlineRoutes = BatchRouterTest.routesOf(new BatchRouter(adjGraph, null, sortedAdjGraph, null, 4), coordinates, false);
+			JSONArray parallelRoutes = BatchRouterTest.routesOf(new BatchRouter(adjGraph, null, sortedAdjGraph, executor, 4), coordinates, false);
+			JSONArray hierarchyRoutes = BatchRouterTest.routesOf(new BatchRouter(adjGraph, ContractionHierarchyBuilder.build(adjGraph),
+					sortedAdjGraph, executor, 4), coordinates, false);
+
+			assertEquals(nodeIds.length / 2, inlineRoutes.length());
+			for (int i = 0; i < nodeIds.length / 2; i++) {
+				int distance = BidirectionalDijkstra.distance(adjGraph, nodeIds[2 * i], nodeIds[2 * i + 1]);
+				assertEquals(distance, inlineRoutes.getJSONObject(i).getInt("distance"), "Route " + i);
+				assertEquals(distance, parallelRoutes.getJSONObject(i).getInt("distance"), "Route " + i);
+				assertEquals(distance, hierarchyRoutes.getJSONObject(i).getInt("distance"), "Route " + i);
+				assertFalse(inlineRoutes.getJSONObject(i).has("geometry"));
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void geometryAgreesWithDijkstraTest () throws Exception {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(20, 20, 26);
+		SortedAdjacencyGraph sortedAdjGraph = new SortedAdjacencyGraph(adjGraph);
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		int[] nodeIds = BatchRouterTest.randomNodeIds(adjGraph, 40, 26);
+		nodeIds[1] = nodeIds[0];  // Start & target snap to the same node
+		double[] coordinates = BatchRouterTest.coordinatesOf(adjGraph, nodeIds);
+
+		for (ContractionHierarchy hierarchy : new ContractionHierarchy[]{null, contractionHierarchy}) {
+			JSONArray routes = BatchRouterTest.routesOf(new BatchRouter(adjGraph, hierarchy, sortedAdjGraph, null, 1), coordinates, true);
+
+			assertEquals(0, routes.getJSONObject(0).getInt("distance"));
+			assertTrue(routes.getJSONObject(0).isNull("geometry"));
+			for (int i = 1; i < nodeIds.length / 2; i++) {
+				if (nodeIds[2 * i] == nodeIds[2 * i + 1]) continue;
+
+				JSONObject route = routes.getJSONObject(i);
+				assertEquals(BidirectionalDijkstra.distance(adjGraph, nodeIds[2 * i], nodeIds[2 * i + 1]), route.getInt("distance"));
+
+				JSONArray lineString = route.getJSONObject("geometry").getJSONArray("coordinates");
+				assertEquals(adjGraph.getLongitudeOf(nodeIds[2 * i]), lineString.getJSONArray(0).getDouble(0), 1e-7);
+				assertEquals(adjGraph.getLatitudeOf(nodeIds[2 * i + 1]), lineString.getJSONArray(lineString.length() - 1).getDouble(1), 1e-7);
+			}
+		}
+	}
+
+	@Test
+	public void unreachableTargetTest () throws IOException {
+		AdjacencyGraph adjGraph = new AdjacencyGraph(2, 1);
+		adjGraph.addNode(0, 9.0, 48.7);
+		adjGraph.addNode(1, 9.1, 48.8);
+		adjGraph.addEdge(0, 0, 1, 5);
+		adjGraph.finishEdges();
+		BatchRouter batchRouter = new BatchRouter(adjGraph, null, new SortedAdjacencyGraph(adjGraph), null, 1);
+		double[] coordinates = BatchRouterTest.coordinatesOf(adjGraph, new int[]{0, 1, 1, 0});
+
+		for (boolean withGeometry : new boolean[]{false, true}) {
+			JSONArray routes = BatchRouterTest.routesOf(batchRouter, coordinates, withGeometry);
+			assertEquals(5, routes.getJSONObject(0).getInt("distance"));
+			assertTrue(routes.getJSONObject(1).isNull("distance"));
+			assertEquals(withGeometry, routes.getJSONObject(1).has("geometry"));
+		}
+		assertThrows(IllegalArgumentException.class, () -> batchRouter.route(new double[3], false, new ByteArrayOutputStream()));
+	}
+
+	/**
+	 * Batches routed on the only thread of the executor, whose helpers can't start before the batch is done
+	 */
+	@Test
+	public void saturatedExecutorTest () throws Exception {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(20, 20, 27);
+		SortedAdjacencyGraph sortedAdjGraph = new SortedAdjacencyGraph(adjGraph);
+		double[] coordinates = BatchRouterTest.coordinatesOf(adjGraph, BatchRouterTest.randomNodeIds(adjGraph, 200, 27));
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			BatchRouter batchRouter = new BatchRouter(adjGraph, null, sortedAdjGraph, executor, 8);
+			Future<JSONArray> routes = executor.submit(() -> BatchRouterTest.routesOf(batchRouter, coordinates, false));
+			assertEquals(200, routes.get().length());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * @return Node IDs of random routes, alternating start & target
+	 */
+	private static int[] randomNodeIds (final AdjacencyGraph adjGraph, final int routeCount, final long seed) {
+		Random random = new Random(seed);
+		int[] nodeIds = new int[2 * routeCount];
+		for (int i = 0; i < nodeIds.length; i++) {
+			nodeIds[i] = random.nextInt(adjGraph.getNodeCount());
+		}
+		return nodeIds;
+	}
+
+	private static double[] coordinatesOf (final AdjacencyGraph adjGraph, final int[] nodeIds) {
+		double[] coordinates = new double[2 * nodeIds.length];
+		for (int i = 0; i < nodeIds.length; i++) {
+			coordinates[2 * i] = adjGraph.getLongitudeOf(nodeIds[i]);
+			coordinates[2 * i + 1] = adjGraph.getLatitudeOf(nodeIds[i]);
+		}
+		return coordinates;
+	}
+
+	private static JSONArray routesOf (final BatchRouter batchRouter, final double[] coordinates,
+	                                   final boolean withGeometry) throws IOException {
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		batchRouter.route(coordinates, withGeometry, outputStream);
+		return new JSONObject(outputStream.toString(StandardCharsets.UTF_8)).getJSONArray("routes");
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void batchRequestBenchmark () throws Exception {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		File graphFile = new File(graphFileType.fileName);
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(graphFile);
+		int[] nodeIds = BatchRouterTest.randomNodeIds(adjGraph, 200, 28);
+		HttpClient httpClient = HttpClient.newHttpClient();
+
+		DijkstraServer dijkstraServer = new DijkstraServer(graphFile);
+		dijkstraServer.start();
+		try {
+			HttpRequest statusRequest = HttpRequest.newBuilder(ServerThroughputTest.SERVER_URI.resolve("/ServerStatus")).GET().build();
+			while (httpClient.send(statusRequest, HttpResponse.BodyHandlers.discarding()).statusCode() != HttpURLConnection.HTTP_ACCEPTED) {
+				Thread.sleep(100);
+			}
+
+			long singleStart = System.currentTimeMillis();
+			for (int i = 0; i < nodeIds.length / 2; i++) {
+				HttpRequest distanceRequest = ServerThroughputTest.requestOf("Distance", adjGraph, nodeIds[2 * i], nodeIds[2 * i + 1]);
+				assertEquals(HttpURLConnection.HTTP_ACCEPTED, httpClient.send(distanceRequest, HttpResponse.BodyHandlers.discarding()).statusCode());
+			}
+			long singleEnd = System.currentTimeMillis();
+
+			JSONArray routesArray = new JSONArray();
+			for (int i = 0; i < nodeIds.length / 2; i++) {
+				routesArray.put(new JSONObject()
+						.put("start", new JSONObject().put("long", adjGraph.getLongitudeOf(nodeIds[2 * i])).put("lat", adjGraph.getLatitudeOf(nodeIds[2 * i])))
+						.put("target", new JSONObject().put("long", adjGraph.getLongitudeOf(nodeIds[2 * i + 1])).put("lat", adjGraph.getLatitudeOf(nodeIds[2 * i + 1]))));
+			}
+			HttpRequest batchRequest = HttpRequest.newBuilder(ServerThroughputTest.SERVER_URI).PUT(HttpRequest.BodyPublishers.ofString(
+					new JSONObject().put("mode", "Batch").put("routes", routesArray).toString())).build();
+
+			long batchStart = System.currentTimeMillis();
+			HttpResponse<String> batchResponse = httpClient.send(batchRequest, HttpResponse.BodyHandlers.ofString());
+			long batchEnd = System.currentTimeMillis();
+			assertEquals(nodeIds.length / 2, new JSONObject(batchResponse.body()).getJSONArray("routes").length());
+
+			// The searches alone, so the rest of the request durations is the overhead per route
+			long searchStart = System.currentTimeMillis();
+			for (int i = 0; i < nodeIds.length / 2; i++) {
+				BidirectionalDijkstra.distance(adjGraph, nodeIds[2 * i], nodeIds[2 * i + 1]);
+			}
+			long searchEnd = System.currentTimeMillis();
+
+			String testName = (nodeIds.length / 2) + "xServerRoutes";
+			Logging.logTestBenchmark(graphFileType, testName + "BySingleRequests", singleEnd - singleStart);
+			Logging.logTestBenchmark(graphFileType, testName + "ByBatchRequest", batchEnd - batchStart);
+			Logging.logTestBenchmark(graphFileType, testName + "SearchesOnly", searchEnd - searchStart);
+		} finally {
+			dijkstraServer.stop();
+		}
+	}
+}
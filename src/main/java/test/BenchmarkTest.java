@@ -4,10 +4,11 @@ import execution.Benchmark;
 import org.junit.jupiter.api.Test;
 
 import javax.naming.OperationNotSupportedException;
+import java.io.IOException;
 
 public class BenchmarkTest {
 	@Test
-	public void parameterFormattingTest() throws OperationNotSupportedException
+	public void parameterFormattingTest() throws OperationNotSupportedException, IOException
 	{
 		String[] params = new String[]{
 				null,
@@ -0,0 +1,161 @@
+package test;
+
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.Path;
+import dijkstra.QueueType;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the bidirectional dijkstra with the unidirectional one.
+ */
+public class BidirectionalDijkstraTest {
+
+	static final int ONE_TO_ONE_QUERIES = 100;
+
+	@Test
+	public void bidirectionalAgreesTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 8);
+		Random random = new Random(8);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			int expectedLength = DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength();
+			for (QueueType queueType : QueueType.values()) {
+				assertEquals(expectedLength, BidirectionalDijkstra.dijkstra(adjGraph, queueType, sourceNodeId, targetNodeId).getLength(),
+						queueType + " differs for " + sourceNodeId + " -> " + targetNodeId);
+			}
+		}
+	}
+
+	@Test
+	public void neighbouringNodesTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 8);
+
+		// The searches meet at the source or target node itself
+		for (int edgeId = 0; edgeId < adjGraph.getEdgeCount(); edgeId++) {
+			int sourceNodeId = adjGraph.getSourceOf(edgeId);
+			int targetNodeId = adjGraph.getTargetOf(edgeId);
+
+			assertEquals(DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength(),
+					BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength());
+		}
+	}
+
+	@Test
+	public void joinedPathIsConnectedTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 9);
+		Random random = new Random(9);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			Path path = BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId).getPath();
+			assertEquals(path.getEdgeCount() + 1, path.getNodeCount());
+
+			// Every edge starts at the node the previous one ended at, the coordinates follow the nodes
+			int nodeId = sourceNodeId;
+			int length = 0;
+			for (int edge = 0; edge < path.getEdgeCount(); edge++) {
+				assertEquals(nodeId, adjGraph.getSourceOf(path.getEdgeIdAt(edge)));
+				assertEquals(adjGraph.getLongitudeOf(nodeId), path.getLongitudeAt(edge));
+				assertEquals(adjGraph.getLatitudeOf(nodeId), path.getLatitudeAt(edge));
+				length += adjGraph.getDistanceOf(path.getEdgeIdAt(edge));
+				nodeId = adjGraph.getTargetOf(path.getEdgeIdAt(edge));
+			}
+			assertEquals(targetNodeId, nodeId);
+			assertEquals(adjGraph.getLatitudeOf(targetNodeId), path.getLatitudeAt(path.getEdgeCount()));
+			assertEquals(length, path.getLength());
+		}
+	}
+
+	@Test
+	public void distanceAgreesTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 17);
+		Random random = new Random(17);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			int expectedLength = (sourceNodeId == targetNodeId) ? 0 :
+					DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength();
+
+			assertEquals(expectedLength, BidirectionalDijkstra.distance(adjGraph, sourceNodeId, targetNodeId));
+		}
+	}
+
+	@Test
+	public void distanceAllocatesNothingTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 18);
+		int[] nodeIds = new Random(18).ints(2 * ONE_TO_ONE_QUERIES, 0, adjGraph.getNodeCount()).toArray();
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		// First round creates the workspaces & grows the queues
+		long checksum = 0;
+		for (int round = 0; round < 2; round++) {
+			long allocationStart = threadMXBean.getCurrentThreadAllocatedBytes();
+			for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+				checksum += BidirectionalDijkstra.distance(adjGraph, nodeIds[2 * i], nodeIds[2 * i + 1]);
+			}
+			long allocationEnd = threadMXBean.getCurrentThreadAllocatedBytes();
+
+			if (round == 1) assertTrue(allocationEnd - allocationStart < ONE_TO_ONE_QUERIES,
+					"Distance queries allocated " + (allocationEnd - allocationStart) + " bytes");
+		}
+		assertTrue(0 < checksum);
+
+		// The unreachable target gives no distance
+		adjGraph = new AdjacencyGraph(2, 1);
+		adjGraph.addNode(0, 9.0, 48.7);
+		adjGraph.addNode(1, 9.001, 48.7);
+		adjGraph.addEdge(0, 0, 1, 5);
+		adjGraph.finishEdges();
+		assertEquals(Integer.MAX_VALUE, BidirectionalDijkstra.distance(adjGraph, 1, 0));
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "bidirectionalBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void bidirectionalBenchmark (GraphFileType graphFileType) {
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+
+		Random random = new Random(73);
+		long unidirectionalStart = System.currentTimeMillis();
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId != targetNodeId) DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+		}
+		long unidirectionalEnd = System.currentTimeMillis();
+
+		random = new Random(73);
+		long bidirectionalStart = System.currentTimeMillis();
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId != targetNodeId) BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+		}
+		long bidirectionalEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneUnidirectional", unidirectionalEnd - unidirectionalStart);
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneBidirectional", bidirectionalEnd - bidirectionalStart);
+	}
+}
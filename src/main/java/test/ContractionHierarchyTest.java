@@ -0,0 +1,120 @@
+package test;
+
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.OneToOnePath;
+import hierarchy.ContractionHierarchy;
+import hierarchy.ContractionHierarchyBuilder;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the contraction hierarchy queries with the dijkstra & checks the unpacked paths.
+ */
+public class ContractionHierarchyTest {
+
+	static final int ONE_TO_ONE_QUERIES = 200;
+
+	@Test
+	public void queriesAgreeWithDijkstraTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(50, 40, 9);
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		Random random = new Random(9);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			int expectedLength = DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId, targetNodeId).getLength();
+			assertEquals(expectedLength, contractionHierarchy.distance(sourceNodeId, targetNodeId));
+
+			OneToOnePath path = contractionHierarchy.query(sourceNodeId, targetNodeId);
+			assertEquals(expectedLength, path.getLength());
+			assertPathLeadsFromTo(adjGraph, path, sourceNodeId, targetNodeId);
+		}
+	}
+
+	@Test
+	public void unreachableTargetTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createOneWayPath();
+
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		assertEquals(12, contractionHierarchy.distance(0, 2));
+		assertEquals(Integer.MAX_VALUE, contractionHierarchy.distance(2, 0));
+		assertThrows(IllegalArgumentException.class, () -> contractionHierarchy.query(2, 0));
+	}
+
+	@Test
+	public void writeAndReadTest (@TempDir Path tempDir) throws IOException, OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 30, 10);
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		File file = tempDir.resolve("grid.hierarchy").toFile();
+		contractionHierarchy.write(file);
+
+		ContractionHierarchy readHierarchy = ContractionHierarchy.read(file, adjGraph);
+		assertEquals(contractionHierarchy.getShortcutCount(), readHierarchy.getShortcutCount());
+		Random random = new Random(10);
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			assertEquals(contractionHierarchy.query(sourceNodeId, targetNodeId).getLength(),
+					readHierarchy.query(sourceNodeId, targetNodeId).getLength());
+		}
+
+		// Another graph & a corrupted file are rejected
+		assertThrows(IOException.class, () -> ContractionHierarchy.read(file, TestGraphs.createGridGraph(30, 31, 10)));
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(randomAccessFile.length() - 1);
+			randomAccessFile.write(randomAccessFile.read() ^ 1);
+		}
+		assertThrows(IOException.class, () -> ContractionHierarchy.read(file, adjGraph));
+	}
+
+	private static void assertPathLeadsFromTo (AdjacencyGraph adjGraph, OneToOnePath result, int sourceNodeId, int targetNodeId) {
+		var path = result.getPath();
+		assertEquals(adjGraph.getLongitudeOf(sourceNodeId), path.getLongitudeAt(0));
+		assertEquals(adjGraph.getLatitudeOf(sourceNodeId), path.getLatitudeAt(0));
+		assertEquals(adjGraph.getLongitudeOf(targetNodeId), path.getLongitudeAt(path.getNodeCount() - 1));
+		assertEquals(adjGraph.getLatitudeOf(targetNodeId), path.getLatitudeAt(path.getNodeCount() - 1));
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "contractionHierarchyBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void contractionHierarchyBenchmark (GraphFileType graphFileType) {
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+
+		long buildStart = System.currentTimeMillis();
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		long buildEnd = System.currentTimeMillis();
+
+		Random random = new Random(73);
+		long queryStart = System.currentTimeMillis();
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId != targetNodeId) contractionHierarchy.distance(sourceNodeId, targetNodeId);
+		}
+		long queryEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(graphFileType, "contractionHierarchyBuild", buildEnd - buildStart);
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xContractionHierarchyDistance", queryEnd - queryStart);
+	}
+}
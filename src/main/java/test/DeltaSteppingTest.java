@@ -0,0 +1,92 @@
+package test;
+
+import dijkstra.DeltaStepping;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.OneToAllResult;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the parallel delta stepping with the one to all dijkstra for several deltas & thread counts.
+ */
+public class DeltaSteppingTest {
+
+	static final int ONE_TO_ALL_RUNS = 5;
+
+	@ParameterizedTest
+	@ValueSource(ints = {1, 7, 100, Integer.MAX_VALUE})
+	public void deltaSteppingAgreesTest (int delta) {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 14);
+		Random random = new Random(14);
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			for (int i = 0; i < ONE_TO_ALL_RUNS; i++) {
+				int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+				OneToAllResult expected = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId);
+				OneToAllResult result = DeltaStepping.dijkstra(adjGraph, pool, delta, sourceNodeId);
+
+				for (int targetNodeId = 0; targetNodeId < adjGraph.getNodeCount(); targetNodeId++) {
+					if (targetNodeId == sourceNodeId) continue;
+					assertEquals(expected.getPathTo(targetNodeId).getLength(), result.getPathTo(targetNodeId).getLength(),
+							sourceNodeId + " -> " + targetNodeId);
+					assertEquals(expected.getDistanceTo(targetNodeId), result.getDistanceTo(targetNodeId));
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void invalidDeltaTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(5, 5, 14);
+		assertThrows(IllegalArgumentException.class, () -> DeltaStepping.dijkstra(adjGraph, ForkJoinPool.commonPool(), 0, 0));
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "deltaSteppingScalingBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void deltaSteppingScalingBenchmark (GraphFileType graphFileType) {
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		int delta = DeltaStepping.defaultDeltaOf(adjGraph);
+
+		long dijkstraStart = System.currentTimeMillis();
+		Random random = new Random(73);
+		for (int i = 0; i < ONE_TO_ALL_RUNS; i++) {
+			DijkstraAlgorithm.dijkstra(adjGraph, random.nextInt(adjGraph.getNodeCount()));
+		}
+		long dijkstraEnd = System.currentTimeMillis();
+		Logging.logTestBenchmark(graphFileType, ONE_TO_ALL_RUNS + "xOneToAllDijkstra", dijkstraEnd - dijkstraStart);
+
+		// Doubles the thread count up to the count of available cores
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; ; threads = Math.min(2 * threads, maxThreads)) {
+			ForkJoinPool pool = new ForkJoinPool(threads);
+			random = new Random(73);
+
+			long deltaSteppingStart = System.currentTimeMillis();
+			for (int i = 0; i < ONE_TO_ALL_RUNS; i++) {
+				DeltaStepping.dijkstra(adjGraph, pool, delta, random.nextInt(adjGraph.getNodeCount()));
+			}
+			long deltaSteppingEnd = System.currentTimeMillis();
+			pool.shutdown();
+
+			Logging.logTestBenchmark(graphFileType, ONE_TO_ALL_RUNS + "xOneToAllDeltaStepping" + threads + "Threads(delta=" + delta + ")",
+					deltaSteppingEnd - deltaSteppingStart);
+			if (threads == maxThreads) break;
+		}
+	}
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.params.provider.ValueSource;
 import struct.AdjacencyGraph;
 
 import java.io.File;
+import java.lang.management.ManagementFactory;
 
 public class DijkstraTest {
 
@@ -60,4 +61,57 @@ public class DijkstraTest {
 
 		Logging.logTestBenchmark(DijkstraTest.graphFileType, "oneToAll", oneToAllDijkstraElapsedTime);
 	}
+
+	@Tag("execution.Benchmark")
+	@RepeatedTest(TEST_REPETITIONS)
+	public void shortOneToOneBenchmark () {
+		// Queries to a neighbour's neighbour only settle a handful of nodes, so the per query setup dominates
+		long shortOneToOneStart = System.currentTimeMillis();
+		for (int sourceNodeId = 0; sourceNodeId < this.adjGraph.getNodeCount(); sourceNodeId += 1000) {
+			int firstEdgeId = this.adjGraph.getFirstEdgeIdOf(sourceNodeId);
+			if (firstEdgeId == this.adjGraph.getEndEdgeIdOf(sourceNodeId)) continue;
+
+			int neighbourNodeId = this.adjGraph.getTargetOf(firstEdgeId);
+			int lastEdgeId = this.adjGraph.getEndEdgeIdOf(neighbourNodeId) - 1;
+			if (lastEdgeId < this.adjGraph.getFirstEdgeIdOf(neighbourNodeId)) continue;
+
+			int targetNodeId = this.adjGraph.getTargetOf(lastEdgeId);
+			if (targetNodeId != sourceNodeId) DijkstraAlgorithm.dijkstra(this.adjGraph, sourceNodeId, targetNodeId);
+		}
+		long shortOneToOneEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(DijkstraTest.graphFileType, "shortOneToOne", shortOneToOneEnd - shortOneToOneStart);
+	}
+
+	@Tag("execution.Benchmark")
+	@RepeatedTest(TEST_REPETITIONS)
+	public void neighbourIterationAllocationBenchmark () {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long checksum = 0;
+
+		// Walking all edges by the allocating array getters
+		long arraysStart = threadMXBean.getCurrentThreadAllocatedBytes();
+		for (int nodeId = 0; nodeId < this.adjGraph.getNodeCount(); nodeId++) {
+			int[] adjacentNodeIds = this.adjGraph.getAdjacentNodeIdsFrom(nodeId);
+			int[] adjacentEdgeIds = this.adjGraph.getAdjacentEdgesIdsFrom(nodeId);
+			for (int i = 0; i < adjacentNodeIds.length; i++) {
+				checksum += adjacentNodeIds[i] + this.adjGraph.getDistanceOf(adjacentEdgeIds[i]);
+			}
+		}
+		long arraysEnd = threadMXBean.getCurrentThreadAllocatedBytes();
+
+		// Walking all edges by the edge ID ranges
+		long rangesStart = threadMXBean.getCurrentThreadAllocatedBytes();
+		for (int nodeId = 0; nodeId < this.adjGraph.getNodeCount(); nodeId++) {
+			int endEdgeId = this.adjGraph.getEndEdgeIdOf(nodeId);
+			for (int edgeId = this.adjGraph.getFirstEdgeIdOf(nodeId); edgeId < endEdgeId; edgeId++) {
+				checksum -= this.adjGraph.getTargetOf(edgeId) + this.adjGraph.getDistanceOf(edgeId);
+			}
+		}
+		long rangesEnd = threadMXBean.getCurrentThreadAllocatedBytes();
+
+		assert checksum == 0;
+		Logging.logTestAllocation(DijkstraTest.graphFileType, "neighbourIterationByArrays", arraysEnd - arraysStart);
+		Logging.logTestAllocation(DijkstraTest.graphFileType, "neighbourIterationByEdgeRanges", rangesEnd - rangesStart);
+	}
 }
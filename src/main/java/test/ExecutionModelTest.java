@@ -0,0 +1,28 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import server.ExecutionModel;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the count of searches the server runs at once, so their workspaces fit into half of the heap.
+ */
+public class ExecutionModelTest {
+
+	@Test
+	public void searchConcurrencyTest () {
+		int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+		// A million nodes take 32 MB of workspaces per search & 64 MB with a hierarchy
+		for (ExecutionModel executionModel : new ExecutionModel[]{ExecutionModel.POOL, ExecutionModel.VIRTUAL}) {
+			assertEquals(threadCount, executionModel.searchConcurrencyOf(1_000_000, true, 1L << 40));
+			assertEquals(1, executionModel.searchConcurrencyOf(1_000_000, false, 64_000_000));
+			assertEquals(Math.min(threadCount, 2), executionModel.searchConcurrencyOf(1_000_000, false, 128_000_000));
+			assertEquals(1, executionModel.searchConcurrencyOf(1_000_000, true, 128_000_000));
+			// Even a search exceeding the heap may run
+			assertEquals(1, executionModel.searchConcurrencyOf(1_000_000, true, 1L << 20));
+		}
+		assertEquals(1, ExecutionModel.DISPATCHER.searchConcurrencyOf(1_000_000, false, 1L << 40));
+	}
+}
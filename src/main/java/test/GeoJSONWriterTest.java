@@ -0,0 +1,128 @@
+package test;
+
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.Path;
+import loader.MappedGraphReader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import server.GeoJSONWriter;
+import struct.AdjacencyGraph;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the streamed GeoJSON with the coordinates of the path & the number formatting with org.json.
+ */
+public class GeoJSONWriterTest {
+
+	@Test
+	public void lineStringAgreesWithPathTest () throws IOException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 31);
+		Path path = BidirectionalDijkstra.dijkstra(adjGraph, 0, adjGraph.getNodeCount() - 1).getPath();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new GeoJSONWriter(outputStream).writeLineString(path).flush();
+		JSONObject geoJSON = new JSONObject(outputStream.toString(StandardCharsets.UTF_8));
+
+		assertEquals("LineString", geoJSON.getString("type"));
+		JSONArray coordinates = geoJSON.getJSONArray("coordinates");
+		assertEquals(path.getNodeCount(), coordinates.length());
+		for (int i = 0; i < path.getNodeCount(); i++) {
+			assertEquals(path.getLongitudeAt(i), coordinates.getJSONArray(i).getDouble(0), 0.5e-7);
+			assertEquals(path.getLatitudeAt(i), coordinates.getJSONArray(i).getDouble(1), 0.5e-7);
+		}
+	}
+
+	@Test
+	public void numberFormattingTest () throws IOException {
+		assertEquals("[[9.1056518,48.7470843]]", GeoJSONWriterTest.coordinatesOf(9.1056518, 48.7470843));
+		assertEquals("[[-0.5,0]]", GeoJSONWriterTest.coordinatesOf(-0.5, -0.00000001));
+		assertEquals("[[10,-180]]", GeoJSONWriterTest.coordinatesOf(9.999999999, -180.0));
+		assertEquals("[[9.0000001,48.05]]", GeoJSONWriterTest.coordinatesOf(9.00000005, 48.05));
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new GeoJSONWriter(outputStream).writeLong(0).writeAscii(",").writeLong(-1234567890123L).writeAscii(",")
+				.writeLong(Long.MIN_VALUE).flush();
+		assertEquals("0,-1234567890123," + Long.MIN_VALUE, outputStream.toString(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * @return The coordinates array of a LineString of the single coordinate
+	 */
+	private static String coordinatesOf (final double longitude, final double latitude) throws IOException {
+		AdjacencyGraph adjGraph = new AdjacencyGraph(2, 1);
+		adjGraph.addNode(0, longitude, latitude);
+		adjGraph.addNode(1, 9.0, 48.7);
+		adjGraph.addEdge(0, 0, 1, 5);
+		adjGraph.finishEdges();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		new GeoJSONWriter(outputStream).writeLineString(new Path(adjGraph, 0, new int[0])).flush();
+		return new JSONObject(outputStream.toString(StandardCharsets.UTF_8)).getJSONArray("coordinates").toString();
+	}
+
+	/**
+	 * @return The longest of the shortest paths between random node pairs
+	 */
+	private static Path longestPathOf (final AdjacencyGraph adjGraph, final int pairCount) {
+		Random random = new Random(77);
+		Path longestPath = null;
+		for (int i = 0; i < pairCount; i++) {
+			try {
+				Path path = BidirectionalDijkstra.dijkstra(adjGraph, random.nextInt(adjGraph.getNodeCount()), random.nextInt(adjGraph.getNodeCount())).getPath();
+				if (longestPath == null || longestPath.getNodeCount() < path.getNodeCount()) longestPath = path;
+			} catch (IllegalArgumentException e) {
+				// Equal or unreachable nodes
+			}
+		}
+		return longestPath;
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void geoJSONWriterBenchmark () throws IOException {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		Path path = GeoJSONWriterTest.longestPathOf(adjGraph, 20);
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		OutputStream discardingStream = OutputStream.nullOutputStream();
+
+		// The former org.json tree of one JSONArray per coordinate, turned into a String & a byte array
+		long treeStart = System.currentTimeMillis();
+		long treeAllocationStart = threadMXBean.getCurrentThreadAllocatedBytes();
+		for (int repetition = 0; repetition < 100; repetition++) {
+			JSONArray coordinatesArray = new JSONArray();
+			for (int i = 0; i < path.getNodeCount(); i++) {
+				coordinatesArray.put(new JSONArray().put(path.getLongitudeAt(i)).put(path.getLatitudeAt(i)));
+			}
+			JSONObject geoJSON = new JSONObject().put("type", "LineString").put("coordinates", coordinatesArray);
+			discardingStream.write(geoJSON.toString().getBytes(StandardCharsets.UTF_8));
+		}
+		long treeAllocationEnd = threadMXBean.getCurrentThreadAllocatedBytes();
+		long treeEnd = System.currentTimeMillis();
+
+		long streamStart = System.currentTimeMillis();
+		long streamAllocationStart = threadMXBean.getCurrentThreadAllocatedBytes();
+		for (int repetition = 0; repetition < 100; repetition++) {
+			new GeoJSONWriter(discardingStream).writeLineString(path).flush();
+		}
+		long streamAllocationEnd = threadMXBean.getCurrentThreadAllocatedBytes();
+		long streamEnd = System.currentTimeMillis();
+
+		String testName = "100xGeoJSONOf" + path.getNodeCount() + "Coordinates";
+		Logging.logTestBenchmark(graphFileType, testName + "ByJSONTree", treeEnd - treeStart);
+		Logging.logTestBenchmark(graphFileType, testName + "Streamed", streamEnd - streamStart);
+		Logging.logTestAllocation(graphFileType, testName + "ByJSONTree", treeAllocationEnd - treeAllocationStart);
+		Logging.logTestAllocation(graphFileType, testName + "Streamed", streamAllocationEnd - streamAllocationStart);
+	}
+}
@@ -0,0 +1,65 @@
+package test;
+
+import loader.GraphReader;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class GraphReaderTest {
+
+	static final int TEST_REPETITIONS = 3;
+
+	static GraphFileType graphFileType;
+	static File graphFile;
+
+	@BeforeAll
+	public static void setUp () {
+		GraphReaderTest.graphFileType = GraphFileType.STUTTGART;
+		GraphReaderTest.graphFile = new File(GraphReaderTest.graphFileType.fileName);
+	}
+
+	@Test
+	public void mappedReaderEqualsGraphReader () {
+		AdjacencyGraph expected = GraphReader.createAdjacencyGraphOf(graphFile);
+		AdjacencyGraph actual = MappedGraphReader.createAdjacencyGraphOf(graphFile);
+
+		assertEquals(expected.getNodeCount(), actual.getNodeCount());
+		for (int nodeId = 0; nodeId < expected.getNodeCount(); nodeId++) {
+			assertEquals(expected.getLongitudeOf(nodeId), actual.getLongitudeOf(nodeId), 1E-12);
+			assertEquals(expected.getLatitudeOf(nodeId), actual.getLatitudeOf(nodeId), 1E-12);
+			assertArrayEquals(expected.getAdjacentNodeIdsFrom(nodeId), actual.getAdjacentNodeIdsFrom(nodeId));
+
+			for (int edgeId : expected.getAdjacentEdgesIdsFrom(nodeId)) {
+				assertEquals(expected.getDistanceOf(edgeId), actual.getDistanceOf(edgeId));
+			}
+		}
+	}
+
+	@Tag("execution.Benchmark")
+	@RepeatedTest(TEST_REPETITIONS)
+	public void graphReaderBenchmark () {
+		long graphReadStart = System.currentTimeMillis();
+		GraphReader.createAdjacencyGraphOf(graphFile);
+		long graphReadEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(GraphReaderTest.graphFileType, "graphReader", graphReadEnd - graphReadStart);
+	}
+
+	@Tag("execution.Benchmark")
+	@RepeatedTest(TEST_REPETITIONS)
+	public void mappedGraphReaderBenchmark () {
+		long graphReadStart = System.currentTimeMillis();
+		MappedGraphReader.createAdjacencyGraphOf(graphFile);
+		long graphReadEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(GraphReaderTest.graphFileType, "mappedGraphReader", graphReadEnd - graphReadStart);
+	}
+}
@@ -0,0 +1,139 @@
+package test;
+
+import execution.SnapshotExport;
+import loader.GraphSnapshot;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import struct.AdjacencyGraph;
+import struct.SortedAdjacencyGraph;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Writes & reads graph snapshots with & without the spatial index and checks that corrupted files are rejected.
+ */
+public class GraphSnapshotTest {
+
+	@Test
+	public void writeAndReadTest (@TempDir Path tempDir) throws IOException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 11);
+		SortedAdjacencyGraph sortedAdjGraph = new SortedAdjacencyGraph(adjGraph);
+
+		File file = tempDir.resolve("grid.snapshot").toFile();
+		GraphSnapshot.write(adjGraph, null, file);
+		GraphSnapshot snapshot = GraphSnapshot.read(file);
+		GraphSnapshotTest.assertGraphEquals(adjGraph, snapshot.adjacencyGraph());
+		assertTrue(snapshot.sortedAdjacencyGraph().isEmpty());
+
+		File indexFile = tempDir.resolve("grid-index.snapshot").toFile();
+		GraphSnapshot.write(adjGraph, sortedAdjGraph, indexFile);
+		GraphSnapshot indexSnapshot = GraphSnapshot.read(indexFile);
+		GraphSnapshotTest.assertGraphEquals(adjGraph, indexSnapshot.adjacencyGraph());
+		assertEquals(sortedAdjGraph.getSortedNodeIds(), indexSnapshot.sortedAdjacencyGraph().orElseThrow().getSortedNodeIds());
+		assertEquals(sortedAdjGraph.getClosestNode(adjGraph.getLongitudeOf(42), adjGraph.getLatitudeOf(42)).nodeId(),
+				indexSnapshot.sortedAdjacencyGraph().orElseThrow().getClosestNode(adjGraph.getLongitudeOf(42), adjGraph.getLatitudeOf(42)).nodeId());
+		assertTrue(GraphSnapshot.isSnapshot(file));
+		assertTrue(GraphSnapshot.isSnapshot(indexFile));
+	}
+
+	@Test
+	public void corruptedSnapshotTest (@TempDir Path tempDir) throws IOException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 12);
+		File file = tempDir.resolve("grid.snapshot").toFile();
+
+		// A flipped byte of the payload fails the checksum
+		GraphSnapshot.write(adjGraph, new SortedAdjacencyGraph(adjGraph), file);
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(randomAccessFile.length() / 2);
+			int value = randomAccessFile.read();
+			randomAccessFile.seek(randomAccessFile.length() / 2);
+			randomAccessFile.write(value ^ 1);
+		}
+		assertThrows(IOException.class, () -> GraphSnapshot.read(file));
+
+		// Another version is rejected
+		GraphSnapshot.write(adjGraph, null, file);
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.seek(Long.BYTES);
+			randomAccessFile.write(2);
+		}
+		assertTrue(GraphSnapshot.isSnapshot(file));
+		assertThrows(IOException.class, () -> GraphSnapshot.read(file));
+
+		// A truncated file doesn't fit the counts of its header
+		GraphSnapshot.write(adjGraph, null, file);
+		try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+			randomAccessFile.setLength(randomAccessFile.length() - Integer.BYTES);
+		}
+		assertThrows(IOException.class, () -> GraphSnapshot.read(file, false));
+		assertThrows(IOException.class, () -> GraphSnapshot.read(file));
+	}
+
+	@Test
+	public void snapshotExportTest (@TempDir Path tempDir) throws IOException {
+		File fmiFile = GraphSnapshotTest.writeFmiFile(tempDir);
+		File file = tempDir.resolve("graph.snapshot").toFile();
+		SnapshotExport.main(fmiFile.getPath(), file.getPath(), "--with-index");
+
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(fmiFile);
+		GraphSnapshot snapshot = GraphSnapshot.read(file);
+		GraphSnapshotTest.assertGraphEquals(adjGraph, snapshot.adjacencyGraph());
+		assertEquals(new SortedAdjacencyGraph(adjGraph).getSortedNodeIds(), snapshot.sortedAdjacencyGraph().orElseThrow().getSortedNodeIds());
+	}
+
+	@Test
+	public void noSnapshotTest (@TempDir Path tempDir) throws IOException {
+		File fmiFile = GraphSnapshotTest.writeFmiFile(tempDir);
+		File shortFile = tempDir.resolve("short").toFile();
+		Files.write(shortFile.toPath(), new byte[]{0x53, 0x48});
+
+		assertFalse(GraphSnapshot.isSnapshot(fmiFile));
+		assertFalse(GraphSnapshot.isSnapshot(shortFile));
+		assertFalse(GraphSnapshot.isSnapshot(tempDir.resolve("missing.snapshot").toFile()));
+		assertThrows(IOException.class, () -> GraphSnapshot.read(fmiFile));
+		assertThrows(IOException.class, () -> GraphSnapshot.read(shortFile));
+	}
+
+	/**
+	 * @return A FMI plain text file of three nodes & three edges
+	 */
+	private static File writeFmiFile (final Path tempDir) throws IOException {
+		File fmiFile = tempDir.resolve("graph.fmi").toFile();
+		Files.writeString(fmiFile.toPath(), """
+				# Id : test
+				# Timestamp : 0
+				# Type: maxspeed
+				# Revision: 1
+
+				3
+				3
+				0 1000 48.70 9.10 0
+				1 1001 48.80 9.20 0
+				2 1002 48.75 9.30 0
+				0 1 63 3 50
+				1 2 83 3 50
+				2 0 40 3 50
+				""");
+		return fmiFile;
+	}
+
+	private static void assertGraphEquals (final AdjacencyGraph expected, final AdjacencyGraph actual) {
+		assertEquals(expected.getNodeCount(), actual.getNodeCount());
+		assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+		assertEquals(expected.getLongitudesBuffer(), actual.getLongitudesBuffer());
+		assertEquals(expected.getLatitudesBuffer(), actual.getLatitudesBuffer());
+		assertEquals(expected.getOffsetBuffer(), actual.getOffsetBuffer());
+		assertEquals(expected.getTargetsBuffer(), actual.getTargetsBuffer());
+		assertEquals(expected.getDistancesBuffer(), actual.getDistancesBuffer());
+	}
+}
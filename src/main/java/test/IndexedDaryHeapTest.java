@@ -0,0 +1,107 @@
+package test;
+
+import dijkstra.IndexedDaryHeap;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the {@code IndexedDaryHeap} with a {@code TreeSet} of (distance, nodeID) tuples as reference implementation.
+ */
+public class IndexedDaryHeapTest {
+
+	static final int NODE_COUNT = 10_000;
+	static final int OPERATION_COUNT = 1_000_000;
+
+	/**
+	 * Executes random operations in a dijkstra like manner on the heap & on the reference, if present.
+	 *
+	 * @return The sum of all extracted distances
+	 */
+	private static long executeRandomOperations (final IndexedDaryHeap heap, final TreeSet<Long> reference, final long seed) {
+		Random random = new Random(seed);
+		int[] distances = new int[NODE_COUNT];
+		long extractedDistances = 0;
+
+		for (int i = 0; i < OPERATION_COUNT; i++) {
+			int nodeId = random.nextInt(NODE_COUNT);
+			int operation = random.nextInt(3);
+
+			if (operation == 0 && !heap.isEmpty()) {
+				int minDistance = heap.peekMinDistance();
+				int minNodeId = heap.extractMin();
+				extractedDistances += minDistance;
+
+				if (reference != null) {
+					long expected = reference.pollFirst();
+					assertEquals(expected >>> 32, minDistance);
+					assertEquals((int) expected, minNodeId);
+				}
+			} else if (!heap.contains(nodeId)) {
+				distances[nodeId] = random.nextInt(Integer.MAX_VALUE);
+				heap.insert(nodeId, distances[nodeId]);
+
+				if (reference != null) reference.add(((long) distances[nodeId] << 32) | nodeId);
+			} else if (0 < distances[nodeId]) {
+				int decreasedDistance = random.nextInt(distances[nodeId]);
+				heap.decreaseKey(nodeId, decreasedDistance);
+
+				if (reference != null) {
+					assertTrue(reference.remove(((long) distances[nodeId] << 32) | nodeId));
+					reference.add(((long) decreasedDistance << 32) | nodeId);
+				}
+				distances[nodeId] = decreasedDistance;
+			}
+
+			if (reference != null) assertEquals(reference.size(), heap.size());
+		}
+		return extractedDistances;
+	}
+
+	@ParameterizedTest(name = "randomComparisonWithArity{0}")
+	@ValueSource(ints = {2, 3, 4, 8})
+	public void randomComparisonTest (int arity) {
+		IndexedDaryHeap heap = new IndexedDaryHeap(NODE_COUNT, arity);
+		TreeSet<Long> reference = new TreeSet<>();
+
+		executeRandomOperations(heap, reference, arity);
+
+		// Draining the heap must extract the remaining nodes in reference order
+		while (!heap.isEmpty()) {
+			long expected = reference.pollFirst();
+			assertEquals(expected >>> 32, heap.peekMinDistance());
+			assertEquals((int) expected, heap.extractMin());
+		}
+		assertTrue(reference.isEmpty());
+	}
+
+	@ParameterizedTest(name = "clearWithArity{0}")
+	@ValueSource(ints = {2, 4})
+	public void clearTest (int arity) {
+		IndexedDaryHeap heap = new IndexedDaryHeap(NODE_COUNT, arity);
+		executeRandomOperations(heap, null, 42);
+		heap.clear();
+
+		assertTrue(heap.isEmpty());
+		for (int nodeId = 0; nodeId < NODE_COUNT; nodeId++) {
+			assertTrue(!heap.contains(nodeId));
+		}
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "heapBenchmarkWithArity{0}")
+	@ValueSource(ints = {2, 4})
+	public void heapBenchmark (int arity) {
+		long heapStart = System.currentTimeMillis();
+		executeRandomOperations(new IndexedDaryHeap(NODE_COUNT, arity), null, 73);
+		long heapEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(GraphFileType.TOY, "indexedDaryHeapWithArity" + arity, heapEnd - heapStart);
+	}
+}
@@ -0,0 +1,158 @@
+package test;
+
+import dijkstra.BoundedDijkstra;
+import dijkstra.DeltaStepping;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.OneToAllResult;
+import dijkstra.ReachableNodes;
+import loader.MappedGraphReader;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import server.IsochronePolygons;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the bounded dijkstra with the one to all dijkstra & checks the isochrone polygons cover the reached nodes.
+ */
+public class IsochroneTest {
+
+	static final int MAX_DISTANCE = 1500;
+
+	@Test
+	public void boundedAgreesWithDijkstraTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 30, 21);
+		Random random = new Random(21);
+
+		for (int i = 0; i < 5; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			OneToAllResult expected = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId);
+			ReachableNodes reachableNodes = BoundedDijkstra.withinDistance(adjGraph, sourceNodeId, MAX_DISTANCE);
+
+			assertEquals(sourceNodeId, reachableNodes.nodeIds()[0]);
+			assertEquals(IntStream.range(0, adjGraph.getNodeCount()).filter(nodeId -> expected.getDistanceTo(nodeId) <= MAX_DISTANCE).count(),
+					reachableNodes.nodeCount());
+			for (int j = 0; j < reachableNodes.nodeCount(); j++) {
+				assertEquals(expected.getDistanceTo(reachableNodes.nodeIds()[j]), reachableNodes.distances()[j]);
+				if (0 < j) assertTrue(reachableNodes.distances()[j - 1] <= reachableNodes.distances()[j]);
+			}
+		}
+
+		assertEquals(1, BoundedDijkstra.withinDistance(adjGraph, 0, 0).nodeCount());
+		assertThrows(IllegalArgumentException.class, () -> BoundedDijkstra.withinDistance(adjGraph, 0, -1));
+	}
+
+	@Test
+	public void polygonsContainReachedNodesTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 30, 22);
+		ReachableNodes reachableNodes = BoundedDijkstra.withinDistance(adjGraph, 615, MAX_DISTANCE);
+		JSONArray features = IsochronePolygons.geoJSONOf(adjGraph, reachableNodes, 3).getJSONArray("features");
+		assertEquals(3, features.length());
+
+		int previousNodeCount = 0;
+		for (int band = 0; band < features.length(); band++) {
+			JSONObject feature = features.getJSONObject(band);
+			int bandNodeCount = feature.getJSONObject("properties").getInt("nodes");
+			assertTrue(previousNodeCount <= bandNodeCount);
+			previousNodeCount = bandNodeCount;
+
+			JSONArray polygons = feature.getJSONObject("geometry").getJSONArray("coordinates");
+			assertRingsAreClosed(polygons);
+			// Nodes on a cell border belong to the cell above & right of it
+			for (int i = 0; i < bandNodeCount; i++) {
+				int nodeId = reachableNodes.nodeIds()[i];
+				assertTrue(contains(polygons, adjGraph.getLongitudeOf(nodeId) + 1e-9, adjGraph.getLatitudeOf(nodeId) + 1e-9),
+						"Node " + nodeId + " is outside of band " + band);
+			}
+		}
+		assertEquals(reachableNodes.nodeCount(), previousNodeCount);
+		assertThrows(IllegalArgumentException.class, () -> IsochronePolygons.geoJSONOf(adjGraph, reachableNodes, 0));
+	}
+
+	@Test
+	public void ringWithHoleTest () {
+		// The outermost 4 node rows & columns of the grid enclose a node free square, which becomes the hole
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 40, 23);
+		int[] nodeIds = IntStream.range(0, adjGraph.getNodeCount())
+				.filter(nodeId -> Math.min(Math.min(nodeId % 40, 39 - nodeId % 40), Math.min(nodeId / 40, 39 - nodeId / 40)) < 4)
+				.toArray();
+		ReachableNodes reachableNodes = new ReachableNodes(nodeIds[0], 0, nodeIds, new int[nodeIds.length]);
+
+		JSONArray polygons = IsochronePolygons.geoJSONOf(adjGraph, reachableNodes, 1).getJSONArray("features")
+				.getJSONObject(0).getJSONObject("geometry").getJSONArray("coordinates");
+		assertEquals(1, polygons.length());
+		assertEquals(2, polygons.getJSONArray(0).length());
+		assertRingsAreClosed(polygons);
+
+		int centerNodeId = 20 * 40 + 20;
+		assertFalse(contains(polygons, adjGraph.getLongitudeOf(centerNodeId), adjGraph.getLatitudeOf(centerNodeId)));
+		assertTrue(contains(polygons, adjGraph.getLongitudeOf(nodeIds[0]) + 1e-9, adjGraph.getLatitudeOf(nodeIds[0]) + 1e-9));
+	}
+
+	private static void assertRingsAreClosed (JSONArray polygons) {
+		for (int polygon = 0; polygon < polygons.length(); polygon++) {
+			JSONArray rings = polygons.getJSONArray(polygon);
+			for (int ring = 0; ring < rings.length(); ring++) {
+				JSONArray coordinates = rings.getJSONArray(ring);
+				assertTrue(4 <= coordinates.length());
+				assertEquals(coordinates.getJSONArray(0).toString(), coordinates.getJSONArray(coordinates.length() - 1).toString());
+			}
+		}
+	}
+
+	/**
+	 * Even odd rule over all rings of all polygons, which equals containment for holes within their outer ring.
+	 */
+	private static boolean contains (JSONArray polygons, double longitude, double latitude) {
+		boolean inside = false;
+		for (int polygon = 0; polygon < polygons.length(); polygon++) {
+			JSONArray rings = polygons.getJSONArray(polygon);
+			for (int ring = 0; ring < rings.length(); ring++) {
+				JSONArray coordinates = rings.getJSONArray(ring);
+				for (int i = 1; i < coordinates.length(); i++) {
+					double x1 = coordinates.getJSONArray(i - 1).getDouble(0), y1 = coordinates.getJSONArray(i - 1).getDouble(1);
+					double x2 = coordinates.getJSONArray(i).getDouble(0), y2 = coordinates.getJSONArray(i).getDouble(1);
+					if ((y1 > latitude) != (y2 > latitude) && longitude < (x2 - x1) * (latitude - y1) / (y2 - y1) + x1) {
+						inside = !inside;
+					}
+				}
+			}
+		}
+		return inside;
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void isochroneBenchmark () {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		int sourceNodeId = new Random(73).nextInt(adjGraph.getNodeCount());
+
+		long oneToAllStart = System.currentTimeMillis();
+		DeltaStepping.dijkstra(adjGraph, sourceNodeId);
+		long oneToAllEnd = System.currentTimeMillis();
+		Logging.logTestBenchmark(graphFileType, "OneToAllForIsochrone", oneToAllEnd - oneToAllStart);
+
+		for (int maxDistance = 1000; maxDistance <= 100_000; maxDistance *= 10) {
+			long boundedStart = System.currentTimeMillis();
+			ReachableNodes reachableNodes = BoundedDijkstra.withinDistance(adjGraph, sourceNodeId, maxDistance);
+			long boundedEnd = System.currentTimeMillis();
+			IsochronePolygons.geoJSONOf(adjGraph, reachableNodes, 3);
+			long polygonsEnd = System.currentTimeMillis();
+
+			Logging.logTestBenchmark(graphFileType, "BoundedDijkstra" + maxDistance, boundedEnd - boundedStart);
+			Logging.logTestCount(graphFileType, "BoundedDijkstra" + maxDistance, "settled nodes", reachableNodes.nodeCount());
+			Logging.logTestBenchmark(graphFileType, "IsochronePolygons" + maxDistance, polygonsEnd - boundedEnd);
+		}
+	}
+}
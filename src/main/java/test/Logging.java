@@ -62,6 +62,30 @@ public class Logging {
 		}
 	}
 
+	static void logTestAllocation (GraphFileType graphFileType, String testname, long allocatedBytes) {
+		String formattedOutput = String.format("%tc:\tTest %s allocated about %d bytes%n", new Date(), testname, allocatedBytes);
+
+		try (
+				FileWriter writer = new FileWriter(graphFileType.fileName + ".test-benchmark.log", true)
+		) {
+			writer.write(formattedOutput);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	static void logTestCount (GraphFileType graphFileType, String testname, String unit, long count) {
+		String formattedOutput = String.format("%tc:\tTest %s counted about %d %s%n", new Date(), testname, count, unit);
+
+		try (
+				FileWriter writer = new FileWriter(graphFileType.fileName + ".test-benchmark.log", true)
+		) {
+			writer.write(formattedOutput);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
 	static void logTestBenchmark (GraphFileType graphFileType, String testname, long result) {
 		String formattedOutput = String.format("%tc:\tTest %s took about %f sec%n", new Date(), testname, result * 10E-4);
 
@@ -0,0 +1,102 @@
+package test;
+
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.ManyToManyDijkstra;
+import hierarchy.BucketManyToMany;
+import hierarchy.ContractionHierarchy;
+import hierarchy.ContractionHierarchyBuilder;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the distance tables of the bucket & dijkstra based many to many search with one to one dijkstras.
+ */
+public class ManyToManyTest {
+
+	static final int TABLE_SIDE = 20;
+
+	@Test
+	public void tablesAgreeWithDijkstraTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 30, 15);
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		Random random = new Random(15);
+		int[] sourceNodeIds = random.ints(TABLE_SIDE, 0, adjGraph.getNodeCount()).toArray();
+		int[] targetNodeIds = random.ints(TABLE_SIDE + 3, 0, adjGraph.getNodeCount()).toArray();
+		targetNodeIds[0] = sourceNodeIds[0];  // Distance 0 on the diagonal
+		targetNodeIds[1] = targetNodeIds[2];  // Duplicate targets
+
+		int[][] bucketDistances = BucketManyToMany.distances(contractionHierarchy, sourceNodeIds, targetNodeIds);
+		int[][] dijkstraDistances = ManyToManyDijkstra.distances(adjGraph, sourceNodeIds, targetNodeIds);
+		assertEquals(sourceNodeIds.length, bucketDistances.length);
+
+		for (int source = 0; source < sourceNodeIds.length; source++) {
+			for (int target = 0; target < targetNodeIds.length; target++) {
+				int expectedDistance = (sourceNodeIds[source] == targetNodeIds[target]) ? 0 :
+						DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeIds[source], targetNodeIds[target]).getLength();
+				assertEquals(expectedDistance, bucketDistances[source][target], source + ", " + target);
+				assertEquals(expectedDistance, dijkstraDistances[source][target], source + ", " + target);
+			}
+		}
+	}
+
+	@Test
+	public void unreachableTargetTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createOneWayPath();
+
+		int[][] expectedDistances = {{0, 12}, {Integer.MAX_VALUE, 0}};
+		int[] nodeIds = {0, 2};
+		assertArrayEquals(expectedDistances, BucketManyToMany.distances(ContractionHierarchyBuilder.build(adjGraph), nodeIds, nodeIds));
+		assertArrayEquals(expectedDistances, ManyToManyDijkstra.distances(adjGraph, nodeIds, nodeIds));
+		assertThrows(IllegalArgumentException.class, () -> ManyToManyDijkstra.distances(adjGraph, nodeIds, new int[]{3}));
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "manyToManyBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void manyToManyBenchmark (GraphFileType graphFileType) {
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		ContractionHierarchy contractionHierarchy = ContractionHierarchyBuilder.build(adjGraph);
+		Random random = new Random(73);
+		int[] sourceNodeIds = random.ints(TABLE_SIDE, 0, adjGraph.getNodeCount()).toArray();
+		int[] targetNodeIds = random.ints(TABLE_SIDE, 0, adjGraph.getNodeCount()).toArray();
+
+		long oneToOneStart = System.currentTimeMillis();
+		for (int sourceNodeId : sourceNodeIds) {
+			for (int targetNodeId : targetNodeIds) {
+				if (sourceNodeId == targetNodeId) continue;
+				try {
+					BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+				} catch (IllegalArgumentException e) {
+					// Target not reachable
+				}
+			}
+		}
+		long oneToOneEnd = System.currentTimeMillis();
+
+		long dijkstraStart = System.currentTimeMillis();
+		ManyToManyDijkstra.distances(adjGraph, sourceNodeIds, targetNodeIds);
+		long dijkstraEnd = System.currentTimeMillis();
+
+		long bucketStart = System.currentTimeMillis();
+		BucketManyToMany.distances(contractionHierarchy, sourceNodeIds, targetNodeIds);
+		long bucketEnd = System.currentTimeMillis();
+
+		String table = TABLE_SIDE + "x" + TABLE_SIDE;
+		Logging.logTestBenchmark(graphFileType, table + "OneToOneBidirectional", oneToOneEnd - oneToOneStart);
+		Logging.logTestBenchmark(graphFileType, table + "ManyToManyDijkstra", dijkstraEnd - dijkstraStart);
+		Logging.logTestBenchmark(graphFileType, table + "ManyToManyBuckets", bucketEnd - bucketStart);
+	}
+}
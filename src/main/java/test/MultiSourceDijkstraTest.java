@@ -0,0 +1,115 @@
+package test;
+
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.ManyToManyDijkstra;
+import dijkstra.MultiSourceDijkstra;
+import dijkstra.NearestSource;
+import dijkstra.NearestSources;
+import dijkstra.OneToAllResult;
+import dijkstra.SearchDirection;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Compares the nearest sources of the multi source dijkstra with the distances of one search per source.
+ */
+public class MultiSourceDijkstraTest {
+
+	@ParameterizedTest
+	@EnumSource(SearchDirection.class)
+	public void nearestSourcesAgreeWithDistanceTableTest (SearchDirection direction) {
+		// Both directions of a grid edge have different distances, so forward & backward distances differ
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 29);
+		Random random = new Random(29);
+		int[] sourceNodeIds = random.ints(8, 0, adjGraph.getNodeCount()).toArray();
+		sourceNodeIds[7] = sourceNodeIds[3];  // Duplicate sources
+		int[] allNodeIds = new int[adjGraph.getNodeCount()];
+		for (int nodeId = 0; nodeId < allNodeIds.length; nodeId++) {
+			allNodeIds[nodeId] = nodeId;
+		}
+
+		int[][] distances = (direction == SearchDirection.FORWARD) ?
+				ManyToManyDijkstra.distances(adjGraph, sourceNodeIds, allNodeIds) :
+				ManyToManyDijkstra.distances(adjGraph, allNodeIds, sourceNodeIds);
+		NearestSources nearestSources = MultiSourceDijkstra.nearestSources(adjGraph, sourceNodeIds, direction);
+
+		for (int nodeId = 0; nodeId < adjGraph.getNodeCount(); nodeId++) {
+			int expectedDistance = Integer.MAX_VALUE;
+			for (int source = 0; source < sourceNodeIds.length; source++) {
+				int distance = (direction == SearchDirection.FORWARD) ? distances[source][nodeId] : distances[nodeId][source];
+				expectedDistance = Math.min(expectedDistance, distance);
+			}
+			int nearestSourceIndex = nearestSources.nearestSourceIndexOf(nodeId);
+			int nearestDistance = (direction == SearchDirection.FORWARD) ?
+					distances[nearestSourceIndex][nodeId] : distances[nodeId][nearestSourceIndex];
+			assertEquals(expectedDistance, nearestSources.distanceOf(nodeId), "Node " + nodeId);
+			assertEquals(expectedDistance, nearestDistance, "Node " + nodeId);
+
+			NearestSource nearestSource = MultiSourceDijkstra.nearestSourceOf(adjGraph, sourceNodeIds, nodeId, direction);
+			assertEquals(expectedDistance, nearestSource.distance());
+			assertEquals(expectedDistance, nearestSource.path().getLength());
+			assertEquals(sourceNodeIds[nearestSource.sourceIndex()], nearestSource.sourceNodeId());
+			if (0 < nearestSource.path().getEdgeCount()) {
+				int firstNodeId = adjGraph.getSourceOf(nearestSource.path().getEdgeIdAt(0));
+				assertEquals((direction == SearchDirection.FORWARD) ? nearestSource.sourceNodeId() : nodeId, firstNodeId);
+			}
+		}
+		assertEquals(3, nearestSources.nearestSourceIndexOf(sourceNodeIds[7]));
+	}
+
+	@Test
+	public void unreachableSourceTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createOneWayPath();
+
+		NearestSources nearestSources = MultiSourceDijkstra.nearestSources(adjGraph, new int[]{1}, SearchDirection.FORWARD);
+		assertEquals(-1, nearestSources.nearestSourceIndexOf(0));
+		assertEquals(Integer.MAX_VALUE, nearestSources.distanceOf(0));
+		assertEquals(7, nearestSources.distanceOf(2));
+		assertEquals(5, MultiSourceDijkstra.nearestSourceOf(adjGraph, new int[]{1}, 0, SearchDirection.BACKWARD).distance());
+
+		assertThrows(IllegalArgumentException.class, () -> MultiSourceDijkstra.nearestSourceOf(adjGraph, new int[]{1}, 2, SearchDirection.BACKWARD));
+		assertThrows(IllegalArgumentException.class, () -> MultiSourceDijkstra.nearestSources(adjGraph, new int[0], SearchDirection.FORWARD));
+		assertThrows(IllegalArgumentException.class, () -> MultiSourceDijkstra.nearestSources(adjGraph, new int[]{3}, SearchDirection.FORWARD));
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void nearestFacilityBenchmark () {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		Random random = new Random(75);
+		int[] facilityNodeIds = random.ints(20, 0, adjGraph.getNodeCount()).toArray();
+
+		long perFacilityStart = System.currentTimeMillis();
+		int[] nearestDistances = new int[adjGraph.getNodeCount()];
+		Arrays.fill(nearestDistances, Integer.MAX_VALUE);
+		for (int facilityNodeId : facilityNodeIds) {
+			OneToAllResult result = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, facilityNodeId);
+			for (int nodeId = 0; nodeId < nearestDistances.length; nodeId++) {
+				nearestDistances[nodeId] = Math.min(nearestDistances[nodeId], result.getDistanceTo(nodeId));
+			}
+		}
+		long perFacilityEnd = System.currentTimeMillis();
+
+		long multiSourceStart = System.currentTimeMillis();
+		NearestSources nearestSources = MultiSourceDijkstra.nearestSources(adjGraph, facilityNodeIds, SearchDirection.FORWARD);
+		long multiSourceEnd = System.currentTimeMillis();
+
+		for (int nodeId = 0; nodeId < nearestDistances.length; nodeId++) {
+			assertEquals(nearestDistances[nodeId], nearestSources.distanceOf(nodeId));
+		}
+		Logging.logTestBenchmark(graphFileType, "20FacilitiesOneToAllPerFacility", perFacilityEnd - perFacilityStart);
+		Logging.logTestBenchmark(graphFileType, "20FacilitiesMultiSource", multiSourceEnd - multiSourceStart);
+	}
+}
@@ -0,0 +1,181 @@
+package test;
+
+import dijkstra.DeltaStepping;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.OneToAllCache;
+import dijkstra.OneToAllResult;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the distance lookups & compact encoding of one to all results and the least recently used eviction of their
+ * cache.
+ */
+public class OneToAllCacheTest {
+
+	@Test
+	public void distanceToAgreesWithPathTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 30, 19);
+		Random random = new Random(19);
+
+		for (int i = 0; i < 3; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			OneToAllResult result = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId);
+			assertEquals(0, result.getDistanceTo(sourceNodeId));
+
+			for (int targetNodeId = 0; targetNodeId < adjGraph.getNodeCount(); targetNodeId++) {
+				if (targetNodeId == sourceNodeId) continue;
+				assertEquals(result.getPathTo(targetNodeId).getLength(), result.getDistanceTo(targetNodeId));
+			}
+		}
+	}
+
+	@Test
+	public void unreachableDistanceTest () {
+		AdjacencyGraph adjGraph = new AdjacencyGraph(2, 1);
+		adjGraph.addNode(0, 9.0, 48.7);
+		adjGraph.addNode(1, 9.001, 48.7);
+		adjGraph.addEdge(0, 0, 1, 5);
+		adjGraph.finishEdges();
+
+		OneToAllResult result = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, 1);
+		assertEquals(Integer.MAX_VALUE, result.getDistanceTo(0));
+		assertThrows(IllegalArgumentException.class, () -> result.getPathTo(0));
+		assertEquals(Integer.MAX_VALUE, DeltaStepping.dijkstra(adjGraph, 1).getDistanceTo(0));
+	}
+
+	@Test
+	public void compactResultAgreesTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(30, 20, 30);
+		OneToAllResult result = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, 17);
+		OneToAllResult compactResult = result.compact();
+		assertTrue(compactResult.isCompact());
+		assertSame(compactResult, compactResult.compact());
+		assertTrue(compactResult.getSizeInBytes() * 4 < result.getSizeInBytes());
+
+		for (int targetNodeId = 0; targetNodeId < adjGraph.getNodeCount(); targetNodeId++) {
+			assertEquals(result.getDistanceTo(targetNodeId), compactResult.getDistanceTo(targetNodeId));
+			if (targetNodeId == 17) continue;
+			assertEquals(result.getPathTo(targetNodeId).getLength(), compactResult.getPathTo(targetNodeId).getLength());
+			assertEquals(result.getPathTo(targetNodeId).getEdgeCount(), compactResult.getPathTo(targetNodeId).getEdgeCount());
+		}
+
+		// Hub with more incoming edges than a byte indexes, whose predecessor edge is stored in the overflow map
+		int spokeCount = 300;
+		AdjacencyGraph starGraph = new AdjacencyGraph(spokeCount + 2, spokeCount + 1);
+		for (int nodeId = 0; nodeId < spokeCount + 2; nodeId++) {
+			starGraph.addNode(nodeId, 9.0 + nodeId * 0.0001, 48.7);
+		}
+		for (int spoke = 1; spoke <= spokeCount; spoke++) {
+			starGraph.addEdge(spoke - 1, spoke, 0, spoke);
+		}
+		starGraph.addEdge(spokeCount, 0, spokeCount + 1, 1);
+		starGraph.finishEdges();
+		for (int sourceNodeId : new int[]{1, spokeCount / 2, spokeCount}) {
+			OneToAllResult compactStarResult = ((OneToAllResult) DijkstraAlgorithm.dijkstra(starGraph, sourceNodeId)).compact();
+			assertEquals(sourceNodeId + 1, compactStarResult.getDistanceTo(spokeCount + 1));
+			assertEquals(2, compactStarResult.getPathTo(spokeCount + 1).getEdgeCount());
+			assertEquals(Integer.MAX_VALUE, compactStarResult.getDistanceTo(sourceNodeId == 1 ? 2 : 1));
+		}
+	}
+
+	@Test
+	public void leastRecentlyUsedEvictionTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 20);
+		long resultBytes = ((OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, 0)).getSizeInBytes();
+		OneToAllCache cache = new OneToAllCache(sourceNodeId -> (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, sourceNodeId),
+				3 * resultBytes);
+
+		OneToAllResult first = cache.get(1);
+		cache.get(2);
+		cache.get(3);
+		assertSame(first, cache.get(1));  // 2 is the least recently used result now
+		cache.get(4);
+
+		assertEquals(3, cache.size());
+		assertEquals(3 * resultBytes, cache.getCachedBytes());
+		assertFalse(cache.contains(2));
+		assertTrue(cache.contains(1) && cache.contains(3) && cache.contains(4));
+		assertEquals(1, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+
+		// Evicted results aren't searched by lookups
+		assertSame(first, cache.getIfPresent(1));
+		assertNull(cache.getIfPresent(2));
+		assertFalse(cache.contains(2));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+
+		// A result exceeding the budget alone isn't cached
+		OneToAllCache tinyCache = new OneToAllCache(sourceNodeId -> DeltaStepping.dijkstra(adjGraph, sourceNodeId), resultBytes - 1);
+		assertEquals(0, tinyCache.get(5).getDistanceTo(5));
+		assertEquals(0, tinyCache.size());
+		assertThrows(IllegalArgumentException.class, () -> new OneToAllCache(sourceNodeId -> null, -1));
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void oneToAllCacheBenchmark () {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		OneToAllCache cache = new OneToAllCache(sourceNodeId -> DeltaStepping.dijkstra(adjGraph, sourceNodeId), 256L << 20);
+		int[] popularSourceNodeIds = new Random(73).ints(4, 0, adjGraph.getNodeCount()).toArray();
+		int[] targetNodeIds = new Random(74).ints(100_000, 0, adjGraph.getNodeCount()).toArray();
+
+		// Every popular source is requested 5 times, only the first request of each searches
+		long requestsStart = System.currentTimeMillis();
+		long checksum = 0;
+		for (int round = 0; round < 5; round++) {
+			for (int sourceNodeId : popularSourceNodeIds) {
+				checksum += cache.get(sourceNodeId).getDistanceTo(targetNodeIds[round]);
+			}
+		}
+		long requestsEnd = System.currentTimeMillis();
+
+		// Distance lookups don't walk the paths anymore
+		OneToAllResult result = cache.get(popularSourceNodeIds[0]);
+		long lookupStart = System.nanoTime();
+		for (int targetNodeId : targetNodeIds) {
+			checksum += result.getDistanceTo(targetNodeId);
+		}
+		long lookupEnd = System.nanoTime();
+		assertTrue(checksum != 0);
+
+		Logging.logTestBenchmark(graphFileType, "20xPopularOneToAllRequestsCached", requestsEnd - requestsStart);
+		Logging.logTestCount(graphFileType, "20xPopularOneToAllRequestsCached", "cache misses", cache.getMissCount());
+		Logging.logTestCount(graphFileType, targetNodeIds.length + "xOneToAllDistanceLookups", "ns", lookupEnd - lookupStart);
+
+		// Compact results take an eighth of the memory, whereas their paths are walked the same way
+		OneToAllResult compactResult = result.compact();
+		long pathsStart = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++) {
+			if (targetNodeIds[i] == popularSourceNodeIds[0]) continue;
+			checksum += result.getPathTo(targetNodeIds[i]).getLength();
+		}
+		long pathsEnd = System.currentTimeMillis();
+		long compactPathsStart = System.currentTimeMillis();
+		for (int i = 0; i < 1000; i++) {
+			if (targetNodeIds[i] == popularSourceNodeIds[0]) continue;
+			checksum -= compactResult.getPathTo(targetNodeIds[i]).getLength();
+		}
+		long compactPathsEnd = System.currentTimeMillis();
+		assertTrue(checksum != 0);
+
+		Logging.logTestCount(graphFileType, "OneToAllResult", "bytes", result.getSizeInBytes());
+		Logging.logTestCount(graphFileType, "CompactOneToAllResult", "bytes", compactResult.getSizeInBytes());
+		Logging.logTestBenchmark(graphFileType, "1000xOneToAllPaths", pathsEnd - pathsStart);
+		Logging.logTestBenchmark(graphFileType, "1000xCompactOneToAllPaths", compactPathsEnd - compactPathsStart);
+	}
+}
@@ -0,0 +1,65 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import server.OneToAllSessions;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks the lookup, idle timeout & eviction of the one to all sessions of the server.
+ */
+public class OneToAllSessionsTest {
+
+	@Test
+	public void sessionsKeepTheirSourceTest () {
+		OneToAllSessions sessions = new OneToAllSessions(2, Duration.ofHours(1));
+		String first = sessions.open(7);
+		String second = sessions.open(7);
+		assertNotEquals(first, second);
+		assertEquals(7, sessions.sourceNodeIdOf(first));
+
+		// The second session is the least recently used one now
+		String third = sessions.open(9);
+		assertEquals(2, sessions.size());
+		assertEquals(-1, sessions.sourceNodeIdOf(second));
+		assertEquals(7, sessions.sourceNodeIdOf(first));
+		assertEquals(9, sessions.sourceNodeIdOf(third));
+		assertEquals(-1, sessions.sourceNodeIdOf("unknown"));
+		assertEquals(-1, sessions.sourceNodeIdOf(""));
+
+		// A closed session is unknown, e.g. after its result was evicted
+		sessions.close(first);
+		sessions.close(first);
+		assertEquals(-1, sessions.sourceNodeIdOf(first));
+		assertEquals(1, sessions.size());
+
+		assertThrows(IllegalArgumentException.class, () -> new OneToAllSessions(0, Duration.ofHours(1)));
+		assertThrows(IllegalArgumentException.class, () -> new OneToAllSessions(1, Duration.ZERO));
+	}
+
+	@Test
+	public void idleTimeoutTest () {
+		AtomicLong nanoClock = new AtomicLong();
+		OneToAllSessions sessions = new OneToAllSessions(10, Duration.ofMillis(100), nanoClock::get);
+		String idle = sessions.open(1);
+		String active = sessions.open(2);
+		for (int i = 0; i < 4; i++) {
+			nanoClock.addAndGet(Duration.ofMillis(40).toNanos());
+			assertEquals(2, sessions.sourceNodeIdOf(active));  // Restarts its timeout
+		}
+
+		assertEquals(-1, sessions.sourceNodeIdOf(idle));
+		assertEquals(1, sessions.size());
+
+		// Expires exactly after the timeout
+		nanoClock.addAndGet(Duration.ofMillis(100).toNanos() - 1);
+		assertEquals(1, sessions.size());
+		nanoClock.incrementAndGet();
+		assertEquals(0, sessions.size());
+	}
+}
@@ -0,0 +1,170 @@
+package test;
+
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.OneToOneCache;
+import dijkstra.OneToOnePath;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the eviction, expiry & invalidation of the one to one path cache.
+ */
+public class OneToOneCacheTest {
+
+	@Test
+	public void leastRecentlyUsedEvictionTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 24);
+		OneToOnePath path = BidirectionalDijkstra.dijkstra(adjGraph, 0, 99);
+		OneToOnePath otherPath = new OneToOnePath(adjGraph, path.getPath());
+
+		// A budget of exactly three entries of the same path size
+		OneToOneCache probeCache = new OneToOneCache(1L << 20, Duration.ofHours(1));
+		probeCache.put(adjGraph, 0, 99, otherPath);
+		long entrySize = probeCache.getSizeInBytes();
+		OneToOneCache cache = new OneToOneCache(3 * entrySize, Duration.ofHours(1));
+
+		assertNull(cache.get(adjGraph, 0, 99));
+		cache.put(adjGraph, 0, 99, path);
+		cache.put(adjGraph, 1, 99, otherPath);
+		cache.put(adjGraph, 2, 99, otherPath);
+		assertSame(path, cache.get(adjGraph, 0, 99));  // (1, 99) is the least recently used pair now
+		cache.put(adjGraph, 3, 99, otherPath);
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get(adjGraph, 1, 99));
+		assertSame(path, cache.get(adjGraph, 0, 99));
+		assertNull(cache.get(adjGraph, 99, 0));  // Pairs are directed
+		assertEquals(2, cache.getHitCount());
+		assertEquals(3, cache.getMissCount());
+		assertEquals(1, cache.getEvictionCount());
+		assertTrue(cache.getSizeInBytes() <= 3 * entrySize);
+	}
+
+	@Test
+	public void memoryBudgetTest () {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(40, 40, 27);
+		OneToOnePath longPath = BidirectionalDijkstra.dijkstra(adjGraph, 0, 1599);
+		OneToOnePath shortPath = BidirectionalDijkstra.dijkstra(adjGraph, 0, 1);
+		long budget = 3 * longPath.getPath().getSizeInBytes();
+		OneToOneCache cache = new OneToOneCache(budget, Duration.ofHours(1));
+
+		// Long paths take many times the budget of short ones, so fewer of them are kept
+		for (int sourceNodeId = 0; sourceNodeId < 10; sourceNodeId++) {
+			cache.put(adjGraph, sourceNodeId, 1599, longPath);
+			assertTrue(cache.getSizeInBytes() <= budget);
+		}
+		assertTrue(cache.size() < 3);
+		for (int sourceNodeId = 0; sourceNodeId < 10; sourceNodeId++) {
+			cache.put(adjGraph, sourceNodeId, 1, shortPath);
+		}
+		for (int sourceNodeId = 0; sourceNodeId < 10; sourceNodeId++) {
+			assertSame(shortPath, cache.get(adjGraph, sourceNodeId, 1));
+		}
+		assertTrue(cache.getSizeInBytes() <= budget);
+
+		// A path exceeding the budget alone isn't cached
+		OneToOneCache smallCache = new OneToOneCache(longPath.getPath().getSizeInBytes() / 2, Duration.ofHours(1));
+		smallCache.put(adjGraph, 0, 1599, longPath);
+		assertNull(smallCache.get(adjGraph, 0, 1599));
+		assertEquals(0, smallCache.getSizeInBytes());
+	}
+
+	@Test
+	public void expiryAndInvalidationTest () throws InterruptedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 25);
+		OneToOneCache cache = new OneToOneCache(1L << 20, Duration.ofMillis(20));
+		cache.put(adjGraph, 0, 99, BidirectionalDijkstra.dijkstra(adjGraph, 0, 99));
+		Thread.sleep(40);
+		assertNull(cache.get(adjGraph, 0, 99));
+		assertEquals(0, cache.size());
+
+		// A reloaded graph is another instance, which empties the cache
+		AdjacencyGraph reloadedGraph = TestGraphs.createGridGraph(10, 10, 25);
+		cache = new OneToOneCache(1L << 20, Duration.ofHours(1));
+		cache.put(adjGraph, 0, 99, BidirectionalDijkstra.dijkstra(adjGraph, 0, 99));
+		assertNull(cache.get(reloadedGraph, 0, 99));
+		assertEquals(0, cache.size());
+
+		assertThrows(IllegalArgumentException.class, () -> new OneToOneCache(0, Duration.ofHours(1)));
+		assertThrows(IllegalArgumentException.class, () -> new OneToOneCache(1, Duration.ZERO));
+	}
+
+	@Test
+	public void concurrentRequestsTest () throws Exception {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(20, 20, 26);
+		OneToOneCache cache = new OneToOneCache(16L << 20, Duration.ofHours(1));
+		ExecutorService workers = Executors.newFixedThreadPool(4);
+		try {
+			Future<?>[] futures = new Future<?>[4];
+			for (int worker = 0; worker < futures.length; worker++) {
+				Random random = new Random(worker);
+				futures[worker] = workers.submit(() -> {
+					for (int i = 0; i < 500; i++) {
+						int sourceNodeId = random.nextInt(20);
+						int targetNodeId = 399 - random.nextInt(20);
+						OneToOnePath path = cache.get(adjGraph, sourceNodeId, targetNodeId);
+						if (path == null) {
+							path = BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId);
+							cache.put(adjGraph, sourceNodeId, targetNodeId, path);
+						}
+						assertEquals(BidirectionalDijkstra.distance(adjGraph, sourceNodeId, targetNodeId), path.getLength());
+					}
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			workers.shutdown();
+		}
+
+		assertEquals(2000, cache.getHitCount() + cache.getMissCount());
+		assertTrue(cache.size() <= 400);
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void oneToOneCacheBenchmark () {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		OneToOneCache cache = new OneToOneCache(64L << 20, Duration.ofHours(1));
+
+		// 500 requests of 25 popular pairs, as from a few stations to a few depots
+		Random random = new Random(73);
+		int[] pairs = random.ints(50, 0, adjGraph.getNodeCount()).toArray();
+		int[] requests = random.ints(500, 0, 25).toArray();
+
+		long uncachedStart = System.currentTimeMillis();
+		for (int pair : requests) {
+			BidirectionalDijkstra.dijkstra(adjGraph, pairs[2 * pair], pairs[2 * pair + 1]);
+		}
+		long uncachedEnd = System.currentTimeMillis();
+
+		long cachedStart = System.currentTimeMillis();
+		for (int pair : requests) {
+			if (cache.get(adjGraph, pairs[2 * pair], pairs[2 * pair + 1]) == null) {
+				cache.put(adjGraph, pairs[2 * pair], pairs[2 * pair + 1], BidirectionalDijkstra.dijkstra(adjGraph, pairs[2 * pair], pairs[2 * pair + 1]));
+			}
+		}
+		long cachedEnd = System.currentTimeMillis();
+
+		Logging.logTestBenchmark(graphFileType, "500xPopularOneToOneUncached", uncachedEnd - uncachedStart);
+		Logging.logTestBenchmark(graphFileType, "500xPopularOneToOneCached", cachedEnd - cachedStart);
+		Logging.logTestCount(graphFileType, "500xPopularOneToOneCached", "cache hits", cache.getHitCount());
+	}
+}
@@ -0,0 +1,68 @@
+package test;
+
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.QueueType;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import struct.AdjacencyGraph;
+
+import javax.naming.OperationNotSupportedException;
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compares the dijkstra results & run times of all {@code QueueType}s.
+ */
+public class PriorityQueueTest {
+
+	static final int ONE_TO_ONE_QUERIES = 100;
+
+	@Test
+	public void queueTypesAgreeTest () throws OperationNotSupportedException {
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(60, 40, 6);
+		Random random = new Random(6);
+
+		for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			if (sourceNodeId == targetNodeId) continue;
+
+			int expectedLength = DijkstraAlgorithm.dijkstra(adjGraph, QueueType.BINARY_HEAP, sourceNodeId, targetNodeId).getLength();
+			for (QueueType queueType : QueueType.values()) {
+				assertEquals(expectedLength, DijkstraAlgorithm.dijkstra(adjGraph, queueType, sourceNodeId, targetNodeId).getLength(),
+						queueType + " differs for " + sourceNodeId + " -> " + targetNodeId);
+			}
+		}
+	}
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "queueTypeBenchmark{0}")
+	@EnumSource(value = GraphFileType.class, names = {"STUTTGART", "BW", "GERMANY"})
+	public void queueTypeBenchmark (GraphFileType graphFileType) {
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+
+		for (QueueType queueType : QueueType.values()) {
+			Random random = new Random(73);
+
+			long oneToOneStart = System.currentTimeMillis();
+			for (int i = 0; i < ONE_TO_ONE_QUERIES; i++) {
+				int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+				int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+				if (sourceNodeId != targetNodeId) DijkstraAlgorithm.dijkstra(adjGraph, queueType, sourceNodeId, targetNodeId);
+			}
+			long oneToOneEnd = System.currentTimeMillis();
+
+			long oneToAllStart = System.currentTimeMillis();
+			DijkstraAlgorithm.dijkstra(adjGraph, queueType, 42);
+			long oneToAllEnd = System.currentTimeMillis();
+
+			Logging.logTestBenchmark(graphFileType, ONE_TO_ONE_QUERIES + "xOneToOneWith" + queueType, oneToOneEnd - oneToOneStart);
+			Logging.logTestBenchmark(graphFileType, "oneToAllWith" + queueType, oneToAllEnd - oneToAllStart);
+		}
+	}
+}
@@ -0,0 +1,115 @@
+package test;
+
+import dijkstra.AltAlgorithm;
+import dijkstra.BidirectionalDijkstra;
+import dijkstra.DijkstraAlgorithm;
+import dijkstra.DijkstraResult;
+import dijkstra.Landmarks;
+import dijkstra.OneToAllResult;
+import dijkstra.SearchStatistics;
+import loader.MappedGraphReader;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Checks the search space counters, which are only counted with {@code -DsearchStatistics=true}.
+ */
+public class SearchStatisticsTest {
+
+	@Test
+	public void oneToAllStatisticsTest () {
+		assumeTrue(SearchStatistics.ENABLED);
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(10, 10, 27);
+		OneToAllResult result = (OneToAllResult) DijkstraAlgorithm.dijkstra(adjGraph, 0);
+		SearchStatistics statistics = result.getStatistics().orElseThrow();
+
+		// Every node is reachable, so every node is pushed & settled once and every edge is relaxed once
+		assertEquals(adjGraph.getNodeCount(), statistics.settledNodes());
+		assertEquals(result.getSettledNodeCount(), statistics.settledNodes());
+		assertEquals(adjGraph.getNodeCount(), statistics.queuePushes());
+		assertEquals(adjGraph.getEdgeCount(), statistics.relaxedEdges());
+		assertTrue(1 <= statistics.peakQueueSize() && statistics.peakQueueSize() < adjGraph.getNodeCount());
+		assertTrue(0 < statistics.elapsedNanos());
+	}
+
+	@Test
+	public void oneToOneStatisticsTest () {
+		assumeTrue(SearchStatistics.ENABLED);
+		AdjacencyGraph adjGraph = TestGraphs.createGridGraph(20, 20, 28);
+		Landmarks landmarks = Landmarks.compute(adjGraph, 4, Landmarks.Selection.FARTHEST);
+
+		DijkstraResult[] results = {
+				DijkstraAlgorithm.dijkstra(adjGraph, 0, 399),
+				BidirectionalDijkstra.dijkstra(adjGraph, 0, 399),
+				AltAlgorithm.dijkstra(adjGraph, landmarks, 0, 399)
+		};
+		for (DijkstraResult result : results) {
+			SearchStatistics statistics = result.getStatistics().orElseThrow();
+
+			assertEquals(result.getSettledNodeCount(), statistics.settledNodes());
+			assertTrue(statistics.settledNodes() <= statistics.queuePushes());
+			// Every push but the ones of the source & target node follows a relaxed edge
+			assertTrue(statistics.queuePushes() + statistics.decreaseKeys() <= statistics.relaxedEdges() + 2);
+			assertTrue(1 <= statistics.peakQueueSize());
+		}
+
+		// The one to one search stops early & the bidirectional one settles less than the unidirectional one
+		SearchStatistics unidirectional = results[0].getStatistics().orElseThrow();
+		assertTrue(unidirectional.settledNodes() <= adjGraph.getNodeCount());
+		assertTrue(results[1].getStatistics().orElseThrow().settledNodes() < unidirectional.settledNodes());
+	}
+
+	@Test
+	public void aggregateTest () {
+		SearchStatistics.Aggregate aggregate = new SearchStatistics.Aggregate();
+		aggregate.add(new SearchStatistics(10, 30, 12, 2, 5, 1000));
+		aggregate.add(new SearchStatistics(20, 50, 25, 3, 8, 500));
+
+		assertEquals(2, aggregate.getQueryCount());
+		assertEquals(30, aggregate.getSettledNodes());
+		assertEquals(80, aggregate.getRelaxedEdges());
+		assertEquals(37, aggregate.getQueuePushes());
+		assertEquals(5, aggregate.getDecreaseKeys());
+		assertEquals(1500, aggregate.getElapsedNanos());
+		assertEquals(8, aggregate.getMaxPeakQueueSize());
+		assertEquals(1000, aggregate.getMaxElapsedNanos());
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void searchStatisticsBenchmark () {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(new File(graphFileType.fileName));
+		SearchStatistics.Aggregate aggregate = new SearchStatistics.Aggregate();
+
+		// Run once with & once without -DsearchStatistics=true to compare the cost of counting
+		Random random = new Random(74);
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 200; i++) {
+			int sourceNodeId = random.nextInt(adjGraph.getNodeCount());
+			int targetNodeId = random.nextInt(adjGraph.getNodeCount());
+			try {
+				BidirectionalDijkstra.dijkstra(adjGraph, sourceNodeId, targetNodeId).getStatistics().ifPresent(aggregate::add);
+			} catch (IllegalArgumentException e) {
+				// Equal or unreachable nodes
+			}
+		}
+		long end = System.currentTimeMillis();
+
+		String testName = "200xBidirectionalOneToOne" + (SearchStatistics.ENABLED ? "Counted" : "Uncounted");
+		Logging.logTestBenchmark(graphFileType, testName, end - start);
+		if (SearchStatistics.ENABLED) {
+			Logging.logTestCount(graphFileType, testName, "settled nodes", aggregate.getSettledNodes());
+			Logging.logTestCount(graphFileType, testName, "relaxed edges", aggregate.getRelaxedEdges());
+			Logging.logTestCount(graphFileType, testName, "max peak queue size", aggregate.getMaxPeakQueueSize());
+		}
+	}
+}
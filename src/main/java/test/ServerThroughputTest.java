@@ -0,0 +1,107 @@
+package test;
+
+import loader.MappedGraphReader;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import server.DijkstraServer;
+import server.ExecutionModel;
+import struct.AdjacencyGraph;
+
+import java.io.File;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures the throughput of the server under concurrent clients & the latency of the status request during a slow
+ * one to all request per execution model.
+ */
+public class ServerThroughputTest {
+
+	static final int CLIENT_COUNT = 8;
+	static final int REQUESTS_PER_CLIENT = 25;
+	static final URI SERVER_URI = URI.create("http://localhost:8080/");
+
+	@Tag("execution.Benchmark")
+	@ParameterizedTest(name = "serverThroughputBenchmark{0}")
+	@EnumSource(ExecutionModel.class)
+	public void serverThroughputBenchmark (ExecutionModel executionModel) throws Exception {
+		GraphFileType graphFileType = GraphFileType.STUTTGART;
+		File graphFile = new File(graphFileType.fileName);
+		AdjacencyGraph adjGraph = MappedGraphReader.createAdjacencyGraphOf(graphFile);
+		HttpClient httpClient = HttpClient.newHttpClient();
+
+		DijkstraServer dijkstraServer = new DijkstraServer(graphFile, null, executionModel);
+		dijkstraServer.start();
+		ExecutorService clients = Executors.newFixedThreadPool(CLIENT_COUNT);
+		try {
+			HttpRequest statusRequest = HttpRequest.newBuilder(SERVER_URI.resolve("/ServerStatus")).GET().build();
+			while (httpClient.send(statusRequest, HttpResponse.BodyHandlers.discarding()).statusCode() != HttpURLConnection.HTTP_ACCEPTED) {
+				Thread.sleep(100);
+			}
+
+			// Status latency while a one to all search runs, which blocks everything on the dispatcher thread
+			Random random = new Random(76);
+			CompletableFuture<HttpResponse<Void>> oneToAllResponse = httpClient.sendAsync(
+					ServerThroughputTest.requestOf("OneToAll", adjGraph, random.nextInt(adjGraph.getNodeCount()), -1),
+					HttpResponse.BodyHandlers.discarding());
+			Thread.sleep(20);
+			long statusStart = System.currentTimeMillis();
+			httpClient.send(statusRequest, HttpResponse.BodyHandlers.discarding());
+			long statusEnd = System.currentTimeMillis();
+			oneToAllResponse.get();
+
+			Future<?>[] futures = new Future<?>[CLIENT_COUNT];
+			long throughputStart = System.currentTimeMillis();
+			for (int client = 0; client < CLIENT_COUNT; client++) {
+				Random clientRandom = new Random(client);
+				futures[client] = clients.submit(() -> {
+					for (int i = 0; i < REQUESTS_PER_CLIENT; i++) {
+						HttpRequest distanceRequest = ServerThroughputTest.requestOf("Distance", adjGraph,
+								clientRandom.nextInt(adjGraph.getNodeCount()), clientRandom.nextInt(adjGraph.getNodeCount()));
+						assertEquals(HttpURLConnection.HTTP_ACCEPTED, httpClient.send(distanceRequest, HttpResponse.BodyHandlers.discarding()).statusCode());
+					}
+					return null;
+				});
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			long throughputEnd = System.currentTimeMillis();
+
+			String testName = CLIENT_COUNT + "x" + REQUESTS_PER_CLIENT + "ServerDistanceRequests" + executionModel;
+			Logging.logTestBenchmark(graphFileType, testName, throughputEnd - throughputStart);
+			Logging.logTestCount(graphFileType, testName, "requests per second",
+					1000L * CLIENT_COUNT * REQUESTS_PER_CLIENT / Math.max(1, throughputEnd - throughputStart));
+			Logging.logTestBenchmark(graphFileType, "ServerStatusDuringOneToAll" + executionModel, statusEnd - statusStart);
+		} finally {
+			clients.shutdown();
+			dijkstraServer.stop();
+		}
+	}
+
+	/**
+	 * @param targetNodeId The target node or -1 for a request with the source node only
+	 */
+	static HttpRequest requestOf (final String mode, final AdjacencyGraph adjGraph, final int sourceNodeId,
+	                                      final int targetNodeId) {
+		JSONObject requestJSON = new JSONObject();
+		requestJSON.put("mode", mode);
+		requestJSON.put("start", new JSONObject().put("long", adjGraph.getLongitudeOf(sourceNodeId)).put("lat", adjGraph.getLatitudeOf(sourceNodeId)));
+		if (targetNodeId != -1) {
+			requestJSON.put("target", new JSONObject().put("long", adjGraph.getLongitudeOf(targetNodeId)).put("lat", adjGraph.getLatitudeOf(targetNodeId)));
+		}
+		return HttpRequest.newBuilder(SERVER_URI).PUT(HttpRequest.BodyPublishers.ofString(requestJSON.toString())).build();
+	}
+}
@@ -0,0 +1,203 @@
+package test;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import server.StaticAssets;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Requests website files of a temporary directory from an http server answering them by the {@link StaticAssets}.
+ */
+public class StaticAssetsTest {
+
+	private static final String WEBSITE = "<!DOCTYPE html><html><body>" + "<p>Shortest paths</p>".repeat(100) + "</body></html>";
+
+	@Test
+	public void headersAndRevalidationTest (@TempDir Path tempDir) throws Exception {
+		Path websiteDirectory = StaticAssetsTest.createWebsiteDirectory(tempDir);
+		HttpClient httpClient = HttpClient.newHttpClient();
+		HttpServer httpServer = StaticAssetsTest.startServerOf(new StaticAssets(websiteDirectory)::serve);
+		try {
+			URI rootURI = URI.create("http://localhost:" + httpServer.getAddress().getPort() + "/");
+
+			HttpResponse<byte[]> response = httpClient.send(HttpRequest.newBuilder(rootURI).build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(HttpURLConnection.HTTP_OK, response.statusCode());
+			assertEquals(WEBSITE, new String(response.body(), StandardCharsets.UTF_8));
+			assertEquals(String.valueOf(WEBSITE.length()), response.headers().firstValue("Content-Length").orElseThrow());
+			assertEquals("text/html; charset=utf-8", response.headers().firstValue("Content-Type").orElseThrow());
+			assertEquals("no-cache", response.headers().firstValue("Cache-Control").orElseThrow());
+			assertFalse(response.headers().firstValue("Content-Encoding").isPresent());
+			String eTag = response.headers().firstValue("ETag").orElseThrow();
+
+			HttpResponse<byte[]> revalidation = httpClient.send(HttpRequest.newBuilder(rootURI.resolve("/website.html"))
+					.header("If-None-Match", eTag).build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(HttpURLConnection.HTTP_NOT_MODIFIED, revalidation.statusCode());
+			assertEquals(0, revalidation.body().length);
+
+			HttpResponse<byte[]> gzipResponse = httpClient.send(HttpRequest.newBuilder(rootURI)
+					.header("Accept-Encoding", "br, gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(HttpURLConnection.HTTP_OK, gzipResponse.statusCode());
+			assertEquals("gzip", gzipResponse.headers().firstValue("Content-Encoding").orElseThrow());
+			assertTrue(gzipResponse.body().length < WEBSITE.length());
+			try (GZIPInputStream gzipStream = new GZIPInputStream(new ByteArrayInputStream(gzipResponse.body()))) {
+				assertEquals(WEBSITE, new String(gzipStream.readAllBytes(), StandardCharsets.UTF_8));
+			}
+			assertFalse(eTag.equals(gzipResponse.headers().firstValue("ETag").orElseThrow()));
+
+			// Incompressible files are sent as they are
+			HttpResponse<byte[]> iconResponse = httpClient.send(HttpRequest.newBuilder(rootURI.resolve("/icons/marker.png"))
+					.header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofByteArray());
+			assertEquals(HttpURLConnection.HTTP_OK, iconResponse.statusCode());
+			assertEquals("image/png", iconResponse.headers().firstValue("Content-Type").orElseThrow());
+			assertFalse(iconResponse.headers().firstValue("Content-Encoding").isPresent());
+			assertArrayEquals(Files.readAllBytes(websiteDirectory.resolve("icons/marker.png")), iconResponse.body());
+		} finally {
+			httpServer.stop(0);
+		}
+	}
+
+	@Test
+	public void pathTraversalRejectedTest (@TempDir Path tempDir) throws Exception {
+		Path websiteDirectory = StaticAssetsTest.createWebsiteDirectory(tempDir);
+		Files.writeString(tempDir.resolve("secret.txt"), "secret");
+		HttpClient httpClient = HttpClient.newHttpClient();
+		HttpServer httpServer = StaticAssetsTest.startServerOf(new StaticAssets(websiteDirectory)::serve);
+		try {
+			String serverURI = "http://localhost:" + httpServer.getAddress().getPort();
+
+			for (String path : new String[]{"/../secret.txt", "/icons/../../secret.txt", "/%2e%2e/secret.txt", "/..%2Fsecret.txt"}) {
+				HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(serverURI + path)).build(),
+						HttpResponse.BodyHandlers.ofString());
+				assertEquals(HttpURLConnection.HTTP_BAD_REQUEST, response.statusCode(), path);
+			}
+			HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(serverURI + "/secret.txt")).build(),
+					HttpResponse.BodyHandlers.ofString());
+			assertEquals(HttpURLConnection.HTTP_NOT_FOUND, response.statusCode());
+		} finally {
+			httpServer.stop(0);
+		}
+	}
+
+	@Test
+	public void reloadOnChangeTest (@TempDir Path tempDir) throws Exception {
+		Path websiteDirectory = StaticAssetsTest.createWebsiteDirectory(tempDir);
+		StaticAssets staticAssets = new StaticAssets(websiteDirectory);
+		assertEquals(3, staticAssets.size());
+		HttpClient httpClient = HttpClient.newHttpClient();
+		HttpServer httpServer = StaticAssetsTest.startServerOf(staticAssets::serve);
+		try {
+			staticAssets.startWatching();
+			URI scriptURI = URI.create("http://localhost:" + httpServer.getAddress().getPort() + "/map-setup.js");
+			assertEquals(HttpURLConnection.HTTP_NOT_FOUND, httpClient.send(HttpRequest.newBuilder(scriptURI).build(),
+					HttpResponse.BodyHandlers.discarding()).statusCode());
+
+			Files.writeString(websiteDirectory.resolve("map-setup.js"), "let map;");
+			HttpResponse<String> response = null;
+			for (int attempt = 0; attempt < 100 && (response == null || !"let map;".equals(response.body())); attempt++) {
+				Thread.sleep(50);
+				response = httpClient.send(HttpRequest.newBuilder(scriptURI).build(), HttpResponse.BodyHandlers.ofString());
+			}
+			assertEquals(HttpURLConnection.HTTP_OK, response.statusCode());
+			assertEquals("let map;", response.body());
+			assertEquals(4, staticAssets.size());
+		} finally {
+			staticAssets.stopWatching();
+			httpServer.stop(0);
+		}
+	}
+
+	/**
+	 * @return The website directory of a website, a style sheet & an icon, which doesn't compress
+	 */
+	private static Path createWebsiteDirectory (final Path tempDir) throws IOException {
+		Path websiteDirectory = Files.createDirectories(tempDir.resolve("website"));
+		Files.writeString(websiteDirectory.resolve("website.html"), WEBSITE);
+		Files.writeString(websiteDirectory.resolve("style.css"), "body { margin: 0; }");
+		Files.createDirectories(websiteDirectory.resolve("icons"));
+		byte[] icon = new byte[256];
+		new Random(24).nextBytes(icon);
+		Files.write(websiteDirectory.resolve("icons/marker.png"), icon);
+		return websiteDirectory;
+	}
+
+	private static HttpServer startServerOf (final HttpHandler handler) throws IOException {
+		HttpServer httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		httpServer.createContext("/", handler);
+		httpServer.start();
+		return httpServer;
+	}
+
+	@Tag("execution.Benchmark")
+	@Test
+	public void staticAssetsBenchmark () throws Exception {
+		Path websiteDirectory = Path.of(System.getProperty("user.dir"), "website");
+		int requestCount = 500;
+		HttpClient httpClient = HttpClient.newHttpClient();
+
+		// The former handler reading the file on every request & sending it without length
+		HttpHandler fileHandler = exchange -> {
+			try (FileInputStream websiteStream = new FileInputStream(websiteDirectory.resolve("website.html").toFile());
+			     OutputStream responseBody = exchange.getResponseBody()) {
+				exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, 0);
+				responseBody.write(websiteStream.readAllBytes());
+			}
+		};
+		StaticAssets staticAssets = new StaticAssets(websiteDirectory);
+
+		long fileDuration = StaticAssetsTest.durationOf(httpClient, fileHandler, requestCount, null, null);
+		long memoryDuration = StaticAssetsTest.durationOf(httpClient, staticAssets::serve, requestCount, null, null);
+		long gzipDuration = StaticAssetsTest.durationOf(httpClient, staticAssets::serve, requestCount, "gzip", null);
+		long revalidationDuration = StaticAssetsTest.durationOf(httpClient, staticAssets::serve, requestCount, "gzip", "*");
+
+		String testName = requestCount + "xWebsiteRequests";
+		Logging.logTestBenchmark(GraphFileType.STUTTGART, testName + "ReadFromFile", fileDuration);
+		Logging.logTestBenchmark(GraphFileType.STUTTGART, testName + "FromMemory", memoryDuration);
+		Logging.logTestBenchmark(GraphFileType.STUTTGART, testName + "FromMemoryGzip", gzipDuration);
+		Logging.logTestBenchmark(GraphFileType.STUTTGART, testName + "NotModified", revalidationDuration);
+	}
+
+	/**
+	 * @return The milliseconds of sending the requests of website.html one after another
+	 */
+	private static long durationOf (final HttpClient httpClient, final HttpHandler handler, final int requestCount,
+	                                final String acceptEncoding, final String ifNoneMatch) throws Exception {
+		HttpServer httpServer = StaticAssetsTest.startServerOf(handler);
+		try {
+			HttpRequest.Builder requestBuilder = HttpRequest.newBuilder(URI.create("http://localhost:" + httpServer.getAddress().getPort() + "/website.html"));
+			if (acceptEncoding != null) requestBuilder.header("Accept-Encoding", acceptEncoding);
+			if (ifNoneMatch != null) requestBuilder.header("If-None-Match", ifNoneMatch);
+			HttpRequest request = requestBuilder.build();
+
+			long start = System.currentTimeMillis();
+			for (int i = 0; i < requestCount; i++) {
+				httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+			}
+			return System.currentTimeMillis() - start;
+		} finally {
+			httpServer.stop(0);
+		}
+	}
+}
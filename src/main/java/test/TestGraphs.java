@@ -0,0 +1,66 @@
+package test;
+
+import struct.AdjacencyGraph;
+
+import java.util.Random;
+
+/**
+ * Creates small in-memory graphs for tests, which don't depend on FMI graph files being present.
+ */
+public class TestGraphs {
+
+	/**
+	 * Creates a grid of width x height nodes around Stuttgart. Neighbouring nodes are connected in both directions with
+	 * slightly different random distances, so the graph is strongly connected & shortest paths are mostly unique.
+	 *
+	 * @param width  Count of nodes per row
+	 * @param height Count of rows
+	 * @param seed   Seed of the random distances & coordinates
+	 * @return The finished graph
+	 */
+	static AdjacencyGraph createGridGraph (final int width, final int height, final long seed) {
+		Random random = new Random(seed);
+		int nodeCount = width * height;
+		int edgeCount = 2 * ((width - 1) * height + width * (height - 1));
+
+		AdjacencyGraph adjGraph = new AdjacencyGraph(nodeCount, edgeCount);
+		for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			double longitude = 9.0 + (nodeId % width) * 0.001 + random.nextDouble() * 0.0005;
+			double latitude = 48.7 + (nodeId / width) * 0.001 + random.nextDouble() * 0.0005;
+			adjGraph.addNode(nodeId, longitude, latitude);
+		}
+
+		int edgeId = 0;
+		for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
+			if (nodeId % width + 1 < width) {
+				adjGraph.addEdge(edgeId++, nodeId, nodeId + 1, 50 + random.nextInt(100));
+				adjGraph.addEdge(edgeId++, nodeId + 1, nodeId, 50 + random.nextInt(100));
+			}
+			if (nodeId + width < nodeCount) {
+				adjGraph.addEdge(edgeId++, nodeId, nodeId + width, 50 + random.nextInt(100));
+				adjGraph.addEdge(edgeId++, nodeId + width, nodeId, 50 + random.nextInt(100));
+			}
+		}
+		adjGraph.finishEdges();
+
+		return adjGraph;
+	}
+
+	/**
+	 * Creates a path of three nodes connected in one direction only: 0 -> 1 of distance 5 & 1 -> 2 of distance 7, so
+	 * node 0 is unreachable from the others.
+	 *
+	 * @return The finished graph
+	 */
+	static AdjacencyGraph createOneWayPath () {
+		AdjacencyGraph adjGraph = new AdjacencyGraph(3, 2);
+		for (int nodeId = 0; nodeId < 3; nodeId++) {
+			adjGraph.addNode(nodeId, 9.0 + nodeId * 0.001, 48.7);
+		}
+		adjGraph.addEdge(0, 0, 1, 5);
+		adjGraph.addEdge(1, 1, 2, 7);
+		adjGraph.finishEdges();
+
+		return adjGraph;
+	}
+}